@@ -0,0 +1,28 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Calculation accuracy
+
+ In full-accuracy mode every term of the IAU 2000B nutation series held
+ by Reduction is evaluated. In reduced-accuracy mode terms below 10 mas are
+ skipped, which is good to about 0.05 arcsec and several times faster.
+ 
+
+
+*/
+public enum Accuracy{
+    FULL,
+    REDUCED;
+
+    /*
+ Returns the accuracy for a NOVAS accuracy value, 0 full and 1 reduced
+     */
+    public static Accuracy fromValue(int value){
+        Accuracy[] accuracies = values();
+        if (value < 0 || value >= accuracies.length) {
+            throw new IllegalArgumentException("Unknown accuracy " + value);
+        }
+        return accuracies[value];
+    }
+}
@@ -0,0 +1,159 @@
+package ASCOM.Astrometry.AstroUtils;
+
+import ASCOM.Astrometry.EventType;
+import ASCOM.Astrometry.JplEphemeris;
+import ASCOM.Astrometry.TimeScales;
+import java.util.ArrayList;
+
+/**
+ * Class providing a suite of tested astronomy support functions to save
+ * development effort and provide consistent behaviour.
+ *
+ * The event functions are computed by an EventEngine from the JPL
+ * ephemeris set with setEphemeris. For many days or many targets use an
+ * EventEngine directly, which computes the places of the Sun and Moon once
+ * for the whole run. The time functions come from TimeScales.shared().
+ *
+ */
+public class AstroUtils {
+
+    private JplEphemeris Ephemeris;
+    private double LeapSeconds = Double.NaN;
+
+    /**
+     * Function that returns a list of rise and set events of a particular
+     * type that occur on a particular day at a given latitude, longitude and
+     * time zone.
+     *
+     * The returned list holds a Boolean, true if the body is above the
+     * event limit at midnight (the beginning of the 24 hour day), an Integer
+     * number of rise events, an Integer number of set events, then the rise
+     * times and then the set times as Doubles, in hours of the local day.
+     *
+     * @param typeofEvent type of event
+     * @param day day of the month
+     * @param month month, 1 to 12
+     * @param year year
+     * @param siteLatitude latitude (degrees, north positive)
+     * @param siteLongitude longitude (degrees, east positive)
+     * @param siteTimeZone time zone (hours, east positive)
+     * @return the flag, the counts and the times
+     */
+    public ArrayList<Object> EventTimes(EventType typeofEvent, int day, int month, int year, double siteLatitude,
+            double siteLongitude, double siteTimeZone) {
+        double start = julianDate(year, month, day) - siteTimeZone / 24.0;
+        EventTable events = engine(siteLatitude, siteLongitude).events(typeofEvent, start, 1);
+        ArrayList<Object> list = new ArrayList<>();
+        list.add(events.isUp(0));
+        list.add(0);
+        list.add(0);
+        int rises = 0;
+        int sets = 0;
+        for (int i = events.getFirst(0); i < events.getFirst(1); i++) {
+            double hours = (events.getTime(i) - start) * 24.0;
+            if (events.getKind(i) == EventTable.RISE) {
+                list.add(3 + rises++, hours);
+            } else if (events.getKind(i) == EventTable.SET) {
+                list.add(3 + rises + sets++, hours);
+            }
+        }
+        list.set(1, rises);
+        list.set(2, sets);
+        return list;
+    }
+
+    /**
+     * Returns the altitude of the body given the input parameters.
+     *
+     * @param typeofEvent type of event, selecting the body
+     * @param jd Julian date (UT1) of 0h on the day
+     * @param hour hour of the day (UT1)
+     * @param latitude latitude (degrees, north positive)
+     * @param longitude longitude (degrees, east positive)
+     * @return the altitude of the centre of the body above the event limit
+     * of the event type (degrees)
+     */
+    public double BodyAltitude(EventType typeofEvent, double jd, double hour, double latitude, double longitude) {
+        return engine(latitude, longitude).altitude(typeofEvent, jd + hour / 24.0);
+    }
+
+    /**
+     * Gets the current value of Delta T, TT - UT1, from the leap seconds
+     * and UT1 - UTC of TimeScales.shared(), or from the leap seconds set
+     * with setLeapSeconds.
+     *
+     * @return TT - UT1 (seconds)
+     */
+    public double DeltaT() {
+        double jdUTC = System.currentTimeMillis() / 86400000.0 + 2440587.5;
+        if (Double.isNaN(LeapSeconds)) {
+            return TimeScales.shared().getDeltaT(jdUTC);
+        }
+        return TimeScales.TT_MINUS_TAI + LeapSeconds - DeltaUT(jdUTC);
+    }
+
+    /**
+     * Gets UT1 - UTC from TimeScales.shared().
+     *
+     * @param julianDate Julian date (UTC)
+     * @return UT1 - UTC (seconds), 0 outside the table of TimeScales
+     */
+    public double DeltaUT(double julianDate) {
+        return TimeScales.shared().getDeltaUT1(julianDate);
+    }
+
+    /**
+     * Sets the number of leap seconds, TAI - UTC, used by DeltaT in place
+     * of the current value from TimeScales.shared().
+     *
+     */
+    public void setLeapSeconds(int _theValue) {
+        this.LeapSeconds = _theValue;
+    }
+
+    /**
+     * Gets the number of leap seconds, TAI - UTC: the value set with
+     * setLeapSeconds, else the current value from TimeScales.shared().
+     *
+     */
+    public int getLeapSeconds() {
+        if (Double.isNaN(LeapSeconds)) {
+            return (int) TimeScales.shared().getLeapSeconds(System.currentTimeMillis() / 86400000.0 + 2440587.5);
+        }
+        return (int) LeapSeconds;
+    }
+
+    /**
+     * Sets the JPL ephemeris of the Sun, Moon and planets.
+     *
+     */
+    public void setEphemeris(JplEphemeris _theValue) {
+        this.Ephemeris = _theValue;
+    }
+
+    /**
+     * Gets the JPL ephemeris of the Sun, Moon and planets.
+     *
+     */
+    public JplEphemeris getEphemeris() {
+        return Ephemeris;
+    }
+
+    private EventEngine engine(double latitude, double longitude) {
+        if (Ephemeris == null) {
+            throw new IllegalStateException("No ephemeris has been set");
+        }
+        return new EventEngine(Ephemeris, latitude, longitude, 0.0);
+    }
+
+    /**
+     * Gets the Julian date of 0h on a Gregorian calendar date.
+     *
+     */
+    private static double julianDate(long year, long month, long day) {
+        long jd12h = day - 32075L + 1461L * (year + 4800L + (month - 14L) / 12L) / 4L
+                + 367L * (month - 2L - (month - 14L) / 12L * 12L) / 12L
+                - 3L * ((year + 4900L + (month - 14L) / 12L) / 100L) / 4L;
+        return jd12h - 0.5;
+    }
+}
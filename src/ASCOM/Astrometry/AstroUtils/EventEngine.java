@@ -0,0 +1,705 @@
+package ASCOM.Astrometry.AstroUtils;
+
+import ASCOM.Astrometry.Accuracy;
+import ASCOM.Astrometry.Body;
+import ASCOM.Astrometry.CoordSys;
+import ASCOM.Astrometry.EventType;
+import ASCOM.Astrometry.JplEphemeris;
+import ASCOM.Astrometry.Object3;
+import ASCOM.Astrometry.ObjectType;
+import ASCOM.Astrometry.Observer;
+import ASCOM.Astrometry.Reduction;
+import ASCOM.Astrometry.SkyPos;
+import ASCOM.Astrometry.TimeScales;
+import ASCOM.Astrometry.NOVAS.NOVAS31;
+import ASCOM.Astrometry.Transform.BatchTransform;
+import ASCOM.Astrometry.Transform.TransformEpoch;
+import java.util.EnumMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes rise, set and meridian transit times for one site over many
+ * days at once, for the Sun, the Moon, the planets, the twilights and any
+ * number of stars.
+ *
+ * <pre>
+ * EventEngine engine = new EventEngine(ephemeris, 51.48, 0.0, 46.0);
+ * EventTable[] sky = engine.events(new EventType[] {EventType.SUN_RISE_SUNSET,
+ *     EventType.ASTRONOMICAL_TWILIGHT, EventType.MOON_RISE_MOON_SET}, start, 90);
+ * EventTable[] targets = engine.stars(ra, dec, start, 90);
+ * </pre>
+ *
+ * The apparent geocentric place of each body needed is computed by
+ * NOVAS31.Place once an hour over the whole run of days and kept, so the
+ * Sun serves the sunrise and all four twilights and later calls for the
+ * same days reuse it. The altitude is evaluated at each hour and the
+ * events are solved for only within the hours where it crosses the event
+ * altitude, interpolating the hourly places with cubics, to well under a
+ * second. Two crossings less than an hour apart, as when a body grazes the
+ * horizon, are not found.
+ *
+ * The event altitudes are those of Montenbruck and Pfleger: -50' for the
+ * upper limb of the Sun, -34' for the planets and the stars and -6, -12,
+ * -15 and -18 degrees for the twilights. For the Moon it is 0.7275 times
+ * its horizontal parallax less 34', which allows for its parallax,
+ * semi-diameter and refraction.
+ *
+ * A star keeps its apparent place, computed at noon of each day, for the
+ * whole day, so its events are solved exactly from its hour angle.
+ *
+ * Days are spread in chunks over a fork-join pool. Times are UT1 Julian
+ * dates, taking UT1 to be UTC. An EventEngine is not thread safe.
+ *
+ */
+public class EventEngine {
+
+    /**
+     * Default number of days below which a run is not split further.
+     */
+    public static final int DEFAULT_CHUNK = 4;
+
+    /**
+     * Event altitude of the stars and planets (degrees).
+     */
+    public static final double REFRACTION_ALTITUDE = -34.0 / 60.0;
+
+    private static final double DEG = Math.PI / 180.0;
+    private static final double HOUR = Math.PI / 12.0;
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double SIDEREAL_RATE = TWO_PI * 1.00273781191135448;
+    private static final double EARTH_RADIUS_AU = Reduction.EARTH_RADIUS / (Reduction.C_M_PER_S * 86400.0
+            / Reduction.C_AU_PER_DAY);
+    private static final int STEPS = 24;
+    private static final int MARGIN = 2;
+    private static final int SLOTS = 8;
+
+    private final JplEphemeris ephemeris;
+    private final double latitude;
+    private final double longitude;
+    private final double height;
+    private final ForkJoinPool pool;
+    private final int chunk;
+    private final EnumMap<Body, Track> tracks = new EnumMap<>(Body.class);
+    private double deltaT = Double.NaN;
+
+    /**
+     * Creates an engine running on the common fork-join pool.
+     *
+     */
+    public EventEngine(JplEphemeris ephemeris, double latitude, double longitude, double height) {
+        this(ephemeris, latitude, longitude, height, ForkJoinPool.commonPool(), DEFAULT_CHUNK);
+    }
+
+    /**
+     *
+     * @param ephemeris ephemeris of the Sun, Moon and planets
+     * @param latitude geodetic latitude of the site (degrees, north positive)
+     * @param longitude longitude of the site (degrees, east positive)
+     * @param height height of the site above sea level (m)
+     * @param pool pool to run on
+     * @param chunk number of days below which a run is not split further
+     */
+    public EventEngine(JplEphemeris ephemeris, double latitude, double longitude, double height,
+            ForkJoinPool pool, int chunk) {
+        if (ephemeris == null) {
+            throw new IllegalArgumentException("An ephemeris is required");
+        }
+        if (!(latitude >= -90.0 && latitude <= 90.0)) {
+            throw new IllegalArgumentException("Latitude must be from -90 to 90 degrees: " + latitude);
+        }
+        if (!(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new IllegalArgumentException("Longitude must be from -180 to 180 degrees: " + longitude);
+        }
+        if (chunk < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.ephemeris = ephemeris;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.height = height;
+        this.pool = pool;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Sets TT - UT1 (seconds), NaN to take it for each date from
+     * TimeScales.shared(). Places already computed are dropped.
+     *
+     */
+    public void setDeltaT(double _theValue) {
+        if (Double.compare(_theValue, deltaT) != 0) {
+            tracks.clear();
+        }
+        this.deltaT = _theValue;
+    }
+
+    /**
+     * Gets TT - UT1 (seconds), NaN if taken from TimeScales.shared().
+     *
+     */
+    public double getDeltaT() {
+        return deltaT;
+    }
+
+    /**
+     * Gets TT - UT1 for a date, from TimeScales.shared() when the setting is
+     * NaN. The table is indexed by the UT1 date, which is within a second of
+     * UTC.
+     *
+     */
+    private static double deltaT(double setting, double jd) {
+        return Double.isNaN(setting) ? TimeScales.shared().getDeltaT(jd) : setting;
+    }
+
+    /**
+     * Computes the events of one type.
+     *
+     * @param type type of event
+     * @param start start of the first day (UT1 Julian date)
+     * @param days number of days
+     * @return the events
+     */
+    public EventTable events(EventType type, double start, int days) {
+        return events(new EventType[] {type}, start, days)[0];
+    }
+
+    /**
+     * Computes the events of several types, sharing the places of the
+     * bodies between them.
+     *
+     * @param types types of event
+     * @param start start of the first day (UT1 Julian date)
+     * @param days number of days
+     * @return the events of each type, in the order of the types
+     */
+    public EventTable[] events(EventType[] types, double start, int days) {
+        checkDays(days);
+        final Track[] used = new Track[types.length];
+        for (int t = 0; t < types.length; t++) {
+            used[t] = track(body(types[t]), start, days);
+        }
+        final Events[] out = new Events[types.length];
+        for (int t = 0; t < types.length; t++) {
+            out[t] = new Events(days);
+        }
+        final EventType[] kinds = types.clone();
+        final double first = start;
+        run(days, (from, to) -> {
+            for (int t = 0; t < kinds.length; t++) {
+                for (int d = from; d < to; d++) {
+                    solve(kinds[t], used[t], first, d, out[t]);
+                }
+            }
+        });
+        EventTable[] tables = new EventTable[types.length];
+        for (int t = 0; t < types.length; t++) {
+            tables[t] = out[t].table(start);
+        }
+        return tables;
+    }
+
+    /**
+     * Computes the events of stars for the refracted horizon.
+     *
+     * @param ra ICRS right ascensions (hours)
+     * @param dec ICRS declinations (degrees)
+     * @param start start of the first day (UT1 Julian date)
+     * @param days number of days
+     * @return the events of each star
+     */
+    public EventTable[] stars(double[] ra, double[] dec, double start, int days) {
+        return stars(ra, dec, REFRACTION_ALTITUDE, start, days);
+    }
+
+    /**
+     * Computes the events of stars for an event altitude.
+     *
+     * @param ra ICRS right ascensions (hours)
+     * @param dec ICRS declinations (degrees)
+     * @param altitude event altitude (degrees)
+     * @param start start of the first day (UT1 Julian date)
+     * @param days number of days
+     * @return the events of each star
+     */
+    public EventTable[] stars(final double[] ra, final double[] dec, double altitude, final double start,
+            int days) {
+        checkDays(days);
+        if (ra.length != dec.length) {
+            throw new IllegalArgumentException("Right ascension and declination arrays differ in length");
+        }
+        final int count = ra.length;
+        final double sinAltitude = Math.sin(altitude * DEG);
+        final Events[] out = new Events[count];
+        for (int s = 0; s < count; s++) {
+            out[s] = new Events(days);
+        }
+        run(days, (from, to) -> {
+            double[] raOut = new double[count];
+            double[] decOut = new double[count];
+            for (int d = from; d < to; d++) {
+                double jd = start + d;
+                double dt = deltaT(deltaT, jd);
+                double tt = jd + 0.5 + dt / 86400.0;
+                TransformEpoch epoch = new TransformEpoch(tt, jd + 0.5, latitude, longitude, height, 10.0, false);
+                new BatchTransform(epoch, pool, Integer.MAX_VALUE).toApparent(ra, dec, raOut, decOut);
+                double last = Reduction.greenwichApparentSiderealTime(jd, jd + dt / 86400.0) + longitude * DEG;
+                for (int s = 0; s < count; s++) {
+                    star(raOut[s] * HOUR, decOut[s] * DEG, sinAltitude, last, jd, d, out[s]);
+                }
+            }
+        });
+        EventTable[] tables = new EventTable[count];
+        for (int s = 0; s < count; s++) {
+            tables[s] = out[s].table(start);
+        }
+        return tables;
+    }
+
+    /**
+     * Gets the altitude of the body of an event type above its event
+     * altitude, from a full reduction.
+     *
+     * @param type type of event
+     * @param jd date (UT1 Julian date)
+     * @return the altitude of the centre of the body less the event
+     * altitude (degrees)
+     */
+    public double altitude(EventType type, double jd) {
+        Place place = new Place(ephemeris, body(type));
+        double[] node = new double[3];
+        place.compute(jd, deltaT, node);
+        double sinAltitude = sinAltitude(node[0] + longitude * DEG, node[1]);
+        return Math.asin(sinAltitude) / DEG - eventAltitude(type, node[2]) / DEG;
+    }
+
+    private static void checkDays(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("At least one day is required: " + days);
+        }
+    }
+
+    private void run(int days, Work work) {
+        if (days <= chunk) {
+            work.run(0, days);
+        } else {
+            pool.invoke(new Range(work, 0, days));
+        }
+    }
+
+    /**
+     * Gets the hourly places of a body covering a run of days, computing
+     * them unless already kept.
+     *
+     */
+    private Track track(Body body, double start, int days) {
+        Track track = tracks.get(body);
+        if (track != null && track.start == start && track.days >= days) {
+            return track;
+        }
+        final Track t = new Track(start, days);
+        final Body b = body;
+        int nodes = t.hourAngle.length;
+        int size = (int) Math.min(Integer.MAX_VALUE, (long) chunk * STEPS);
+        if (nodes <= size) {
+            t.fill(new Place(ephemeris, b), deltaT, 0, nodes);
+        } else {
+            pool.invoke(new Range((from, to) -> t.fill(new Place(ephemeris, b), deltaT, from, to), 0, nodes, size));
+        }
+        t.unwrap();
+        tracks.put(body, t);
+        return t;
+    }
+
+    /**
+     * Finds the events of one type on one day.
+     *
+     */
+    private void solve(EventType type, Track track, double start, int day, Events out) {
+        double lambda = longitude * DEG;
+        boolean transits = type.ordinal() < EventType.CIVIL_TWILIGHT.ordinal()
+                || type.ordinal() > EventType.ASTRONOMICAL_TWILIGHT.ordinal();
+        int base = day * STEPS + MARGIN;
+        double before = above(type, track, base, 0.0, lambda);
+        out.up[day] = before > 0.0;
+        double hourAngle = wrap(track.hourAngle[base] + lambda);
+        for (int k = 0; k < STEPS; k++) {
+            int i = base + k;
+            double after = above(type, track, i + 1, 0.0, lambda);
+            if ((before > 0.0) != (after > 0.0)) {
+                double u = root(type, track, i, lambda, 0.0, before, after);
+                out.add(day, start + day + (k + u) / STEPS, before > 0.0 ? EventTable.SET : EventTable.RISE);
+            }
+            before = after;
+            double next = wrap(track.hourAngle[i + 1] + lambda);
+            if (transits && hourAngle < 0.0 && next >= 0.0 && next - hourAngle < Math.PI) {
+                double shift = track.hourAngle[i] + lambda - hourAngle;
+                double u = root(null, track, i, lambda, shift, hourAngle, next);
+                out.add(day, start + day + (k + u) / STEPS, EventTable.TRANSIT);
+            }
+            hourAngle = next;
+        }
+        out.sort(day);
+    }
+
+    /**
+     * Solves for the point of an hour where the altitude above the event
+     * altitude or, without a type, the hour angle less a shift, is zero,
+     * by regula falsi with the Illinois modification.
+     *
+     * @return the fraction of the hour
+     */
+    private double root(EventType type, Track track, int i, double lambda, double shift, double fa, double fb) {
+        double a = 0.0;
+        double b = 1.0;
+        int side = 0;
+        for (int n = 0; n < 40 && b - a > 1e-7; n++) {
+            double u = (a * fb - b * fa) / (fb - fa);
+            double f = type == null ? track.interpolateHourAngle(i, u) + lambda - shift
+                    : above(type, track, i, u, lambda);
+            if ((f > 0.0) == (fb > 0.0)) {
+                b = u;
+                fb = f;
+                if (side == -1) {
+                    fa /= 2.0;
+                }
+                side = -1;
+            } else {
+                a = u;
+                fa = f;
+                if (side == 1) {
+                    fb /= 2.0;
+                }
+                side = 1;
+            }
+            if (f == 0.0) {
+                return u;
+            }
+        }
+        return (a * fb - b * fa) / (fb - fa);
+    }
+
+    /**
+     * Gets the sine of the altitude less the sine of the event altitude, at
+     * a fraction of the hour after a node.
+     *
+     */
+    private double above(EventType type, Track track, int i, double u, double lambda) {
+        double hourAngle;
+        double dec;
+        double parallax;
+        if (u == 0.0) {
+            hourAngle = track.hourAngle[i];
+            dec = track.dec[i];
+            parallax = track.parallax[i];
+        } else {
+            hourAngle = track.interpolateHourAngle(i, u);
+            dec = Track.interpolate(track.dec, i, u);
+            parallax = Track.interpolate(track.parallax, i, u);
+        }
+        return sinAltitude(hourAngle + lambda, dec) - Math.sin(eventAltitude(type, parallax));
+    }
+
+    private double sinAltitude(double hourAngle, double dec) {
+        double phi = latitude * DEG;
+        return Math.sin(phi) * Math.sin(dec) + Math.cos(phi) * Math.cos(dec) * Math.cos(hourAngle);
+    }
+
+    /**
+     * Gets the event altitude of a type (radians).
+     *
+     * @param parallax horizontal parallax of the Moon (radians)
+     */
+    private static double eventAltitude(EventType type, double parallax) {
+        switch (type) {
+            case SUN_RISE_SUNSET:
+                return -50.0 / 60.0 * DEG;
+            case MOON_RISE_MOON_SET:
+                return 0.7275 * parallax + REFRACTION_ALTITUDE * DEG;
+            case CIVIL_TWILIGHT:
+                return -6.0 * DEG;
+            case NAUTICAL_TWILIGHT:
+                return -12.0 * DEG;
+            case AMATEUR_ASTRONOMICAL_TWILIGHT:
+                return -15.0 * DEG;
+            case ASTRONOMICAL_TWILIGHT:
+                return -18.0 * DEG;
+            default:
+                return REFRACTION_ALTITUDE * DEG;
+        }
+    }
+
+    private static Body body(EventType type) {
+        switch (type) {
+            case SUN_RISE_SUNSET:
+            case CIVIL_TWILIGHT:
+            case NAUTICAL_TWILIGHT:
+            case AMATEUR_ASTRONOMICAL_TWILIGHT:
+            case ASTRONOMICAL_TWILIGHT:
+                return Body.SUN;
+            case MOON_RISE_MOON_SET:
+                return Body.MOON;
+            case MERCURY_RISE_SET:
+                return Body.MERCURY;
+            case VENUS_RISE_SET:
+                return Body.VENUS;
+            case MARS_RISE_SET:
+                return Body.MARS;
+            case JUPITER_RISE_SET:
+                return Body.JUPITER;
+            case SATURN_RISE_SET:
+                return Body.SATURN;
+            case URANUS_RISE_SET:
+                return Body.URANUS;
+            case NEPTUNE_RISE_SET:
+                return Body.NEPTUNE;
+            case PLUTO_RISE_SET:
+                return Body.PLUTO;
+            default:
+                throw new IllegalArgumentException("Unknown event type " + type);
+        }
+    }
+
+    /**
+     * Finds the events of a star on one day from its apparent place.
+     *
+     * @param last local apparent sidereal time at the start of the day
+     * (radians)
+     */
+    private void star(double ra, double dec, double sinAltitude, double last, double jd, int day, Events out) {
+        double phi = latitude * DEG;
+        double hourAngle = last - ra;
+        out.up[day] = sinAltitude(hourAngle, dec) > sinAltitude;
+        double c = (sinAltitude - Math.sin(phi) * Math.sin(dec)) / (Math.cos(phi) * Math.cos(dec));
+        if (c > -1.0 && c < 1.0) {
+            double h = Math.acos(c);
+            crossings(-h - hourAngle, jd, day, EventTable.RISE, out);
+            crossings(h - hourAngle, jd, day, EventTable.SET, out);
+        }
+        crossings(-hourAngle, jd, day, EventTable.TRANSIT, out);
+        out.sort(day);
+    }
+
+    /**
+     * Adds the times within a day at which the hour angle has advanced by
+     * an angle, modulo a full turn.
+     *
+     */
+    private static void crossings(double angle, double jd, int day, byte kind, Events out) {
+        angle %= TWO_PI;
+        if (angle < 0.0) {
+            angle += TWO_PI;
+        }
+        for (double t = angle / SIDEREAL_RATE; t < 1.0; t += TWO_PI / SIDEREAL_RATE) {
+            out.add(day, jd + t, kind);
+        }
+    }
+
+    private static double wrap(double angle) {
+        angle %= TWO_PI;
+        if (angle > Math.PI) {
+            angle -= TWO_PI;
+        } else if (angle <= -Math.PI) {
+            angle += TWO_PI;
+        }
+        return angle;
+    }
+
+    /**
+     * Work on a range of days or nodes.
+     *
+     */
+    private interface Work {
+
+        void run(int from, int to);
+    }
+
+    /**
+     * A slice of the work, split in halves until it is no larger than the
+     * chunk size.
+     *
+     */
+    private final class Range extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Work work;
+        private final int from;
+        private final int to;
+        private final int size;
+
+        Range(Work work, int from, int to) {
+            this(work, from, to, chunk);
+        }
+
+        Range(Work work, int from, int to, int size) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
+            this.size = size;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= size) {
+                work.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(work, from, middle, size), new Range(work, middle, to, size));
+        }
+    }
+
+    /**
+     * Apparent geocentric places of one body, computed by NOVAS31 for one
+     * thread.
+     *
+     */
+    private static final class Place {
+
+        private final NOVAS31 novas = new NOVAS31();
+        private final Object3 object = new Object3();
+        private final Observer geocenter = new Observer();
+        private final SkyPos place = new SkyPos();
+        private final boolean moon;
+
+        Place(JplEphemeris ephemeris, Body body) {
+            novas.setEphemeris(ephemeris);
+            novas.MakeObject(ObjectType.MAJOR_PLANET_SUN_OR_MOON, body, body.name(), null, object);
+            novas.MakeObserverAtGeocenter(geocenter);
+            moon = body == Body.MOON;
+        }
+
+        /**
+         * Computes a place.
+         *
+         * @param out receives the Greenwich hour angle and declination
+         * (radians) and the horizontal parallax of the Moon (radians, 0
+         * for other bodies)
+         */
+        void compute(double jd, double setting, double[] out) {
+            double deltaT = deltaT(setting, jd);
+            double tt = jd + deltaT / 86400.0;
+            short error = novas.Place(tt, object, geocenter, deltaT, CoordSys.EQUINOX_OF_DATE, Accuracy.FULL, place);
+            if (error != 0) {
+                throw new IllegalArgumentException("Cannot compute the place of " + object.getNumber() + " at "
+                        + tt + ": NOVAS error " + error);
+            }
+            out[0] = Reduction.greenwichApparentSiderealTime(jd, tt) - place.getRA() * HOUR;
+            out[1] = place.getDec() * DEG;
+            out[2] = moon ? Math.asin(EARTH_RADIUS_AU / place.getDis()) : 0.0;
+        }
+    }
+
+    /**
+     * Hourly places of a body from MARGIN hours before the start of a run
+     * of days to MARGIN hours after its end.
+     *
+     */
+    private static final class Track {
+
+        final double start;
+        final int days;
+        final double[] hourAngle;
+        final double[] dec;
+        final double[] parallax;
+
+        Track(double start, int days) {
+            this.start = start;
+            this.days = days;
+            int nodes = days * STEPS + 2 * MARGIN + 1;
+            hourAngle = new double[nodes];
+            dec = new double[nodes];
+            parallax = new double[nodes];
+        }
+
+        void fill(Place place, double setting, int from, int to) {
+            double[] node = new double[3];
+            for (int i = from; i < to; i++) {
+                place.compute(start + (double) (i - MARGIN) / STEPS, setting, node);
+                hourAngle[i] = node[0];
+                dec[i] = node[1];
+                parallax[i] = node[2];
+            }
+        }
+
+        /**
+         * Makes the hour angle continuous from node to node.
+         *
+         */
+        void unwrap() {
+            for (int i = 1; i < hourAngle.length; i++) {
+                hourAngle[i] = hourAngle[i - 1] + wrap(hourAngle[i] - hourAngle[i - 1]);
+            }
+        }
+
+        double interpolateHourAngle(int i, double u) {
+            return interpolate(hourAngle, i, u);
+        }
+
+        /**
+         * Interpolates a cubic through the nodes before and after the hour
+         * starting at a node.
+         *
+         */
+        static double interpolate(double[] v, int i, double u) {
+            double a = u + 1.0;
+            double b = u - 1.0;
+            double c = u - 2.0;
+            return (-u * b * c * v[i - 1] + 3.0 * a * b * c * v[i] - 3.0 * a * u * c * v[i + 1]
+                    + a * u * b * v[i + 2]) / 6.0;
+        }
+    }
+
+    /**
+     * Events of one body or star, held in fixed slots per day until
+     * compacted.
+     *
+     */
+    private static final class Events {
+
+        final int[] counts;
+        final double[] times;
+        final byte[] kinds;
+        final boolean[] up;
+
+        Events(int days) {
+            counts = new int[days];
+            times = new double[days * SLOTS];
+            kinds = new byte[days * SLOTS];
+            up = new boolean[days];
+        }
+
+        void add(int day, double time, byte kind) {
+            if (counts[day] < SLOTS) {
+                int at = day * SLOTS + counts[day]++;
+                times[at] = time;
+                kinds[at] = kind;
+            }
+        }
+
+        /**
+         * Sorts the events of a day by time.
+         *
+         */
+        void sort(int day) {
+            int from = day * SLOTS;
+            int to = from + counts[day];
+            for (int i = from + 1; i < to; i++) {
+                double t = times[i];
+                byte k = kinds[i];
+                int j = i - 1;
+                for (; j >= from && times[j] > t; j--) {
+                    times[j + 1] = times[j];
+                    kinds[j + 1] = kinds[j];
+                }
+                times[j + 1] = t;
+                kinds[j + 1] = k;
+            }
+        }
+
+        EventTable table(double start) {
+            return EventTable.compact(start, SLOTS, counts, times, kinds, up);
+        }
+    }
+}
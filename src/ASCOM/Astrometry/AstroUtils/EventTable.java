@@ -0,0 +1,165 @@
+package ASCOM.Astrometry.AstroUtils;
+
+/**
+ * Rise, set and meridian transit times of one body or star over a run of
+ * days, from an EventEngine. The events of all days are held in three
+ * primitive arrays, sorted by time, with the events of day d at indexes
+ * getFirst(d) up to getFirst(d + 1).
+ *
+ * For the twilight event types a rise is the morning crossing of the
+ * twilight altitude by the Sun and a set the evening crossing, and no
+ * transits are given. Times are UT1 Julian dates; day d runs from
+ * getStart() + d for one day.
+ *
+ */
+public final class EventTable {
+
+    /**
+     * Kind of an event crossing the horizon upwards.
+     */
+    public static final byte RISE = 1;
+
+    /**
+     * Kind of an event crossing the horizon downwards.
+     */
+    public static final byte SET = 2;
+
+    /**
+     * Kind of an event crossing the upper meridian.
+     */
+    public static final byte TRANSIT = 3;
+
+    private final double start;
+    private final int[] first;
+    private final double[] times;
+    private final byte[] kinds;
+    private final boolean[] up;
+
+    EventTable(double start, int[] first, double[] times, byte[] kinds, boolean[] up) {
+        this.start = start;
+        this.first = first;
+        this.times = times;
+        this.kinds = kinds;
+        this.up = up;
+    }
+
+    /**
+     * Gathers events held in fixed size slots per day.
+     *
+     * @param slots events per day held
+     * @param counts number of events of each day
+     */
+    static EventTable compact(double start, int slots, int[] counts, double[] times, byte[] kinds, boolean[] up) {
+        int days = counts.length;
+        int[] first = new int[days + 1];
+        for (int d = 0; d < days; d++) {
+            first[d + 1] = first[d] + counts[d];
+        }
+        double[] t = new double[first[days]];
+        byte[] k = new byte[first[days]];
+        for (int d = 0; d < days; d++) {
+            System.arraycopy(times, d * slots, t, first[d], counts[d]);
+            System.arraycopy(kinds, d * slots, k, first[d], counts[d]);
+        }
+        return new EventTable(start, first, t, k, up);
+    }
+
+    /**
+     * Gets the start of the first day (UT1 Julian date).
+     *
+     */
+    public double getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the number of days.
+     *
+     */
+    public int getDays() {
+        return up.length;
+    }
+
+    /**
+     * Gets the number of events over all days.
+     *
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * Gets the index of the first event of a day; getFirst(getDays()) is
+     * size().
+     *
+     */
+    public int getFirst(int day) {
+        return first[day];
+    }
+
+    /**
+     * Gets the number of events of a day.
+     *
+     */
+    public int getCount(int day) {
+        return first[day + 1] - first[day];
+    }
+
+    /**
+     * Gets the time of an event (UT1 Julian date).
+     *
+     */
+    public double getTime(int event) {
+        return times[event];
+    }
+
+    /**
+     * Gets the kind of an event: RISE, SET or TRANSIT.
+     *
+     */
+    public byte getKind(int event) {
+        return kinds[event];
+    }
+
+    /**
+     * Gets whether the body is above its event altitude at the start of a
+     * day.
+     *
+     */
+    public boolean isUp(int day) {
+        return up[day];
+    }
+
+    /**
+     * Gets the first rise of a day, NaN if there is none.
+     *
+     */
+    public double getRise(int day) {
+        return find(day, RISE);
+    }
+
+    /**
+     * Gets the first set of a day, NaN if there is none.
+     *
+     */
+    public double getSet(int day) {
+        return find(day, SET);
+    }
+
+    /**
+     * Gets the first transit of a day, NaN if there is none.
+     *
+     */
+    public double getTransit(int day) {
+        return find(day, TRANSIT);
+    }
+
+    private double find(int day, byte kind) {
+        for (int i = first[day]; i < first[day + 1]; i++) {
+            if (kinds[i] == kind) {
+                return times[i];
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,40 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Major planets, the Sun and the Moon, numbered as in NOVAS
+ 
+
+
+*/
+public enum Body{
+    MERCURY,
+    VENUS,
+    EARTH,
+    MARS,
+    JUPITER,
+    SATURN,
+    URANUS,
+    NEPTUNE,
+    PLUTO,
+    SUN,
+    MOON;
+
+    /*
+ Returns the NOVAS body number, 1 for Mercury to 11 for the Moon
+     */
+    public int getValue(){
+        return ordinal() + 1;
+    }
+
+    /*
+ Returns the body for a NOVAS body number
+     */
+    public static Body fromValue(int value){
+        Body[] all = values();
+        if (value < 1 || value > all.length) {
+            throw new IllegalArgumentException("Unknown body " + value);
+        }
+        return all[value - 1];
+    }
+}
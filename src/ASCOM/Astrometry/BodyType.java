@@ -0,0 +1,25 @@
+package ASCOM.Astrometry;
+
+/*
+
+                Type of body, Major Planet, Minor Planet or Comet
+            
+
+
+*/
+public enum BodyType{
+    MAJOR_PLANET,
+    MINOR_PLANET,
+    COMET;
+
+    /*
+ Returns the body type for a Kepler value
+     */
+    public static BodyType fromValue(int value){
+        BodyType[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown body type " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,167 @@
+package ASCOM.Astrometry;
+
+/**
+ * Catalogue entry structure: basic astrometric data for any celestial
+ * object located outside the solar system; the catalog data for a star.
+ *
+ * Proper motions are in milliarcseconds per year, the one in right
+ * ascension including the cos(declination) factor, and the parallax is in
+ * milliarcseconds.
+ *
+ */
+public class CatEntry3 {
+
+    private String starName;
+    private String catalog;
+    private int starNumber;
+    private double ra;
+    private double dec;
+    private double proMoRA;
+    private double proMoDec;
+    private double parallax;
+    private double radialVelocity;
+
+    /**
+     * Sets the name of the celestial object
+     *
+     */
+    public void setStarName(String _theValue) {
+        starName = _theValue;
+    }
+
+    /**
+     * Gets the name of the celestial object
+     *
+     */
+    public String getStarName() {
+        return starName;
+    }
+
+    /**
+     * Sets the catalog designator (e.g. HIP)
+     *
+     */
+    public void setCatalog(String _theValue) {
+        catalog = _theValue;
+    }
+
+    /**
+     * Gets the catalog designator (e.g. HIP)
+     *
+     */
+    public String getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Sets the integer identifier assigned to the object
+     *
+     */
+    public void setStarNumber(int _theValue) {
+        starNumber = _theValue;
+    }
+
+    /**
+     * Gets the integer identifier assigned to the object
+     *
+     */
+    public int getStarNumber() {
+        return starNumber;
+    }
+
+    /**
+     * Sets the ICRS right ascension (hours)
+     *
+     */
+    public void setRA(double _theValue) {
+        ra = _theValue;
+    }
+
+    /**
+     * Gets the ICRS right ascension (hours)
+     *
+     */
+    public double getRA() {
+        return ra;
+    }
+
+    /**
+     * Sets the ICRS declination (degrees)
+     *
+     */
+    public void setDec(double _theValue) {
+        dec = _theValue;
+    }
+
+    /**
+     * Gets the ICRS declination (degrees)
+     *
+     */
+    public double getDec() {
+        return dec;
+    }
+
+    /**
+     * Sets the ICRS proper motion in right ascension (milliarcseconds per year)
+     *
+     */
+    public void setProMoRA(double _theValue) {
+        proMoRA = _theValue;
+    }
+
+    /**
+     * Gets the ICRS proper motion in right ascension (milliarcseconds per year)
+     *
+     */
+    public double getProMoRA() {
+        return proMoRA;
+    }
+
+    /**
+     * Sets the ICRS proper motion in declination (milliarcseconds per year)
+     *
+     */
+    public void setProMoDec(double _theValue) {
+        proMoDec = _theValue;
+    }
+
+    /**
+     * Gets the ICRS proper motion in declination (milliarcseconds per year)
+     *
+     */
+    public double getProMoDec() {
+        return proMoDec;
+    }
+
+    /**
+     * Sets the parallax (milliarcseconds)
+     *
+     */
+    public void setParallax(double _theValue) {
+        parallax = _theValue;
+    }
+
+    /**
+     * Gets the parallax (milliarcseconds)
+     *
+     */
+    public double getParallax() {
+        return parallax;
+    }
+
+    /**
+     * Sets the radial velocity (km/s)
+     *
+     */
+    public void setRadialVelocity(double _theValue) {
+        radialVelocity = _theValue;
+    }
+
+    /**
+     * Gets the radial velocity (km/s)
+     *
+     */
+    public double getRadialVelocity() {
+        return radialVelocity;
+    }
+}
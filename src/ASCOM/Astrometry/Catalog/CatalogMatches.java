@@ -0,0 +1,127 @@
+package ASCOM.Astrometry.Catalog;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+/**
+ * Stars found by a StarCatalog query: the record number and the J2000
+ * right ascension and declination of each, in parallel growable arrays.
+ * Queries append, so one instance can be cleared and reused without
+ * allocating once it has grown to the size of a typical field.
+ *
+ * The coordinate buffers can be passed straight to BatchTransform:
+ *
+ * <pre>
+ * catalog.cone(ra, dec, 0.5, matches);
+ * DoubleBuffer az = DoubleBuffer.allocate(matches.size());
+ * DoubleBuffer el = DoubleBuffer.allocate(matches.size());
+ * transform.batch().toAzimuthElevation(matches.rightAscensions(), matches.declinations(), az, el);
+ * </pre>
+ *
+ */
+public class CatalogMatches {
+
+    private int size;
+    private long[] records;
+    private double[] ra;
+    private double[] dec;
+
+    public CatalogMatches() {
+        this(256);
+    }
+
+    /**
+     *
+     * @param capacity number of matches to allocate room for
+     */
+    public CatalogMatches(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        records = new long[capacity];
+        ra = new double[capacity];
+        dec = new double[capacity];
+    }
+
+    void add(long record, double ra, double dec) {
+        if (size == records.length) {
+            int capacity = size + (size >> 1) + 1;
+            records = Arrays.copyOf(records, capacity);
+            this.ra = Arrays.copyOf(this.ra, capacity);
+            this.dec = Arrays.copyOf(this.dec, capacity);
+        }
+        records[size] = record;
+        this.ra[size] = ra;
+        this.dec[size] = dec;
+        size++;
+    }
+
+    /**
+     * Drops every match, keeping the allocated room.
+     *
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gets the number of matches.
+     *
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the record number of a match, for StarCatalog.get.
+     *
+     */
+    public long getRecord(int i) {
+        check(i);
+        return records[i];
+    }
+
+    /**
+     * Gets the J2000 right ascension of a match (hours).
+     *
+     */
+    public double getRA(int i) {
+        check(i);
+        return ra[i];
+    }
+
+    /**
+     * Gets the J2000 declination of a match (degrees).
+     *
+     */
+    public double getDec(int i) {
+        check(i);
+        return dec[i];
+    }
+
+    /**
+     * Gets the right ascensions of the matches (hours) as a buffer of
+     * exactly size() values, sharing the storage of this object until the
+     * next query or clear.
+     *
+     */
+    public DoubleBuffer rightAscensions() {
+        return DoubleBuffer.wrap(ra, 0, size).slice();
+    }
+
+    /**
+     * Gets the declinations of the matches (degrees) as a buffer of exactly
+     * size() values, sharing the storage of this object until the next
+     * query or clear.
+     *
+     */
+    public DoubleBuffer declinations() {
+        return DoubleBuffer.wrap(dec, 0, size).slice();
+    }
+
+    private void check(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Match " + i + " of " + size);
+        }
+    }
+}
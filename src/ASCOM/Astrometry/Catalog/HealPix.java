@@ -0,0 +1,187 @@
+package ASCOM.Astrometry.Catalog;
+
+/**
+ * HEALPix pixelisation of the sphere in the nested scheme (Gorski et al.
+ * 2005, ApJ 622, 759). At order k the sphere is divided into 12 * 4^k
+ * pixels of equal area, and pixel p of order k covers pixels 4p to 4p + 3
+ * of order k + 1, so the pixels of any region at a coarse order are one
+ * contiguous range at every finer order.
+ *
+ * Positions are given as the cosine of the colatitude (z, the sine of the
+ * declination) and the longitude (phi, the right ascension in radians).
+ *
+ */
+public final class HealPix {
+
+    /**
+     * Highest supported order.
+     */
+    public static final int MAX_ORDER = 29;
+
+    private static final int[] JRLL = {2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4};
+    private static final int[] JPLL = {1, 3, 5, 7, 0, 2, 4, 6, 1, 3, 5, 7};
+    private static final double TWO_PI = 2.0 * Math.PI;
+
+    private HealPix() {
+    }
+
+    /**
+     * Gets the number of pixels at an order.
+     *
+     */
+    public static long pixels(int order) {
+        check(order);
+        return 12L << (2 * order);
+    }
+
+    /**
+     * Gets the pixel containing a position.
+     *
+     * @param order order of the pixelisation
+     * @param z sine of the declination
+     * @param phi right ascension (radians)
+     * @return the nested pixel number
+     */
+    public static long pixel(int order, double z, double phi) {
+        check(order);
+        long nside = 1L << order;
+        double za = Math.abs(z);
+        double tt = phi % TWO_PI;
+        if (tt < 0.0) {
+            tt += TWO_PI;
+        }
+        tt *= 2.0 / Math.PI;
+        int face;
+        long ix;
+        long iy;
+        if (za <= 2.0 / 3.0) {
+            double temp1 = nside * (0.5 + tt);
+            double temp2 = nside * z * 0.75;
+            long jp = (long) (temp1 - temp2);
+            long jm = (long) (temp1 + temp2);
+            long ifp = jp >>> order;
+            long ifm = jm >>> order;
+            if (ifp == ifm) {
+                face = (int) (ifp | 4);
+            } else if (ifp < ifm) {
+                face = (int) ifp;
+            } else {
+                face = (int) ifm + 8;
+            }
+            ix = jm & (nside - 1);
+            iy = nside - (jp & (nside - 1)) - 1;
+        } else {
+            int ntt = Math.min(3, (int) tt);
+            double tp = tt - ntt;
+            double tmp = nside * Math.sqrt(3.0 * (1.0 - za));
+            long jp = Math.min(nside - 1, (long) (tp * tmp));
+            long jm = Math.min(nside - 1, (long) ((1.0 - tp) * tmp));
+            if (z >= 0.0) {
+                face = ntt;
+                ix = nside - jm - 1;
+                iy = nside - jp - 1;
+            } else {
+                face = ntt + 8;
+                ix = jp;
+                iy = jm;
+            }
+        }
+        return ((long) face << (2 * order)) + spread(ix) + (spread(iy) << 1);
+    }
+
+    /**
+     * Gets the centre of a pixel.
+     *
+     * @param order order of the pixelisation
+     * @param pixel nested pixel number
+     * @param out receives z and phi (radians)
+     */
+    public static void centre(int order, long pixel, double[] out) {
+        check(order);
+        long nside = 1L << order;
+        long npface = nside * nside;
+        int face = (int) (pixel >>> (2 * order));
+        long ix = compress(pixel & (npface - 1));
+        long iy = compress((pixel & (npface - 1)) >>> 1);
+        long jr = JRLL[face] * nside - ix - iy - 1;
+        double fact2 = 4.0 / (12.0 * npface);
+        long nr;
+        double z;
+        int kshift;
+        if (jr < nside) {
+            nr = jr;
+            z = 1.0 - nr * nr * fact2;
+            kshift = 0;
+        } else if (jr > 3 * nside) {
+            nr = 4 * nside - jr;
+            z = nr * nr * fact2 - 1.0;
+            kshift = 0;
+        } else {
+            nr = nside;
+            z = (2 * nside - jr) * 2.0 * nside * fact2;
+            kshift = (int) ((jr - nside) & 1);
+        }
+        long jp = (JPLL[face] * nr + ix - iy + 1 + kshift) / 2;
+        if (jp > 4 * nside) {
+            jp -= 4 * nside;
+        }
+        if (jp < 1) {
+            jp += 4 * nside;
+        }
+        out[0] = z;
+        out[1] = (jp - (kshift + 1) * 0.5) * (Math.PI / 2.0 / nr);
+    }
+
+    /**
+     * Gets an upper bound on the angle between the centre of any pixel of an
+     * order and any point of that pixel (radians).
+     *
+     */
+    public static double maxRadius(int order) {
+        check(order);
+        long nside = 1L << order;
+        double z1 = 2.0 / 3.0;
+        double phi1 = Math.PI / (4.0 * nside);
+        double t = 1.0 - 1.0 / nside;
+        double z2 = 1.0 - t * t / 3.0;
+        double s1 = Math.sqrt((1.0 - z1) * (1.0 + z1));
+        double s2 = Math.sqrt((1.0 - z2) * (1.0 + z2));
+        double dot = s1 * s2 * Math.cos(phi1) + z1 * z2;
+        double cross = Math.sqrt(Math.max(0.0, 1.0 - dot * dot));
+        return Math.atan2(cross, dot);
+    }
+
+    private static void check(int order) {
+        if (order < 0 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("HEALPix order must be from 0 to " + MAX_ORDER + ": " + order);
+        }
+    }
+
+    /**
+     * Spreads the low 32 bits of a value to the even bits.
+     *
+     */
+    private static long spread(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    /**
+     * Gathers the even bits of a value into the low 32 bits.
+     *
+     */
+    private static long compress(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+        return v;
+    }
+}
@@ -0,0 +1,401 @@
+package ASCOM.Astrometry.Catalog;
+
+import ASCOM.Astrometry.CatEntry3;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A star catalog file written by StarCatalogWriter, read through a memory
+ * mapping. The stars are stored as CatEntry3 fields, sorted by HEALPix
+ * pixel in the nested scheme, with an index giving the first star of each
+ * pixel.
+ *
+ * Cone and box queries walk the pixel hierarchy from the twelve base
+ * pixels down to the order of the file. Pixels wholly inside the region
+ * are taken as a run of stars without testing each one, pixels wholly
+ * outside are skipped, and only the stars of pixels on the edge of the
+ * region are tested, so the cost follows the number of stars found rather
+ * than the size of the catalog. The matches are collected as RA and Dec
+ * columns that go straight to BatchTransform:
+ *
+ * <pre>
+ * try (StarCatalog catalog = new StarCatalog(file)) {
+ *     CatalogMatches matches = new CatalogMatches();
+ *     catalog.cone(5.5, -5.4, 1.0, matches);
+ *     transform.batch().toAzimuthElevation(matches.rightAscensions(), matches.declinations(), az, el);
+ * }
+ * </pre>
+ *
+ * Queries only use absolute reads of the mapping, so any number of threads
+ * may query one instance at once, each with its own CatalogMatches.
+ *
+ */
+public class StarCatalog implements AutoCloseable {
+
+    private static final double DEG = Math.PI / 180.0;
+    private static final double HOUR = Math.PI / 12.0;
+    private static final int OUTSIDE = 0;
+    private static final int EDGE = 1;
+    private static final int INSIDE = 2;
+
+    private final FileChannel channel;
+    private final int order;
+    private final int recordBytes;
+    private final int nameBytes;
+    private final long count;
+    private final LongBuffer index;
+    private final ByteBuffer[] segments;
+    private final int recordsPerSegment;
+    private final double[] radius;
+
+    /**
+     * Opens and maps a catalog file.
+     *
+     * @param file the catalog file
+     * @throws IOException if the file cannot be read or is not a catalog
+     */
+    public StarCatalog(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer head = ByteBuffer.allocate(StarCatalogWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (head.hasRemaining()) {
+                if (channel.read(head, head.position()) <= 0) {
+                    break;
+                }
+            }
+            byte[] magic = Arrays.copyOf(head.array(), StarCatalogWriter.MAGIC.length);
+            if (head.hasRemaining() || !Arrays.equals(magic, StarCatalogWriter.MAGIC)) {
+                throw new IOException("Not a star catalog: " + file);
+            }
+            order = head.getInt(8);
+            recordBytes = head.getInt(12);
+            nameBytes = head.getInt(16);
+            count = head.getLong(24);
+            long indexOffset = head.getLong(32);
+            long dataOffset = head.getLong(40);
+            if (order < 0 || order > StarCatalogWriter.MAX_ORDER || recordBytes < 56 + nameBytes
+                    || nameBytes < 0 || count < 0
+                    || dataOffset != indexOffset + (HealPix.pixels(order) + 1) * 8
+                    || channel.size() < dataOffset + count * recordBytes) {
+                throw new IOException("Unrecognised star catalog layout: " + file);
+            }
+            index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, dataOffset - indexOffset)
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            if (index.get(index.limit() - 1) != count) {
+                throw new IOException("Unrecognised star catalog layout: " + file);
+            }
+            recordsPerSegment = (int) Math.max(1, Math.min(count, Integer.MAX_VALUE / recordBytes));
+            segments = new ByteBuffer[(int) ((count + recordsPerSegment - 1) / recordsPerSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                long from = (long) i * recordsPerSegment;
+                long length = Math.min(recordsPerSegment, count - from) * recordBytes;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + from * recordBytes, length)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            radius = new double[order + 1];
+            for (int k = 0; k <= order; k++) {
+                radius[k] = HealPix.maxRadius(k);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of stars in the catalog.
+     *
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Gets the HEALPix order of the index.
+     *
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Gets the ICRS right ascension of a star (hours).
+     *
+     */
+    public double getRA(long star) {
+        return segment(star).getDouble(offset(star));
+    }
+
+    /**
+     * Gets the ICRS declination of a star (degrees).
+     *
+     */
+    public double getDec(long star) {
+        return segment(star).getDouble(offset(star) + 8);
+    }
+
+    /**
+     * Gets a star as a new CatEntry3.
+     *
+     */
+    public CatEntry3 get(long star) {
+        CatEntry3 entry = new CatEntry3();
+        get(star, entry);
+        return entry;
+    }
+
+    /**
+     * Copies a star into a CatEntry3.
+     *
+     */
+    public void get(long star, CatEntry3 out) {
+        ByteBuffer segment = segment(star);
+        int at = offset(star);
+        out.setRA(segment.getDouble(at));
+        out.setDec(segment.getDouble(at + 8));
+        out.setProMoRA(segment.getDouble(at + 16));
+        out.setProMoDec(segment.getDouble(at + 24));
+        out.setParallax(segment.getDouble(at + 32));
+        out.setRadialVelocity(segment.getDouble(at + 40));
+        out.setStarNumber(segment.getInt(at + 48));
+        out.setCatalog(text(segment, at + 52, StarCatalogWriter.CATALOG_BYTES));
+        out.setStarName(text(segment, at + 56, nameBytes));
+    }
+
+    /**
+     * Finds the stars within a radius of a position.
+     *
+     * @param ra ICRS right ascension of the centre (hours)
+     * @param dec ICRS declination of the centre (degrees)
+     * @param radius radius of the cone (degrees)
+     * @param out receives the stars found, after any already there
+     * @return the number of stars found
+     */
+    public int cone(double ra, double dec, double radius, CatalogMatches out) {
+        if (!(radius >= 0.0)) {
+            throw new IllegalArgumentException("Cone radius must not be negative: " + radius);
+        }
+        return search(new Cone(ra * HOUR, dec * DEG, Math.min(radius, 180.0) * DEG), out);
+    }
+
+    /**
+     * Finds the stars within a range of right ascension and declination.
+     * When raMin is greater than raMax the range wraps through 0 hours.
+     *
+     * @param raMin lowest ICRS right ascension (hours)
+     * @param raMax highest ICRS right ascension (hours)
+     * @param decMin lowest ICRS declination (degrees)
+     * @param decMax highest ICRS declination (degrees)
+     * @param out receives the stars found, after any already there
+     * @return the number of stars found
+     */
+    public int box(double raMin, double raMax, double decMin, double decMax, CatalogMatches out) {
+        if (!(raMin >= 0.0 && raMin <= 24.0 && raMax >= 0.0 && raMax <= 24.0)) {
+            throw new IllegalArgumentException("Right ascensions must be from 0 to 24 hours");
+        }
+        if (!(decMin <= decMax)) {
+            throw new IllegalArgumentException("Lowest declination is above the highest");
+        }
+        double width = raMax >= raMin ? raMax - raMin : raMax - raMin + 24.0;
+        return search(new Box(raMin, width, Math.max(decMin, -90.0), Math.min(decMax, 90.0)), out);
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until the instance is
+     * garbage collected, so threads still reading finish safely.
+     *
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int search(Region region, CatalogMatches out) {
+        int before = out.size();
+        double[] centre = new double[2];
+        for (int face = 0; face < 12; face++) {
+            visit(region, 0, face, centre, out);
+        }
+        return out.size() - before;
+    }
+
+    private void visit(Region region, int level, long pixel, double[] centre, CatalogMatches out) {
+        int shift = 2 * (order - level);
+        long first = index.get((int) (pixel << shift));
+        long last = index.get((int) ((pixel + 1) << shift));
+        if (first == last) {
+            return;
+        }
+        HealPix.centre(level, pixel, centre);
+        int overlap = region.classify(centre[0], centre[1], radius[level]);
+        if (overlap == OUTSIDE) {
+            return;
+        }
+        if (overlap == EDGE && level < order) {
+            for (long child = pixel << 2; child < (pixel << 2) + 4; child++) {
+                visit(region, level + 1, child, centre, out);
+            }
+            return;
+        }
+        for (long star = first; star < last; star++) {
+            ByteBuffer segment = segment(star);
+            int at = offset(star);
+            double ra = segment.getDouble(at);
+            double dec = segment.getDouble(at + 8);
+            if (overlap == INSIDE || region.contains(ra, dec)) {
+                out.add(star, ra, dec);
+            }
+        }
+    }
+
+    private ByteBuffer segment(long star) {
+        if (star < 0 || star >= count) {
+            throw new IndexOutOfBoundsException("Star " + star + " of " + count);
+        }
+        return segments[(int) (star / recordsPerSegment)];
+    }
+
+    private int offset(long star) {
+        return (int) (star % recordsPerSegment) * recordBytes;
+    }
+
+    private static String text(ByteBuffer segment, int at, int width) {
+        byte[] bytes = new byte[width];
+        int n = 0;
+        while (n < width && (bytes[n] = segment.get(at + n)) != 0) {
+            n++;
+        }
+        return new String(bytes, 0, n, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A region of the sky to search.
+     *
+     */
+    private abstract static class Region {
+
+        /**
+         * Gets whether the circle around a pixel centre given by z and phi
+         * (radians) lies outside the region, inside it or on its edge.
+         *
+         */
+        abstract int classify(double z, double phi, double radius);
+
+        /**
+         * Gets whether a position, RA in hours and Dec in degrees, is in
+         * the region.
+         *
+         */
+        abstract boolean contains(double ra, double dec);
+    }
+
+    private static final class Cone extends Region {
+
+        private final double x;
+        private final double y;
+        private final double z;
+        private final double radius;
+        private final double cosRadius;
+
+        Cone(double ra, double dec, double radius) {
+            x = Math.cos(dec) * Math.cos(ra);
+            y = Math.cos(dec) * Math.sin(ra);
+            z = Math.sin(dec);
+            this.radius = radius;
+            cosRadius = Math.cos(radius);
+        }
+
+        @Override
+        int classify(double pz, double phi, double pixelRadius) {
+            double s = Math.sqrt((1.0 - pz) * (1.0 + pz));
+            double px = s * Math.cos(phi);
+            double py = s * Math.sin(phi);
+            double cx = y * pz - z * py;
+            double cy = z * px - x * pz;
+            double cz = x * py - y * px;
+            double angle = Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), x * px + y * py + z * pz);
+            if (angle - pixelRadius > radius) {
+                return OUTSIDE;
+            }
+            return angle + pixelRadius <= radius ? INSIDE : EDGE;
+        }
+
+        @Override
+        boolean contains(double ra, double dec) {
+            double cd = Math.cos(dec * DEG);
+            double r = ra * HOUR;
+            return cd * (x * Math.cos(r) + y * Math.sin(r)) + z * Math.sin(dec * DEG) >= cosRadius;
+        }
+    }
+
+    private static final class Box extends Region {
+
+        private static final double TWO_PI = 2.0 * Math.PI;
+
+        private final double raMin;
+        private final double width;
+        private final double decMin;
+        private final double decMax;
+
+        /**
+         *
+         * @param raMin lowest right ascension (hours)
+         * @param width width in right ascension (hours)
+         * @param decMin lowest declination (degrees)
+         * @param decMax highest declination (degrees)
+         */
+        Box(double raMin, double width, double decMin, double decMax) {
+            this.raMin = raMin;
+            this.width = width;
+            this.decMin = decMin;
+            this.decMax = decMax;
+        }
+
+        @Override
+        int classify(double z, double phi, double pixelRadius) {
+            double dec = Math.asin(z);
+            double low = (dec - pixelRadius) / DEG;
+            double high = (dec + pixelRadius) / DEG;
+            if (high < decMin || low > decMax) {
+                return OUTSIDE;
+            }
+            boolean decInside = low >= decMin && high <= decMax;
+            if (width >= 24.0) {
+                return decInside ? INSIDE : EDGE;
+            }
+            if (Math.abs(dec) + pixelRadius >= Math.PI / 2.0) {
+                return EDGE;
+            }
+            double half = Math.asin(Math.sin(pixelRadius) / Math.cos(dec));
+            double start = (phi - half - raMin * HOUR) % TWO_PI;
+            if (start < 0.0) {
+                start += TWO_PI;
+            }
+            double end = start + 2.0 * half;
+            double w = width * HOUR;
+            if (start > w && end < TWO_PI) {
+                return OUTSIDE;
+            }
+            return decInside && end <= w ? INSIDE : EDGE;
+        }
+
+        @Override
+        boolean contains(double ra, double dec) {
+            if (dec < decMin || dec > decMax) {
+                return false;
+            }
+            double d = ra - raMin;
+            if (d < 0.0) {
+                d += 24.0;
+            }
+            return d <= width;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package ASCOM.Astrometry.Catalog;
+
+import ASCOM.Astrometry.CatEntry3;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Builds a StarCatalog file. Stars may be added in any order; they are
+ * spooled to a temporary file next to the catalog and, on close, sorted by
+ * HEALPix pixel into the catalog with one pass over the spool, so the
+ * number of stars is limited by disk space rather than memory.
+ *
+ * <pre>
+ * try (StarCatalogWriter writer = new StarCatalogWriter(file)) {
+ *     for (CatEntry3 star : stars) {
+ *         writer.add(star);
+ *     }
+ * }
+ * </pre>
+ *
+ * Catalog codes longer than 4 bytes and star names longer than 24 bytes
+ * are truncated.
+ *
+ */
+public class StarCatalogWriter implements Closeable {
+
+    /**
+     * Default HEALPix order, giving pixels about 0.23 degrees across.
+     */
+    public static final int DEFAULT_ORDER = 8;
+
+    /**
+     * Highest HEALPix order accepted, giving pixels about 3.4 arcminutes
+     * across and an index of 100 MB.
+     */
+    public static final int MAX_ORDER = 10;
+
+    static final byte[] MAGIC = {'A', '4', 'J', 'C', 'A', 'T', '1', 0};
+    static final int HEADER_BYTES = 64;
+    static final int CATALOG_BYTES = 4;
+    static final int NAME_BYTES = 24;
+    static final int RECORD_BYTES = 56 + NAME_BYTES;
+
+    private final Path file;
+    private final Path spool;
+    private final int order;
+    private final long[] counts;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_BYTES * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private long count;
+    private boolean closed;
+
+    /**
+     * Creates a catalog at the default order.
+     *
+     */
+    public StarCatalogWriter(Path file) throws IOException {
+        this(file, DEFAULT_ORDER);
+    }
+
+    /**
+     *
+     * @param file catalog file to create or replace
+     * @param order HEALPix order of the index, from 0 to MAX_ORDER
+     */
+    public StarCatalogWriter(Path file, int order) throws IOException {
+        if (order < 0 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Catalog order must be from 0 to " + MAX_ORDER + ": " + order);
+        }
+        this.file = file;
+        this.order = order;
+        counts = new long[(int) HealPix.pixels(order)];
+        Path dir = file.toAbsolutePath().getParent();
+        spool = Files.createTempFile(dir, file.getFileName().toString(), ".spool");
+        channel = FileChannel.open(spool, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Adds a star.
+     *
+     */
+    public void add(CatEntry3 star) throws IOException {
+        add(star.getRA(), star.getDec(), star.getProMoRA(), star.getProMoDec(), star.getParallax(),
+                star.getRadialVelocity(), star.getStarNumber(), star.getCatalog(), star.getStarName());
+    }
+
+    /**
+     * Adds a star.
+     *
+     * @param ra ICRS right ascension (hours), from 0 up to 24
+     * @param dec ICRS declination (degrees)
+     * @param proMoRA proper motion in right ascension (mas/year)
+     * @param proMoDec proper motion in declination (mas/year)
+     * @param parallax parallax (mas)
+     * @param radialVelocity radial velocity (km/s)
+     * @param starNumber number of the star in its catalog
+     * @param catalog catalog code, may be null
+     * @param starName name of the star, may be null
+     */
+    public void add(double ra, double dec, double proMoRA, double proMoDec, double parallax,
+            double radialVelocity, int starNumber, String catalog, String starName) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The catalog writer is closed");
+        }
+        if (!(ra >= 0.0 && ra < 24.0)) {
+            throw new IllegalArgumentException("Right ascension must be from 0 up to 24 hours: " + ra);
+        }
+        if (!(dec >= -90.0 && dec <= 90.0)) {
+            throw new IllegalArgumentException("Declination must be from -90 to 90 degrees: " + dec);
+        }
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        ByteBuffer b = buffer;
+        b.putDouble(ra).putDouble(dec).putDouble(proMoRA).putDouble(proMoDec).putDouble(parallax)
+                .putDouble(radialVelocity).putInt(starNumber);
+        text(b, catalog, CATALOG_BYTES);
+        text(b, starName, NAME_BYTES);
+        counts[(int) pixel(order, ra, dec)]++;
+        count++;
+    }
+
+    /**
+     * Gets the number of stars added.
+     *
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Writes the catalog and deletes the spool file.
+     *
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            write();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Gets the pixel of a position at an order.
+     *
+     */
+    static long pixel(int order, double ra, double dec) {
+        return HealPix.pixel(order, Math.sin(Math.toRadians(dec)), ra * (Math.PI / 12.0));
+    }
+
+    private void write() throws IOException {
+        int pixels = counts.length;
+        long[] next = new long[pixels];
+        ByteBuffer index = ByteBuffer.allocate((pixels + 1) * 8).order(ByteOrder.LITTLE_ENDIAN);
+        long first = 0;
+        for (int p = 0; p < pixels; p++) {
+            next[p] = first;
+            index.putLong(first);
+            first += counts[p];
+        }
+        index.putLong(first).flip();
+        long dataOffset = HEADER_BYTES + index.limit();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putInt(order).putInt(RECORD_BYTES).putInt(NAME_BYTES).putInt(0)
+                .putLong(count).putLong(HEADER_BYTES).putLong(dataOffset);
+        header.clear();
+
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            writeFully(out, header, 0);
+            writeFully(out, index, HEADER_BYTES);
+            if (count == 0) {
+                return;
+            }
+            int perSegment = (int) Math.min(count, Integer.MAX_VALUE / RECORD_BYTES);
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((count + perSegment - 1) / perSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                long from = (long) i * perSegment;
+                long length = Math.min(perSegment, count - from) * RECORD_BYTES;
+                segments[i] = out.map(FileChannel.MapMode.READ_WRITE, dataOffset + from * RECORD_BYTES, length);
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            ByteBuffer b = buffer;
+            long position = 0;
+            long size = channel.size();
+            while (position < size) {
+                b.clear();
+                while (b.hasRemaining() && position < size) {
+                    int n = channel.read(b, position);
+                    if (n < 0) {
+                        throw new EOFException("Catalog spool file truncated: " + spool);
+                    }
+                    position += n;
+                }
+                b.flip();
+                for (int at = 0; at + RECORD_BYTES <= b.limit(); at += RECORD_BYTES) {
+                    long record = next[(int) pixel(order, b.getDouble(at), b.getDouble(at + 8))]++;
+                    ByteBuffer segment = segments[(int) (record / perSegment)];
+                    int to = (int) (record % perSegment) * RECORD_BYTES;
+                    for (int k = 0; k < RECORD_BYTES; k += 8) {
+                        segment.putLong(to + k, b.getLong(at + k));
+                    }
+                }
+            }
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer b, long position) throws IOException {
+        while (b.hasRemaining()) {
+            position += out.write(b, position);
+        }
+    }
+
+    /**
+     * Puts ASCII text into a fixed width field padded with zero bytes.
+     *
+     */
+    private static void text(ByteBuffer b, String s, int width) {
+        int n = s == null ? 0 : Math.min(s.length(), width);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            b.put(c < 128 ? (byte) c : (byte) '?');
+        }
+        for (int i = n; i < width; i++) {
+            b.put((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Coordinate system of the output position
+
+ Used by function Place
+ 
+
+
+*/
+public enum CoordSys{
+    GCRS,
+    EQUINOX_OF_DATE,
+    CIO_OF_DATE,
+    ASTROMETRIC;
+
+    /*
+ Returns the coordinate system for a NOVAS value
+     */
+    public static CoordSys fromValue(int value){
+        CoordSys[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown coordinate system " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,28 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Location of observer, determining whether the gravitational deflection
+ due to the earth itself is applied
+
+ Used by GravDef
+ 
+
+
+*/
+public enum EarthDeflection{
+    NO_EARTH_DEFLECTION,
+    ADD_EARTH_DEFLECTION;
+
+    /*
+ Returns the deflection option for a NOVAS location code, 0 for an
+ observer at the geocenter and 1 for one on or above the surface
+     */
+    public static EarthDeflection fromValue(int value){
+        EarthDeflection[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown location code " + value);
+        }
+        return all[value];
+    }
+}
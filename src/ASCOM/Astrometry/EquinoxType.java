@@ -0,0 +1,26 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Type of equinox
+
+ Used by IraEquinox
+ 
+
+
+*/
+public enum EquinoxType{
+    MEAN_EQUINOX,
+    TRUE_EQUINOX;
+
+    /*
+ Returns the equinox type for a NOVAS value, 0 mean and 1 true
+     */
+    public static EquinoxType fromValue(int value){
+        EquinoxType[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown equinox type " + value);
+        }
+        return all[value];
+    }
+}
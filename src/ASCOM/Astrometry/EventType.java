@@ -0,0 +1,36 @@
+package ASCOM.Astrometry;
+
+/*
+
+                Type of event for which an ephemeris is required
+            
+
+
+*/
+public enum EventType{
+    SUN_RISE_SUNSET,
+    MOON_RISE_MOON_SET,
+    CIVIL_TWILIGHT,
+    NAUTICAL_TWILIGHT,
+    AMATEUR_ASTRONOMICAL_TWILIGHT,
+    ASTRONOMICAL_TWILIGHT,
+    MERCURY_RISE_SET,
+    VENUS_RISE_SET,
+    MARS_RISE_SET,
+    JUPITER_RISE_SET,
+    SATURN_RISE_SET,
+    URANUS_RISE_SET,
+    NEPTUNE_RISE_SET,
+    PLUTO_RISE_SET;
+
+    /*
+ Returns the event type for an ASCOM value
+     */
+    public static EventType fromValue(int value){
+        EventType[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown event type " + value);
+        }
+        return all[value];
+    }
+}
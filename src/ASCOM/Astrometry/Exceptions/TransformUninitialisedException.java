@@ -0,0 +1,28 @@
+package ASCOM.Astrometry.Exceptions;
+
+/**
+ * Exception thrown when an attempt is made to read from the transform
+ * component before it has had co-ordinates set once by SetJ2000, SetApparent,
+ * SetTopocentric or SetAzimuthElevation.
+ *
+ */
+public class TransformUninitialisedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a new exception with message
+     *
+     */
+    public TransformUninitialisedException(String message) {
+        super(message);
+    }
+
+    /**
+     * Create a new exception with message and inner exception
+     *
+     */
+    public TransformUninitialisedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,29 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Direction of frame conversion
+
+ Used by FrameTie method.
+ 
+
+
+*/
+public enum FrameConversionDirection{
+    DYNAMICAL_TO_ICRS,
+    ICRS_TO_DYNAMICAL;
+
+    /*
+ Returns the direction for a NOVAS value, -1 dynamical to ICRS and 1 ICRS to dynamical
+     */
+    public static FrameConversionDirection fromValue(int value){
+        switch (value) {
+            case -1:
+                return DYNAMICAL_TO_ICRS;
+            case 1:
+                return ICRS_TO_DYNAMICAL;
+            default:
+                throw new IllegalArgumentException("Unknown frame conversion direction " + value);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Type of sidereal time
+ 
+
+
+*/
+public enum GstType{
+    GREENWICH_MEAN_SIDEREAL_TIME,
+    GREENWICH_APPARENT_SIDEREAL_TIME;
+
+    /*
+ Returns the sidereal time type for a NOVAS value
+     */
+    public static GstType fromValue(int value){
+        GstType[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown sidereal time type " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,44 @@
+package ASCOM.Astrometry;
+
+/**
+ * Position and velocity of an observer in near-Earth space, geocentric and
+ * referred to the GCRS axes.
+ *
+ */
+public class InSpace {
+
+    private double[] scPos = new double[3];
+    private double[] scVel = new double[3];
+
+    /**
+     * Sets the geocentric position vector (km)
+     *
+     */
+    public void setScPos(double[] _theValue) {
+        scPos = _theValue;
+    }
+
+    /**
+     * Gets the geocentric position vector (km)
+     *
+     */
+    public double[] getScPos() {
+        return scPos;
+    }
+
+    /**
+     * Sets the geocentric velocity vector (km/s)
+     *
+     */
+    public void setScVel(double[] _theValue) {
+        scVel = _theValue;
+    }
+
+    /**
+     * Gets the geocentric velocity vector (km/s)
+     *
+     */
+    public double[] getScVel() {
+        return scVel;
+    }
+}
@@ -0,0 +1,429 @@
+package ASCOM.Astrometry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a JPL DE4xx binary ephemeris file (the files produced by the JPL
+ * asc2eph program, such as linux_p1550p2650.430) through a read only
+ * memory mapping.
+ *
+ * The file is a header record, a record of constant values and fixed size
+ * data records of Chebyshev coefficients, each covering the same number of
+ * days. The header is parsed once; the record for a date is then found by
+ * arithmetic and the polynomials are evaluated straight from the mapping,
+ * so a lookup reads only the coefficients it needs and allocates nothing.
+ * Both byte orders are accepted. Files over 2 GB are mapped in several
+ * segments.
+ *
+ * Lookups only use absolute reads of the mapping and never change any
+ * state, so any number of threads can share one instance without locking.
+ *
+ * <pre>
+ * try (JplEphemeris de = new JplEphemeris(Paths.get("linux_p1550p2650.430"))) {
+ *     de.state(2460676.5, 0.0, Target.MARS, Target.EARTH, pos, vel);
+ * }
+ * </pre>
+ *
+ */
+public class JplEphemeris implements AutoCloseable {
+
+    private static final int MOON = 9;
+    private static final int EARTH_MOON = 2;
+    private static final int NUTATIONS = 11;
+    private static final int LIBRATIONS = 12;
+
+    /**
+     * Number of components of each item: 11 bodies, nutations, librations
+     * and TT - TDB.
+     */
+    private static final int[] DIMENSION = {3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 2, 3, 1};
+
+    private static final int TITLE_BYTES = 252;
+    private static final int NAME_BYTES = 6;
+    private static final int NAMES = 400;
+
+    private final FileChannel channel;
+    private final ByteBuffer[] segments;
+    private final int recordsPerSegment;
+    private final int recordBytes;
+    private final long records;
+    private final int[] offset = new int[DIMENSION.length];
+    private final int[] coefficients = new int[DIMENSION.length];
+    private final int[] granules = new int[DIMENSION.length];
+    private final String title;
+    private final int deNumber;
+    private final double start;
+    private final double end;
+    private final double step;
+    private final double au;
+    private final double emrat;
+    private final String[] names;
+    private final double[] values;
+
+    /**
+     * Opens and maps an ephemeris file.
+     *
+     * @param file the ephemeris file
+     * @throws IOException if the file cannot be read or is not a JPL
+     * binary ephemeris
+     */
+    public JplEphemeris(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer head = read(0, (int) Math.min(size, 2856));
+            if (head.limit() < 2856) {
+                throw new IOException("Not a JPL ephemeris: " + file);
+            }
+            head.order(ByteOrder.LITTLE_ENDIAN);
+            if (!plausible(head.getInt(2840))) {
+                head.order(ByteOrder.BIG_ENDIAN);
+                if (!plausible(head.getInt(2840))) {
+                    throw new IOException("Not a JPL ephemeris: " + file);
+                }
+            }
+            ByteOrder order = head.order();
+            StringBuilder lines = new StringBuilder();
+            for (int at = 0; at < TITLE_BYTES; at += TITLE_BYTES / 3) {
+                String line = new String(head.array(), at, TITLE_BYTES / 3, StandardCharsets.US_ASCII).trim();
+                if (!line.isEmpty()) {
+                    lines.append(lines.length() == 0 ? "" : "\n").append(line);
+                }
+            }
+            title = lines.toString();
+            start = head.getDouble(2652);
+            end = head.getDouble(2660);
+            step = head.getDouble(2668);
+            int ncon = head.getInt(2676);
+            au = head.getDouble(2680);
+            emrat = head.getDouble(2688);
+            for (int i = 0; i < 12; i++) {
+                setItem(i, head, 2696 + 12 * i);
+            }
+            deNumber = head.getInt(2840);
+            setItem(LIBRATIONS, head, 2844);
+
+            int extra = Math.max(0, ncon - NAMES);
+            ByteBuffer tail = read(2856, extra * NAME_BYTES + 12).order(order);
+            if (tail.limit() == extra * NAME_BYTES + 12) {
+                setItem(13, tail, extra * NAME_BYTES);
+            }
+            int ncoeff = 2;
+            for (int i = 0; i < DIMENSION.length; i++) {
+                ncoeff = Math.max(ncoeff, offset[i] - 1 + coefficients[i] * granules[i] * DIMENSION[i]);
+            }
+            recordBytes = ncoeff * 8;
+            records = size / recordBytes - 2;
+            if (!(step > 0.0) || records < 1 || ncon < 0) {
+                throw new IOException("Unrecognised ephemeris layout: " + file);
+            }
+
+            names = new String[ncon];
+            for (int i = 0; i < ncon; i++) {
+                int at = i < NAMES ? TITLE_BYTES + i * NAME_BYTES : (i - NAMES) * NAME_BYTES;
+                byte[] bytes = i < NAMES ? head.array() : tail.array();
+                names[i] = new String(bytes, at, NAME_BYTES, StandardCharsets.US_ASCII).trim();
+            }
+            ByteBuffer constants = read(recordBytes, ncon * 8).order(order);
+            values = new double[ncon];
+            for (int i = 0; i < ncon; i++) {
+                values[i] = constants.getDouble(i * 8);
+            }
+
+            long fileRecords = records + 2;
+            recordsPerSegment = (int) Math.min(fileRecords, Integer.MAX_VALUE / recordBytes);
+            segments = new ByteBuffer[(int) ((fileRecords + recordsPerSegment - 1) / recordsPerSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                long from = (long) i * recordsPerSegment * recordBytes;
+                long length = Math.min((long) recordsPerSegment * recordBytes, fileRecords * recordBytes - from);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, from, length).order(order);
+            }
+            if (coefficient(0, 0) != start || coefficient(0, 1) != start + step) {
+                throw new IOException("Unrecognised ephemeris layout: " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the title lines of the file, separated by newlines.
+     *
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the DE number of the ephemeris, e.g. 430.
+     *
+     */
+    public int getDENumber() {
+        return deNumber;
+    }
+
+    /**
+     * Gets the first Julian date (TDB) covered.
+     *
+     */
+    public double getStartDate() {
+        return start;
+    }
+
+    /**
+     * Gets the last Julian date (TDB) covered.
+     *
+     */
+    public double getEndDate() {
+        return end;
+    }
+
+    /**
+     * Gets the number of days covered by each record.
+     *
+     */
+    public double getRecordSpan() {
+        return step;
+    }
+
+    /**
+     * Gets the astronomical unit used by the ephemeris (km).
+     *
+     */
+    public double getAU() {
+        return au;
+    }
+
+    /**
+     * Gets the Earth / Moon mass ratio.
+     *
+     */
+    public double getEarthMoonMassRatio() {
+        return emrat;
+    }
+
+    /**
+     * Gets the value of one of the constants stored with the ephemeris.
+     *
+     * @param name name of the constant, e.g. "GMS" or "CLIGHT"
+     * @throws IllegalArgumentException if the file has no such constant
+     */
+    public double getConstant(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        throw new IllegalArgumentException("No ephemeris constant " + name);
+    }
+
+    /**
+     * Gets whether the ephemeris covers a date.
+     *
+     * @param jd Julian date (TDB)
+     */
+    public boolean covers(double jd) {
+        return jd >= start && jd <= end;
+    }
+
+    /**
+     * Gets whether the file has an item, e.g. NUTATIONS or LIBRATIONS,
+     * which some ephemerides leave out.
+     *
+     */
+    public boolean has(Target target) {
+        switch (target) {
+            case EARTH:
+            case MOON:
+                return coefficients[EARTH_MOON] > 0 && coefficients[MOON] > 0;
+            case SOLAR_SYSTEM_BARYCENTRE:
+                return true;
+            case EARTH_MOON_BARYCENTRE:
+                return coefficients[EARTH_MOON] > 0;
+            case NUTATIONS:
+                return coefficients[NUTATIONS] > 0;
+            case LIBRATIONS:
+                return coefficients[LIBRATIONS] > 0;
+            default:
+                return coefficients[target.ordinal()] > 0;
+        }
+    }
+
+    /**
+     * Computes the position and velocity of one body relative to another,
+     * or the nutation or libration angles and their rates.
+     *
+     * The date may be split into two parts, e.g. an integer date and a
+     * fraction, for full precision over long spans.
+     *
+     * @param jdHigh high-order part of the Julian date (TDB)
+     * @param jdLow low-order part of the Julian date (TDB)
+     * @param target body, NUTATIONS or LIBRATIONS
+     * @param center origin; ignored for NUTATIONS and LIBRATIONS
+     * @param pos receives the position (AU), or the angles (radians)
+     * @param vel receives the velocity (AU/day), or the rates
+     * (radians/day); may be null
+     * @throws IllegalArgumentException if the date is not covered or the
+     * file does not have the target
+     */
+    public void state(double jdHigh, double jdLow, Target target, Target center, double[] pos, double[] vel) {
+        double t = (jdHigh - start) + jdLow;
+        if (!(t >= 0.0 && t <= end - start)) {
+            throw new IllegalArgumentException("Date outside the ephemeris: " + (jdHigh + jdLow));
+        }
+        boolean angles = target == Target.NUTATIONS || target == Target.LIBRATIONS;
+        if (!has(target) || !angles && !has(center)) {
+            throw new IllegalArgumentException("The ephemeris has no " + (has(target) ? center : target));
+        }
+        long record = Math.min((long) (t / step), records - 1);
+        double frac = (t - record * step) / step;
+        pos[0] = pos[1] = pos[2] = 0.0;
+        if (vel != null) {
+            vel[0] = vel[1] = vel[2] = 0.0;
+        }
+        if (target == Target.NUTATIONS) {
+            accumulate(NUTATIONS, record, frac, 1.0, pos, vel);
+        } else if (target == Target.LIBRATIONS) {
+            accumulate(LIBRATIONS, record, frac, 1.0, pos, vel);
+        } else if (target == Target.MOON && center == Target.EARTH) {
+            accumulate(MOON, record, frac, 1.0 / au, pos, vel);
+        } else if (target == Target.EARTH && center == Target.MOON) {
+            accumulate(MOON, record, frac, -1.0 / au, pos, vel);
+        } else if (target != center) {
+            add(target, record, frac, 1.0 / au, pos, vel);
+            add(center, record, frac, -1.0 / au, pos, vel);
+        }
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until the instance is
+     * garbage collected, so threads still reading finish safely.
+     *
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Adds the barycentric state of a body, times scale.
+     *
+     */
+    private void add(Target body, long record, double frac, double scale, double[] pos, double[] vel) {
+        switch (body) {
+            case SOLAR_SYSTEM_BARYCENTRE:
+                return;
+            case EARTH:
+                accumulate(EARTH_MOON, record, frac, scale, pos, vel);
+                accumulate(MOON, record, frac, -scale / (1.0 + emrat), pos, vel);
+                return;
+            case MOON:
+                accumulate(EARTH_MOON, record, frac, scale, pos, vel);
+                accumulate(MOON, record, frac, scale * emrat / (1.0 + emrat), pos, vel);
+                return;
+            case EARTH_MOON_BARYCENTRE:
+                accumulate(EARTH_MOON, record, frac, scale, pos, vel);
+                return;
+            case NUTATIONS:
+            case LIBRATIONS:
+                throw new IllegalArgumentException(body + " cannot be a centre");
+            default:
+                accumulate(body.ordinal(), record, frac, scale, pos, vel);
+        }
+    }
+
+    /**
+     * Evaluates the Chebyshev series of one item and adds the values, times
+     * scale, to pos and the derivatives to vel.
+     *
+     * @param item index of the item in the file's pointer table
+     * @param record data record number
+     * @param frac fraction of the record's span, 0 to 1
+     */
+    private void accumulate(int item, long record, double frac, double scale, double[] pos, double[] vel) {
+        int ncf = coefficients[item];
+        int nsub = granules[item];
+        int dim = DIMENSION[item];
+        double x = frac * nsub;
+        int sub = Math.min((int) x, nsub - 1);
+        double tc = 2.0 * (x - sub) - 1.0;
+        double twoTc = 2.0 * tc;
+        long fileRecord = record + 2;
+        ByteBuffer segment = segments[(int) (fileRecord / recordsPerSegment)];
+        int first = (int) (fileRecord % recordsPerSegment) * recordBytes
+                + (offset[item] - 1 + sub * ncf * dim) * 8;
+        double rate = scale * 2.0 * nsub / step;
+        for (int c = 0; c < dim; c++) {
+            int at = first + c * ncf * 8;
+            double p0 = 1.0;
+            double p1 = tc;
+            double d0 = 0.0;
+            double d1 = 1.0;
+            double value = segment.getDouble(at);
+            double derivative = 0.0;
+            if (ncf > 1) {
+                double a1 = segment.getDouble(at + 8);
+                value += a1 * tc;
+                derivative = a1;
+            }
+            for (int k = 2; k < ncf; k++) {
+                double p2 = twoTc * p1 - p0;
+                double d2 = 2.0 * p1 + twoTc * d1 - d0;
+                double a = segment.getDouble(at + 8 * k);
+                value += a * p2;
+                derivative += a * d2;
+                p0 = p1;
+                p1 = p2;
+                d0 = d1;
+                d1 = d2;
+            }
+            pos[c] += scale * value;
+            if (vel != null) {
+                vel[c] += rate * derivative;
+            }
+        }
+    }
+
+    /**
+     * Reads a coefficient of a data record.
+     *
+     */
+    private double coefficient(long record, int index) {
+        long fileRecord = record + 2;
+        return segments[(int) (fileRecord / recordsPerSegment)]
+                .getDouble((int) (fileRecord % recordsPerSegment) * recordBytes + index * 8);
+    }
+
+    private void setItem(int item, ByteBuffer buffer, int at) {
+        offset[item] = buffer.getInt(at);
+        coefficients[item] = buffer.getInt(at + 4);
+        granules[item] = buffer.getInt(at + 8);
+        if (offset[item] < 1 || coefficients[item] < 1 || granules[item] < 1) {
+            offset[item] = 0;
+            coefficients[item] = 0;
+            granules[item] = 0;
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static boolean plausible(int deNumber) {
+        return deNumber > 0 && deNumber < 10000;
+    }
+}
@@ -0,0 +1,141 @@
+package ASCOM.Astrometry.Kepler;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Propagates every orbit of an OrbitStore to one date, solving Kepler's
+ * equation for each body. Large stores are split into chunks that run in
+ * parallel on a fork-join pool.
+ *
+ * <pre>
+ * OrbitStore orbits = MpcOrbitReader.load(Paths.get("MPCORB.DAT"));
+ * BatchPropagator propagator = new BatchPropagator(orbits);
+ * propagator.propagate(jdTT, x, y, z);
+ * </pre>
+ *
+ * Outputs are heliocentric positions on the J2000 equator (AU) and
+ * velocities (AU/day), written to parallel arrays at least as long as the
+ * store. The results are identical to OrbitStore.state for each orbit.
+ *
+ */
+public class BatchPropagator {
+
+    /**
+     * Default number of orbits below which a batch is not split further.
+     */
+    public static final int DEFAULT_CHUNK = 8192;
+
+    private final OrbitStore orbits;
+    private final ForkJoinPool pool;
+    private final int chunk;
+
+    /**
+     * Creates a propagator running on the common fork-join pool.
+     *
+     */
+    public BatchPropagator(OrbitStore orbits) {
+        this(orbits, ForkJoinPool.commonPool(), DEFAULT_CHUNK);
+    }
+
+    /**
+     *
+     * @param orbits orbits to propagate
+     * @param pool pool to run on
+     * @param chunk number of orbits below which a batch is not split further
+     */
+    public BatchPropagator(OrbitStore orbits, ForkJoinPool pool, int chunk) {
+        if (chunk < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.orbits = orbits;
+        this.pool = pool;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Gets the orbits propagated.
+     *
+     */
+    public OrbitStore getOrbits() {
+        return orbits;
+    }
+
+    /**
+     * Computes the positions of every orbit at a date.
+     *
+     * @param tjd TT Julian date
+     */
+    public void propagate(double tjd, double[] x, double[] y, double[] z) {
+        run(tjd, x, y, z, null, null, null);
+    }
+
+    /**
+     * Computes the positions and velocities of every orbit at a date.
+     *
+     * @param tjd TT Julian date
+     */
+    public void propagate(double tjd, double[] x, double[] y, double[] z, double[] vx, double[] vy, double[] vz) {
+        if (vx == null || vy == null || vz == null) {
+            throw new IllegalArgumentException("Velocity arrays must not be null");
+        }
+        run(tjd, x, y, z, vx, vy, vz);
+    }
+
+    private void run(double tjd, double[] x, double[] y, double[] z, double[] vx, double[] vy, double[] vz) {
+        int count = orbits.size();
+        if (x.length < count || y.length < count || z.length < count
+                || vx != null && (vx.length < count || vy.length < count || vz.length < count)) {
+            throw new IllegalArgumentException("Output arrays must be at least as long as the store: " + count);
+        }
+        if (count <= chunk) {
+            orbits.propagate(0, count, tjd, x, y, z, vx, vy, vz);
+        } else {
+            pool.invoke(new Range(tjd, x, y, z, vx, vy, vz, 0, count));
+        }
+    }
+
+    /**
+     * A slice of the store, split in halves until it is no larger than the
+     * chunk size.
+     *
+     */
+    private final class Range extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double tjd;
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        private final double[] vx;
+        private final double[] vy;
+        private final double[] vz;
+        private final int from;
+        private final int to;
+
+        Range(double tjd, double[] x, double[] y, double[] z, double[] vx, double[] vy, double[] vz, int from,
+                int to) {
+            this.tjd = tjd;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.vx = vx;
+            this.vy = vy;
+            this.vz = vz;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                orbits.propagate(from, to, tjd, x, y, z, vx, vy, vz);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(tjd, x, y, z, vx, vy, vz, from, middle),
+                    new Range(tjd, x, y, z, vx, vy, vz, middle, to));
+        }
+    }
+}
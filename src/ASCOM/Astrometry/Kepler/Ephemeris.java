@@ -0,0 +1,352 @@
+package ASCOM.Astrometry.Kepler;
+
+import ASCOM.Astrometry.BodyType;
+
+/**
+ * KEPLER: Ephemeris Object
+ *
+ * The Kepler Ephemeris object contains an orbit engine which takes the
+ * orbital parameters of a solar system body, plus a terrestrial date/time,
+ * and produces the heliocentric equatorial position and velocity vectors of
+ * the body in Cartesian coordinates. The elements are J2000 ecliptic
+ * elements of an elliptical orbit and are propagated as two-body motion
+ * about the Sun; the major planet theory of the original Kepler component
+ * is not included, use a JplEphemeris for the major planets.
+ *
+ * The semi-major axis is taken from A if set, otherwise from Q and E, Z, or
+ * P, in that order. The mean daily motion is taken from N if set, otherwise
+ * from the semi-major axis.
+ *
+ * To propagate many bodies to one date, load them into an OrbitStore and
+ * use a BatchPropagator.
+ *
+ */
+public class Ephemeris {
+
+    private static final double DEG = Math.PI / 180.0;
+
+    private double a;
+    private BodyType Type = BodyType.MINOR_PLANET;
+    private double e;
+    private double Epoch;
+    private double G = Double.NaN;
+    private double H = Double.NaN;
+    private double Incl;
+    private double M;
+    private double n;
+    private String Name = "";
+    private double Node;
+    private int Number;
+    private double P;
+    private double Peri;
+    private double q;
+    private double z;
+
+    /**
+     * Compute rectangular (x/y/z) heliocentric J2000 equatorial coordinates
+     * of position (AU) and velocity (AU/day).
+     *
+     * @param tjd terrestrial Julian date
+     * @return position x, y, z then velocity x, y, z
+     */
+    public double[] GetPositionAndVelocity(double tjd) {
+        if (Type == BodyType.MAJOR_PLANET) {
+            throw new IllegalStateException("Major planets are not supported; use a JplEphemeris");
+        }
+        if (!(e >= 0.0 && e < 1.0)) {
+            throw new IllegalStateException("Only elliptical orbits are supported: e = " + e);
+        }
+        double axis = semiMajorAxis();
+        if (!(axis > 0.0)) {
+            throw new IllegalStateException("The orbit has no size: set A, Q, Z or P");
+        }
+        double motion = n > 0.0 ? n * DEG : OrbitStore.GAUSS / (axis * Math.sqrt(axis));
+        double[] p = new double[3];
+        double[] q = new double[3];
+        OrbitStore.plane(Peri, Node, Incl, p, q);
+        double ea = OrbitStore.eccentricAnomaly(M * DEG + motion * (tjd - Epoch), e);
+        double s = Math.sin(ea);
+        double c = Math.cos(ea);
+        double b = axis * Math.sqrt(1.0 - e * e);
+        double rate = motion / (1.0 - e * c);
+        double[] out = new double[6];
+        for (int k = 0; k < 3; k++) {
+            out[k] = axis * (c - e) * p[k] + b * s * q[k];
+            out[k + 3] = (b * c * q[k] - axis * s * p[k]) * rate;
+        }
+        return out;
+    }
+
+    private double semiMajorAxis() {
+        if (a > 0.0) {
+            return a;
+        }
+        if (q > 0.0) {
+            return q / (1.0 - e);
+        }
+        if (z > 0.0) {
+            return 1.0 / z;
+        }
+        return Math.pow(P, 2.0 / 3.0);
+    }
+
+    /**
+     * Sets the semi-major axis (AU)
+     *
+     */
+    public void setA(double _theValue) {
+        this.a = _theValue;
+    }
+
+    /**
+     * Gets the semi-major axis (AU)
+     *
+     */
+    public double getA() {
+        return a;
+    }
+
+    /**
+     * Sets the type of solar system body represented by this instance of
+     * the ephemeris engine
+     *
+     */
+    public void setBodyType(BodyType _theValue) {
+        this.Type = _theValue;
+    }
+
+    /**
+     * Gets the type of solar system body represented by this instance of
+     * the ephemeris engine
+     *
+     */
+    public BodyType getBodyType() {
+        return Type;
+    }
+
+    /**
+     * Sets the orbital eccentricity
+     *
+     */
+    public void setE(double _theValue) {
+        this.e = _theValue;
+    }
+
+    /**
+     * Gets the orbital eccentricity
+     *
+     */
+    public double getE() {
+        return e;
+    }
+
+    /**
+     * Sets the epoch of osculation of the orbital elements (terrestrial
+     * Julian date)
+     *
+     */
+    public void setEpoch(double _theValue) {
+        this.Epoch = _theValue;
+    }
+
+    /**
+     * Gets the epoch of osculation of the orbital elements (terrestrial
+     * Julian date)
+     *
+     */
+    public double getEpoch() {
+        return Epoch;
+    }
+
+    /**
+     * Sets the slope parameter for magnitude
+     *
+     */
+    public void setG(double _theValue) {
+        this.G = _theValue;
+    }
+
+    /**
+     * Gets the slope parameter for magnitude
+     *
+     */
+    public double getG() {
+        return G;
+    }
+
+    /**
+     * Sets the absolute visual magnitude
+     *
+     */
+    public void setH(double _theValue) {
+        this.H = _theValue;
+    }
+
+    /**
+     * Gets the absolute visual magnitude
+     *
+     */
+    public double getH() {
+        return H;
+    }
+
+    /**
+     * Sets the J2000.0 inclination (deg.)
+     *
+     */
+    public void setIncl(double _theValue) {
+        this.Incl = _theValue;
+    }
+
+    /**
+     * Gets the J2000.0 inclination (deg.)
+     *
+     */
+    public double getIncl() {
+        return Incl;
+    }
+
+    /**
+     * Sets the mean anomaly at the epoch (deg.)
+     *
+     */
+    public void setM(double _theValue) {
+        this.M = _theValue;
+    }
+
+    /**
+     * Gets the mean anomaly at the epoch (deg.)
+     *
+     */
+    public double getM() {
+        return M;
+    }
+
+    /**
+     * Sets the mean daily motion (deg/day)
+     *
+     */
+    public void setN(double _theValue) {
+        this.n = _theValue;
+    }
+
+    /**
+     * Gets the mean daily motion (deg/day)
+     *
+     */
+    public double getN() {
+        return n;
+    }
+
+    /**
+     * Sets the name of the body
+     *
+     */
+    public void setName(String _theValue) {
+        this.Name = _theValue;
+    }
+
+    /**
+     * Gets the name of the body
+     *
+     */
+    public String getName() {
+        return Name;
+    }
+
+    /**
+     * Sets the J2000.0 longitude of the ascending node (deg.)
+     *
+     */
+    public void setNode(double _theValue) {
+        this.Node = _theValue;
+    }
+
+    /**
+     * Gets the J2000.0 longitude of the ascending node (deg.)
+     *
+     */
+    public double getNode() {
+        return Node;
+    }
+
+    /**
+     * Sets the major or minor planet number
+     *
+     */
+    public void setNumber(int _theValue) {
+        this.Number = _theValue;
+    }
+
+    /**
+     * Gets the major or minor planet number
+     *
+     */
+    public int getNumber() {
+        return Number;
+    }
+
+    /**
+     * Sets the orbital period (years)
+     *
+     */
+    public void setP(double _theValue) {
+        this.P = _theValue;
+    }
+
+    /**
+     * Gets the orbital period (years)
+     *
+     */
+    public double getP() {
+        return P;
+    }
+
+    /**
+     * Sets the J2000.0 argument of perihelion (deg.)
+     *
+     */
+    public void setPeri(double _theValue) {
+        this.Peri = _theValue;
+    }
+
+    /**
+     * Gets the J2000.0 argument of perihelion (deg.)
+     *
+     */
+    public double getPeri() {
+        return Peri;
+    }
+
+    /**
+     * Sets the perihelion distance (AU)
+     *
+     */
+    public void setQ(double _theValue) {
+        this.q = _theValue;
+    }
+
+    /**
+     * Gets the perihelion distance (AU)
+     *
+     */
+    public double getQ() {
+        return q;
+    }
+
+    /**
+     * Sets the reciprocal semi-major axis (1/AU)
+     *
+     */
+    public void setZ(double _theValue) {
+        this.z = _theValue;
+    }
+
+    /**
+     * Gets the reciprocal semi-major axis (1/AU)
+     *
+     */
+    public double getZ() {
+        return z;
+    }
+}
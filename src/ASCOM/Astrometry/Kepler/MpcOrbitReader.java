@@ -0,0 +1,277 @@
+package ASCOM.Astrometry.Kepler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams orbits in the Minor Planet Center's MPCORB format into an
+ * OrbitStore. Lines are parsed in place in the read buffer, so reading
+ * creates no String or other object per orbit and the whole file never has
+ * to be in memory. Line ends are searched for eight bytes at a time.
+ *
+ * Each orbit line gives, in fixed columns, the packed designation, H, G,
+ * the packed epoch, M, the argument of perihelion, the node, the
+ * inclination, e, n and a. The header of MPCORB.DAT, blank lines and any
+ * line whose elements cannot be parsed or are not elliptical are counted
+ * as skipped. The mean motion is taken from the line when given, since the
+ * mean anomaly was computed with it, and otherwise from a.
+ *
+ */
+public class MpcOrbitReader {
+
+    /**
+     * Length of an MPCORB line, without the line end.
+     */
+    static final int LINE = 202;
+
+    private static final double[] POWERS = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+        1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private final OrbitStore orbits;
+    private final byte[] buffer = new byte[1 << 16];
+    private final ByteBuffer words = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+    private long lines;
+    private long skipped;
+
+    /**
+     *
+     * @param orbits store to add the orbits to
+     */
+    public MpcOrbitReader(OrbitStore orbits) {
+        this.orbits = orbits;
+    }
+
+    /**
+     * Reads a file into a new store, sized from the length of the file.
+     * Files whose names end in .gz are decompressed as they are read.
+     *
+     */
+    public static OrbitStore load(Path file) throws IOException {
+        boolean gzip = file.getFileName().toString().endsWith(".gz");
+        long estimate = Files.size(file) / (LINE + 1) * (gzip ? 4 : 1);
+        OrbitStore orbits = new OrbitStore((int) Math.max(1, Math.min(estimate + 16, Integer.MAX_VALUE / 16)));
+        try (InputStream in = gzip ? new GZIPInputStream(Files.newInputStream(file), 1 << 16)
+                : Files.newInputStream(file)) {
+            new MpcOrbitReader(orbits).read(in);
+        }
+        return orbits;
+    }
+
+    /**
+     * Reads orbits until the end of the stream, which is left open.
+     *
+     * @return the number of orbits added
+     */
+    public int read(InputStream in) throws IOException {
+        byte[] b = buffer;
+        int added = 0;
+        int start = 0;
+        int limit = 0;
+        boolean overlong = false;
+        while (true) {
+            int end = lineEnd(start, limit);
+            if (end >= 0) {
+                if (overlong) {
+                    lines++;
+                    skipped++;
+                    overlong = false;
+                } else if (parse(start, end - start)) {
+                    added++;
+                }
+                start = end + 1;
+                continue;
+            }
+            if (start == 0 && limit == b.length) {
+                overlong = true;
+                limit = 0;
+            } else if (start > 0) {
+                System.arraycopy(b, start, b, 0, limit - start);
+                limit -= start;
+                start = 0;
+            }
+            int n = in.read(b, limit, b.length - limit);
+            if (n < 0) {
+                break;
+            }
+            limit += n;
+        }
+        if (limit > start) {
+            if (overlong) {
+                lines++;
+                skipped++;
+            } else if (parse(start, limit - start)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Finds the end of the line starting at an index of the buffer.
+     *
+     * @return the index of the newline, -1 if it is not in the buffer yet
+     */
+    private int lineEnd(int start, int limit) {
+        int i = start;
+        for (; i + 8 <= limit; i += 8) {
+            long v = words.getLong(i) ^ 0x0A0A0A0A0A0A0A0AL;
+            long found = (v - 0x0101010101010101L) & ~v & 0x8080808080808080L;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        byte[] b = buffer;
+        for (; i < limit; i++) {
+            if (b[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of lines read.
+     *
+     */
+    public long getLineCount() {
+        return lines;
+    }
+
+    /**
+     * Gets the number of lines that were not orbits.
+     *
+     */
+    public long getSkippedCount() {
+        return skipped;
+    }
+
+    /**
+     * Parses the line at an offset of the buffer, without its newline.
+     *
+     */
+    private boolean parse(int at, int length) {
+        byte[] line = buffer;
+        lines++;
+        if (length > 0 && line[at + length - 1] == '\r') {
+            length--;
+        }
+        if (length < 103) {
+            skipped++;
+            return false;
+        }
+        double epoch = epoch(line, at + 20);
+        double m = number(line, at + 26, at + 35);
+        double peri = number(line, at + 37, at + 46);
+        double node = number(line, at + 48, at + 57);
+        double incl = number(line, at + 59, at + 68);
+        double e = number(line, at + 70, at + 79);
+        double a = number(line, at + 92, at + 103);
+        if (Double.isNaN(epoch + m + peri + node + incl + e + a) || !(e < 1.0) || !(a > 0.0)) {
+            skipped++;
+            return false;
+        }
+        int designation = 7;
+        while (designation > 0 && line[at + designation - 1] == ' ') {
+            designation--;
+        }
+        orbits.add(line, at, designation, epoch, m, peri, node, incl, e, a, number(line, at + 80, at + 91),
+                number(line, at + 8, at + 13), number(line, at + 14, at + 19));
+        return true;
+    }
+
+    /**
+     * Parses a fixed column decimal number without creating a String.
+     *
+     * @return the number, NaN if the columns are blank or not a number
+     */
+    static double number(byte[] b, int from, int to) {
+        while (from < to && b[from] == ' ') {
+            from++;
+        }
+        while (to > from && b[to - 1] == ' ') {
+            to--;
+        }
+        if (from == to) {
+            return Double.NaN;
+        }
+        boolean negative = false;
+        if (b[from] == '-' || b[from] == '+') {
+            negative = b[from] == '-';
+            from++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (int i = from; i < to; i++) {
+            int c = b[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0 || digits > 18) {
+            return Double.NaN;
+        }
+        double value = decimals > 0 ? mantissa / POWERS[decimals] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Unpacks an MPC packed date, such as K24AH for 2024 October 17, to the
+     * Julian date of 0h TT on that day.
+     *
+     * @return the Julian date, NaN if the columns are not a packed date
+     */
+    static double epoch(byte[] b, int at) {
+        int century = b[at] - 'I' + 18;
+        int tens = b[at + 1] - '0';
+        int units = b[at + 2] - '0';
+        int year = tens >= 0 && tens <= 9 && units >= 0 && units <= 9 ? tens * 10 + units : -1;
+        int month = digit(b[at + 3]);
+        int day = digit(b[at + 4]);
+        if (century < 18 || century > 21 || year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return Double.NaN;
+        }
+        return julianDay(century * 100 + year, month, day);
+    }
+
+    /**
+     * Decodes a packed digit: 0 to 9, then A to V for 10 to 31.
+     *
+     */
+    private static int digit(byte c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'V') {
+            return c - 'A' + 10;
+        }
+        return -100;
+    }
+
+    /**
+     * Gets the Julian date of 0h on a Gregorian calendar date.
+     *
+     */
+    static double julianDay(int year, int month, int day) {
+        if (month <= 2) {
+            year--;
+            month += 12;
+        }
+        int a = year / 100;
+        int b = 2 - a + a / 4;
+        return Math.floor(365.25 * (year + 4716)) + Math.floor(30.6001 * (month + 1)) + day + b - 1524.5;
+    }
+}
@@ -0,0 +1,419 @@
+package ASCOM.Astrometry.Kepler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Heliocentric elliptical orbits held as parallel arrays, one entry per
+ * body, for propagating large catalogs such as MPCORB. Elements are
+ * osculating elements on the J2000 ecliptic and equinox, as published by
+ * the Minor Planet Center. Each entry also keeps its orbital plane as two
+ * vectors on the J2000 equator, so a position costs one solution of
+ * Kepler's equation and no further trigonometry of the angles.
+ *
+ * An entry takes 127 bytes: about 165 MB for the 1.3 million orbits of
+ * MPCORB.
+ *
+ * Propagation is two-body motion about the Sun without perturbations, so
+ * positions are only as good as the elements are close to the date. Adding
+ * orbits is not thread safe; once loaded, a store can be read and
+ * propagated from any number of threads.
+ *
+ */
+public class OrbitStore {
+
+    /**
+     * Gaussian gravitational constant (radians/day).
+     */
+    static final double GAUSS = 0.01720209895;
+
+    /**
+     * Obliquity of the J2000 ecliptic used by the Minor Planet Center
+     * (radians).
+     */
+    static final double OBLIQUITY = Math.toRadians(23.4392911);
+
+    /**
+     * Number of characters of a packed designation.
+     */
+    static final int DESIGNATION = 7;
+
+    private static final double DEG = Math.PI / 180.0;
+
+    private int size;
+    private byte[] designation;
+    private double[] epoch;
+    private double[] meanAnomaly;
+    private double[] perihelion;
+    private double[] node;
+    private double[] inclination;
+    private double[] eccentricity;
+    private double[] semiMajorAxis;
+    private double[] meanMotion;
+    private float[] magnitude;
+    private float[] slope;
+    private double[] px;
+    private double[] py;
+    private double[] pz;
+    private double[] qx;
+    private double[] qy;
+    private double[] qz;
+    private final double[] p = new double[3];
+    private final double[] q = new double[3];
+
+    public OrbitStore() {
+        this(1024);
+    }
+
+    /**
+     *
+     * @param capacity number of orbits to allocate room for; the store
+     * grows as needed
+     */
+    public OrbitStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        designation = designation == null ? new byte[capacity * DESIGNATION]
+                : Arrays.copyOf(designation, capacity * DESIGNATION);
+        epoch = grow(epoch, capacity);
+        meanAnomaly = grow(meanAnomaly, capacity);
+        perihelion = grow(perihelion, capacity);
+        node = grow(node, capacity);
+        inclination = grow(inclination, capacity);
+        eccentricity = grow(eccentricity, capacity);
+        semiMajorAxis = grow(semiMajorAxis, capacity);
+        meanMotion = grow(meanMotion, capacity);
+        magnitude = magnitude == null ? new float[capacity] : Arrays.copyOf(magnitude, capacity);
+        slope = slope == null ? new float[capacity] : Arrays.copyOf(slope, capacity);
+        px = grow(px, capacity);
+        py = grow(py, capacity);
+        pz = grow(pz, capacity);
+        qx = grow(qx, capacity);
+        qy = grow(qy, capacity);
+        qz = grow(qz, capacity);
+    }
+
+    private static double[] grow(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Makes room for at least the given number of orbits.
+     *
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > epoch.length) {
+            allocate(Math.max(capacity, epoch.length + (epoch.length >> 1)));
+        }
+    }
+
+    /**
+     * Adds an orbit.
+     *
+     * @param designation name or packed designation, at most 7 characters
+     * are kept
+     * @param epoch epoch of osculation (TT Julian date)
+     * @param meanAnomaly mean anomaly at the epoch (degrees)
+     * @param perihelion J2000 argument of perihelion (degrees)
+     * @param node J2000 longitude of the ascending node (degrees)
+     * @param inclination J2000 inclination (degrees)
+     * @param eccentricity eccentricity, 0 to less than 1
+     * @param semiMajorAxis semi-major axis (AU)
+     * @param meanMotion mean daily motion (degrees/day), NaN to compute it
+     * from the semi-major axis
+     * @param magnitude absolute magnitude H, NaN if unknown
+     * @param slope slope parameter G, NaN if unknown
+     * @return the index of the orbit
+     */
+    public int add(String designation, double epoch, double meanAnomaly, double perihelion, double node,
+            double inclination, double eccentricity, double semiMajorAxis, double meanMotion, double magnitude,
+            double slope) {
+        byte[] name = designation.getBytes(StandardCharsets.US_ASCII);
+        return add(name, 0, Math.min(name.length, DESIGNATION), epoch, meanAnomaly, perihelion, node, inclination,
+                eccentricity, semiMajorAxis, meanMotion, magnitude, slope);
+    }
+
+    /**
+     * Adds an orbit whose designation is in a byte array, without making a
+     * String of it.
+     *
+     */
+    int add(byte[] name, int offset, int length, double epoch, double meanAnomaly, double perihelion, double node,
+            double inclination, double eccentricity, double semiMajorAxis, double meanMotion, double magnitude,
+            double slope) {
+        if (!(eccentricity >= 0.0 && eccentricity < 1.0)) {
+            throw new IllegalArgumentException("Eccentricity must be from 0 to less than 1: " + eccentricity);
+        }
+        if (!(semiMajorAxis > 0.0)) {
+            throw new IllegalArgumentException("Semi-major axis must be positive: " + semiMajorAxis);
+        }
+        ensureCapacity(size + 1);
+        int i = size;
+        int at = i * DESIGNATION;
+        for (int k = 0; k < DESIGNATION; k++) {
+            this.designation[at + k] = k < length ? name[offset + k] : (byte) ' ';
+        }
+        this.epoch[i] = epoch;
+        this.meanAnomaly[i] = meanAnomaly;
+        this.perihelion[i] = perihelion;
+        this.node[i] = node;
+        this.inclination[i] = inclination;
+        this.eccentricity[i] = eccentricity;
+        this.semiMajorAxis[i] = semiMajorAxis;
+        this.meanMotion[i] = meanMotion > 0.0 ? meanMotion * DEG : GAUSS / (semiMajorAxis * Math.sqrt(semiMajorAxis));
+        this.magnitude[i] = (float) magnitude;
+        this.slope[i] = (float) slope;
+
+        plane(perihelion, node, inclination, p, q);
+        double b = semiMajorAxis * Math.sqrt(1.0 - eccentricity * eccentricity);
+        px[i] = semiMajorAxis * p[0];
+        py[i] = semiMajorAxis * p[1];
+        pz[i] = semiMajorAxis * p[2];
+        qx[i] = b * q[0];
+        qy[i] = b * q[1];
+        qz[i] = b * q[2];
+        size++;
+        return i;
+    }
+
+    /**
+     * Computes the unit vectors towards perihelion (P) and 90 degrees ahead
+     * of it in the orbital plane (Q), on the J2000 equator.
+     *
+     * @param perihelion argument of perihelion (degrees)
+     * @param node longitude of the ascending node (degrees)
+     * @param inclination inclination (degrees)
+     */
+    static void plane(double perihelion, double node, double inclination, double[] p, double[] q) {
+        double sw = Math.sin(perihelion * DEG);
+        double cw = Math.cos(perihelion * DEG);
+        double sn = Math.sin(node * DEG);
+        double cn = Math.cos(node * DEG);
+        double si = Math.sin(inclination * DEG);
+        double ci = Math.cos(inclination * DEG);
+        double se = Math.sin(OBLIQUITY);
+        double ce = Math.cos(OBLIQUITY);
+        double x = cw * cn - sw * sn * ci;
+        double y = cw * sn + sw * cn * ci;
+        double z = sw * si;
+        p[0] = x;
+        p[1] = y * ce - z * se;
+        p[2] = y * se + z * ce;
+        x = -sw * cn - cw * sn * ci;
+        y = -sw * sn + cw * cn * ci;
+        z = cw * si;
+        q[0] = x;
+        q[1] = y * ce - z * se;
+        q[2] = y * se + z * ce;
+    }
+
+    /**
+     * Solves Kepler's equation E - e sin E = M by Newton's method, starting
+     * from Danby's guess, which converges for every elliptical orbit.
+     *
+     * @param m mean anomaly (radians)
+     * @param e eccentricity
+     * @return the eccentric anomaly (radians), in the same revolution as m
+     * reduced to -pi to pi
+     */
+    static double eccentricAnomaly(double m, double e) {
+        m = Math.IEEEremainder(m, 2.0 * Math.PI);
+        double ea = m + (m < 0.0 ? -0.85 : 0.85) * e;
+        for (int i = 0; i < 50; i++) {
+            double s = Math.sin(ea);
+            double c = Math.cos(ea);
+            double d = (ea - e * s - m) / (1.0 - e * c);
+            ea -= d;
+            if (Math.abs(d) < 1.0e-14) {
+                break;
+            }
+        }
+        return ea;
+    }
+
+    /**
+     * Computes the heliocentric position and velocity of one orbit.
+     *
+     * @param i index of the orbit
+     * @param tjd TT Julian date
+     * @param pos receives the J2000 equatorial position (AU)
+     * @param vel receives the velocity (AU/day), may be null
+     */
+    public void state(int i, double tjd, double[] pos, double[] vel) {
+        check(i);
+        double n = meanMotion[i];
+        double e = eccentricity[i];
+        double ea = eccentricAnomaly(meanAnomaly[i] * DEG + n * (tjd - epoch[i]), e);
+        double s = Math.sin(ea);
+        double c = Math.cos(ea);
+        double u = c - e;
+        pos[0] = px[i] * u + qx[i] * s;
+        pos[1] = py[i] * u + qy[i] * s;
+        pos[2] = pz[i] * u + qz[i] * s;
+        if (vel != null) {
+            double rate = n / (1.0 - e * c);
+            vel[0] = (qx[i] * c - px[i] * s) * rate;
+            vel[1] = (qy[i] * c - py[i] * s) * rate;
+            vel[2] = (qz[i] * c - pz[i] * s) * rate;
+        }
+    }
+
+    /**
+     * Computes heliocentric positions, and optionally velocities, of a
+     * range of orbits into parallel arrays indexed like the store.
+     *
+     */
+    void propagate(int from, int to, double tjd, double[] x, double[] y, double[] z, double[] vx, double[] vy,
+            double[] vz) {
+        double[] epoch = this.epoch;
+        double[] m0 = this.meanAnomaly;
+        double[] mm = this.meanMotion;
+        double[] ecc = this.eccentricity;
+        double[] px = this.px;
+        double[] py = this.py;
+        double[] pz = this.pz;
+        double[] qx = this.qx;
+        double[] qy = this.qy;
+        double[] qz = this.qz;
+        for (int i = from; i < to; i++) {
+            double n = mm[i];
+            double e = ecc[i];
+            double ea = eccentricAnomaly(m0[i] * DEG + n * (tjd - epoch[i]), e);
+            double s = Math.sin(ea);
+            double c = Math.cos(ea);
+            double u = c - e;
+            x[i] = px[i] * u + qx[i] * s;
+            y[i] = py[i] * u + qy[i] * s;
+            z[i] = pz[i] * u + qz[i] * s;
+            if (vx != null) {
+                double rate = n / (1.0 - e * c);
+                vx[i] = (qx[i] * c - px[i] * s) * rate;
+                vy[i] = (qy[i] * c - py[i] * s) * rate;
+                vz[i] = (qz[i] * c - pz[i] * s) * rate;
+            }
+        }
+    }
+
+    private void check(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Orbit " + i + " of " + size);
+        }
+    }
+
+    /**
+     * Gets the number of orbits.
+     *
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drops every orbit, keeping the allocated room.
+     *
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gets the designation of an orbit, as added with trailing blanks
+     * removed.
+     *
+     */
+    public String getDesignation(int i) {
+        check(i);
+        return new String(designation, i * DESIGNATION, DESIGNATION, StandardCharsets.US_ASCII).trim();
+    }
+
+    /**
+     * Gets the epoch of osculation (TT Julian date).
+     *
+     */
+    public double getEpoch(int i) {
+        check(i);
+        return epoch[i];
+    }
+
+    /**
+     * Gets the mean anomaly at the epoch (degrees).
+     *
+     */
+    public double getMeanAnomaly(int i) {
+        check(i);
+        return meanAnomaly[i];
+    }
+
+    /**
+     * Gets the J2000 argument of perihelion (degrees).
+     *
+     */
+    public double getPerihelion(int i) {
+        check(i);
+        return perihelion[i];
+    }
+
+    /**
+     * Gets the J2000 longitude of the ascending node (degrees).
+     *
+     */
+    public double getNode(int i) {
+        check(i);
+        return node[i];
+    }
+
+    /**
+     * Gets the J2000 inclination (degrees).
+     *
+     */
+    public double getInclination(int i) {
+        check(i);
+        return inclination[i];
+    }
+
+    public double getEccentricity(int i) {
+        check(i);
+        return eccentricity[i];
+    }
+
+    /**
+     * Gets the semi-major axis (AU).
+     *
+     */
+    public double getSemiMajorAxis(int i) {
+        check(i);
+        return semiMajorAxis[i];
+    }
+
+    /**
+     * Gets the mean daily motion (degrees/day).
+     *
+     */
+    public double getMeanMotion(int i) {
+        check(i);
+        return meanMotion[i] / DEG;
+    }
+
+    /**
+     * Gets the absolute magnitude H, NaN if unknown.
+     *
+     */
+    public double getMagnitude(int i) {
+        check(i);
+        return magnitude[i];
+    }
+
+    /**
+     * Gets the slope parameter G, NaN if unknown.
+     *
+     */
+    public double getSlope(int i) {
+        check(i);
+        return slope[i];
+    }
+}
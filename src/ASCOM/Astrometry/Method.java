@@ -0,0 +1,24 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Computation method, CIO based or equinox based
+ 
+
+
+*/
+public enum Method{
+    CIO_BASED,
+    EQUINOX_BASED;
+
+    /*
+ Returns the method for a NOVAS value
+     */
+    public static Method fromValue(int value){
+        Method[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown method " + value);
+        }
+        return all[value];
+    }
+}
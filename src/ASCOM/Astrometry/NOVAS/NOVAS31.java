@@ -0,0 +1,2258 @@
+package ASCOM.Astrometry.NOVAS;
+
+import ASCOM.Astrometry.Accuracy;
+import ASCOM.Astrometry.Body;
+import ASCOM.Astrometry.CatEntry3;
+import ASCOM.Astrometry.CoordSys;
+import ASCOM.Astrometry.EarthDeflection;
+import ASCOM.Astrometry.EquinoxType;
+import ASCOM.Astrometry.FrameConversionDirection;
+import ASCOM.Astrometry.GstType;
+import ASCOM.Astrometry.InSpace;
+import ASCOM.Astrometry.JplEphemeris;
+import ASCOM.Astrometry.Method;
+import ASCOM.Astrometry.NutationDirection;
+import ASCOM.Astrometry.Object3;
+import ASCOM.Astrometry.ObjectType;
+import ASCOM.Astrometry.Observer;
+import ASCOM.Astrometry.ObserverLocation;
+import ASCOM.Astrometry.OnSurface;
+import ASCOM.Astrometry.Origin;
+import ASCOM.Astrometry.OutputVectorOption;
+import ASCOM.Astrometry.PoleOffsetCorrection;
+import ASCOM.Astrometry.PrecessionNutation;
+import ASCOM.Astrometry.PrecessionNutationCache;
+import ASCOM.Astrometry.RAOfCio;
+import ASCOM.Astrometry.Reduction;
+import ASCOM.Astrometry.ReferenceSystem;
+import ASCOM.Astrometry.RefractionOption;
+import ASCOM.Astrometry.SkyPos;
+import ASCOM.Astrometry.Target;
+import ASCOM.Astrometry.TransformationDirection;
+import ASCOM.Astrometry.TransformationOption3;
+import java.util.List;
+
+/**
+ * NOVAS 3.1 (Naval Observatory Vector Astrometry Software) in Java.
+ *
+ * The functions follow the NOVAS 3.1 C library and the ASCOM NOVAS31
+ * component: same names, arguments, units and error codes. Values that
+ * NOVAS returns through pointers are written to caller supplied arrays, and
+ * functions that cannot fail return their value directly.
+ *
+ * The reductions are those of ASCOM.Astrometry.Reduction: IAU 2006
+ * precession and IAU 2000B nutation with the complementary terms of the
+ * equation of the equinoxes. NOVAS uses the full IAU 2000A series, which
+ * IAU 2000B follows to 1 mas between 1995 and 2050. The Earth, Sun, Moon
+ * and planets come from a JPL DE ephemeris set with setEphemeris; without
+ * one the Earth comes from a low precision solar theory, good to about
+ * 0.02 arcsec of aberration, light is deflected by the Sun alone and solar
+ * system bodies cannot be observed. The CIO and equinox based methods give
+ * identical results, the CIO right ascensions are computed rather than
+ * read from the NOVAS cio_ra.bin file, and TDB is taken to be TT in the
+ * reductions.
+ *
+ * Once the precession and nutation for a date are in the
+ * PrecessionNutationCache, no function allocates. Pole offsets set with
+ * CelPole bypass the cache, so each new date then computes its own
+ * reduction. Each instance holds scratch vectors, so an instance must not
+ * be used by more than one thread at a time; instances are cheap.
+ *
+ */
+public class NOVAS31 {
+
+    private static final double T0 = Reduction.J2000;
+    private static final double DEG2RAD = Math.PI / 180.0;
+    private static final double RAD2DEG = 180.0 / Math.PI;
+    private static final double ASEC2RAD = Reduction.ARCSEC;
+
+    /**
+     * Speed of light (AU per day).
+     */
+    private static final double C_AUDAY = Reduction.C_AU_PER_DAY;
+
+    /**
+     * Speed of light (m/s).
+     */
+    private static final double C = Reduction.C_M_PER_S;
+
+    /**
+     * Astronomical unit (m and km).
+     */
+    private static final double AU = 1.4959787069098932e11;
+    private static final double AU_KM = 1.4959787069098932e8;
+
+    /**
+     * Heliocentric gravitational constant (m^3/s^2).
+     */
+    private static final double GS = 1.32712440017987e20;
+
+    /**
+     * Geocentric gravitational constant (m^3/s^2).
+     */
+    private static final double GE = 3.98600433e14;
+
+    /**
+     * Equatorial radius (km), flattening and rotation rate (radians per
+     * second) of the Earth, IERS 2003.
+     */
+    private static final double ERAD_KM = 6378.1366;
+    private static final double F = 1.0 / 298.25642;
+    private static final double ANGVEL = 7.2921150e-5;
+
+    /**
+     * Reciprocal masses, in solar masses, of the bodies that deflect light:
+     * the Sun, Jupiter and Saturn, and the Earth.
+     */
+    private static final Target[] DEFLECTORS = {Target.SUN, Target.JUPITER, Target.SATURN};
+    private static final double[] DEFLECTOR_RMASS = {1.0, 1047.3486, 3497.898};
+    private static final double EARTH_RMASS = 332946.050895;
+
+    /**
+     * Equatorial to galactic rotation matrix (Hipparcos and Tycho
+     * Catalogues, vol. 1, section 1.5.3).
+     */
+    private static final double[] GALACTIC = {
+        -0.0548755604, +0.4941094279, -0.8676661490,
+        -0.8734370902, -0.4448296300, -0.1980763734,
+        -0.4838350155, +0.7469822445, +0.4559837762
+    };
+
+    /**
+     * Spacing of the dates returned by CioArray, as in the NOVAS cio_ra.bin
+     * file (days).
+     */
+    private static final double CIO_SPACING = 1.2;
+
+    /**
+     * Hipparcos catalog epoch J1991.25 (TT Julian date).
+     */
+    private static final double HIPPARCOS_EPOCH = 2448349.0625;
+
+    private static final double[] BIAS = new double[9];
+
+    static {
+        Reduction.frameBiasMatrix(BIAS);
+    }
+
+    private final double[] m1 = new double[9];
+    private final double[] m2 = new double[9];
+    private final double[] v1 = new double[3];
+    private final double[] v2 = new double[3];
+    private final double[] v3 = new double[3];
+    private final double[] v4 = new double[3];
+    private final double[] v5 = new double[3];
+    private final double[] earthPos = new double[3];
+    private final double[] earthVel = new double[3];
+    private final double[] obsPos = new double[3];
+    private final double[] obsVel = new double[3];
+    private final double[] sunPos = new double[3];
+    private final double[] starPos = new double[3];
+    private final double[] starVel = new double[3];
+    private final double[] zenith = new double[3];
+    private final double[] north = new double[3];
+    private final double[] west = new double[3];
+    private final double[] bodyPos = new double[3];
+    private final double[] bodyObs = new double[3];
+    private final double[] catPos = new double[3];
+    private final double[] catVel = new double[3];
+    private final double[] cioX = new double[3];
+    private final double[] cioY = new double[3];
+    private final double[] cioZ = new double[3];
+    private final double[] raDec = new double[2];
+    private final double[] jd2 = new double[2];
+    private final double[] posVel = new double[6];
+    private final CatEntry3 scratchStar = new CatEntry3();
+    private final Object3 scratchObject = new Object3();
+    private final Observer geocenter = new Observer();
+    private final Observer surface = new Observer();
+    private final SkyPos scratchPlace = new SkyPos();
+
+    private final PrecessionNutationCache cache;
+    private JplEphemeris ephemeris;
+    private PrecessionNutation reduction;
+    private double earthDate = Double.NaN;
+    private double psiCor;
+    private double epsCor;
+
+    public NOVAS31() {
+        this(PrecessionNutationCache.shared());
+    }
+
+    /**
+     *
+     * @param cache cache of the precession and nutation for each date
+     */
+    public NOVAS31(PrecessionNutationCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache must not be null");
+        }
+        this.cache = cache;
+        surface.setWhere(ObserverLocation.EARTH_SURFACE);
+    }
+
+    /**
+     * Releases the resources used by the component. Nothing is held.
+     *
+     */
+    public void Dispose() {
+    }
+
+    /**
+     * Computes the Julian date for a given calendar date and time.
+     *
+     * @param year year (Gregorian calendar)
+     * @param month month, 1 to 12
+     * @param day day of the month, 1 to 31
+     * @param hour hour of the day, 0 to 24
+     * @return the Julian date
+     */
+    public double JulianDate(short year, short month, short day, double hour) {
+        long y = year;
+        long m = month;
+        long jd12h = day - 32075L + 1461L * (y + 4800L + (m - 14L) / 12L) / 4L
+                + 367L * (m - 2L - (m - 14L) / 12L * 12L) / 12L
+                - 3L * ((y + 4900L + (m - 14L) / 12L) / 100L) / 4L;
+        return jd12h - 0.5 + hour / 24.0;
+    }
+
+    /**
+     * Computes the calendar date and time of a Julian date.
+     *
+     * @param tjd Julian date
+     * @param date receives the year, month and day
+     * @return the hour of the day, 0 to 24
+     */
+    public double CalDate(double tjd, short[] date) {
+        double djd = tjd + 0.5;
+        long jd = (long) Math.floor(djd);
+        double hour = (djd - jd) * 24.0;
+        long k = jd + 68569L;
+        long n = 4L * k / 146097L;
+        k = k - (146097L * n + 3L) / 4L;
+        long m = 4000L * (k + 1L) / 1461001L;
+        k = k - 1461L * m / 4L + 31L;
+        long month = 80L * k / 2447L;
+        long day = k - 2447L * month / 80L;
+        k = month / 11L;
+        month = month + 2L - 12L * k;
+        date[0] = (short) (100L * (n - 49L) + m + k);
+        date[1] = (short) month;
+        date[2] = (short) day;
+        return hour;
+    }
+
+    /**
+     * Computes the Terrestrial Time Julian date corresponding to a
+     * Barycentric Dynamical Time Julian date, and the difference between
+     * them.
+     *
+     * @param tdbJd TDB Julian date
+     * @param out receives the TT Julian date and TDB - TT (seconds)
+     */
+    public void Tdb2Tt(double tdbJd, double[] out) {
+        double t = (tdbJd - T0) / Reduction.JULIAN_CENTURY;
+        double secdiff = 0.001657 * Math.sin(628.3076 * t + 6.2401)
+                + 0.000022 * Math.sin(575.3385 * t + 4.2970)
+                + 0.000014 * Math.sin(1256.6152 * t + 6.1969)
+                + 0.000005 * Math.sin(606.9777 * t + 4.0212)
+                + 0.000005 * Math.sin(52.9691 * t + 0.4444)
+                + 0.000002 * Math.sin(21.3299 * t + 5.5431)
+                + 0.000010 * t * Math.sin(628.3076 * t + 4.2490);
+        out[0] = tdbJd - secdiff / 86400.0;
+        out[1] = secdiff;
+    }
+
+    /**
+     * Gets Delta T, TT - UT1, for a date, from ASCOM.Astrometry.DeltaT.
+     *
+     * @param jd Julian date
+     * @return TT - UT1 (seconds)
+     */
+    public double DeltaT(double jd) {
+        return ASCOM.Astrometry.DeltaT.DeltaT(jd);
+    }
+
+    /**
+     * Computes the mean obliquity of the ecliptic.
+     *
+     * @param jdTdb TDB Julian date
+     * @return the mean obliquity (arcseconds)
+     */
+    public double MeanObliq(double jdTdb) {
+        return Reduction.meanObliquity(jdTdb) / ASEC2RAD;
+    }
+
+    /**
+     * Normalizes an angle into the range 0 to 2 pi.
+     *
+     * @param angle angle (radians)
+     */
+    public double NormAng(double angle) {
+        return Reduction.normalize(angle);
+    }
+
+    /**
+     * Computes the Earth Rotation Angle for a UT1 Julian date split into
+     * two parts for precision.
+     *
+     * @param jdHigh high-order part of the UT1 Julian date
+     * @param jdLow low-order part of the UT1 Julian date
+     * @return the Earth Rotation Angle (degrees)
+     */
+    public double Era(double jdHigh, double jdLow) {
+        double thet1 = 0.7790572732640 + 0.00273781191135448 * (jdHigh - T0);
+        double thet2 = 0.00273781191135448 * jdLow;
+        double thet3 = jdHigh % 1.0 + jdLow % 1.0;
+        double theta = (thet1 + thet2 + thet3) % 1.0 * 360.0;
+        return theta < 0.0 ? theta + 360.0 : theta;
+    }
+
+    /**
+     * Computes the nutation angles.
+     *
+     * @param t TDB time in Julian centuries since J2000.0
+     * @param accuracy selects the number of nutation terms
+     * @param out receives the nutation in longitude and in obliquity
+     * (arcseconds)
+     */
+    public void NutationAngles(double t, Accuracy accuracy, double[] out) {
+        Reduction.nutationAngles(T0 + t * Reduction.JULIAN_CENTURY, accuracy, out);
+        out[0] /= ASEC2RAD;
+        out[1] /= ASEC2RAD;
+    }
+
+    /**
+     * Computes the complementary terms of the equation of the equinoxes,
+     * consistent with the IAU 2000 resolutions (IERS Conventions 2003).
+     * Reduced accuracy skips the terms below 2 microarcseconds.
+     *
+     * @param jdHigh high-order part of the TT Julian date
+     * @param jdLow low-order part of the TT Julian date
+     * @param accuracy selects the number of terms
+     * @return the complementary terms (radians)
+     */
+    public double EeCt(double jdHigh, double jdLow, Accuracy accuracy) {
+        return Reduction.equationOfEquinoxesComplement(jdHigh + jdLow, accuracy);
+    }
+
+    /**
+     * Computes the fundamental arguments (mean elements) of the Sun and
+     * Moon.
+     *
+     * @param t TDB time in Julian centuries since J2000.0
+     * @param a receives l, l', F, D and Omega (radians)
+     */
+    public void FundArgs(double t, double[] a) {
+        Reduction.fundamentalArguments(t, a);
+    }
+
+    /**
+     * Sets the observed offsets of the celestial pole from the modelled
+     * pole, as published by the IERS. The offsets are added to the
+     * nutation used by ETilt, Nutation, SiderealTime and every function
+     * built on them, until CelPole is called again; offsets of zero
+     * restore the model.
+     *
+     * @param tjd TDB Julian date of the offsets; used only to rotate
+     * REFERRED_TO_GCRS_AXES offsets to the equator of date
+     * @param type REFERRED_TO_MEAN_ECLIPTIC_OF_DATE for offsets in
+     * longitude and obliquity, REFERRED_TO_GCRS_AXES for offsets dx and dy
+     * @param dpole1 delta delta psi or dx (milliarcseconds)
+     * @param dpole2 delta delta epsilon or dy (milliarcseconds)
+     * @return 0
+     */
+    public short CelPole(double tjd, PoleOffsetCorrection type, double dpole1, double dpole2) {
+        double mas = 1.0e-3 * ASEC2RAD;
+        if (type == PoleOffsetCorrection.REFERRED_TO_MEAN_ECLIPTIC_OF_DATE) {
+            psiCor = dpole1 * mas;
+            epsCor = dpole2 * mas;
+        } else {
+            double t = (tjd - T0) / Reduction.JULIAN_CENTURY;
+            double sinE = Math.sin(Reduction.meanObliquity(tjd));
+            // Trivial model of the pole trajectory in the GCRS, giving dz.
+            double x = 2004.190 * t * ASEC2RAD;
+            v1[0] = dpole1 * mas;
+            v1[1] = dpole2 * mas;
+            v1[2] = -(x + 0.5 * x * x * x) * dpole1 * mas;
+            FrameTie(v1, FrameConversionDirection.ICRS_TO_DYNAMICAL, v2);
+            Precession(T0, v2, tjd, v3);
+            psiCor = v3[0] / sinE;
+            epsCor = v3[1];
+        }
+        reduction = null;
+        return 0;
+    }
+
+    /**
+     * Computes quantities related to the orientation of the Earth's
+     * rotation axis at a date.
+     *
+     * @param jdTdb TDB Julian date
+     * @param accuracy selects the number of nutation terms
+     * @param out receives the mean obliquity (degrees), the true obliquity
+     * (degrees), the equation of the equinoxes (seconds of time), the
+     * nutation in longitude (arcseconds) and the nutation in obliquity
+     * (arcseconds)
+     */
+    public void ETilt(double jdTdb, Accuracy accuracy, double[] out) {
+        PrecessionNutation pn = reduction(jdTdb, accuracy);
+        out[0] = pn.getMeanObliquity() * RAD2DEG;
+        out[1] = pn.getTrueObliquity() * RAD2DEG;
+        out[2] = pn.getEquationOfEquinoxes() / ASEC2RAD / 15.0;
+        out[3] = pn.getNutationInLongitude() / ASEC2RAD;
+        out[4] = pn.getNutationInObliquity() / ASEC2RAD;
+    }
+
+    /**
+     * Computes the Greenwich sidereal time, mean or apparent, for a UT1
+     * Julian date split into two parts. Both methods give the same result.
+     *
+     * @param jdHigh high-order part of the UT1 Julian date
+     * @param jdLow low-order part of the UT1 Julian date
+     * @param deltaT TT - UT1 (seconds)
+     * @param gstType mean or apparent sidereal time
+     * @param method CIO or equinox based
+     * @param accuracy selects the number of nutation terms
+     * @return the sidereal time (hours, 0 to 24)
+     */
+    public double SiderealTime(double jdHigh, double jdLow, double deltaT, GstType gstType, Method method,
+            Accuracy accuracy) {
+        double jdUt1 = jdHigh + jdLow;
+        double jdTt = jdUt1 + deltaT / 86400.0;
+        double gst = Reduction.greenwichMeanSiderealTime(jdUt1, jdTt);
+        if (gstType == GstType.GREENWICH_APPARENT_SIDEREAL_TIME) {
+            gst = Reduction.normalize(gst + reduction(jdTt, accuracy).getEquationOfEquinoxes());
+        }
+        return gst * RAD2DEG / 15.0;
+    }
+
+    /**
+     * Computes the intermediate right ascension of the equinox: the right
+     * ascension of the mean or true equinox of date measured from the
+     * celestial intermediate origin.
+     *
+     * @param jdTdb TDB Julian date
+     * @param equinox mean or true equinox
+     * @param accuracy selects the number of nutation terms
+     * @return the intermediate right ascension of the equinox (hours)
+     */
+    public double IraEquinox(double jdTdb, EquinoxType equinox, Accuracy accuracy) {
+        double t = (jdTdb - T0) / Reduction.JULIAN_CENTURY;
+        double eqeq = 0.0;
+        if (equinox == EquinoxType.TRUE_EQUINOX) {
+            eqeq = reduction(jdTdb, accuracy).getEquationOfEquinoxes() / ASEC2RAD / 15.0;
+        }
+        double precRa = 0.014506 + (4612.156534 + (1.3915817 + (-0.00000044 + (-0.000029956
+                - 0.0000000368 * t) * t) * t) * t) * t;
+        return -(precRa / 15.0 + eqeq) / 3600.0;
+    }
+
+    /**
+     * Gets the location of the celestial intermediate origin (CIO) at a
+     * date, as a right ascension on the true equator of date. NOVAS reads
+     * GCRS right ascensions from its cio_ra.bin file when there is one;
+     * here they always come from IraEquinox, measured from the true
+     * equinox.
+     *
+     * @param jdTdb TDB Julian date
+     * @param accuracy selects the number of nutation terms
+     * @param raCio receives the right ascension of the CIO (hours)
+     * @return the reference system of the right ascension, TRUE_EQUINOX
+     */
+    public ReferenceSystem CioLocation(double jdTdb, Accuracy accuracy, double[] raCio) {
+        raCio[0] = -IraEquinox(jdTdb, EquinoxType.TRUE_EQUINOX, accuracy);
+        return ReferenceSystem.TRUE_EQUINOX;
+    }
+
+    /**
+     * Computes the true right ascension of the celestial intermediate
+     * origin (CIO): the right ascension of the CIO measured from the true
+     * equinox, minus the equation of the origins.
+     *
+     * @param jdTt TT Julian date
+     * @param accuracy selects the number of nutation terms
+     * @return the right ascension of the CIO (hours)
+     */
+    public double CioRa(double jdTt, Accuracy accuracy) {
+        ReferenceSystem refSys = CioLocation(jdTt, accuracy, raDec);
+        CioBasis(jdTt, raDec[0], refSys, accuracy, cioX, cioY, cioZ);
+        v1[0] = 1.0;
+        v1[1] = 0.0;
+        v1[2] = 0.0;
+        reduction(jdTt, accuracy).toIcrs(v1, v2);
+        return -Math.atan2(dot(v2, cioY), dot(v2, cioX)) * RAD2DEG / 15.0;
+    }
+
+    /**
+     * Computes the orthonormal basis vectors, with respect to the GCRS, of
+     * the celestial intermediate system: the celestial intermediate pole
+     * in the z direction and the celestial intermediate origin in the x
+     * direction.
+     *
+     * @param jdTdb TDB Julian date
+     * @param raCio right ascension of the CIO (hours)
+     * @param refSys reference system of raCio: the GCRS origin or the true
+     * equinox of date
+     * @param accuracy selects the number of nutation terms
+     * @param x receives the unit vector toward the CIO
+     * @param y receives the unit vector toward the y axis
+     * @param z receives the unit vector toward the celestial intermediate
+     * pole
+     */
+    public void CioBasis(double jdTdb, double raCio, ReferenceSystem refSys, Accuracy accuracy, double[] x,
+            double[] y, double[] z) {
+        PrecessionNutation pn = reduction(jdTdb, accuracy);
+        v1[0] = 0.0;
+        v1[1] = 0.0;
+        v1[2] = 1.0;
+        pn.toIcrs(v1, z);
+        double r = raCio * 15.0 * DEG2RAD;
+        double sinra = Math.sin(r);
+        double cosra = Math.cos(r);
+        if (refSys == ReferenceSystem.GCRS) {
+            x[0] = z[2] * cosra;
+            x[1] = z[2] * sinra;
+            x[2] = -z[0] * cosra - z[1] * sinra;
+            double xmag = length(x);
+            x[0] /= xmag;
+            x[1] /= xmag;
+            x[2] /= xmag;
+        } else {
+            v1[0] = cosra;
+            v1[1] = sinra;
+            v1[2] = 0.0;
+            pn.toIcrs(v1, x);
+        }
+        double y0 = z[1] * x[2] - z[2] * x[1];
+        double y1 = z[2] * x[0] - z[0] * x[2];
+        double y2 = z[0] * x[1] - z[1] * x[0];
+        y[0] = y0;
+        y[1] = y1;
+        y[2] = y2;
+    }
+
+    /**
+     * Computes the GCRS right ascension of the celestial intermediate
+     * origin (CIO) at dates spaced 1.2 days apart around a date, as NOVAS
+     * reads them from its cio_ra.bin file. The values are computed at full
+     * accuracy.
+     *
+     * @param jdTdb TDB Julian date
+     * @param nPts number of dates, 2 to 20
+     * @param cio receives the dates and right ascensions, replacing its
+     * contents
+     * @return 0 on success, 3 if nPts is out of range
+     */
+    public short CioArray(double jdTdb, int nPts, List<RAOfCio> cio) {
+        if (nPts < 2 || nPts > 20) {
+            return 3;
+        }
+        cio.clear();
+        long first = (long) Math.floor((jdTdb - T0) / CIO_SPACING) - (nPts - 1) / 2;
+        for (int i = 0; i < nPts; i++) {
+            double jd = T0 + (first + i) * CIO_SPACING;
+            ReferenceSystem refSys = CioLocation(jd, Accuracy.FULL, raDec);
+            CioBasis(jd, raDec[0], refSys, Accuracy.FULL, cioX, cioY, cioZ);
+            cio.add(new RAOfCio(jd, Math.atan2(cioX[1], cioX[0]) / ASEC2RAD));
+        }
+        return 0;
+    }
+
+    /**
+     * Converts right ascension, declination and distance to a position
+     * vector.
+     *
+     * @param ra right ascension (hours)
+     * @param dec declination (degrees)
+     * @param dist distance
+     * @param vector receives the position vector, in the units of dist
+     */
+    public void RaDec2Vector(double ra, double dec, double dist, double[] vector) {
+        double r = ra * 15.0 * DEG2RAD;
+        double d = dec * DEG2RAD;
+        double cd = Math.cos(d);
+        vector[0] = dist * cd * Math.cos(r);
+        vector[1] = dist * cd * Math.sin(r);
+        vector[2] = dist * Math.sin(d);
+    }
+
+    /**
+     * Converts a position vector to right ascension and declination.
+     *
+     * @param pos position vector
+     * @param raDec receives the right ascension (hours) and declination
+     * (degrees)
+     * @return 0 on success, 1 if all components are zero, 2 if the vector
+     * points at a pole (right ascension 0)
+     */
+    public short Vector2RaDec(double[] pos, double[] raDec) {
+        if (pos[0] == 0.0 && pos[1] == 0.0 && pos[2] == 0.0) {
+            raDec[0] = 0.0;
+            raDec[1] = 0.0;
+            return 1;
+        }
+        double xyproj = Math.sqrt(pos[0] * pos[0] + pos[1] * pos[1]);
+        if (xyproj == 0.0) {
+            raDec[0] = 0.0;
+            raDec[1] = pos[2] < 0.0 ? -90.0 : 90.0;
+            return 2;
+        }
+        double ra = Math.atan2(pos[1], pos[0]) * RAD2DEG / 15.0;
+        raDec[0] = ra < 0.0 ? ra + 24.0 : ra;
+        raDec[1] = Math.atan2(pos[2], xyproj) * RAD2DEG;
+        return 0;
+    }
+
+    /**
+     * Converts catalog data for a star to barycentric position and velocity
+     * vectors. A parallax of 0 or less places the star at 1 Gpc.
+     *
+     * @param star catalog entry
+     * @param pos receives the position vector (AU)
+     * @param vel receives the velocity vector (AU/day)
+     */
+    public void StarVectors(CatEntry3 star, double[] pos, double[] vel) {
+        double paralx = star.getParallax() <= 0.0 ? 1.0e-6 : star.getParallax();
+        double dist = 1.0 / Math.sin(paralx * 1.0e-3 * ASEC2RAD);
+        RaDec2Vector(star.getRA(), star.getDec(), dist, pos);
+        double r = star.getRA() * 15.0 * DEG2RAD;
+        double d = star.getDec() * DEG2RAD;
+        double cra = Math.cos(r);
+        double sra = Math.sin(r);
+        double cdc = Math.cos(d);
+        double sdc = Math.sin(d);
+        double pmr = star.getProMoRA() / (paralx * 365.25);
+        double pmd = star.getProMoDec() / (paralx * 365.25);
+        double rvl = star.getRadialVelocity() * 86400.0 / AU_KM;
+        vel[0] = -pmr * sra - pmd * sdc * cra + rvl * cdc * cra;
+        vel[1] = pmr * cra - pmd * sdc * sra + rvl * cdc * sra;
+        vel[2] = pmd * cdc + rvl * sdc;
+    }
+
+    /**
+     * Applies proper motion, including foreshortening, to a star's position.
+     *
+     * @param jd1 TDB Julian date of the first epoch
+     * @param pos position vector at the first epoch
+     * @param vel velocity vector at the first epoch
+     * @param jd2 TDB Julian date of the second epoch
+     * @param pos2 receives the position vector at the second epoch
+     */
+    public void ProperMotion(double jd1, double[] pos, double[] vel, double jd2, double[] pos2) {
+        double dt = jd2 - jd1;
+        pos2[0] = pos[0] + vel[0] * dt;
+        pos2[1] = pos[1] + vel[1] * dt;
+        pos2[2] = pos[2] + vel[2] * dt;
+    }
+
+    /**
+     * Transforms a star's catalog quantities for a change of epoch, of
+     * equator and equinox, or both, or rotates them between the dynamical
+     * frame of J2000.0 and the ICRS.
+     *
+     * @param option transformation
+     * @param dateInCat date of the input catalog, as a TT Julian date or,
+     * below 10000, a Julian year; ignored by the frame rotations
+     * @param inCat input catalog entry
+     * @param dateNewCat date of the output catalog, in the same form
+     * @param newCatId catalog designator of the output, at most 3
+     * characters
+     * @param newCat receives the transformed entry; may be inCat
+     * @return 0 on success, 2 if newCatId is too long
+     */
+    public short TransformCat(TransformationOption3 option, double dateInCat, CatEntry3 inCat, double dateNewCat,
+            String newCatId, CatEntry3 newCat) {
+        if (newCatId.length() > 3) {
+            return 2;
+        }
+        double jdInCat = dateInCat < 10000.0 ? T0 + (dateInCat - 2000.0) * 365.25 : dateInCat;
+        double jdNewCat = dateNewCat < 10000.0 ? T0 + (dateNewCat - 2000.0) * 365.25 : dateNewCat;
+        double paralx = inCat.getParallax() <= 0.0 ? 1.0e-6 : inCat.getParallax();
+        double dist = 1.0 / Math.sin(paralx * 1.0e-3 * ASEC2RAD);
+        double r = inCat.getRA() * 15.0 * DEG2RAD;
+        double d = inCat.getDec() * DEG2RAD;
+        double cra = Math.cos(r);
+        double sra = Math.sin(r);
+        double cdc = Math.cos(d);
+        double sdc = Math.sin(d);
+        catPos[0] = dist * cdc * cra;
+        catPos[1] = dist * cdc * sra;
+        catPos[2] = dist * sdc;
+        // Doppler factor for the change in light travel time to the star.
+        double k = 1.0 / (1.0 - inCat.getRadialVelocity() * 1000.0 / C);
+        double pmr = inCat.getProMoRA() / (paralx * 365.25) * k;
+        double pmd = inCat.getProMoDec() / (paralx * 365.25) * k;
+        double rvl = inCat.getRadialVelocity() * 86400.0 / AU_KM * k;
+        catVel[0] = -pmr * sra - pmd * sdc * cra + rvl * cdc * cra;
+        catVel[1] = pmr * cra - pmd * sdc * sra + rvl * cdc * sra;
+        catVel[2] = pmd * cdc + rvl * sdc;
+        switch (option) {
+            case CHANGE_EPOCH:
+                ProperMotion(jdInCat, catPos, catVel, jdNewCat, catPos);
+                break;
+            case CHANGE_EQUATOR_AND_EQUINOX:
+                Precession(jdInCat, catPos, jdNewCat, catPos);
+                Precession(jdInCat, catVel, jdNewCat, catVel);
+                break;
+            case CHANGE_EQUATOR_AND_EQUINOX_AND_EPOCH:
+                ProperMotion(jdInCat, catPos, catVel, jdNewCat, catPos);
+                Precession(jdInCat, catPos, jdNewCat, catPos);
+                Precession(jdInCat, catVel, jdNewCat, catVel);
+                break;
+            case CHANGE_EQUATOR_AND_EQUINOX_J2000_TO_ICRS:
+                FrameTie(catPos, FrameConversionDirection.DYNAMICAL_TO_ICRS, catPos);
+                FrameTie(catVel, FrameConversionDirection.DYNAMICAL_TO_ICRS, catVel);
+                break;
+            default:
+                FrameTie(catPos, FrameConversionDirection.ICRS_TO_DYNAMICAL, catPos);
+                FrameTie(catVel, FrameConversionDirection.ICRS_TO_DYNAMICAL, catVel);
+        }
+        double inRadialVelocity = inCat.getRadialVelocity();
+        double xyproj = Math.sqrt(catPos[0] * catPos[0] + catPos[1] * catPos[1]);
+        r = xyproj > 0.0 ? Math.atan2(catPos[1], catPos[0]) : 0.0;
+        d = Math.atan2(catPos[2], xyproj);
+        double ra = r * RAD2DEG / 15.0;
+        if (ra < 0.0) {
+            ra += 24.0;
+        } else if (ra >= 24.0) {
+            ra -= 24.0;
+        }
+        paralx = Math.asin(1.0 / length(catPos)) / ASEC2RAD * 1000.0;
+        cra = Math.cos(r);
+        sra = Math.sin(r);
+        cdc = Math.cos(d);
+        sdc = Math.sin(d);
+        pmr = -catVel[0] * sra + catVel[1] * cra;
+        pmd = -catVel[0] * cra * sdc - catVel[1] * sra * sdc + catVel[2] * cdc;
+        rvl = catVel[0] * cra * cdc + catVel[1] * sra * cdc + catVel[2] * sdc;
+        newCat.setStarName(inCat.getStarName());
+        newCat.setStarNumber(inCat.getStarNumber());
+        newCat.setCatalog(newCatId);
+        newCat.setRA(ra);
+        newCat.setDec(d * RAD2DEG);
+        newCat.setProMoRA(pmr * paralx * 365.25 / k);
+        newCat.setProMoDec(pmd * paralx * 365.25 / k);
+        if (paralx <= 1.01e-6) {
+            newCat.setParallax(0.0);
+            newCat.setRadialVelocity(inRadialVelocity);
+        } else {
+            newCat.setParallax(paralx);
+            newCat.setRadialVelocity(rvl * AU_KM / 86400.0 / k);
+        }
+        return 0;
+    }
+
+    /**
+     * Converts Hipparcos catalog data at epoch J1991.25 to epoch J2000.0.
+     * Both are in the ICRS; only stars with linear space motion may be
+     * converted.
+     *
+     * @param hipparcos Hipparcos entry, with the right ascension in
+     * degrees
+     * @param hip2000 receives the entry at J2000.0, with the right
+     * ascension in hours and catalog designator HP2
+     */
+    public void TransformHip(CatEntry3 hipparcos, CatEntry3 hip2000) {
+        MakeCatEntry(hipparcos.getStarName(), "SCR", hipparcos.getStarNumber(), hipparcos.getRA() / 15.0,
+                hipparcos.getDec(), hipparcos.getProMoRA(), hipparcos.getProMoDec(), hipparcos.getParallax(),
+                hipparcos.getRadialVelocity(), scratchStar);
+        TransformCat(TransformationOption3.CHANGE_EPOCH, HIPPARCOS_EPOCH, scratchStar, T0, "HP2", hip2000);
+    }
+
+    /**
+     * Moves the origin of a position vector from the solar system
+     * barycenter to the observer.
+     *
+     * @param pos barycentric position of the object (AU)
+     * @param posObs barycentric position of the observer (AU)
+     * @param pos2 receives the position of the object relative to the
+     * observer (AU)
+     * @return the light time from the object to the observer (days)
+     */
+    public double Bary2Obs(double[] pos, double[] posObs, double[] pos2) {
+        pos2[0] = pos[0] - posObs[0];
+        pos2[1] = pos[1] - posObs[1];
+        pos2[2] = pos[2] - posObs[2];
+        return length(pos2) / C_AUDAY;
+    }
+
+    /**
+     * Corrects a position vector for aberration of light, with the
+     * relativistic formula.
+     *
+     * @param pos position of the object relative to the observer (AU)
+     * @param ve velocity of the observer relative to the solar system
+     * barycenter (AU/day)
+     * @param lightTime light time from object to observer (days); 0 to
+     * compute it from pos
+     * @param pos2 receives the aberrated position vector (AU)
+     */
+    public void Aberration(double[] pos, double[] ve, double lightTime, double[] pos2) {
+        double p1mag;
+        if (lightTime == 0.0) {
+            p1mag = length(pos);
+            lightTime = p1mag / C_AUDAY;
+        } else {
+            p1mag = lightTime * C_AUDAY;
+        }
+        double vemag = length(ve);
+        if (vemag == 0.0) {
+            System.arraycopy(pos, 0, pos2, 0, 3);
+            return;
+        }
+        double beta = vemag / C_AUDAY;
+        double dot = pos[0] * ve[0] + pos[1] * ve[1] + pos[2] * ve[2];
+        double cosd = dot / (p1mag * vemag);
+        double gammai = Math.sqrt(1.0 - beta * beta);
+        double p = beta * cosd;
+        double q = (1.0 + p / (1.0 + gammai)) * lightTime;
+        double r = 1.0 + p;
+        pos2[0] = (gammai * pos[0] + q * ve[0]) / r;
+        pos2[1] = (gammai * pos[1] + q * ve[1]) / r;
+        pos2[2] = (gammai * pos[2] + q * ve[2]) / r;
+    }
+
+    /**
+     * Corrects a position vector for the deflection of light by the
+     * gravity of one body.
+     *
+     * @param pos1 position of the object relative to the observer (AU)
+     * @param posObs barycentric position of the observer (AU)
+     * @param posBody barycentric position of the deflecting body (AU)
+     * @param rmass reciprocal mass of the deflecting body in solar masses
+     * @param pos2 receives the deflected position vector (AU)
+     */
+    public void GravVec(double[] pos1, double[] posObs, double[] posBody, double rmass, double[] pos2) {
+        double pmag = length(pos1);
+        double ex = posObs[0] - posBody[0];
+        double ey = posObs[1] - posBody[1];
+        double ez = posObs[2] - posBody[2];
+        double emag = Math.sqrt(ex * ex + ey * ey + ez * ez);
+        double qx = ex + pos1[0];
+        double qy = ey + pos1[1];
+        double qz = ez + pos1[2];
+        double qmag = Math.sqrt(qx * qx + qy * qy + qz * qz);
+        double px = pos1[0] / pmag;
+        double py = pos1[1] / pmag;
+        double pz = pos1[2] / pmag;
+        ex /= emag;
+        ey /= emag;
+        ez /= emag;
+        qx /= qmag;
+        qy /= qmag;
+        qz /= qmag;
+        double pdotq = px * qx + py * qy + pz * qz;
+        double edotp = ex * px + ey * py + ez * pz;
+        double qdote = qx * ex + qy * ey + qz * ez;
+        if (Math.abs(edotp) > 0.99999999999) {
+            System.arraycopy(pos1, 0, pos2, 0, 3);
+            return;
+        }
+        double fac1 = 2.0 * GS / (C * C * emag * AU * rmass);
+        double fac2 = 1.0 + qdote;
+        pos2[0] = (px + fac1 * (pdotq * ex - edotp * qx) / fac2) * pmag;
+        pos2[1] = (py + fac1 * (pdotq * ey - edotp * qy) / fac2) * pmag;
+        pos2[2] = (pz + fac1 * (pdotq * ez - edotp * qz) / fac2) * pmag;
+    }
+
+    /**
+     * Computes the light time from the observer to the point on a line of
+     * sight closest to a body: the projection of the body's position onto
+     * the line of sight, divided by the speed of light.
+     *
+     * @param pos1 position of the object relative to the observer (AU)
+     * @param posObs position of the body relative to the observer (AU)
+     * @return the light time (days), positive if light passes the body
+     * before reaching the observer
+     */
+    public double DLight(double[] pos1, double[] posObs) {
+        double dis = length(pos1);
+        return dis == 0.0 ? 0.0 : dot(pos1, posObs) / dis / C_AUDAY;
+    }
+
+    /**
+     * Corrects a position vector for the deflection of light by the Sun,
+     * Jupiter and Saturn (the Sun alone at reduced accuracy), and by the
+     * Earth for observers away from the geocenter. Each body is taken at
+     * the time the light passed closest to it. Without an ephemeris
+     * covering the date only the Sun and the Earth deflect, from the solar
+     * theory of Reduction. A body does not deflect light from itself.
+     *
+     * @param jdTdb TDB Julian date of observation
+     * @param locCode whether the Earth deflects
+     * @param accuracy selects the deflecting bodies
+     * @param pos1 position of the object relative to the observer (AU)
+     * @param posObs barycentric position of the observer (AU)
+     * @param pos2 receives the deflected position vector (AU); may be pos1
+     * @return 0
+     */
+    public short GravDef(double jdTdb, EarthDeflection locCode, Accuracy accuracy, double[] pos1, double[] posObs,
+            double[] pos2) {
+        System.arraycopy(pos1, 0, pos2, 0, 3);
+        JplEphemeris de = ephemeris;
+        if (de == null || !de.covers(jdTdb) || !de.has(Target.SUN) || !de.has(Target.EARTH)) {
+            earthState(jdTdb);
+            deflect(pos2, posObs, sunPos, 1.0);
+            if (locCode == EarthDeflection.ADD_EARTH_DEFLECTION) {
+                deflect(pos2, posObs, earthPos, EARTH_RMASS);
+            }
+            return 0;
+        }
+        double tlt = length(pos2) / C_AUDAY;
+        int bodies = accuracy == Accuracy.FULL ? DEFLECTORS.length : 1;
+        for (int i = 0; i < bodies; i++) {
+            if (!de.has(DEFLECTORS[i])) {
+                continue;
+            }
+            double high = Math.floor(jdTdb);
+            de.state(high, jdTdb - high, DEFLECTORS[i], Target.SOLAR_SYSTEM_BARYCENTRE, bodyPos, null);
+            Bary2Obs(bodyPos, posObs, bodyObs);
+            double dlt = DLight(pos2, bodyObs);
+            double tclose = jdTdb;
+            if (dlt > 0.0) {
+                tclose = jdTdb - dlt;
+            }
+            if (tlt < dlt) {
+                tclose = jdTdb - tlt;
+            }
+            high = Math.floor(tclose);
+            de.state(high, tclose - high, DEFLECTORS[i], Target.SOLAR_SYSTEM_BARYCENTRE, bodyPos, null);
+            deflect(pos2, posObs, bodyPos, DEFLECTOR_RMASS[i]);
+        }
+        if (locCode == EarthDeflection.ADD_EARTH_DEFLECTION) {
+            double high = Math.floor(jdTdb);
+            de.state(high, jdTdb - high, Target.EARTH, Target.SOLAR_SYSTEM_BARYCENTRE, bodyPos, null);
+            deflect(pos2, posObs, bodyPos, EARTH_RMASS);
+        }
+        return 0;
+    }
+
+    /**
+     * Transforms a vector between the ICRS and the dynamical (mean equator
+     * and equinox of J2000.0) frames.
+     *
+     * @param pos1 position vector
+     * @param direction direction of the conversion
+     * @param pos2 receives the converted vector
+     */
+    public void FrameTie(double[] pos1, FrameConversionDirection direction, double[] pos2) {
+        if (direction == FrameConversionDirection.ICRS_TO_DYNAMICAL) {
+            Reduction.rotate(BIAS, pos1, pos2);
+        } else {
+            Reduction.multiplyTranspose(BIAS, pos1, pos2);
+        }
+    }
+
+    /**
+     * Precesses equatorial rectangular coordinates from one date to
+     * another, both referred to the mean equator and equinox of date.
+     *
+     * @param jdTdb1 TDB Julian date of the first epoch
+     * @param pos1 position vector referred to the first epoch
+     * @param jdTdb2 TDB Julian date of the second epoch
+     * @param pos2 receives the position vector referred to the second epoch
+     */
+    public void Precession(double jdTdb1, double[] pos1, double jdTdb2, double[] pos2) {
+        if (jdTdb1 == T0) {
+            System.arraycopy(pos1, 0, v1, 0, 3);
+        } else {
+            Reduction.precessionMatrix(jdTdb1, m1);
+            Reduction.multiplyTranspose(m1, pos1, v1);
+        }
+        if (jdTdb2 == T0) {
+            System.arraycopy(v1, 0, pos2, 0, 3);
+        } else {
+            Reduction.precessionMatrix(jdTdb2, m1);
+            Reduction.rotate(m1, v1, pos2);
+        }
+    }
+
+    /**
+     * Nutates equatorial rectangular coordinates from the mean equator and
+     * equinox of date to the true equator and equinox of date, or back.
+     *
+     * @param jdTdb TDB Julian date
+     * @param direction mean to true or true to mean
+     * @param accuracy selects the number of nutation terms
+     * @param pos position vector
+     * @param pos2 receives the nutated vector
+     */
+    public void Nutation(double jdTdb, NutationDirection direction, Accuracy accuracy, double[] pos, double[] pos2) {
+        PrecessionNutation pn = reduction(jdTdb, accuracy);
+        Reduction.nutationMatrix(pn.getMeanObliquity(), pn.getNutationInLongitude(),
+                pn.getNutationInObliquity(), m1);
+        if (direction == NutationDirection.MEAN_TO_TRUE) {
+            Reduction.rotate(m1, pos, pos2);
+        } else {
+            Reduction.multiplyTranspose(m1, pos, pos2);
+        }
+    }
+
+    /**
+     * Rotates the axes of a vector about the z axis.
+     *
+     * @param angle rotation angle (degrees)
+     * @param pos1 position vector
+     * @param pos2 receives the vector in the rotated frame
+     */
+    public void Spin(double angle, double[] pos1, double[] pos2) {
+        double a = angle * DEG2RAD;
+        double c = Math.cos(a);
+        double s = Math.sin(a);
+        double x = c * pos1[0] + s * pos1[1];
+        double y = -s * pos1[0] + c * pos1[1];
+        pos2[0] = x;
+        pos2[1] = y;
+        pos2[2] = pos1[2];
+    }
+
+    /**
+     * Corrects a vector for polar motion, between the ITRS and the
+     * Terrestrial Intermediate Reference System.
+     *
+     * @param tjd TT or UT1 Julian date
+     * @param direction direction of the correction
+     * @param xp x coordinate of the pole (arcseconds)
+     * @param yp y coordinate of the pole (arcseconds)
+     * @param pos1 position vector
+     * @param pos2 receives the corrected vector
+     */
+    public void Wobble(double tjd, TransformationDirection direction, double xp, double yp, double[] pos1,
+            double[] pos2) {
+        double xpole = xp * ASEC2RAD;
+        double ypole = yp * ASEC2RAD;
+        double t = (tjd - T0) / Reduction.JULIAN_CENTURY;
+        double sprime = -47.0e-6 * t;
+        double tiolon = -sprime * ASEC2RAD;
+        double sinx = Math.sin(xpole);
+        double cosx = Math.cos(xpole);
+        double siny = Math.sin(ypole);
+        double cosy = Math.cos(ypole);
+        double sinl = Math.sin(tiolon);
+        double cosl = Math.cos(tiolon);
+        double xx = cosx * cosl;
+        double yx = siny * sinx * cosl + cosy * sinl;
+        double zx = -cosy * sinx * cosl + siny * sinl;
+        double xy = -cosx * sinl;
+        double yy = -siny * sinx * sinl + cosy * cosl;
+        double zy = cosy * sinx * sinl + siny * cosl;
+        double xz = sinx;
+        double yz = -siny * cosx;
+        double zz = cosy * cosx;
+        double x = pos1[0];
+        double y = pos1[1];
+        double z = pos1[2];
+        if (direction == TransformationDirection.ITRS_TO_TERRESTRIAL_INTERMEDIATE) {
+            pos2[0] = xx * x + yx * y + zx * z;
+            pos2[1] = xy * x + yy * y + zy * z;
+            pos2[2] = xz * x + yz * y + zz * z;
+        } else {
+            pos2[0] = xx * x + xy * y + xz * z;
+            pos2[1] = yx * x + yy * y + yz * z;
+            pos2[2] = zx * x + zy * y + zz * z;
+        }
+    }
+
+    /**
+     * Rotates a vector from the celestial to the terrestrial system: GCRS
+     * (or the true equator and equinox of date) to ITRS.
+     *
+     * @param jdUtHigh high-order part of the UT1 Julian date
+     * @param jdUtLow low-order part of the UT1 Julian date
+     * @param deltaT TT - UT1 (seconds)
+     * @param method CIO or equinox based; both give the same result
+     * @param accuracy selects the number of nutation terms
+     * @param option reference system of the input vector
+     * @param xp x coordinate of the pole (arcseconds)
+     * @param yp y coordinate of the pole (arcseconds)
+     * @param vec1 celestial vector
+     * @param vec2 receives the ITRS vector
+     */
+    public void Cel2Ter(double jdUtHigh, double jdUtLow, double deltaT, Method method, Accuracy accuracy,
+            OutputVectorOption option, double xp, double yp, double[] vec1, double[] vec2) {
+        double jdTt = jdUtHigh + jdUtLow + deltaT / 86400.0;
+        if (option == OutputVectorOption.REFERRED_TO_GCRS_AXES) {
+            reduction(jdTt, accuracy).toTrueOfDate(vec1, v2);
+        } else {
+            System.arraycopy(vec1, 0, v2, 0, 3);
+        }
+        double gast = SiderealTime(jdUtHigh, jdUtLow, deltaT, GstType.GREENWICH_APPARENT_SIDEREAL_TIME, method,
+                accuracy);
+        Spin(gast * 15.0, v2, vec2);
+        if (xp != 0.0 || yp != 0.0) {
+            Wobble(jdTt, TransformationDirection.TERRESTRIAL_INTERMEDIATE_TO_ITRS, xp, yp, vec2, vec2);
+        }
+    }
+
+    /**
+     * Rotates a vector from the terrestrial to the celestial system: ITRS
+     * to GCRS (or to the true equator and equinox of date).
+     *
+     * @param jdUtHigh high-order part of the UT1 Julian date
+     * @param jdUtLow low-order part of the UT1 Julian date
+     * @param deltaT TT - UT1 (seconds)
+     * @param method CIO or equinox based; both give the same result
+     * @param accuracy selects the number of nutation terms
+     * @param option reference system of the output vector
+     * @param xp x coordinate of the pole (arcseconds)
+     * @param yp y coordinate of the pole (arcseconds)
+     * @param vec1 ITRS vector
+     * @param vec2 receives the celestial vector
+     */
+    public void Ter2Cel(double jdUtHigh, double jdUtLow, double deltaT, Method method, Accuracy accuracy,
+            OutputVectorOption option, double xp, double yp, double[] vec1, double[] vec2) {
+        double jdTt = jdUtHigh + jdUtLow + deltaT / 86400.0;
+        if (xp != 0.0 || yp != 0.0) {
+            Wobble(jdTt, TransformationDirection.ITRS_TO_TERRESTRIAL_INTERMEDIATE, xp, yp, vec1, v2);
+        } else {
+            System.arraycopy(vec1, 0, v2, 0, 3);
+        }
+        double gast = SiderealTime(jdUtHigh, jdUtLow, deltaT, GstType.GREENWICH_APPARENT_SIDEREAL_TIME, method,
+                accuracy);
+        Spin(-gast * 15.0, v2, vec2);
+        if (option == OutputVectorOption.REFERRED_TO_GCRS_AXES) {
+            reduction(jdTt, accuracy).toIcrs(vec2, vec2);
+        }
+    }
+
+    /**
+     * Computes the position and velocity of an observer on the surface of
+     * the Earth with respect to the geocenter, referred to the true equator
+     * and equinox of date.
+     *
+     * @param location location of the observer
+     * @param st Greenwich apparent sidereal time (hours)
+     * @param pos receives the position vector (AU)
+     * @param vel receives the velocity vector (AU/day)
+     */
+    public void Terra(OnSurface location, double st, double[] pos, double[] vel) {
+        double df2 = (1.0 - F) * (1.0 - F);
+        double phi = location.getLatitude() * DEG2RAD;
+        double sinphi = Math.sin(phi);
+        double cosphi = Math.cos(phi);
+        double c = 1.0 / Math.sqrt(cosphi * cosphi + df2 * sinphi * sinphi);
+        double s = df2 * c;
+        double htKm = location.getHeight() / 1000.0;
+        double ach = ERAD_KM * c + htKm;
+        double ash = ERAD_KM * s + htKm;
+        double stlocl = (st * 15.0 + location.getLongitude()) * DEG2RAD;
+        double sinst = Math.sin(stlocl);
+        double cosst = Math.cos(stlocl);
+        pos[0] = ach * cosphi * cosst / AU_KM;
+        pos[1] = ach * cosphi * sinst / AU_KM;
+        pos[2] = ash * sinphi / AU_KM;
+        vel[0] = -ANGVEL * ach * cosphi * sinst * 86400.0 / AU_KM;
+        vel[1] = ANGVEL * ach * cosphi * cosst * 86400.0 / AU_KM;
+        vel[2] = 0.0;
+    }
+
+    /**
+     * Computes the geocentric position and velocity of an observer, in the
+     * GCRS.
+     *
+     * @param jdTt TT Julian date
+     * @param deltaT TT - UT1 (seconds), used for observers on the surface
+     * @param accuracy selects the number of nutation terms
+     * @param observer location of the observer
+     * @param pos receives the position vector (AU)
+     * @param vel receives the velocity vector (AU/day)
+     * @return 0
+     */
+    public short GeoPosVel(double jdTt, double deltaT, Accuracy accuracy, Observer observer, double[] pos,
+            double[] vel) {
+        ObserverLocation where = observer.getWhere();
+        if (where == ObserverLocation.EARTH_SURFACE) {
+            double jdUt1 = jdTt - deltaT / 86400.0;
+            double gast = SiderealTime(jdUt1, 0.0, deltaT, GstType.GREENWICH_APPARENT_SIDEREAL_TIME,
+                    Method.EQUINOX_BASED, accuracy);
+            Terra(observer.getOnSurf(), gast, pos, vel);
+            PrecessionNutation pn = reduction(jdTt, accuracy);
+            pn.toIcrs(pos, pos);
+            pn.toIcrs(vel, vel);
+        } else if (where == ObserverLocation.SPACE_NEAR_EARTH) {
+            double[] p = observer.getNearEarth().getScPos();
+            double[] v = observer.getNearEarth().getScVel();
+            for (int i = 0; i < 3; i++) {
+                pos[i] = p[i] / AU_KM;
+                vel[i] = v[i] * 86400.0 / AU_KM;
+            }
+        } else {
+            pos[0] = pos[1] = pos[2] = 0.0;
+            vel[0] = vel[1] = vel[2] = 0.0;
+        }
+        return 0;
+    }
+
+    /**
+     * Computes the angle of an object above or below the Earth's limb,
+     * taking the Earth to be an airless sphere. For an observer on the
+     * surface this is the approximate unrefracted altitude.
+     *
+     * @param posObj geocentric position of the object (AU)
+     * @param posObs geocentric position of the observer (AU)
+     * @param out receives the angle of the object above the limb (degrees,
+     * negative below) and the nadir angle of the object as a fraction of
+     * the apparent radius of the limb (below 1 if below the limb)
+     */
+    public void LimbAngle(double[] posObj, double[] posObs, double[] out) {
+        double rade = ERAD_KM / AU_KM;
+        double disobj = length(posObj);
+        double disobs = length(posObs);
+        double aprad = disobs >= rade ? Math.asin(rade / disobs) : 0.5 * Math.PI;
+        double zdlim = Math.PI - aprad;
+        double coszd = dot(posObj, posObs) / (disobj * disobs);
+        double zdobj;
+        if (coszd <= -1.0) {
+            zdobj = Math.PI;
+        } else if (coszd >= 1.0) {
+            zdobj = 0.0;
+        } else {
+            zdobj = Math.acos(coszd);
+        }
+        out[0] = (zdlim - zdobj) * RAD2DEG;
+        out[1] = (Math.PI - zdobj) / aprad;
+    }
+
+    /**
+     * Computes the atmospheric refraction in zenith distance, from the
+     * observed zenith distance.
+     *
+     * @param location location of the observer; the height is used with
+     * standard refraction, the temperature and pressure with location
+     * refraction
+     * @param refOption type of refraction
+     * @param zdObs observed zenith distance (degrees)
+     * @return the refraction (degrees), 0 outside zenith distances of 0.1
+     * to 91 degrees
+     */
+    public double Refract(OnSurface location, RefractionOption refOption, double zdObs) {
+        if (refOption == RefractionOption.NO_REFRACTION || zdObs < 0.1 || zdObs > 91.0) {
+            return 0.0;
+        }
+        double p;
+        double t;
+        if (refOption == RefractionOption.STANDARD_REFRACTION) {
+            p = 1010.0 * Math.exp(-location.getHeight() / 9.1e3);
+            t = 10.0;
+        } else {
+            p = location.getPressure();
+            t = location.getTemperature();
+        }
+        double h = 90.0 - zdObs;
+        double r = 0.016667 / Math.tan((h + 7.31 / (h + 4.4)) * DEG2RAD);
+        return r * (0.28 * p / (t + 273.0));
+    }
+
+    /**
+     * Transforms topocentric right ascension and declination to zenith
+     * distance and azimuth, optionally with refraction, which also gives
+     * the refracted right ascension and declination.
+     *
+     * @param jdUt1 UT1 Julian date
+     * @param deltaT TT - UT1 (seconds)
+     * @param accuracy selects the number of nutation terms
+     * @param xp x coordinate of the pole (arcseconds)
+     * @param yp y coordinate of the pole (arcseconds)
+     * @param location location of the observer
+     * @param ra topocentric right ascension, true equator and equinox of
+     * date (hours)
+     * @param dec topocentric declination (degrees)
+     * @param refOption type of refraction
+     * @param out receives the zenith distance (degrees), azimuth (degrees,
+     * north through east), and the right ascension (hours) and declination
+     * (degrees) affected by refraction
+     */
+    public void Equ2Hor(double jdUt1, double deltaT, Accuracy accuracy, double xp, double yp, OnSurface location,
+            double ra, double dec, RefractionOption refOption, double[] out) {
+        double lat = location.getLatitude() * DEG2RAD;
+        double lon = location.getLongitude() * DEG2RAD;
+        double sinlat = Math.sin(lat);
+        double coslat = Math.cos(lat);
+        double sinlon = Math.sin(lon);
+        double coslon = Math.cos(lon);
+        v3[0] = coslat * coslon;
+        v3[1] = coslat * sinlon;
+        v3[2] = sinlat;
+        Ter2Cel(jdUt1, 0.0, deltaT, Method.EQUINOX_BASED, accuracy,
+                OutputVectorOption.REFERRED_TO_EQUATOR_AND_EQUINOX_OF_DATE, xp, yp, v3, zenith);
+        v3[0] = -sinlat * coslon;
+        v3[1] = -sinlat * sinlon;
+        v3[2] = coslat;
+        Ter2Cel(jdUt1, 0.0, deltaT, Method.EQUINOX_BASED, accuracy,
+                OutputVectorOption.REFERRED_TO_EQUATOR_AND_EQUINOX_OF_DATE, xp, yp, v3, north);
+        v3[0] = sinlon;
+        v3[1] = -coslon;
+        v3[2] = 0.0;
+        Ter2Cel(jdUt1, 0.0, deltaT, Method.EQUINOX_BASED, accuracy,
+                OutputVectorOption.REFERRED_TO_EQUATOR_AND_EQUINOX_OF_DATE, xp, yp, v3, west);
+
+        RaDec2Vector(ra, dec, 1.0, v4);
+        double pz = dot(v4, zenith);
+        double pn = dot(v4, north);
+        double pw = dot(v4, west);
+        double proj = Math.sqrt(pn * pn + pw * pw);
+        double az = proj > 0.0 ? -Math.atan2(pw, pn) * RAD2DEG : 0.0;
+        if (az < 0.0) {
+            az += 360.0;
+        }
+        if (az >= 360.0) {
+            az -= 360.0;
+        }
+        double zd = Math.atan2(proj, pz) * RAD2DEG;
+        double rar = ra;
+        double decr = dec;
+        if (refOption != RefractionOption.NO_REFRACTION) {
+            double zd0 = zd;
+            double refr = 0.0;
+            double refr0;
+            do {
+                refr0 = refr;
+                refr = Refract(location, refOption, zd - refr);
+            } while (Math.abs(refr - refr0) > 3.0e-5);
+            zd -= refr;
+            if (refr > 0.0 && zd > 3.0e-4) {
+                double sinzd = Math.sin(zd * DEG2RAD);
+                double coszd = Math.cos(zd * DEG2RAD);
+                double sinzd0 = Math.sin(zd0 * DEG2RAD);
+                double coszd0 = Math.cos(zd0 * DEG2RAD);
+                for (int j = 0; j < 3; j++) {
+                    v5[j] = (v4[j] - coszd0 * zenith[j]) / sinzd0 * sinzd + zenith[j] * coszd;
+                }
+                Vector2RaDec(v5, raDec);
+                rar = raDec[0];
+                decr = raDec[1];
+            }
+        }
+        out[0] = zd;
+        out[1] = az;
+        out[2] = rar;
+        out[3] = decr;
+    }
+
+    /**
+     * Converts GCRS right ascension and declination to the equator of
+     * date. As in NOVAS, coordSys is read by its numeric value: 1
+     * (EQUINOX_OF_DATE) gives the mean equator and equinox of date, 2
+     * (CIO_OF_DATE) the true equator and equinox of date and 3
+     * (ASTROMETRIC) the true equator and CIO of date.
+     *
+     * @param jdTt TT Julian date
+     * @param coordSys output system, by NOVAS value
+     * @param accuracy selects the number of nutation terms
+     * @param rag GCRS right ascension (hours)
+     * @param decg GCRS declination (degrees)
+     * @param raDec receives the right ascension (hours) and declination
+     * (degrees)
+     * @return 0 on success, 1 for GCRS, which is not an equator of date
+     */
+    public short Gcrs2Equ(double jdTt, CoordSys coordSys, Accuracy accuracy, double rag, double decg,
+            double[] raDec) {
+        RaDec2Vector(rag, decg, 1.0, v3);
+        switch (coordSys.ordinal()) {
+            case 1:
+                FrameTie(v3, FrameConversionDirection.ICRS_TO_DYNAMICAL, v4);
+                Precession(T0, v4, jdTt, v5);
+                break;
+            case 2:
+                reduction(jdTt, accuracy).toTrueOfDate(v3, v5);
+                break;
+            case 3:
+                ReferenceSystem refSys = CioLocation(jdTt, accuracy, raDec);
+                CioBasis(jdTt, raDec[0], refSys, accuracy, cioX, cioY, cioZ);
+                v5[0] = dot(cioX, v3);
+                v5[1] = dot(cioY, v3);
+                v5[2] = dot(cioZ, v3);
+                break;
+            default:
+                return 1;
+        }
+        Vector2RaDec(v5, raDec);
+        return 0;
+    }
+
+    /**
+     * Converts right ascension and declination to ecliptic longitude and
+     * latitude. As in NOVAS, coordSys is read by its numeric value: 0
+     * (GCRS) for the mean equator and equinox of date, 1 (EQUINOX_OF_DATE)
+     * for the true equator and equinox of date and 2 (CIO_OF_DATE) for the
+     * ICRS, with the mean ecliptic and equinox of J2000.0.
+     *
+     * @param jdTt TT Julian date; ignored for the ICRS
+     * @param coordSys input system, by NOVAS value
+     * @param accuracy selects the number of nutation terms
+     * @param ra right ascension (hours)
+     * @param dec declination (degrees)
+     * @param out receives the ecliptic longitude and latitude (degrees)
+     * @return 0 on success, 1 for ASTROMETRIC
+     */
+    public short Equ2Ecl(double jdTt, CoordSys coordSys, Accuracy accuracy, double ra, double dec,
+            double[] out) {
+        RaDec2Vector(ra, dec, 1.0, v3);
+        short error = Equ2EclVec(jdTt, coordSys, accuracy, v3, v3);
+        if (error != 0) {
+            return error;
+        }
+        double xyproj = Math.sqrt(v3[0] * v3[0] + v3[1] * v3[1]);
+        double elon = xyproj > 0.0 ? Math.atan2(v3[1], v3[0]) * RAD2DEG : 0.0;
+        out[0] = elon < 0.0 ? elon + 360.0 : elon;
+        out[1] = Math.atan2(v3[2], xyproj) * RAD2DEG;
+        return 0;
+    }
+
+    /**
+     * Converts an equatorial position vector to an ecliptic position
+     * vector. coordSys is read by its NOVAS value, as in Equ2Ecl.
+     *
+     * @param jdTt TT Julian date; ignored for the ICRS
+     * @param coordSys input system, by NOVAS value
+     * @param accuracy selects the number of nutation terms
+     * @param pos1 equatorial position vector
+     * @param pos2 receives the ecliptic position vector; may be pos1
+     * @return 0 on success, 1 for ASTROMETRIC
+     */
+    public short Equ2EclVec(double jdTt, CoordSys coordSys, Accuracy accuracy, double[] pos1, double[] pos2) {
+        double obl;
+        switch (coordSys.ordinal()) {
+            case 0:
+                obl = reduction(jdTt, accuracy).getMeanObliquity();
+                System.arraycopy(pos1, 0, v4, 0, 3);
+                break;
+            case 1:
+                obl = reduction(jdTt, accuracy).getTrueObliquity();
+                System.arraycopy(pos1, 0, v4, 0, 3);
+                break;
+            case 2:
+                obl = Reduction.meanObliquity(T0);
+                FrameTie(pos1, FrameConversionDirection.ICRS_TO_DYNAMICAL, v4);
+                break;
+            default:
+                return 1;
+        }
+        double c = Math.cos(obl);
+        double s = Math.sin(obl);
+        pos2[0] = v4[0];
+        pos2[1] = v4[1] * c + v4[2] * s;
+        pos2[2] = -v4[1] * s + v4[2] * c;
+        return 0;
+    }
+
+    /**
+     * Converts an ecliptic position vector to an equatorial position
+     * vector. coordSys is read by its NOVAS value, as in Equ2Ecl.
+     *
+     * @param jdTt TT Julian date; ignored for the ICRS
+     * @param coordSys output system, by NOVAS value
+     * @param accuracy selects the number of nutation terms
+     * @param pos1 ecliptic position vector
+     * @param pos2 receives the equatorial position vector; may be pos1
+     * @return 0 on success, 1 for ASTROMETRIC
+     */
+    public short Ecl2EquVec(double jdTt, CoordSys coordSys, Accuracy accuracy, double[] pos1, double[] pos2) {
+        double obl;
+        switch (coordSys.ordinal()) {
+            case 0:
+                obl = reduction(jdTt, accuracy).getMeanObliquity();
+                break;
+            case 1:
+                obl = reduction(jdTt, accuracy).getTrueObliquity();
+                break;
+            case 2:
+                obl = Reduction.meanObliquity(T0);
+                break;
+            default:
+                return 1;
+        }
+        double c = Math.cos(obl);
+        double s = Math.sin(obl);
+        double y = pos1[1] * c - pos1[2] * s;
+        double z = pos1[1] * s + pos1[2] * c;
+        pos2[0] = pos1[0];
+        pos2[1] = y;
+        pos2[2] = z;
+        if (coordSys == CoordSys.CIO_OF_DATE) {
+            FrameTie(pos2, FrameConversionDirection.DYNAMICAL_TO_ICRS, pos2);
+        }
+        return 0;
+    }
+
+    /**
+     * Converts ICRS right ascension and declination to galactic longitude
+     * and latitude.
+     *
+     * @param rai ICRS right ascension (hours)
+     * @param deci ICRS declination (degrees)
+     * @param out receives the galactic longitude and latitude (degrees)
+     */
+    public void Equ2Gal(double rai, double deci, double[] out) {
+        RaDec2Vector(rai, deci, 1.0, v3);
+        double x = GALACTIC[0] * v3[0] + GALACTIC[3] * v3[1] + GALACTIC[6] * v3[2];
+        double y = GALACTIC[1] * v3[0] + GALACTIC[4] * v3[1] + GALACTIC[7] * v3[2];
+        double z = GALACTIC[2] * v3[0] + GALACTIC[5] * v3[1] + GALACTIC[8] * v3[2];
+        double xyproj = Math.sqrt(x * x + y * y);
+        double glon = xyproj > 0.0 ? Math.atan2(y, x) * RAD2DEG : 0.0;
+        out[0] = glon < 0.0 ? glon + 360.0 : glon;
+        out[1] = Math.atan2(z, xyproj) * RAD2DEG;
+    }
+
+    /**
+     * Fills in a catalog entry.
+     *
+     * @param starName name of the object
+     * @param catalog catalog designator
+     * @param starNumber number of the object in the catalog
+     * @param ra ICRS right ascension (hours)
+     * @param dec ICRS declination (degrees)
+     * @param pmRa proper motion in right ascension (mas/year)
+     * @param pmDec proper motion in declination (mas/year)
+     * @param parallax parallax (mas)
+     * @param radVel radial velocity (km/s)
+     * @param star receives the catalog entry
+     */
+    public void MakeCatEntry(String starName, String catalog, int starNumber, double ra, double dec, double pmRa,
+            double pmDec, double parallax, double radVel, CatEntry3 star) {
+        star.setStarName(starName);
+        star.setCatalog(catalog);
+        star.setStarNumber(starNumber);
+        star.setRA(ra);
+        star.setDec(dec);
+        star.setProMoRA(pmRa);
+        star.setProMoDec(pmDec);
+        star.setParallax(parallax);
+        star.setRadialVelocity(radVel);
+    }
+
+    /**
+     * Fills in an object structure.
+     *
+     * @param type type of object
+     * @param number body, for major planets, the Sun and the Moon
+     * @param name name of the object
+     * @param star catalog entry, for objects outside the solar system
+     * @param object receives the object
+     */
+    public void MakeObject(ObjectType type, Body number, String name, CatEntry3 star, Object3 object) {
+        object.setType(type);
+        object.setNumber(number);
+        object.setName(name);
+        object.setStar(star);
+    }
+
+    /**
+     * Fills in a location on the surface of the Earth.
+     *
+     * @param latitude geodetic latitude (degrees, north positive)
+     * @param longitude geodetic longitude (degrees, east positive)
+     * @param height height above sea level (m)
+     * @param temperature temperature (degrees Celsius)
+     * @param pressure pressure (millibars)
+     * @param location receives the location
+     */
+    public void MakeOnSurface(double latitude, double longitude, double height, double temperature, double pressure,
+            OnSurface location) {
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setHeight(height);
+        location.setTemperature(temperature);
+        location.setPressure(pressure);
+    }
+
+    /**
+     * Fills in a location in near-Earth space.
+     *
+     * @param scPos geocentric position (km)
+     * @param scVel geocentric velocity (km/s)
+     * @param location receives the location
+     */
+    public void MakeInSpace(double[] scPos, double[] scVel, InSpace location) {
+        System.arraycopy(scPos, 0, location.getScPos(), 0, 3);
+        System.arraycopy(scVel, 0, location.getScVel(), 0, 3);
+    }
+
+    /**
+     * Fills in an observer structure.
+     *
+     * @param where type of location
+     * @param onSurf location on the surface of the Earth, used with
+     * EARTH_SURFACE
+     * @param inSpace location in near-Earth space, used with
+     * SPACE_NEAR_EARTH
+     * @param observer receives the observer
+     */
+    public void MakeObserver(ObserverLocation where, OnSurface onSurf, InSpace inSpace, Observer observer) {
+        observer.setWhere(where);
+        observer.setOnSurf(onSurf);
+        observer.setNearEarth(inSpace);
+    }
+
+    /**
+     * Fills in an observer structure for an observer at the geocenter.
+     *
+     */
+    public void MakeObserverAtGeocenter(Observer observer) {
+        observer.setWhere(ObserverLocation.EARTH_GEO_CENTER);
+    }
+
+    /**
+     * Fills in an observer structure for an observer on the surface of the
+     * Earth.
+     *
+     */
+    public void MakeObserverOnSurface(double latitude, double longitude, double height, double temperature,
+            double pressure, Observer observer) {
+        observer.setWhere(ObserverLocation.EARTH_SURFACE);
+        MakeOnSurface(latitude, longitude, height, temperature, pressure, observer.getOnSurf());
+    }
+
+    /**
+     * Fills in an observer structure for an observer in near-Earth space.
+     *
+     */
+    public void MakeObserverInSpace(double[] scPos, double[] scVel, Observer observer) {
+        observer.setWhere(ObserverLocation.SPACE_NEAR_EARTH);
+        MakeInSpace(scPos, scVel, observer.getNearEarth());
+    }
+
+    /**
+     * Sets the JPL ephemeris used for the Earth, the Sun, the Moon and the
+     * planets. One ephemeris can be shared by the NOVAS31 instances of any
+     * number of threads. Without one, the Earth comes from a low precision
+     * solar theory and solar system bodies cannot be observed.
+     *
+     */
+    public void setEphemeris(JplEphemeris _theValue) {
+        ephemeris = _theValue;
+        earthDate = Double.NaN;
+    }
+
+    /**
+     * Gets the JPL ephemeris, or null if none is set.
+     *
+     */
+    public JplEphemeris getEphemeris() {
+        return ephemeris;
+    }
+
+    /**
+     * Computes the position and velocity of one body relative to another
+     * from the JPL ephemeris.
+     *
+     * @param jd TDB Julian date, split into two parts for precision
+     * @param target body, NUTATIONS or LIBRATIONS
+     * @param center origin; ignored for NUTATIONS and LIBRATIONS
+     * @param position receives the position (AU), or the angles (radians)
+     * @param velocity receives the velocity (AU/day), or the rates
+     * (radians/day)
+     * @return 0 on success, 1 if the date is outside the ephemeris, 2 if no
+     * ephemeris is set or it does not have the target or center
+     */
+    public short PlanetEphemeris(double[] jd, Target target, Target center, double[] position, double[] velocity) {
+        JplEphemeris de = ephemeris;
+        if (de == null || !de.has(target) || !de.has(center)) {
+            return 2;
+        }
+        if (!de.covers(jd[0] + jd[1])) {
+            return 1;
+        }
+        de.state(jd[0], jd[1], target, center, position, velocity);
+        return 0;
+    }
+
+    /**
+     * Reads one item of the JPL ephemeris as stored: bodies relative to
+     * the solar system barycenter, except the Moon, which is geocentric.
+     *
+     * @param jed TDB Julian date, split into two parts for precision
+     * @param target body, NUTATIONS or LIBRATIONS
+     * @param targetPos receives the position (AU), or the angles (radians)
+     * @param targetVel receives the velocity (AU/day), or the rates
+     * (radians/day)
+     * @return 0 on success, 1 if the date is outside the ephemeris, 2 if no
+     * ephemeris is set or it does not have the target
+     */
+    public short State(double[] jed, Target target, double[] targetPos, double[] targetVel) {
+        return PlanetEphemeris(jed, target, target == Target.MOON ? Target.EARTH : Target.SOLAR_SYSTEM_BARYCENTRE,
+                targetPos, targetVel);
+    }
+
+    /**
+     * Computes the position and velocity of a major planet, the Sun or the
+     * Moon from the JPL ephemeris, referred to the ICRS.
+     *
+     * @param tjd TDB Julian date
+     * @param body body
+     * @param origin solar system barycenter or center of the Sun
+     * @param pos receives the position (AU)
+     * @param vel receives the velocity (AU/day)
+     * @return 0 on success, 1 if the date is outside the ephemeris, 2 if no
+     * ephemeris is set
+     */
+    public short SolarSystem(double tjd, Body body, Origin origin, double[] pos, double[] vel) {
+        double high = Math.floor(tjd);
+        jd2[0] = high;
+        jd2[1] = tjd - high;
+        return PlanetEphemeris(jd2, target(body),
+                origin == Origin.BARYCENTRIC ? Target.SOLAR_SYSTEM_BARYCENTRE : Target.SUN, pos, vel);
+    }
+
+    /**
+     * Computes the position and velocity of a solar system body, referred
+     * to the ICRS. Major planets, the Sun and the Moon come from the JPL
+     * ephemeris; minor planets from ReadEph.
+     *
+     * @param jd TDB Julian date, split into two parts for precision
+     * @param ssBody body
+     * @param origin solar system barycenter or center of the Sun
+     * @param accuracy unused; the ephemeris has one accuracy
+     * @param pos receives the position (AU)
+     * @param vel receives the velocity (AU/day)
+     * @return 0 on success, 2 for an object outside the solar system, 11
+     * if the date is outside the ephemeris, 12 if no ephemeris is set, 20
+     * plus the ReadEph error for a minor planet
+     */
+    public short Ephemeris(double[] jd, Object3 ssBody, Origin origin, Accuracy accuracy, double[] pos,
+            double[] vel) {
+        if (ssBody.getType() == ObjectType.MINOR_PLANET) {
+            short error = ReadEph(0, ssBody.getName(), jd[0] + jd[1], posVel);
+            System.arraycopy(posVel, 0, pos, 0, 3);
+            System.arraycopy(posVel, 3, vel, 0, 3);
+            return (short) (20 + error);
+        }
+        if (ssBody.getType() != ObjectType.MAJOR_PLANET_SUN_OR_MOON) {
+            return 2;
+        }
+        short error = PlanetEphemeris(jd, target(ssBody.getNumber()),
+                origin == Origin.BARYCENTRIC ? Target.SOLAR_SYSTEM_BARYCENTRE : Target.SUN, pos, vel);
+        return error == 0 ? 0 : (short) (10 + error);
+    }
+
+    /**
+     * Reads a minor planet ephemeris. As in NOVAS-C built without the
+     * USNO/AE98 minor planet ephemerides, this is a stub.
+     *
+     * @param mp minor planet number
+     * @param name minor planet name
+     * @param jd TDB Julian date
+     * @param posVel receives the position (AU) and velocity (AU/day);
+     * set to zero
+     * @return 9, no minor planet ephemeris
+     */
+    public short ReadEph(int mp, String name, double jd, double[] posVel) {
+        for (int i = 0; i < 6; i++) {
+            posVel[i] = 0.0;
+        }
+        return 9;
+    }
+
+    /**
+     * Predicts the radial velocity of an object as it would be measured by
+     * spectroscopic means: the radial velocity measure z times the speed of
+     * light, including the gravitational potentials and the velocities of
+     * the object and the observer (Lindegren and Dravins 2003). For a star
+     * the catalog radial velocity already holds the object's own effects.
+     *
+     * @param celObject object observed
+     * @param pos geometric position of the object relative to the
+     * observer (AU)
+     * @param vel barycentric velocity of the object (AU/day)
+     * @param velObs barycentric velocity of the observer (AU/day)
+     * @param dObsGeo distance from the observer to the geocenter (AU)
+     * @param dObsSun distance from the observer to the Sun (AU)
+     * @param dObjSun distance from the object to the Sun (AU)
+     * @return the radial velocity (km/s)
+     */
+    public double RadVel(Object3 celObject, double[] pos, double[] vel, double[] velObs, double dObsGeo,
+            double dObsSun, double dObjSun) {
+        double toms = AU / 86400.0;
+        double c2 = C * C;
+        double posmag = length(pos);
+        double ux = pos[0] / posmag;
+        double uy = pos[1] / posmag;
+        double uz = pos[2] / posmag;
+        double vo2 = dot(velObs, velObs) * toms * toms;
+        double r = dObsGeo * AU;
+        double phigeo = r > 1.0e6 ? GE / r : 0.0;
+        r = dObsSun * AU;
+        double phisun = r > 1.0e8 ? GS / r : 0.0;
+        double rel;
+        if (dObsGeo != 0.0 || dObsSun != 0.0) {
+            rel = 1.0 - (phigeo + phisun) / c2 - 0.5 * vo2 / c2;
+        } else {
+            rel = 1.0 - 1.550e-8;
+        }
+        double kv0 = (ux * velObs[0] + uy * velObs[1] + uz * velObs[2]) * toms;
+        double zobs1;
+        if (celObject.getType() == ObjectType.FIXED_OBJECT) {
+            CatEntry3 star = celObject.getStar();
+            double ra = star.getRA() * 15.0 * DEG2RAD;
+            double dec = star.getDec() * DEG2RAD;
+            double cosdec = Math.cos(dec);
+            // Change of the barycentric radial velocity with the view angle.
+            double dux = ux - cosdec * Math.cos(ra);
+            double duy = uy - cosdec * Math.sin(ra);
+            double duz = uz - Math.sin(dec);
+            double zc = star.getRadialVelocity() * 1.0e3 + (vel[0] * dux + vel[1] * duy + vel[2] * duz) * toms;
+            zobs1 = (1.0 + zc / C) * rel / (1.0 + kv0 / C);
+        } else {
+            r = dObjSun * AU;
+            phisun = r > 1.0e8 && r < 1.0e16 ? GS / r : 0.0;
+            double v2 = dot(vel, vel) * toms * toms;
+            double zobj = 1.0 - phisun / c2 - 0.5 * v2 / c2;
+            double kv1 = (ux * vel[0] + uy * vel[1] + uz * vel[2]) * toms;
+            zobs1 = (1.0 + kv1 / C) / (1.0 + kv0 / C) * rel / zobj;
+        }
+        return (zobs1 - 1.0) * C / 1000.0;
+    }
+
+    /**
+     * Computes the position of a solar system body relative to the
+     * observer, antedated for light time.
+     *
+     * @param jdTdb TDB Julian date of observation
+     * @param ssObject body
+     * @param posObs barycentric position of the observer (AU)
+     * @param tlight0 first guess of the light time (days)
+     * @param accuracy 1e-12 or 1e-9 day convergence of the light time
+     * @param pos receives the position of the body relative to the
+     * observer (AU)
+     * @param tlight receives the light time (days)
+     * @return 0 on success, 1 if the iteration did not converge, 10 plus
+     * the Ephemeris error otherwise
+     */
+    public short LightTime(double jdTdb, Object3 ssObject, double[] posObs, double tlight0, Accuracy accuracy,
+            double[] pos, double[] tlight) {
+        double tol = accuracy == Accuracy.FULL ? 1.0e-12 : 1.0e-9;
+        double t1 = jdTdb - tlight0;
+        double t2 = t1;
+        for (int iter = 0; iter <= 10; iter++) {
+            double high = Math.floor(t2);
+            jd2[0] = high;
+            jd2[1] = t2 - high;
+            short error = Ephemeris(jd2, ssObject, Origin.BARYCENTRIC, accuracy, bodyPos, v5);
+            if (error != 0) {
+                return (short) (10 + error);
+            }
+            tlight[0] = Bary2Obs(bodyPos, posObs, pos);
+            t1 = t2;
+            t2 = jdTdb - tlight[0];
+            if (Math.abs(t2 - t1) <= tol) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Computes the apparent direction of a star or solar system body at a
+     * date, in one of several coordinate systems.
+     *
+     * A star is moved by its proper motion to the date; a major planet, the
+     * Sun or the Moon is taken from the ephemeris at the date less the
+     * light time. The position is referred to the observer, deflected by
+     * gravity as in GravDef and aberrated by the observer's velocity
+     * (astrometric places skip these two), then rotated to the output
+     * system. The radial velocity comes from RadVel.
+     *
+     * @param jdTt TT Julian date
+     * @param celObject object to observe
+     * @param location location of the observer
+     * @param deltaT TT - UT1 (seconds), used for observers on the surface
+     * @param coordSys coordinate system of the output
+     * @param accuracy selects the number of nutation terms
+     * @param output receives the place
+     * @return 0 on success, 3 if the Earth is observed from the geocenter,
+     * 11 if the date is outside the ephemeris, 12 if no ephemeris is set,
+     * 19 for a minor planet
+     */
+    public short Place(double jdTt, Object3 celObject, Observer location, double deltaT, CoordSys coordSys,
+            Accuracy accuracy, SkyPos output) {
+        ObjectType type = celObject.getType();
+        if (type == ObjectType.MINOR_PLANET) {
+            return 19;
+        }
+        Body body = celObject.getNumber();
+        if (type == ObjectType.MAJOR_PLANET_SUN_OR_MOON) {
+            if (body == Body.EARTH && location.getWhere() == ObserverLocation.EARTH_GEO_CENTER) {
+                return 3;
+            }
+            short error = SolarSystem(jdTt, body, Origin.BARYCENTRIC, starPos, starVel);
+            if (error != 0) {
+                return (short) (10 + error);
+            }
+        }
+        observerState(jdTt, location, deltaT, accuracy);
+        double lightTime;
+        double dis;
+        if (type == ObjectType.FIXED_OBJECT) {
+            StarVectors(celObject.getStar(), starPos, starVel);
+            ProperMotion(T0, starPos, starVel, jdTt, v1);
+            lightTime = Bary2Obs(v1, obsPos, v2);
+            dis = lightTime * C_AUDAY;
+        } else {
+            lightTime = Bary2Obs(starPos, obsPos, v2);
+            dis = lightTime * C_AUDAY;
+            for (int iter = 0; iter < 10; iter++) {
+                SolarSystem(jdTt - lightTime, body, Origin.BARYCENTRIC, starPos, starVel);
+                double previous = lightTime;
+                lightTime = Bary2Obs(starPos, obsPos, v2);
+                if (Math.abs(lightTime - previous) < 1.0e-9) {
+                    break;
+                }
+            }
+        }
+        double rv = RadVel(celObject, v2, starVel, obsVel, distance(obsPos, earthPos), distance(obsPos, sunPos),
+                type == ObjectType.FIXED_OBJECT ? 0.0 : distance(starPos, sunPos));
+        if (coordSys != CoordSys.ASTROMETRIC) {
+            if (body == Body.SUN && type != ObjectType.FIXED_OBJECT) {
+                System.arraycopy(v2, 0, v4, 0, 3);
+            } else {
+                GravDef(jdTt, location.getWhere() == ObserverLocation.EARTH_GEO_CENTER
+                        ? EarthDeflection.NO_EARTH_DEFLECTION : EarthDeflection.ADD_EARTH_DEFLECTION, accuracy, v2,
+                        obsPos, v4);
+            }
+            Aberration(v4, obsVel, lightTime, v2);
+        }
+        if (coordSys == CoordSys.EQUINOX_OF_DATE || coordSys == CoordSys.CIO_OF_DATE) {
+            reduction(jdTt, accuracy).toTrueOfDate(v2, v2);
+            if (coordSys == CoordSys.CIO_OF_DATE) {
+                double jdUt1 = jdTt - deltaT / 86400.0;
+                double gast = SiderealTime(jdUt1, 0.0, deltaT, GstType.GREENWICH_APPARENT_SIDEREAL_TIME,
+                        Method.EQUINOX_BASED, accuracy);
+                Spin(gast * 15.0 - Era(jdUt1, 0.0), v2, v2);
+            }
+        }
+        Vector2RaDec(v2, raDec);
+        double r = length(v2);
+        double[] rhat = output.getRHat();
+        rhat[0] = v2[0] / r;
+        rhat[1] = v2[1] / r;
+        rhat[2] = v2[2] / r;
+        output.setRA(raDec[0]);
+        output.setDec(raDec[1]);
+        output.setDis(dis);
+        output.setRV(rv);
+        return 0;
+    }
+
+    /**
+     * Computes the apparent place of a star: geocentric, referred to the
+     * true equator and equinox of date.
+     *
+     * @param jdTt TT Julian date
+     * @param star catalog entry
+     * @param accuracy selects the number of nutation terms
+     * @param raDec receives the right ascension (hours) and declination
+     * (degrees)
+     * @return 0 on success
+     */
+    public short AppStar(double jdTt, CatEntry3 star, Accuracy accuracy, double[] raDec) {
+        return star(jdTt, star, geocenter, 0.0, CoordSys.EQUINOX_OF_DATE, accuracy, raDec);
+    }
+
+    /**
+     * Computes the virtual place of a star: geocentric, referred to the
+     * GCRS axes.
+     *
+     * @return 0 on success
+     */
+    public short VirtualStar(double jdTt, CatEntry3 star, Accuracy accuracy, double[] raDec) {
+        return star(jdTt, star, geocenter, 0.0, CoordSys.GCRS, accuracy, raDec);
+    }
+
+    /**
+     * Computes the astrometric place of a star: geocentric, referred to the
+     * ICRS, without light deflection or aberration.
+     *
+     * @return 0 on success
+     */
+    public short AstroStar(double jdTt, CatEntry3 star, Accuracy accuracy, double[] raDec) {
+        return star(jdTt, star, geocenter, 0.0, CoordSys.ASTROMETRIC, accuracy, raDec);
+    }
+
+    /**
+     * Computes the topocentric place of a star, referred to the true
+     * equator and equinox of date.
+     *
+     * @param jdTt TT Julian date
+     * @param deltaT TT - UT1 (seconds)
+     * @param star catalog entry
+     * @param position location of the observer
+     * @param accuracy selects the number of nutation terms
+     * @param raDec receives the right ascension (hours) and declination
+     * (degrees)
+     * @return 0 on success
+     */
+    public short TopoStar(double jdTt, double deltaT, CatEntry3 star, OnSurface position, Accuracy accuracy,
+            double[] raDec) {
+        surface.setOnSurf(position);
+        return star(jdTt, star, surface, deltaT, CoordSys.EQUINOX_OF_DATE, accuracy, raDec);
+    }
+
+    /**
+     * Computes the local place of a star: topocentric, referred to the GCRS
+     * axes.
+     *
+     * @return 0 on success
+     */
+    public short LocalStar(double jdTt, double deltaT, CatEntry3 star, OnSurface position, Accuracy accuracy,
+            double[] raDec) {
+        surface.setOnSurf(position);
+        return star(jdTt, star, surface, deltaT, CoordSys.GCRS, accuracy, raDec);
+    }
+
+    /**
+     * Computes the ICRS position of a star from its apparent place at a
+     * date, by iterating AppStar. Proper motion, parallax and radial
+     * velocity are taken to be zero.
+     *
+     * @param jdTt TT Julian date
+     * @param ra apparent right ascension (hours)
+     * @param dec apparent declination (degrees)
+     * @param accuracy selects the number of nutation terms
+     * @param raDec receives the ICRS right ascension (hours) and
+     * declination (degrees)
+     * @return 0 on success, 1 if the iteration did not converge
+     */
+    public short MeanStar(double jdTt, double ra, double dec, Accuracy accuracy, double[] raDec) {
+        MakeCatEntry("dummy", "xxx", 0, ra, dec, 0.0, 0.0, 0.0, 0.0, scratchStar);
+        for (int iter = 0; iter < 30; iter++) {
+            AppStar(jdTt, scratchStar, accuracy, raDec);
+            double dra = ra - raDec[0];
+            if (dra > 12.0) {
+                dra -= 24.0;
+            } else if (dra < -12.0) {
+                dra += 24.0;
+            }
+            double ddec = dec - raDec[1];
+            if (Math.abs(dra) < 1.0e-12 && Math.abs(ddec) < 1.0e-11) {
+                double r = scratchStar.getRA() % 24.0;
+                raDec[0] = r < 0.0 ? r + 24.0 : r;
+                raDec[1] = scratchStar.getDec();
+                return 0;
+            }
+            scratchStar.setRA(scratchStar.getRA() + dra);
+            scratchStar.setDec(scratchStar.getDec() + ddec);
+        }
+        return 1;
+    }
+
+    /**
+     * Computes the apparent place of a solar system body: geocentric,
+     * referred to the true equator and equinox of date.
+     *
+     * @param jdTt TT Julian date
+     * @param ssBody body
+     * @param accuracy selects the number of nutation terms
+     * @param out receives the right ascension (hours), declination
+     * (degrees) and true distance (AU)
+     * @return 0 on success, 1 for an object outside the solar system,
+     * else the Place error
+     */
+    public short AppPlanet(double jdTt, Object3 ssBody, Accuracy accuracy, double[] out) {
+        return planet(jdTt, ssBody, geocenter, 0.0, CoordSys.EQUINOX_OF_DATE, accuracy, out);
+    }
+
+    /**
+     * Computes the virtual place of a solar system body: geocentric,
+     * referred to the GCRS axes.
+     *
+     * @return 0 on success, 1 for an object outside the solar system,
+     * else the Place error
+     */
+    public short VirtualPlanet(double jdTt, Object3 ssBody, Accuracy accuracy, double[] out) {
+        return planet(jdTt, ssBody, geocenter, 0.0, CoordSys.GCRS, accuracy, out);
+    }
+
+    /**
+     * Computes the astrometric place of a solar system body: geocentric,
+     * referred to the ICRS, without light deflection or aberration.
+     *
+     * @return 0 on success, 1 for an object outside the solar system,
+     * else the Place error
+     */
+    public short AstroPlanet(double jdTt, Object3 ssBody, Accuracy accuracy, double[] out) {
+        return planet(jdTt, ssBody, geocenter, 0.0, CoordSys.ASTROMETRIC, accuracy, out);
+    }
+
+    /**
+     * Computes the topocentric place of a solar system body, referred to
+     * the true equator and equinox of date.
+     *
+     * @param jdTt TT Julian date
+     * @param ssBody body
+     * @param deltaT TT - UT1 (seconds)
+     * @param position location of the observer
+     * @param accuracy selects the number of nutation terms
+     * @param out receives the right ascension (hours), declination
+     * (degrees) and true distance (AU)
+     * @return 0 on success, 1 for an object outside the solar system,
+     * else the Place error
+     */
+    public short TopoPlanet(double jdTt, Object3 ssBody, double deltaT, OnSurface position, Accuracy accuracy,
+            double[] out) {
+        surface.setOnSurf(position);
+        return planet(jdTt, ssBody, surface, deltaT, CoordSys.EQUINOX_OF_DATE, accuracy, out);
+    }
+
+    /**
+     * Computes the local place of a solar system body: topocentric,
+     * referred to the GCRS axes.
+     *
+     * @return 0 on success, 1 for an object outside the solar system,
+     * else the Place error
+     */
+    public short LocalPlanet(double jdTt, Object3 ssBody, double deltaT, OnSurface position, Accuracy accuracy,
+            double[] out) {
+        surface.setOnSurf(position);
+        return planet(jdTt, ssBody, surface, deltaT, CoordSys.GCRS, accuracy, out);
+    }
+
+    private short planet(double jdTt, Object3 ssBody, Observer observer, double deltaT, CoordSys coordSys,
+            Accuracy accuracy, double[] out) {
+        if (ssBody.getType() == ObjectType.FIXED_OBJECT) {
+            return 1;
+        }
+        short error = Place(jdTt, ssBody, observer, deltaT, coordSys, accuracy, scratchPlace);
+        out[0] = scratchPlace.getRA();
+        out[1] = scratchPlace.getDec();
+        out[2] = scratchPlace.getDis();
+        return error;
+    }
+
+    private short star(double jdTt, CatEntry3 star, Observer observer, double deltaT, CoordSys coordSys,
+            Accuracy accuracy, double[] raDec) {
+        scratchObject.setStar(star);
+        short error = Place(jdTt, scratchObject, observer, deltaT, coordSys, accuracy, scratchPlace);
+        raDec[0] = scratchPlace.getRA();
+        raDec[1] = scratchPlace.getDec();
+        return error;
+    }
+
+    /**
+     * Gets the precession and nutation for a date, keeping the last one so
+     * that repeated calls for one date skip the cache lookup. With pole
+     * offsets set the value is computed here, since the cache holds the
+     * modelled nutation only.
+     *
+     */
+    private PrecessionNutation reduction(double jdTt, Accuracy accuracy) {
+        PrecessionNutation pn = reduction;
+        if (pn == null || pn.getAccuracy() != accuracy || Math.abs(pn.getJulianDateTT() - jdTt)
+                > cache.getTolerance() * 0.5) {
+            if (psiCor == 0.0 && epsCor == 0.0) {
+                pn = cache.get(jdTt, accuracy);
+            } else {
+                pn = new PrecessionNutation(jdTt, accuracy, psiCor, epsCor);
+            }
+            reduction = pn;
+        }
+        return pn;
+    }
+
+    /**
+     * Computes the barycentric position and velocity of the observer into
+     * obsPos and obsVel, in the ICRS.
+     *
+     */
+    private void observerState(double jdTt, Observer observer, double deltaT, Accuracy accuracy) {
+        earthState(jdTt);
+        GeoPosVel(jdTt, deltaT, accuracy, observer, v1, v2);
+        for (int i = 0; i < 3; i++) {
+            obsPos[i] = earthPos[i] + v1[i];
+            obsVel[i] = earthVel[i] + v2[i];
+        }
+    }
+
+    /**
+     * Computes the barycentric position and velocity of the Earth into
+     * earthPos and earthVel and the position of the Sun into sunPos, in the
+     * ICRS. They come from the JPL ephemeris when one is set and covers the
+     * date, else from the solar coordinates of Reduction with the Sun at
+     * the barycenter.
+     *
+     */
+    private void earthState(double jdTdb) {
+        if (jdTdb == earthDate) {
+            return;
+        }
+        JplEphemeris de = ephemeris;
+        if (de != null && de.covers(jdTdb) && de.has(Target.EARTH) && de.has(Target.SUN)) {
+            double high = Math.floor(jdTdb);
+            de.state(high, jdTdb - high, Target.EARTH, Target.SOLAR_SYSTEM_BARYCENTRE, earthPos, earthVel);
+            de.state(high, jdTdb - high, Target.SUN, Target.SOLAR_SYSTEM_BARYCENTRE, sunPos, null);
+            earthDate = jdTdb;
+            return;
+        }
+        double eps = Reduction.meanObliquity(jdTdb);
+        Reduction.precessionMatrix(jdTdb, m2);
+        Reduction.sunPosition(jdTdb, v3);
+        equatorialIcrs(eps, v3, earthPos);
+        Reduction.sunPosition(jdTdb - 0.5, v3);
+        Reduction.sunPosition(jdTdb + 0.5, v4);
+        v3[0] -= v4[0];
+        v3[1] -= v4[1];
+        v3[2] -= v4[2];
+        equatorialIcrs(eps, v3, earthVel);
+        earthPos[0] = -earthPos[0];
+        earthPos[1] = -earthPos[1];
+        earthPos[2] = -earthPos[2];
+        sunPos[0] = sunPos[1] = sunPos[2] = 0.0;
+        earthDate = jdTdb;
+    }
+
+    /**
+     * Rotates an ecliptic vector of date to the ICRS, with the precession
+     * matrix in m2.
+     *
+     */
+    private void equatorialIcrs(double eps, double[] ecliptic, double[] out) {
+        double ce = Math.cos(eps);
+        double se = Math.sin(eps);
+        double y = ecliptic[1] * ce - ecliptic[2] * se;
+        double z = ecliptic[1] * se + ecliptic[2] * ce;
+        out[0] = ecliptic[0];
+        out[1] = y;
+        out[2] = z;
+        Reduction.multiplyTranspose(m2, out, out);
+    }
+
+    /**
+     * Deflects pos by one body with GravVec, unless the position is that
+     * of the body itself.
+     *
+     */
+    private void deflect(double[] pos, double[] posObs, double[] posBody, double rmass) {
+        double qx = posObs[0] - posBody[0] + pos[0];
+        double qy = posObs[1] - posBody[1] + pos[1];
+        double qz = posObs[2] - posBody[2] + pos[2];
+        if (Math.sqrt(qx * qx + qy * qy + qz * qz) > 1.0e-4 * length(pos)) {
+            GravVec(pos, posObs, posBody, rmass, pos);
+        }
+    }
+
+    private static Target target(Body body) {
+        switch (body) {
+            case SUN:
+                return Target.SUN;
+            case MOON:
+                return Target.MOON;
+            default:
+                return Target.fromValue(body.ordinal());
+        }
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double x = a[0] - b[0];
+        double y = a[1] - b[1];
+        double z = a[2] - b[2];
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+
+    private static double length(double[] v) {
+        return Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+    }
+}
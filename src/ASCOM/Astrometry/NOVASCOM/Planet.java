@@ -0,0 +1,547 @@
+package ASCOM.Astrometry.NOVASCOM;
+
+import ASCOM.Astrometry.Accuracy;
+import ASCOM.Astrometry.Body;
+import ASCOM.Astrometry.CoordSys;
+import ASCOM.Astrometry.GstType;
+import ASCOM.Astrometry.JplEphemeris;
+import ASCOM.Astrometry.Method;
+import ASCOM.Astrometry.Object3;
+import ASCOM.Astrometry.ObjectType;
+import ASCOM.Astrometry.Observer;
+import ASCOM.Astrometry.OnSurface;
+import ASCOM.Astrometry.Reduction;
+import ASCOM.Astrometry.RefractionOption;
+import ASCOM.Astrometry.SkyPos;
+import ASCOM.Astrometry.TimeScales;
+import ASCOM.Astrometry.NOVAS.NOVAS31;
+
+/**
+ * NOVAS-COM Planet Class
+ *
+ * Objects of class Planet hold the characteristics of a solar system body:
+ * type, number, name, the ephemeris to be used for orbital calculations
+ * and an optional value for delta-T. The high-level NOVAS astrometric
+ * functions are implemented as methods of Planet: GetTopocentricPosition(),
+ * GetLocalPosition(), GetApparentPosition(), GetVirtualPosition() and
+ * GetAstrometricPosition(). They produce a PositionVector. The positions
+ * are computed by NOVAS31.Place from the JPL ephemeris set with
+ * setEphemeris, so only major planets, the Sun and the Moon are supported.
+ *
+ * Fast mode
+ *
+ * Every call normally iterates the light time and performs the full
+ * reduction. With fast mode on, GetApparentPosition and
+ * GetTopocentricPosition instead evaluate Chebyshev polynomials in right
+ * ascension, declination and distance, fitted to full reductions at 12
+ * nodes over a window of FastModeWindow days starting at the first date
+ * asked for. A date outside the window, or a different site or delta-T,
+ * refits lazily on the next call. Topocentric fits also interpolate the
+ * local apparent sidereal time, from which azimuth, elevation and
+ * refraction are computed directly. A lookup then takes a few hundred
+ * nanoseconds instead of a few microseconds.
+ *
+ * Each fit is checked against full reductions at the 11 points halfway
+ * between its nodes, where the interpolation error of a smooth function is
+ * largest, and the worst difference is reported by getFastModeError. With
+ * the default window of 0.25 days the places of the Sun and planets are
+ * within 0.01 milliarcsecond and the Moon within 1 milliarcsecond; the
+ * interpolated sidereal time adds up to 1 milliarcsecond to azimuth and
+ * elevation, the resolution of a Julian date held in one double. The error
+ * grows quickly with longer windows: about 10 milliarcseconds for the
+ * topocentric Moon over one day.
+ *
+ * A Planet is not thread safe.
+ *
+ */
+public class Planet {
+
+    /**
+     * Default fast mode window: six hours (days).
+     */
+    public static final double DEFAULT_FAST_MODE_WINDOW = 0.25;
+
+    private static final int NODES = 12;
+
+    private double DeltaT = Double.NaN;
+    private JplEphemeris Ephemeris;
+    private String Name = "";
+    private int Number;
+    private ObjectType Type = ObjectType.MAJOR_PLANET_SUN_OR_MOON;
+    private boolean FastMode;
+    private double FastModeWindow = DEFAULT_FAST_MODE_WINDOW;
+
+    private final NOVAS31 novas = new NOVAS31();
+    private final Object3 object = new Object3();
+    private final Observer geocenter = new Observer();
+    private final Observer surface = new Observer();
+    private final SkyPos place = new SkyPos();
+    private final double[] horizon = new double[4];
+    private final double[] value = new double[4];
+
+    private final Fit apparent = new Fit(3);
+    private final Fit topocentric = new Fit(4);
+
+    /**
+     * Get an apparent position for given time
+     *
+     * @param tjd terrestrial Julian date
+     * @return geocentric position referred to the true equator and equinox
+     * of date
+     */
+    public PositionVector GetApparentPosition(double tjd) {
+        if (FastMode) {
+            if (!apparent.covers(tjd, 0.0, 0.0, 0.0, 0.0)) {
+                fit(apparent, tjd, geocenter, false);
+            }
+            apparent.evaluate(tjd, value);
+        } else {
+            reduce(tjd, geocenter, CoordSys.EQUINOX_OF_DATE, value);
+        }
+        return position(value);
+    }
+
+    /**
+     * Get an astrometric position for given time
+     *
+     * @param tjd terrestrial Julian date
+     * @return geocentric position referred to the ICRS, without aberration
+     * or light deflection
+     */
+    public PositionVector GetAstrometricPosition(double tjd) {
+        reduce(tjd, geocenter, CoordSys.ASTROMETRIC, value);
+        return position(value);
+    }
+
+    /**
+     * Get a local position for given time
+     *
+     * @param tjd terrestrial Julian date
+     * @param site location of the observer
+     * @return topocentric position referred to the GCRS
+     */
+    public PositionVector GetLocalPosition(double tjd, Site site) {
+        observer(site);
+        reduce(tjd, surface, CoordSys.GCRS, value);
+        return position(value);
+    }
+
+    /**
+     * Get a topocentric position for given time
+     *
+     * @param tjd terrestrial Julian date
+     * @param site location of the observer
+     * @param refract true to apply refraction, using the site temperature
+     * and pressure, to the azimuth and elevation
+     * @return topocentric position referred to the true equator and equinox
+     * of date, with azimuth and elevation
+     */
+    public PositionVector GetTopocentricPosition(double tjd, Site site, boolean refract) {
+        observer(site);
+        double deltaT = deltaT(tjd);
+        RefractionOption refraction = refract ? RefractionOption.LOCATION_REFRACTION : RefractionOption.NO_REFRACTION;
+        if (FastMode) {
+            if (!topocentric.covers(tjd, site.getLatitude(), site.getLongitude(), site.getHeight(), DeltaT)) {
+                topocentric.setSite(site.getLatitude(), site.getLongitude(), site.getHeight(), DeltaT);
+                fit(topocentric, tjd, surface, true);
+            }
+            topocentric.evaluate(tjd, value);
+            PositionVector position = position(value);
+            horizon(value, surface.getOnSurf(), refraction, position);
+            return position;
+        }
+        reduce(tjd, surface, CoordSys.EQUINOX_OF_DATE, value);
+        PositionVector position = position(value);
+        novas.Equ2Hor(tjd - deltaT / 86400.0, deltaT, Accuracy.FULL, 0.0, 0.0, surface.getOnSurf(), value[0], value[1],
+                refraction, horizon);
+        position.setHorizon(horizon[1], 90.0 - horizon[0]);
+        return position;
+    }
+
+    /**
+     * Computes azimuth and elevation from a topocentric place and the local
+     * apparent sidereal time, as Equ2Hor does for a site without polar
+     * motion.
+     *
+     * @param value right ascension (hours), declination (degrees), distance
+     * and local apparent sidereal time (hours)
+     */
+    private void horizon(double[] value, OnSurface location, RefractionOption refraction, PositionVector position) {
+        double h = (value[3] - value[0]) * Math.PI / 12.0;
+        double dec = Math.toRadians(value[1]);
+        double lat = Math.toRadians(location.getLatitude());
+        double sd = Math.sin(dec);
+        double cd = Math.cos(dec);
+        double sl = Math.sin(lat);
+        double cl = Math.cos(lat);
+        double up = sl * sd + cl * cd * Math.cos(h);
+        double north = cl * sd - sl * cd * Math.cos(h);
+        double west = cd * Math.sin(h);
+        double proj = Math.sqrt(north * north + west * west);
+        double az = proj > 0.0 ? Math.toDegrees(-Math.atan2(west, north)) : 0.0;
+        if (az < 0.0) {
+            az += 360.0;
+        }
+        double zd = Math.toDegrees(Math.atan2(proj, up));
+        if (refraction != RefractionOption.NO_REFRACTION) {
+            double refr = 0.0;
+            double refr0;
+            do {
+                refr0 = refr;
+                refr = novas.Refract(location, refraction, zd - refr);
+            } while (Math.abs(refr - refr0) > 3.0e-5);
+            zd -= refr;
+        }
+        position.setHorizon(az, 90.0 - zd);
+    }
+
+    /**
+     * Get a virtual position for given time
+     *
+     * @param tjd terrestrial Julian date
+     * @return geocentric position referred to the GCRS
+     */
+    public PositionVector GetVirtualPosition(double tjd) {
+        reduce(tjd, geocenter, CoordSys.GCRS, value);
+        return position(value);
+    }
+
+    private static PositionVector position(double[] value) {
+        PositionVector position = new PositionVector();
+        position.set(value[0], value[1], value[2], value[2] / Reduction.C_AU_PER_DAY);
+        return position;
+    }
+
+    private void observer(Site site) {
+        novas.MakeObserverOnSurface(site.getLatitude(), site.getLongitude(), site.getHeight(), site.getTemperature(),
+                site.getPressure(), surface);
+    }
+
+    /**
+     * Gets the delta-T for a date, from TimeScales.shared() when DeltaT is
+     * not set. The table is indexed by the TT date, which is within a
+     * minute and a half of UTC.
+     *
+     */
+    private double deltaT(double tjd) {
+        return Double.isNaN(DeltaT) ? TimeScales.shared().getDeltaT(tjd) : DeltaT;
+    }
+
+    /**
+     * Performs the full reduction.
+     *
+     * @param out receives the right ascension (hours), declination
+     * (degrees) and distance (AU)
+     */
+    private void reduce(double tjd, Observer location, CoordSys coordSys, double[] out) {
+        if (Ephemeris == null) {
+            throw new IllegalStateException("No ephemeris has been set for the planet");
+        }
+        if (Type != ObjectType.MAJOR_PLANET_SUN_OR_MOON) {
+            throw new IllegalStateException("Only major planets, the Sun and the Moon are supported");
+        }
+        novas.MakeObject(Type, Body.fromValue(Number), Name, null, object);
+        short error = novas.Place(tjd, object, location, deltaT(tjd), coordSys, Accuracy.FULL, place);
+        if (error != 0) {
+            throw new IllegalArgumentException("Cannot compute the place of " + object.getNumber() + " at " + tjd
+                    + ": NOVAS error " + error);
+        }
+        out[0] = place.getRA();
+        out[1] = place.getDec();
+        out[2] = place.getDis();
+    }
+
+    /**
+     * Fits the Chebyshev polynomials of a window starting at a date and
+     * checks them halfway between the nodes.
+     *
+     */
+    private void fit(Fit fit, double start, Observer location, boolean siderealTime) {
+        double span = FastModeWindow;
+        double[][] nodes = new double[4][NODES];
+        for (int k = 0; k < NODES; k++) {
+            node(start + span * 0.5 * (1.0 - Math.cos(Math.PI * (k + 0.5) / NODES)), location, siderealTime, value);
+            for (int c = 0; c < 4; c++) {
+                double v = value[c];
+                if (k > 0 && (c == 0 || c == 3)) {
+                    v += 24.0 * Math.rint((nodes[c][k - 1] - v) / 24.0);
+                }
+                nodes[c][k] = v;
+            }
+        }
+        fit.set(start, span, nodes);
+
+        double[] full = new double[4];
+        double worst = 0.0;
+        for (int k = 1; k < NODES; k++) {
+            double t = start + span * 0.5 * (1.0 - Math.cos(Math.PI * k / NODES));
+            node(t, location, siderealTime, full);
+            fit.evaluate(t, value);
+            worst = Math.max(worst, separation(full, value));
+            if (siderealTime) {
+                worst = Math.max(worst, Math.abs(Math.IEEEremainder(full[3] - value[3], 24.0)) * 54000.0);
+            }
+        }
+        fit.error = worst;
+    }
+
+    /**
+     * Computes the values fitted at one date: the place and, for topocentric
+     * fits, the local apparent sidereal time (hours).
+     *
+     */
+    private void node(double tjd, Observer location, boolean siderealTime, double[] out) {
+        reduce(tjd, location, CoordSys.EQUINOX_OF_DATE, out);
+        out[3] = 0.0;
+        if (siderealTime) {
+            double deltaT = deltaT(tjd);
+            out[3] = novas.SiderealTime(tjd - deltaT / 86400.0, 0.0, deltaT, GstType.GREENWICH_APPARENT_SIDEREAL_TIME,
+                    Method.EQUINOX_BASED, Accuracy.FULL) + location.getOnSurf().getLongitude() / 15.0;
+        }
+    }
+
+    /**
+     * Gets the angle between two places (arcseconds).
+     *
+     */
+    private static double separation(double[] a, double[] b) {
+        double dra = Math.IEEEremainder(a[0] - b[0], 24.0) * 15.0 * Math.cos(Math.toRadians(a[1]));
+        double ddec = a[1] - b[1];
+        return Math.sqrt(dra * dra + ddec * ddec) * 3600.0;
+    }
+
+    private void invalidate() {
+        apparent.span = 0.0;
+        topocentric.span = 0.0;
+    }
+
+    /**
+     * Sets the planet delta-T (TT - UT1, seconds)
+     *
+     * Setting this value is optional. If no value is set, the value for the
+     * date from TimeScales.shared() is used.
+     *
+     */
+    public void setDeltaT(double _theValue) {
+        this.DeltaT = _theValue;
+        invalidate();
+    }
+
+    /**
+     * Gets the planet delta-T (TT - UT1, seconds), NaN if not set
+     *
+     */
+    public double getDeltaT() {
+        return DeltaT;
+    }
+
+    /**
+     * Sets the JPL ephemeris used to provide the positions of the Earth and
+     * of solar system bodies.
+     *
+     */
+    public void setEphemeris(JplEphemeris _theValue) {
+        this.Ephemeris = _theValue;
+        novas.setEphemeris(_theValue);
+        invalidate();
+    }
+
+    /**
+     * Gets the JPL ephemeris used to provide the positions of the Earth and
+     * of solar system bodies.
+     *
+     */
+    public JplEphemeris getEphemeris() {
+        return Ephemeris;
+    }
+
+    /**
+     * Sets the planet name
+     *
+     */
+    public void setName(String _theValue) {
+        this.Name = _theValue;
+    }
+
+    /**
+     * Gets the planet name
+     *
+     */
+    public String getName() {
+        return Name;
+    }
+
+    /**
+     * Sets the planet number. The major planet number is its number out from
+     * the sun starting with Mercury = 1; 10 is the Sun and 11 the Moon.
+     *
+     */
+    public void setNumber(int _theValue) {
+        Body.fromValue(_theValue);
+        this.Number = _theValue;
+        invalidate();
+    }
+
+    /**
+     * Gets the planet number
+     *
+     */
+    public int getNumber() {
+        return Number;
+    }
+
+    /**
+     * Sets the type of solar system body
+     *
+     */
+    public void setType(ObjectType _theValue) {
+        if (_theValue == ObjectType.FIXED_OBJECT) {
+            throw new IllegalArgumentException("A planet cannot be a fixed object");
+        }
+        this.Type = _theValue;
+        invalidate();
+    }
+
+    /**
+     * Gets the type of solar system body
+     *
+     */
+    public ObjectType getType() {
+        return Type;
+    }
+
+    /**
+     * Sets whether GetApparentPosition and GetTopocentricPosition
+     * interpolate fitted polynomials instead of reducing every call.
+     *
+     */
+    public void setFastMode(boolean _theValue) {
+        this.FastMode = _theValue;
+        invalidate();
+    }
+
+    /**
+     * Gets whether fast mode is on
+     *
+     */
+    public boolean isFastMode() {
+        return FastMode;
+    }
+
+    /**
+     * Sets the span of each fast mode fit (days)
+     *
+     */
+    public void setFastModeWindow(double _theValue) {
+        if (!(_theValue > 0.0)) {
+            throw new IllegalArgumentException("FastModeWindow must be positive: " + _theValue);
+        }
+        this.FastModeWindow = _theValue;
+        invalidate();
+    }
+
+    /**
+     * Gets the span of each fast mode fit (days)
+     *
+     */
+    public double getFastModeWindow() {
+        return FastModeWindow;
+    }
+
+    /**
+     * Gets the largest difference between the fast mode fits in use and the
+     * full reduction, measured halfway between the nodes when each was
+     * fitted (arcseconds); 0 before the first fit.
+     *
+     */
+    public double getFastModeError() {
+        double error = 0.0;
+        if (apparent.span > 0.0) {
+            error = apparent.error;
+        }
+        if (topocentric.span > 0.0) {
+            error = Math.max(error, topocentric.error);
+        }
+        return error;
+    }
+
+    /**
+     * Chebyshev polynomials in right ascension, declination, distance and,
+     * for topocentric fits, local sidereal time over one window, and the
+     * site and delta-T setting (NaN for TimeScales) they were fitted for.
+     *
+     */
+    private static final class Fit {
+
+        private final int count;
+        private final double[][] coefficients;
+        private double start;
+        private double span;
+        private double error;
+        private double latitude;
+        private double longitude;
+        private double height;
+        private double deltaT;
+
+        Fit(int count) {
+            this.count = count;
+            this.coefficients = new double[count][NODES];
+        }
+
+        boolean covers(double tjd, double latitude, double longitude, double height, double deltaT) {
+            return span > 0.0 && tjd >= start && tjd <= start + span && latitude == this.latitude
+                    && longitude == this.longitude && height == this.height && Double.compare(deltaT, this.deltaT) == 0;
+        }
+
+        void setSite(double latitude, double longitude, double height, double deltaT) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.height = height;
+            this.deltaT = deltaT;
+        }
+
+        /**
+         * Computes the coefficients from values at the Chebyshev nodes, in
+         * order of increasing date.
+         *
+         */
+        void set(double start, double span, double[][] nodes) {
+            for (int c = 0; c < count; c++) {
+                double[] f = nodes[c];
+                double[] a = coefficients[c];
+                for (int j = 0; j < NODES; j++) {
+                    double sum = 0.0;
+                    for (int k = 0; k < NODES; k++) {
+                        sum += f[k] * Math.cos(Math.PI * j * (k + 0.5) / NODES);
+                    }
+                    a[j] = 2.0 * sum / NODES;
+                }
+                a[0] *= 0.5;
+            }
+            this.start = start;
+            this.span = span;
+        }
+
+        void evaluate(double tjd, double[] out) {
+            double x = 1.0 - 2.0 * (tjd - start) / span;
+            double x2 = 2.0 * x;
+            for (int c = 0; c < count; c++) {
+                double[] a = coefficients[c];
+                double b1 = 0.0;
+                double b2 = 0.0;
+                for (int j = NODES - 1; j > 0; j--) {
+                    double b = x2 * b1 - b2 + a[j];
+                    b2 = b1;
+                    b1 = b;
+                }
+                out[c] = x * b1 - b2 + a[0];
+            }
+            double ra = out[0] % 24.0;
+            out[0] = ra < 0.0 ? ra + 24.0 : ra;
+            if (count > 3) {
+                double st = out[3] % 24.0;
+                out[3] = st < 0.0 ? st + 24.0 : st;
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package ASCOM.Astrometry.NOVASCOM;
+
+/**
+ * NOVAS-COM PositionVector Class
+ *
+ * Objects of class PositionVector contain vectors used for positions
+ * (earth, sites, stars and planets) throughout NOVAS-COM. Its properties
+ * include the x, y, and z components of the position, the right ascension
+ * and declination, distance, and light time, and Alt/Az (available only in
+ * PositionVectors returned by GetTopocentricPosition()).
+ *
+ * Note: The equatorial coordinate properties of this object are dependent
+ * variables, and thus are read-only. Changing any cartesian coordinate will
+ * cause the equatorial coordinates to be recalculated.
+ *
+ */
+public class PositionVector {
+
+    private static final double DEG = Math.PI / 180.0;
+    private static final double HOUR = Math.PI / 12.0;
+
+    private double x;
+    private double y;
+    private double z;
+    private double RightAscension;
+    private double Declination;
+    private double Distance;
+    private double LightTime;
+    private double Azimuth = Double.NaN;
+    private double Elevation = Double.NaN;
+
+    public PositionVector() {
+    }
+
+    /**
+     *
+     * @param x position cartesian x component (AU)
+     * @param y position cartesian y component (AU)
+     * @param z position cartesian z component (AU)
+     */
+    public PositionVector(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        equatorial();
+    }
+
+    /**
+     * Sets the position from equatorial coordinates.
+     *
+     */
+    void set(double ra, double dec, double distance, double lightTime) {
+        double cd = Math.cos(dec * DEG);
+        x = distance * cd * Math.cos(ra * HOUR);
+        y = distance * cd * Math.sin(ra * HOUR);
+        z = distance * Math.sin(dec * DEG);
+        RightAscension = ra;
+        Declination = dec;
+        Distance = distance;
+        LightTime = lightTime;
+        Azimuth = Double.NaN;
+        Elevation = Double.NaN;
+    }
+
+    void setHorizon(double azimuth, double elevation) {
+        Azimuth = azimuth;
+        Elevation = elevation;
+    }
+
+    private void equatorial() {
+        Distance = Math.sqrt(x * x + y * y + z * z);
+        if (Distance == 0.0) {
+            RightAscension = 0.0;
+            Declination = 0.0;
+            return;
+        }
+        double ra = Math.atan2(y, x) / HOUR;
+        RightAscension = ra < 0.0 ? ra + 24.0 : ra;
+        Declination = Math.atan2(z, Math.sqrt(x * x + y * y)) / DEG;
+    }
+
+    /**
+     * Gets the azimuth coordinate (degrees, + east), NaN unless returned by
+     * GetTopocentricPosition()
+     *
+     */
+    public double getAzimuth() {
+        return Azimuth;
+    }
+
+    /**
+     * Gets the declination coordinate (degrees)
+     *
+     */
+    public double getDeclination() {
+        return Declination;
+    }
+
+    /**
+     * Gets the distance coordinate (AU)
+     *
+     */
+    public double getDistance() {
+        return Distance;
+    }
+
+    /**
+     * Gets the elevation (altitude) coordinate (degrees, + up), NaN unless
+     * returned by GetTopocentricPosition()
+     *
+     */
+    public double getElevation() {
+        return Elevation;
+    }
+
+    /**
+     * Sets the light time from body to origin (days)
+     *
+     */
+    public void setLightTime(double _theValue) {
+        this.LightTime = _theValue;
+    }
+
+    /**
+     * Gets the light time from body to origin (days)
+     *
+     */
+    public double getLightTime() {
+        return LightTime;
+    }
+
+    /**
+     * Gets the right ascension coordinate (hours)
+     *
+     */
+    public double getRightAscension() {
+        return RightAscension;
+    }
+
+    /**
+     * Sets the position cartesian x component
+     *
+     */
+    public void setX(double _theValue) {
+        this.x = _theValue;
+        equatorial();
+    }
+
+    /**
+     * Gets the position cartesian x component
+     *
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Sets the position cartesian y component
+     *
+     */
+    public void setY(double _theValue) {
+        this.y = _theValue;
+        equatorial();
+    }
+
+    /**
+     * Gets the position cartesian y component
+     *
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Sets the position cartesian z component
+     *
+     */
+    public void setZ(double _theValue) {
+        this.z = _theValue;
+        equatorial();
+    }
+
+    /**
+     * Gets the position cartesian z component
+     *
+     */
+    public double getZ() {
+        return z;
+    }
+}
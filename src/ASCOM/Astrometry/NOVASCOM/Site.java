@@ -0,0 +1,120 @@
+package ASCOM.Astrometry.NOVASCOM;
+
+/**
+ * NOVAS-COM Site Class
+ *
+ * Objects of class Site contain the specifications for an observer's
+ * location on the Earth ellipsoid. Properties are latitude, longitude,
+ * height above mean sea level, the ambient temperature and the sea-level
+ * barometric pressure. The latter two are used only for optional refraction
+ * corrections. Latitude and longitude are (common) geodetic, not
+ * geocentric.
+ *
+ */
+public class Site {
+
+    private double Height;
+    private double Latitude;
+    private double Longitude;
+    private double Pressure = 1010.0;
+    private double Temperature = 10.0;
+
+    /**
+     * Set all site properties in one method call
+     *
+     * @param latitude geodetic latitude (degrees, + north)
+     * @param longitude geodetic longitude (degrees, + east)
+     * @param height height above mean sea level (metres)
+     */
+    public void Set(double latitude, double longitude, double height) {
+        setLatitude(latitude);
+        setLongitude(longitude);
+        setHeight(height);
+    }
+
+    /**
+     * Sets the height above mean sea level (metres)
+     *
+     */
+    public void setHeight(double _theValue) {
+        this.Height = _theValue;
+    }
+
+    /**
+     * Gets the height above mean sea level (metres)
+     *
+     */
+    public double getHeight() {
+        return Height;
+    }
+
+    /**
+     * Sets the geodetic latitude (degrees, + north)
+     *
+     */
+    public void setLatitude(double _theValue) {
+        if (!(_theValue >= -90.0 && _theValue <= 90.0)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90: " + _theValue);
+        }
+        this.Latitude = _theValue;
+    }
+
+    /**
+     * Gets the geodetic latitude (degrees, + north)
+     *
+     */
+    public double getLatitude() {
+        return Latitude;
+    }
+
+    /**
+     * Sets the geodetic longitude (degrees, + east)
+     *
+     */
+    public void setLongitude(double _theValue) {
+        if (!(_theValue >= -180.0 && _theValue <= 180.0)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180: " + _theValue);
+        }
+        this.Longitude = _theValue;
+    }
+
+    /**
+     * Gets the geodetic longitude (degrees, + east)
+     *
+     */
+    public double getLongitude() {
+        return Longitude;
+    }
+
+    /**
+     * Sets the barometric pressure (millibars)
+     *
+     */
+    public void setPressure(double _theValue) {
+        this.Pressure = _theValue;
+    }
+
+    /**
+     * Gets the barometric pressure (millibars)
+     *
+     */
+    public double getPressure() {
+        return Pressure;
+    }
+
+    /**
+     * Sets the ambient temperature (degrees Celsius)
+     *
+     */
+    public void setTemperature(double _theValue) {
+        this.Temperature = _theValue;
+    }
+
+    /**
+     * Gets the ambient temperature (degrees Celsius)
+     *
+     */
+    public double getTemperature() {
+        return Temperature;
+    }
+}
@@ -0,0 +1,24 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Direction of nutation correction
+ 
+
+
+*/
+public enum NutationDirection{
+    MEAN_TO_TRUE,
+    TRUE_TO_MEAN;
+
+    /*
+ Returns the nutation direction for a NOVAS value
+     */
+    public static NutationDirection fromValue(int value){
+        NutationDirection[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown nutation direction " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,79 @@
+package ASCOM.Astrometry;
+
+/**
+ * Celestial object structure: designates a major planet, the Sun or the
+ * Moon by number, a minor planet by number and name, or a star by its
+ * catalog entry.
+ *
+ */
+public class Object3 {
+
+    private ObjectType type = ObjectType.FIXED_OBJECT;
+    private Body number;
+    private String name;
+    private CatEntry3 star = new CatEntry3();
+
+    /**
+     * Sets the type of the object
+     *
+     */
+    public void setType(ObjectType _theValue) {
+        type = _theValue;
+    }
+
+    /**
+     * Gets the type of the object
+     *
+     */
+    public ObjectType getType() {
+        return type;
+    }
+
+    /**
+     * Sets the major planet, Sun or Moon
+     *
+     */
+    public void setNumber(Body _theValue) {
+        number = _theValue;
+    }
+
+    /**
+     * Gets the major planet, Sun or Moon
+     *
+     */
+    public Body getNumber() {
+        return number;
+    }
+
+    /**
+     * Sets the name of the object
+     *
+     */
+    public void setName(String _theValue) {
+        name = _theValue;
+    }
+
+    /**
+     * Gets the name of the object
+     *
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the catalog entry of an object outside the solar system
+     *
+     */
+    public void setStar(CatEntry3 _theValue) {
+        star = _theValue;
+    }
+
+    /**
+     * Gets the catalog entry of an object outside the solar system
+     *
+     */
+    public CatEntry3 getStar() {
+        return star;
+    }
+}
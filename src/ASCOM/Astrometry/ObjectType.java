@@ -0,0 +1,25 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Type of object: a major planet, the Sun or the Moon, a minor planet, or an object outside the solar system
+ 
+
+
+*/
+public enum ObjectType{
+    MAJOR_PLANET_SUN_OR_MOON,
+    MINOR_PLANET,
+    FIXED_OBJECT;
+
+    /*
+ Returns the object type for a NOVAS value
+     */
+    public static ObjectType fromValue(int value){
+        ObjectType[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown object type " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,61 @@
+package ASCOM.Astrometry;
+
+/**
+ * General specification for the observer's location: the geocenter, a
+ * place on the surface of the Earth or a position in near-Earth space.
+ *
+ */
+public class Observer {
+
+    private ObserverLocation where = ObserverLocation.EARTH_GEO_CENTER;
+    private OnSurface onSurf = new OnSurface();
+    private InSpace nearEarth = new InSpace();
+
+    /**
+     * Sets the type of location
+     *
+     */
+    public void setWhere(ObserverLocation _theValue) {
+        where = _theValue;
+    }
+
+    /**
+     * Gets the type of location
+     *
+     */
+    public ObserverLocation getWhere() {
+        return where;
+    }
+
+    /**
+     * Sets the location on the surface of the Earth
+     *
+     */
+    public void setOnSurf(OnSurface _theValue) {
+        onSurf = _theValue;
+    }
+
+    /**
+     * Gets the location on the surface of the Earth
+     *
+     */
+    public OnSurface getOnSurf() {
+        return onSurf;
+    }
+
+    /**
+     * Sets the location in near-Earth space
+     *
+     */
+    public void setNearEarth(InSpace _theValue) {
+        nearEarth = _theValue;
+    }
+
+    /**
+     * Gets the location in near-Earth space
+     *
+     */
+    public InSpace getNearEarth() {
+        return nearEarth;
+    }
+}
@@ -0,0 +1,25 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Location of observer: the geocenter, the Earth's surface or near-Earth space
+ 
+
+
+*/
+public enum ObserverLocation{
+    EARTH_GEO_CENTER,
+    EARTH_SURFACE,
+    SPACE_NEAR_EARTH;
+
+    /*
+ Returns the observer location for a NOVAS value
+     */
+    public static ObserverLocation fromValue(int value){
+        ObserverLocation[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown observer location " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,94 @@
+package ASCOM.Astrometry;
+
+/**
+ * Parameters of an observer's location on the surface of the Earth.
+ *
+ */
+public class OnSurface {
+
+    private double latitude;
+    private double longitude;
+    private double height;
+    private double temperature;
+    private double pressure;
+
+    /**
+     * Sets the geodetic (ITRS) latitude (degrees, north positive)
+     *
+     */
+    public void setLatitude(double _theValue) {
+        latitude = _theValue;
+    }
+
+    /**
+     * Gets the geodetic (ITRS) latitude (degrees, north positive)
+     *
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the geodetic (ITRS) longitude (degrees, east positive)
+     *
+     */
+    public void setLongitude(double _theValue) {
+        longitude = _theValue;
+    }
+
+    /**
+     * Gets the geodetic (ITRS) longitude (degrees, east positive)
+     *
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Sets the height of the observer above sea level (m)
+     *
+     */
+    public void setHeight(double _theValue) {
+        height = _theValue;
+    }
+
+    /**
+     * Gets the height of the observer above sea level (m)
+     *
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Sets the temperature (degrees Celsius)
+     *
+     */
+    public void setTemperature(double _theValue) {
+        temperature = _theValue;
+    }
+
+    /**
+     * Gets the temperature (degrees Celsius)
+     *
+     */
+    public double getTemperature() {
+        return temperature;
+    }
+
+    /**
+     * Sets the atmospheric pressure (millibars)
+     *
+     */
+    public void setPressure(double _theValue) {
+        pressure = _theValue;
+    }
+
+    /**
+     * Gets the atmospheric pressure (millibars)
+     *
+     */
+    public double getPressure() {
+        return pressure;
+    }
+}
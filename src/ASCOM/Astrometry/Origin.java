@@ -0,0 +1,24 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Co-ordinate origin: centre of Sun or solar system barycentre
+ 
+
+
+*/
+public enum Origin{
+    BARYCENTRIC,
+    HELIOCENTRIC;
+
+    /*
+ Returns the origin for a NOVAS value, 0 barycentric and 1 heliocentric
+     */
+    public static Origin fromValue(int value){
+        Origin[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown origin " + value);
+        }
+        return all[value];
+    }
+}
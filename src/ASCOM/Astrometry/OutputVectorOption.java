@@ -0,0 +1,24 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Output vector reference system: GCRS axes or the true equator and equinox of date
+ 
+
+
+*/
+public enum OutputVectorOption{
+    REFERRED_TO_GCRS_AXES,
+    REFERRED_TO_EQUATOR_AND_EQUINOX_OF_DATE;
+
+    /*
+ Returns the output vector option for a NOVAS value
+     */
+    public static OutputVectorOption fromValue(int value){
+        OutputVectorOption[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown output vector option " + value);
+        }
+        return all[value];
+    }
+}
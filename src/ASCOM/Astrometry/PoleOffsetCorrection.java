@@ -0,0 +1,34 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Type of pole offset
+
+ Used by CelPole
+ 
+
+
+*/
+public enum PoleOffsetCorrection{
+    REFERRED_TO_MEAN_ECLIPTIC_OF_DATE,
+    REFERRED_TO_GCRS_AXES;
+
+    /*
+ Returns the NOVAS value, 1 for offsets in longitude and obliquity and 2
+ for offsets in x and y
+     */
+    public int getValue(){
+        return ordinal() + 1;
+    }
+
+    /*
+ Returns the pole offset type for a NOVAS value
+     */
+    public static PoleOffsetCorrection fromValue(int value){
+        PoleOffsetCorrection[] all = values();
+        if (value < 1 || value > all.length) {
+            throw new IllegalArgumentException("Unknown pole offset type " + value);
+        }
+        return all[value - 1];
+    }
+}
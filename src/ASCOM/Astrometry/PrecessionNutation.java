@@ -0,0 +1,131 @@
+package ASCOM.Astrometry;
+
+/**
+ * The date dependent part of an equatorial reduction: the combined frame
+ * bias, precession and nutation matrix from the ICRS to the true equator and
+ * equinox of date, the nutation angles and the equation of the equinoxes.
+ * Instances are immutable and come from PrecessionNutationCache.
+ *
+ */
+public final class PrecessionNutation {
+
+    private final double jdTT;
+    private final Accuracy accuracy;
+    private final double[] matrix = new double[9];
+    private final double dpsi;
+    private final double deps;
+    private final double meanObliquity;
+    private final double equationOfEquinoxes;
+
+    /**
+     * Computes the reduction for a date.
+     *
+     * @param jdTT date (TT)
+     * @param accuracy nutation accuracy
+     */
+    public PrecessionNutation(double jdTT, Accuracy accuracy) {
+        this(jdTT, accuracy, 0.0, 0.0);
+    }
+
+    /**
+     * Computes the reduction for a date with observed corrections to the
+     * modelled nutation. Such values are not shared through
+     * PrecessionNutationCache.
+     *
+     * @param jdTT date (TT)
+     * @param accuracy nutation accuracy
+     * @param dpsiOffset correction to the nutation in longitude (radians)
+     * @param depsOffset correction to the nutation in obliquity (radians)
+     */
+    public PrecessionNutation(double jdTT, Accuracy accuracy, double dpsiOffset, double depsOffset) {
+        double[] nutation = new double[3];
+        Reduction.biasPrecessionNutation(jdTT, accuracy, dpsiOffset, depsOffset, matrix, nutation);
+        this.jdTT = jdTT;
+        this.accuracy = accuracy;
+        this.dpsi = nutation[0];
+        this.deps = nutation[1];
+        this.meanObliquity = nutation[2];
+        this.equationOfEquinoxes = dpsi * Math.cos(meanObliquity)
+                + Reduction.equationOfEquinoxesComplement(jdTT, accuracy);
+    }
+
+    /**
+     * Gets the date (TT) the reduction was computed for.
+     *
+     */
+    public double getJulianDateTT() {
+        return jdTT;
+    }
+
+    public Accuracy getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * Copies the bias-precession-nutation matrix.
+     *
+     * @param out receives the matrix, row major
+     */
+    public void getMatrix(double[] out) {
+        System.arraycopy(matrix, 0, out, 0, 9);
+    }
+
+    /**
+     * Rotates an ICRS vector to the true equator and equinox of date. out
+     * may be v.
+     *
+     */
+    public void toTrueOfDate(double[] v, double[] out) {
+        Reduction.rotate(matrix, v, out);
+    }
+
+    /**
+     * Rotates a vector on the true equator and equinox of date to the ICRS.
+     * out may be v.
+     *
+     */
+    public void toIcrs(double[] v, double[] out) {
+        Reduction.multiplyTranspose(matrix, v, out);
+    }
+
+    /**
+     * Gets the nutation in longitude (radians).
+     *
+     */
+    public double getNutationInLongitude() {
+        return dpsi;
+    }
+
+    /**
+     * Gets the nutation in obliquity (radians).
+     *
+     */
+    public double getNutationInObliquity() {
+        return deps;
+    }
+
+    /**
+     * Gets the mean obliquity of the ecliptic (radians).
+     *
+     */
+    public double getMeanObliquity() {
+        return meanObliquity;
+    }
+
+    /**
+     * Gets the true obliquity of the ecliptic (radians).
+     *
+     */
+    public double getTrueObliquity() {
+        return meanObliquity + deps;
+    }
+
+    /**
+     * Gets the equation of the equinoxes (radians), the difference between
+     * apparent and mean sidereal time, including the complementary terms.
+     *
+     */
+    public double getEquationOfEquinoxes() {
+        return equationOfEquinoxes;
+    }
+}
@@ -0,0 +1,212 @@
+package ASCOM.Astrometry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded least recently used cache of PrecessionNutation values, keyed by
+ * the TT Julian date rounded to a tolerance and the accuracy. Reducing
+ * thousands of stars for one date then computes precession, nutation and
+ * frame bias once instead of once per star.
+ *
+ * A cached value is computed for the centre of its tolerance interval, so
+ * every date in the interval gets the same value whichever date was asked
+ * for first. Precession and nutation change by less than 1 microarcsecond
+ * per second of time, so the default tolerance of one second does not
+ * change results at the accuracy of the models; a tolerance of 0 caches
+ * exact dates only.
+ *
+ * Lookups are thread safe. A miss is computed outside the lock, so two
+ * threads missing on the same key at the same time may both compute it;
+ * both get the same value.
+ *
+ */
+public class PrecessionNutationCache {
+
+    /**
+     * Default tolerance: one second (days).
+     */
+    public static final double DEFAULT_TOLERANCE = 1.0 / 86400.0;
+
+    /**
+     * Default number of cached dates.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final PrecessionNutationCache SHARED =
+            new PrecessionNutationCache(DEFAULT_CAPACITY, DEFAULT_TOLERANCE);
+
+    private final int capacity;
+    private final double tolerance;
+    private final LinkedHashMap<Key, PrecessionNutation> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long evictions;
+
+    /**
+     *
+     * @param capacity largest number of cached dates
+     * @param tolerance dates closer than this share a value (days); 0 for
+     * exact dates only
+     */
+    public PrecessionNutationCache(final int capacity, double tolerance) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        if (!(tolerance >= 0.0)) {
+            throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+        }
+        this.capacity = capacity;
+        this.tolerance = tolerance;
+        this.entries = new LinkedHashMap<Key, PrecessionNutation>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PrecessionNutation> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the cache shared by the Transform component and the NOVAS
+     * reductions.
+     *
+     */
+    public static PrecessionNutationCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the reduction for a date, computing it on a miss.
+     *
+     * @param jdTT date (TT)
+     * @param accuracy nutation accuracy
+     */
+    public PrecessionNutation get(double jdTT, Accuracy accuracy) {
+        long bucket;
+        double date;
+        if (tolerance == 0.0) {
+            bucket = Double.doubleToLongBits(jdTT);
+            date = jdTT;
+        } else {
+            bucket = Math.round(jdTT / tolerance);
+            date = bucket * tolerance;
+        }
+        Key key = new Key(bucket, accuracy);
+        PrecessionNutation value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = new PrecessionNutation(date, accuracy);
+        synchronized (entries) {
+            PrecessionNutation raced = entries.get(key);
+            if (raced != null) {
+                return raced;
+            }
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Drops every cached value. The counters are kept.
+     *
+     */
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached dates.
+     *
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the tolerance (days).
+     *
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that computed a value.
+     *
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the cache.
+     *
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Gets the number of values dropped to stay within the capacity.
+     *
+     */
+    public long getEvictionCount() {
+        synchronized (entries) {
+            return evictions;
+        }
+    }
+
+    private static final class Key {
+
+        private final long bucket;
+        private final Accuracy accuracy;
+
+        Key(long bucket, Accuracy accuracy) {
+            this.bucket = bucket;
+            this.accuracy = accuracy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return bucket == other.bucket && accuracy == other.accuracy;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(bucket) * 31 + accuracy.ordinal();
+        }
+    }
+}
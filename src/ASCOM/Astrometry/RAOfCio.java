@@ -0,0 +1,54 @@
+package ASCOM.Astrometry;
+
+/**
+ * Right ascension of the Celestial Intermediate Origin (CIO) with respect to
+ * the GCRS, at one date. CioArray returns a list of these.
+ *
+ */
+public class RAOfCio {
+
+    private double jdTdb;
+    private double raCio;
+
+    public RAOfCio() {
+    }
+
+    public RAOfCio(double jdTdb, double raCio) {
+        this.jdTdb = jdTdb;
+        this.raCio = raCio;
+    }
+
+    /**
+     * Sets the TDB Julian date
+     *
+     */
+    public void setJdTdb(double _theValue) {
+        jdTdb = _theValue;
+    }
+
+    /**
+     * Gets the TDB Julian date
+     *
+     */
+    public double getJdTdb() {
+        return jdTdb;
+    }
+
+    /**
+     * Sets the right ascension of the CIO with respect to the GCRS origin
+     * (arcseconds)
+     *
+     */
+    public void setRACio(double _theValue) {
+        raCio = _theValue;
+    }
+
+    /**
+     * Gets the right ascension of the CIO with respect to the GCRS origin
+     * (arcseconds)
+     *
+     */
+    public double getRACio() {
+        return raCio;
+    }
+}
@@ -0,0 +1,677 @@
+package ASCOM.Astrometry;
+
+/**
+ * Astrometric reduction primitives shared by the Transform component and the
+ * batch reductions: IAU 2006 precession, nutation, frame bias, sidereal time,
+ * the Earth's velocity for annual aberration and atmospheric refraction.
+ *
+ * Matrices are double[9] in row major order and rotate column vectors, so
+ * v' = M v. Angles are in radians and dates are Julian dates unless stated
+ * otherwise.
+ *
+ * Nutation is the IAU 2000B model, which agrees with the full IAU 2000A
+ * series to 1 mas between 1995 and 2050; the equation of the equinoxes
+ * includes the IERS 2003 complementary terms. The Earth's velocity comes
+ * from a low precision solar theory and is good to about 0.02 arcsec of
+ * aberration, which limits J2000 to apparent reductions that use it.
+ *
+ */
+public final class Reduction {
+
+    /**
+     * Julian date of the J2000.0 epoch.
+     */
+    public static final double J2000 = 2451545.0;
+
+    /**
+     * Days per Julian century.
+     */
+    public static final double JULIAN_CENTURY = 36525.0;
+
+    /**
+     * Speed of light (AU per day).
+     */
+    public static final double C_AU_PER_DAY = 173.1446326846693;
+
+    /**
+     * Radians per arcsecond.
+     */
+    public static final double ARCSEC = Math.PI / (180.0 * 3600.0);
+
+    /**
+     * Equatorial radius of the Earth (m, WGS84).
+     */
+    public static final double EARTH_RADIUS = 6378137.0;
+
+    /**
+     * Flattening of the Earth (WGS84).
+     */
+    public static final double EARTH_FLATTENING = 1.0 / 298.257223563;
+
+    /**
+     * Rotation rate of the Earth (radians per second).
+     */
+    public static final double EARTH_ROTATION = 7.292115e-5;
+
+    /**
+     * Speed of light (m/s).
+     */
+    public static final double C_M_PER_S = 299792458.0;
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double DEG = Math.PI / 180.0;
+    private static final double TURN = 1296000.0;
+
+    /**
+     * IAU 2000B nutation terms (McCarthy and Luzum 2003, as in SOFA
+     * nut00b): multipliers of l, l', F, D and Omega, then the longitude
+     * coefficients (sine, sine per century, cosine) and the obliquity
+     * coefficients (cosine, cosine per century, sine), in units of 0.1
+     * microarcsecond.
+     */
+    private static final double[][] NUTATION = {
+        {0, 0, 0, 0, 1, -172064161, -174666, 33386, 92052331, 9086, 15377},
+        {0, 0, 2, -2, 2, -13170906, -1675, -13696, 5730336, -3015, -4587},
+        {0, 0, 2, 0, 2, -2276413, -234, 2796, 978459, -485, 1374},
+        {0, 0, 0, 0, 2, 2074554, 207, -698, -897492, 470, -291},
+        {0, 1, 0, 0, 0, 1475877, -3633, 11817, 73871, -184, -1924},
+        {0, 1, 2, -2, 2, -516821, 1226, -524, 224386, -677, -174},
+        {1, 0, 0, 0, 0, 711159, 73, -872, -6750, 0, 358},
+        {0, 0, 2, 0, 1, -387298, -367, 380, 200728, 18, 318},
+        {1, 0, 2, 0, 2, -301461, -36, 816, 129025, -63, 367},
+        {0, -1, 2, -2, 2, 215829, -494, 111, -95929, 299, 132},
+        {0, 0, 2, -2, 1, 128227, 137, 181, -68982, -9, 39},
+        {-1, 0, 2, 0, 2, 123457, 11, 19, -53311, 32, -4},
+        {-1, 0, 0, 2, 0, 156994, 10, -168, -1235, 0, 82},
+        {1, 0, 0, 0, 1, 63110, 63, 27, -33228, 0, -9},
+        {-1, 0, 0, 0, 1, -57976, -63, -189, 31429, 0, -75},
+        {-1, 0, 2, 2, 2, -59641, -11, 149, 25543, -11, 66},
+        {1, 0, 2, 0, 1, -51613, -42, 129, 26366, 0, 78},
+        {-2, 0, 2, 0, 1, 45893, 50, 31, -24236, -10, 20},
+        {0, 0, 0, 2, 0, 63384, 11, -150, -1220, 0, 29},
+        {0, 0, 2, 2, 2, -38571, -1, 158, 16452, -11, 68},
+        {0, -2, 2, -2, 2, 32481, 0, 0, -13870, 0, 0},
+        {-2, 0, 0, 2, 0, -47722, 0, -18, 477, 0, -25},
+        {2, 0, 2, 0, 2, -31046, -1, 131, 13238, -11, 59},
+        {1, 0, 2, -2, 2, 28593, 0, -1, -12338, 10, -3},
+        {-1, 0, 2, 0, 1, 20441, 21, 10, -10758, 0, -3},
+        {2, 0, 0, 0, 0, 29243, 0, -74, -609, 0, 13},
+        {0, 0, 2, 0, 0, 25887, 0, -66, -550, 0, 11},
+        {0, 1, 0, 0, 1, -14053, -25, 79, 8551, -2, -45},
+        {-1, 0, 0, 2, 1, 15164, 10, 11, -8001, 0, -1},
+        {0, 2, 2, -2, 2, -15794, 72, -16, 6850, -42, -5},
+        {0, 0, -2, 2, 0, 21783, 0, 13, -167, 0, 13},
+        {1, 0, 0, -2, 1, -12873, -10, -37, 6953, 0, -14},
+        {0, -1, 0, 0, 1, -12654, 11, 63, 6415, 0, 26},
+        {-1, 0, 2, 2, 1, -10204, 0, 25, 5222, 0, 15},
+        {0, 2, 0, 0, 0, 16707, -85, -10, 168, -1, 10},
+        {1, 0, 2, 2, 2, -7691, 0, 44, 3268, 0, 19},
+        {-2, 0, 2, 0, 0, -11024, 0, -14, 104, 0, 2},
+        {0, 1, 2, 0, 2, 7566, -21, -11, -3250, 0, -5},
+        {0, 0, 2, 2, 1, -6637, -11, 25, 3353, 0, 14},
+        {0, -1, 2, 0, 2, -7141, 21, 8, 3070, 0, 4},
+        {0, 0, 0, 2, 1, -6302, -11, 2, 3272, 0, 4},
+        {1, 0, 2, -2, 1, 5800, 10, 2, -3045, 0, -1},
+        {2, 0, 2, -2, 2, 6443, 0, -7, -2768, 0, -4},
+        {-2, 0, 0, 2, 1, -5774, -11, -15, 3041, 0, -5},
+        {2, 0, 2, 0, 1, -5350, 0, 21, 2695, 0, 12},
+        {0, -1, 2, -2, 1, -4752, -11, -3, 2719, 0, -3},
+        {0, 0, 0, -2, 1, -4940, -11, -21, 2720, 0, -9},
+        {-1, -1, 0, 2, 0, 7350, 0, -8, -51, 0, 4},
+        {2, 0, 0, -2, 1, 4065, 0, 6, -2206, 0, 1},
+        {1, 0, 0, 2, 0, 6579, 0, -24, -199, 0, 2},
+        {0, 1, 2, -2, 1, 3579, 0, 5, -1900, 0, 1},
+        {1, -1, 0, 0, 0, 4725, 0, -6, -41, 0, 3},
+        {-2, 0, 2, 0, 2, -3075, 0, -2, 1313, 0, -1},
+        {3, 0, 2, 0, 2, -2904, 0, 15, 1233, 0, 7},
+        {0, -1, 0, 2, 0, 4348, 0, -10, -81, 0, 2},
+        {1, -1, 2, 0, 2, -2878, 0, 8, 1232, 0, 4},
+        {0, 0, 0, 1, 0, -4230, 0, 5, -20, 0, -2},
+        {-1, -1, 2, 2, 2, -2819, 0, 7, 1207, 0, 3},
+        {-1, 0, 2, 0, 0, -4056, 0, 5, 40, 0, -2},
+        {0, -1, 2, 2, 2, -2647, 0, 11, 1129, 0, 5},
+        {-2, 0, 0, 0, 1, -2294, 0, -10, 1266, 0, -4},
+        {1, 1, 2, 0, 2, 2481, 0, -7, -1062, 0, -3},
+        {2, 0, 0, 0, 1, 2179, 0, -2, -1129, 0, -2},
+        {-1, 1, 0, 1, 0, 3276, 0, 1, -9, 0, 0},
+        {1, 1, 0, 0, 0, -3389, 0, 5, 35, 0, -2},
+        {1, 0, 2, 0, 0, 3339, 0, -13, -107, 0, 1},
+        {-1, 0, 2, -2, 1, -1987, 0, -6, 1073, 0, -2},
+        {1, 0, 0, 0, 2, -1981, 0, 0, 854, 0, 0},
+        {-1, 0, 0, 1, 0, 4026, 0, -353, -553, 0, -139},
+        {0, 0, 2, 1, 2, 1660, 0, -5, -710, 0, -2},
+        {-1, 0, 2, 4, 2, -1521, 0, 9, 647, 0, 4},
+        {-1, 1, 0, 1, 1, 1314, 0, 0, -700, 0, 0},
+        {0, -2, 2, -2, 1, -1283, 0, 0, 672, 0, 0},
+        {1, 0, 2, 2, 1, -1331, 0, 8, 663, 0, 4},
+        {-2, 0, 2, 2, 2, 1383, 0, -2, -594, 0, -2},
+        {-1, 0, 0, 0, 2, 1405, 0, 4, -610, 0, 2},
+        {1, 1, 2, -2, 2, 1290, 0, 0, -556, 0, 0}
+    };
+
+    /**
+     * Number of leading NUTATION terms of 10 mas or more.
+     */
+    private static final int REDUCED_TERMS = 13;
+
+    /**
+     * Fixed offsets standing in for the planetary nutation terms in IAU
+     * 2000B (radians).
+     */
+    private static final double DPSI_PLANETARY = -0.135e-3 * ARCSEC;
+    private static final double DEPS_PLANETARY = 0.388e-3 * ARCSEC;
+
+    /**
+     * Complementary terms of the equation of the equinoxes (IERS
+     * Conventions 2003 table 5.2e, as in SOFA eect00): multipliers of l,
+     * l', F, D, Omega and the mean longitudes of Venus and the Earth and
+     * the general precession in longitude, then the sine and cosine
+     * coefficients in microarcseconds. The last term is multiplied by t.
+     */
+    private static final double[][] COMPLEMENTARY = {
+        {0, 0, 0, 0, 1, 0, 0, 0, 2640.96, -0.39},
+        {0, 0, 0, 0, 2, 0, 0, 0, 63.52, -0.02},
+        {0, 0, 2, -2, 3, 0, 0, 0, 11.75, 0.01},
+        {0, 0, 2, -2, 1, 0, 0, 0, 11.21, 0.01},
+        {0, 0, 2, -2, 2, 0, 0, 0, -4.55, 0.00},
+        {0, 0, 2, 0, 3, 0, 0, 0, 2.02, 0.00},
+        {0, 0, 2, 0, 1, 0, 0, 0, 1.98, 0.00},
+        {0, 0, 0, 0, 3, 0, 0, 0, -1.72, 0.00},
+        {0, 1, 0, 0, 1, 0, 0, 0, -1.41, -0.01},
+        {0, 1, 0, 0, -1, 0, 0, 0, -1.26, -0.01},
+        {1, 0, 0, 0, -1, 0, 0, 0, -0.63, 0.00},
+        {1, 0, 0, 0, 1, 0, 0, 0, -0.63, 0.00},
+        {0, 1, 2, -2, 3, 0, 0, 0, 0.46, 0.00},
+        {0, 1, 2, -2, 1, 0, 0, 0, 0.45, 0.00},
+        {0, 0, 4, -4, 4, 0, 0, 0, 0.36, 0.00},
+        {0, 0, 1, -1, 1, -8, 12, 0, -0.24, -0.12},
+        {0, 0, 2, 0, 0, 0, 0, 0, 0.32, 0.00},
+        {0, 0, 2, 0, 2, 0, 0, 0, 0.28, 0.00},
+        {1, 0, 2, 0, 3, 0, 0, 0, 0.27, 0.00},
+        {1, 0, 2, 0, 1, 0, 0, 0, 0.26, 0.00},
+        {0, 0, 2, -2, 0, 0, 0, 0, -0.21, 0.00},
+        {0, 1, -2, 2, -3, 0, 0, 0, 0.19, 0.00},
+        {0, 1, -2, 2, -1, 0, 0, 0, 0.18, 0.00},
+        {0, 0, 0, 0, 0, 8, -13, -1, -0.10, 0.05},
+        {0, 0, 0, 2, 0, 0, 0, 0, 0.15, 0.00},
+        {2, 0, -2, 0, -1, 0, 0, 0, -0.14, 0.00},
+        {1, 0, 0, -2, 1, 0, 0, 0, 0.14, 0.00},
+        {0, 1, 2, -2, 2, 0, 0, 0, -0.14, 0.00},
+        {1, 0, 0, -2, -1, 0, 0, 0, 0.14, 0.00},
+        {0, 0, 4, -2, 4, 0, 0, 0, 0.13, 0.00},
+        {0, 0, 2, -2, 4, 0, 0, 0, -0.11, 0.00},
+        {1, 0, -2, 0, -3, 0, 0, 0, 0.11, 0.00},
+        {1, 0, -2, 0, -1, 0, 0, 0, 0.11, 0.00},
+        {0, 0, 0, 0, 1, 0, 0, 0, -0.87, 0.00}
+    };
+
+    /**
+     * Number of leading COMPLEMENTARY terms of 2 microarcseconds or more,
+     * used at reduced accuracy as in NOVAS.
+     */
+    private static final int REDUCED_COMPLEMENTARY_TERMS = 8;
+
+    private Reduction() {
+    }
+
+    /**
+     * Gets Julian centuries of TT since J2000.0.
+     *
+     */
+    public static double centuries(double jdTT) {
+        return (jdTT - J2000) / JULIAN_CENTURY;
+    }
+
+    /**
+     * Gets the IAU 2006 mean obliquity of the ecliptic.
+     *
+     */
+    public static double meanObliquity(double jdTT) {
+        double t = centuries(jdTT);
+        return (84381.406 + (-46.836769 + (-0.0001831 + (0.00200340 + (-0.000000576
+                - 0.0000000434 * t) * t) * t) * t) * t) * ARCSEC;
+    }
+
+    /**
+     * Computes the IAU 2006 precession matrix from the mean equator and
+     * equinox of J2000.0 to those of date, using the four angle
+     * parameterization of Capitaine et al. (2003).
+     *
+     * @param jdTT date (TT)
+     * @param m receives the matrix
+     */
+    public static void precessionMatrix(double jdTT, double[] m) {
+        double t = centuries(jdTT);
+        double eps0 = 84381.406 * ARCSEC;
+        double psiA = ((((-0.0000000951 * t + 0.000132851) * t - 0.00114045) * t - 1.0790069) * t
+                + 5038.481507) * t * ARCSEC;
+        double omegaA = ((((0.0000003337 * t - 0.000000467) * t - 0.00772503) * t + 0.0512623) * t
+                - 0.025754) * t * ARCSEC + eps0;
+        double chiA = ((((-0.0000000560 * t + 0.000170663) * t - 0.00121197) * t - 2.3814292) * t
+                + 10.556403) * t * ARCSEC;
+        identity(m);
+        rotateX(eps0, m);
+        rotateZ(-psiA, m);
+        rotateX(-omegaA, m);
+        rotateZ(chiA, m);
+    }
+
+    /**
+     * Computes the nutation in longitude and obliquity with every term of
+     * the series.
+     *
+     * @param jdTT date (TT)
+     * @param out receives delta psi in out[0] and delta epsilon in out[1]
+     */
+    public static void nutationAngles(double jdTT, double[] out) {
+        nutationAngles(jdTT, Accuracy.FULL, out);
+    }
+
+    /**
+     * Computes the nutation in longitude and obliquity with the IAU 2000B
+     * model. Reduced accuracy skips the terms below 10 mas.
+     *
+     * @param jdTT date (TT)
+     * @param accuracy FULL or REDUCED
+     * @param out receives delta psi in out[0] and delta epsilon in out[1]
+     */
+    public static void nutationAngles(double jdTT, Accuracy accuracy, double[] out) {
+        double t = centuries(jdTT);
+        double l = (485868.249036 + 1717915923.2178 * t) % TURN * ARCSEC;
+        double lp = (1287104.79305 + 129596581.0481 * t) % TURN * ARCSEC;
+        double f = (335779.526232 + 1739527262.8478 * t) % TURN * ARCSEC;
+        double d = (1072260.70369 + 1602961601.2090 * t) % TURN * ARCSEC;
+        double om = (450160.398036 - 6962890.5431 * t) % TURN * ARCSEC;
+        int terms = accuracy == Accuracy.FULL ? NUTATION.length : REDUCED_TERMS;
+        double dpsi = 0.0;
+        double deps = 0.0;
+        // Smallest terms first, for precision.
+        for (int i = terms - 1; i >= 0; i--) {
+            double[] term = NUTATION[i];
+            double arg = (term[0] * l + term[1] * lp + term[2] * f + term[3] * d + term[4] * om) % TWO_PI;
+            double sin = Math.sin(arg);
+            double cos = Math.cos(arg);
+            dpsi += (term[5] + term[6] * t) * sin + term[7] * cos;
+            deps += (term[8] + term[9] * t) * cos + term[10] * sin;
+        }
+        out[0] = dpsi * 1e-7 * ARCSEC + DPSI_PLANETARY;
+        out[1] = deps * 1e-7 * ARCSEC + DEPS_PLANETARY;
+    }
+
+    /**
+     * Computes the fundamental arguments of the Sun and Moon (IERS
+     * Conventions 2003, from Simon et al. 1994).
+     *
+     * @param t TDB time in Julian centuries since J2000.0
+     * @param a receives l, l', F, D and Omega (radians, 0 to 2 pi)
+     */
+    public static void fundamentalArguments(double t, double[] a) {
+        a[0] = normalize((485868.249036 + t * (1717915923.2178 + t * (31.8792 + t * (0.051635
+                + t * -0.00024470)))) % TURN * ARCSEC);
+        a[1] = normalize((1287104.793048 + t * (129596581.0481 + t * (-0.5532 + t * (0.000136
+                + t * -0.00001149)))) % TURN * ARCSEC);
+        a[2] = normalize((335779.526232 + t * (1739527262.8478 + t * (-12.7512 + t * (-0.001037
+                + t * 0.00000417)))) % TURN * ARCSEC);
+        a[3] = normalize((1072260.703692 + t * (1602961601.2090 + t * (-6.3706 + t * (0.006593
+                + t * -0.00003169)))) % TURN * ARCSEC);
+        a[4] = normalize((450160.398036 + t * (-6962890.5431 + t * (7.4722 + t * (0.007702
+                + t * -0.00005939)))) % TURN * ARCSEC);
+    }
+
+    /**
+     * Computes the complementary terms of the equation of the equinoxes,
+     * consistent with the IAU 2000 resolutions. Reduced accuracy skips the
+     * terms below 2 microarcseconds.
+     *
+     * @param jdTT date (TT)
+     * @param accuracy FULL or REDUCED
+     * @return the complementary terms (radians)
+     */
+    public static double equationOfEquinoxesComplement(double jdTT, Accuracy accuracy) {
+        double t = centuries(jdTT);
+        double[] a = new double[5];
+        fundamentalArguments(t, a);
+        double venus = (3.176146697 + 1021.3285546211 * t) % TWO_PI;
+        double earth = (1.753470314 + 628.3075849991 * t) % TWO_PI;
+        double precession = (0.024381750 + 0.00000538691 * t) * t;
+        int last = COMPLEMENTARY.length - 1;
+        int terms = accuracy == Accuracy.FULL ? last : REDUCED_COMPLEMENTARY_TERMS;
+        double s0 = 0.0;
+        for (int i = terms - 1; i >= 0; i--) {
+            double[] term = COMPLEMENTARY[i];
+            double arg = term[0] * a[0] + term[1] * a[1] + term[2] * a[2] + term[3] * a[3] + term[4] * a[4]
+                    + term[5] * venus + term[6] * earth + term[7] * precession;
+            s0 += term[8] * Math.sin(arg) + term[9] * Math.cos(arg);
+        }
+        double s1 = COMPLEMENTARY[last][8] * Math.sin(a[4]);
+        return (s0 + s1 * t) * 1e-6 * ARCSEC;
+    }
+
+    /**
+     * Computes the nutation matrix from the mean equator and equinox of date
+     * to the true equator and equinox of date.
+     *
+     * @param meanObliquity mean obliquity of date
+     * @param dpsi nutation in longitude
+     * @param deps nutation in obliquity
+     * @param m receives the matrix
+     */
+    public static void nutationMatrix(double meanObliquity, double dpsi, double deps, double[] m) {
+        identity(m);
+        rotateX(meanObliquity, m);
+        rotateZ(-dpsi, m);
+        rotateX(-(meanObliquity + deps), m);
+    }
+
+    /**
+     * Computes the frame bias matrix from the ICRS to the mean equator and
+     * equinox of J2000.0.
+     *
+     */
+    public static void frameBiasMatrix(double[] m) {
+        identity(m);
+        rotateZ(-0.01460 * ARCSEC, m);
+        rotateY(-0.016617 * ARCSEC, m);
+        rotateX(0.0068192 * ARCSEC, m);
+    }
+
+    /**
+     * Computes the combined bias, precession and nutation matrix from the
+     * ICRS to the true equator and equinox of date, at full accuracy.
+     *
+     * @param jdTT date (TT)
+     * @param m receives the matrix
+     * @param nutation receives delta psi, delta epsilon and the mean
+     * obliquity; may be null
+     */
+    public static void biasPrecessionNutation(double jdTT, double[] m, double[] nutation) {
+        biasPrecessionNutation(jdTT, Accuracy.FULL, m, nutation);
+    }
+
+    /**
+     * Computes the combined bias, precession and nutation matrix from the
+     * ICRS to the true equator and equinox of date. PrecessionNutationCache
+     * keeps the results for dates in repeated use.
+     *
+     * @param jdTT date (TT)
+     * @param accuracy nutation accuracy
+     * @param m receives the matrix
+     * @param nutation receives delta psi, delta epsilon and the mean
+     * obliquity; may be null
+     */
+    public static void biasPrecessionNutation(double jdTT, Accuracy accuracy, double[] m, double[] nutation) {
+        biasPrecessionNutation(jdTT, accuracy, 0.0, 0.0, m, nutation);
+    }
+
+    /**
+     * Computes the combined bias, precession and nutation matrix with
+     * observed corrections to the modelled nutation, as set by the NOVAS
+     * CelPole function.
+     *
+     * @param jdTT date (TT)
+     * @param accuracy nutation accuracy
+     * @param dpsiOffset correction to delta psi
+     * @param depsOffset correction to delta epsilon
+     * @param m receives the matrix
+     * @param nutation receives the corrected delta psi and delta epsilon and
+     * the mean obliquity; may be null
+     */
+    public static void biasPrecessionNutation(double jdTT, Accuracy accuracy, double dpsiOffset, double depsOffset,
+            double[] m, double[] nutation) {
+        double[] angles = new double[2];
+        nutationAngles(jdTT, accuracy, angles);
+        angles[0] += dpsiOffset;
+        angles[1] += depsOffset;
+        double eps = meanObliquity(jdTT);
+        double[] b = new double[9];
+        double[] p = new double[9];
+        double[] n = new double[9];
+        frameBiasMatrix(b);
+        precessionMatrix(jdTT, p);
+        nutationMatrix(eps, angles[0], angles[1], n);
+        multiply(p, b, m);
+        multiply(n, m, m);
+        if (nutation != null) {
+            nutation[0] = angles[0];
+            nutation[1] = angles[1];
+            nutation[2] = eps;
+        }
+    }
+
+    /**
+     * Gets the IAU 2006 Greenwich mean sidereal time, from the Earth
+     * rotation angle.
+     *
+     * @param jdUT1 date (UT1)
+     * @param jdTT the same date (TT)
+     * @return the sidereal time in radians, 0 to 2 pi
+     */
+    public static double greenwichMeanSiderealTime(double jdUT1, double jdTT) {
+        double t = centuries(jdTT);
+        double du = jdUT1 - J2000;
+        double era = TWO_PI * (0.7790572732640 + 0.00273781191135448 * du + (du - Math.floor(du)));
+        double poly = (0.014506 + (4612.156534 + (1.3915817 + (-0.00000044 + (-0.000029956
+                - 0.0000000368 * t) * t) * t) * t) * t) * ARCSEC;
+        return normalize(era + poly);
+    }
+
+    /**
+     * Gets the Greenwich apparent sidereal time: the mean sidereal time
+     * plus the equation of the equinoxes, with its complementary terms.
+     *
+     * @param jdUT1 date (UT1)
+     * @param jdTT the same date (TT)
+     * @return the sidereal time in radians, 0 to 2 pi
+     */
+    public static double greenwichApparentSiderealTime(double jdUT1, double jdTT) {
+        double[] angles = new double[2];
+        nutationAngles(jdTT, angles);
+        return normalize(greenwichMeanSiderealTime(jdUT1, jdTT) + angles[0] * Math.cos(meanObliquity(jdTT))
+                + equationOfEquinoxesComplement(jdTT, Accuracy.FULL));
+    }
+
+    /**
+     * Computes the velocity of the Earth with respect to the Sun in the ICRS
+     * frame, from the low precision solar coordinates of the Astronomical
+     * Almanac. Good to about 1 part in 1000, i.e. 0.02 arcsec of aberration.
+     *
+     * @param jdTT date (TT)
+     * @param v receives the velocity (AU per day)
+     */
+    public static void earthVelocity(double jdTT, double[] v) {
+        double[] before = new double[3];
+        double[] after = new double[3];
+        sunPosition(jdTT - 0.5, before);
+        sunPosition(jdTT + 0.5, after);
+        double eps = meanObliquity(jdTT);
+        double x = before[0] - after[0];
+        double y = before[1] - after[1];
+        double z = before[2] - after[2];
+        double ce = Math.cos(eps);
+        double se = Math.sin(eps);
+        double[] equatorial = {x, y * ce - z * se, y * se + z * ce};
+        double[] p = new double[9];
+        precessionMatrix(jdTT, p);
+        multiplyTranspose(p, equatorial, v);
+    }
+
+    /**
+     * Computes the geometric position of the Sun in ecliptic coordinates of
+     * date.
+     *
+     * @param jdTT date (TT)
+     * @param out receives x, y, z (AU)
+     */
+    public static void sunPosition(double jdTT, double[] out) {
+        double t = centuries(jdTT);
+        double l0 = 280.46646 + (36000.76983 + 0.0003032 * t) * t;
+        double m = (357.52911 + (35999.05029 - 0.0001537 * t) * t) * DEG;
+        double e = 0.016708634 - (0.000042037 + 0.0000001267 * t) * t;
+        double c = (1.914602 - (0.004817 + 0.000014 * t) * t) * Math.sin(m)
+                + (0.019993 - 0.000101 * t) * Math.sin(2 * m) + 0.000289 * Math.sin(3 * m);
+        double lon = (l0 + c) * DEG;
+        double nu = m + c * DEG;
+        double r = 1.000001018 * (1 - e * e) / (1 + e * Math.cos(nu));
+        out[0] = r * Math.cos(lon);
+        out[1] = r * Math.sin(lon);
+        out[2] = 0.0;
+    }
+
+    /**
+     * Gets the atmospheric refraction at an observed elevation, with the
+     * pressure taken from a standard atmosphere at the site elevation. This
+     * is the formula of NOVAS refract().
+     *
+     * @param elevation observed elevation (degrees)
+     * @param siteElevation height above sea level (m)
+     * @param temperature air temperature (degrees Celsius)
+     * @return the refraction (degrees), 0 below -1 degree
+     */
+    public static double refraction(double elevation, double siteElevation, double temperature) {
+        if (elevation < -1.0 || elevation > 90.0) {
+            return 0.0;
+        }
+        double pressure = 1010.0 * Math.exp(-siteElevation / 9.1e3);
+        double h = Math.max(elevation, -1.0);
+        double r = 0.016667 / Math.tan((h + 7.31 / (h + 4.4)) * DEG);
+        return r * (0.28 * pressure / (temperature + 273.0));
+    }
+
+    /**
+     * Converts a true elevation to the observed (refracted) elevation by
+     * iterating refraction(), which takes the observed elevation.
+     *
+     */
+    public static double refract(double elevation, double siteElevation, double temperature) {
+        double observed = elevation;
+        for (int i = 0; i < 4; i++) {
+            observed = elevation + refraction(observed, siteElevation, temperature);
+        }
+        return observed;
+    }
+
+    /**
+     * Normalizes an angle to 0 to 2 pi.
+     *
+     */
+    public static double normalize(double angle) {
+        double a = angle % TWO_PI;
+        return a < 0 ? a + TWO_PI : a;
+    }
+
+    /**
+     * Sets a matrix to the identity.
+     *
+     */
+    public static void identity(double[] m) {
+        m[0] = 1;
+        m[1] = 0;
+        m[2] = 0;
+        m[3] = 0;
+        m[4] = 1;
+        m[5] = 0;
+        m[6] = 0;
+        m[7] = 0;
+        m[8] = 1;
+    }
+
+    /**
+     * Multiplies two matrices, c = a b. c may be a or b.
+     *
+     */
+    public static void multiply(double[] a, double[] b, double[] c) {
+        double c0 = a[0] * b[0] + a[1] * b[3] + a[2] * b[6];
+        double c1 = a[0] * b[1] + a[1] * b[4] + a[2] * b[7];
+        double c2 = a[0] * b[2] + a[1] * b[5] + a[2] * b[8];
+        double c3 = a[3] * b[0] + a[4] * b[3] + a[5] * b[6];
+        double c4 = a[3] * b[1] + a[4] * b[4] + a[5] * b[7];
+        double c5 = a[3] * b[2] + a[4] * b[5] + a[5] * b[8];
+        double c6 = a[6] * b[0] + a[7] * b[3] + a[8] * b[6];
+        double c7 = a[6] * b[1] + a[7] * b[4] + a[8] * b[7];
+        double c8 = a[6] * b[2] + a[7] * b[5] + a[8] * b[8];
+        c[0] = c0;
+        c[1] = c1;
+        c[2] = c2;
+        c[3] = c3;
+        c[4] = c4;
+        c[5] = c5;
+        c[6] = c6;
+        c[7] = c7;
+        c[8] = c8;
+    }
+
+    /**
+     * Rotates a vector, out = m v. out may be v.
+     *
+     */
+    public static void rotate(double[] m, double[] v, double[] out) {
+        double x = m[0] * v[0] + m[1] * v[1] + m[2] * v[2];
+        double y = m[3] * v[0] + m[4] * v[1] + m[5] * v[2];
+        double z = m[6] * v[0] + m[7] * v[1] + m[8] * v[2];
+        out[0] = x;
+        out[1] = y;
+        out[2] = z;
+    }
+
+    /**
+     * Rotates a vector by the inverse of a rotation matrix, out = m' v. out
+     * may be v.
+     *
+     */
+    public static void multiplyTranspose(double[] m, double[] v, double[] out) {
+        double x = m[0] * v[0] + m[3] * v[1] + m[6] * v[2];
+        double y = m[1] * v[0] + m[4] * v[1] + m[7] * v[2];
+        double z = m[2] * v[0] + m[5] * v[1] + m[8] * v[2];
+        out[0] = x;
+        out[1] = y;
+        out[2] = z;
+    }
+
+    /**
+     * Applies a rotation of the reference frame about the X axis, m =
+     * Rx(angle) m.
+     *
+     */
+    public static void rotateX(double angle, double[] m) {
+        double s = Math.sin(angle);
+        double c = Math.cos(angle);
+        for (int j = 0; j < 3; j++) {
+            double a1 = m[3 + j];
+            double a2 = m[6 + j];
+            m[3 + j] = c * a1 + s * a2;
+            m[6 + j] = -s * a1 + c * a2;
+        }
+    }
+
+    /**
+     * Applies a rotation of the reference frame about the Y axis, m =
+     * Ry(angle) m.
+     *
+     */
+    public static void rotateY(double angle, double[] m) {
+        double s = Math.sin(angle);
+        double c = Math.cos(angle);
+        for (int j = 0; j < 3; j++) {
+            double a0 = m[j];
+            double a2 = m[6 + j];
+            m[j] = c * a0 - s * a2;
+            m[6 + j] = s * a0 + c * a2;
+        }
+    }
+
+    /**
+     * Applies a rotation of the reference frame about the Z axis, m =
+     * Rz(angle) m.
+     *
+     */
+    public static void rotateZ(double angle, double[] m) {
+        double s = Math.sin(angle);
+        double c = Math.cos(angle);
+        for (int j = 0; j < 3; j++) {
+            double a0 = m[j];
+            double a1 = m[3 + j];
+            m[j] = c * a0 + s * a1;
+            m[3 + j] = -s * a0 + c * a1;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Reference system in which right ascension is given
+
+ Used by CioLocation and CioBasis
+ 
+
+
+*/
+public enum ReferenceSystem{
+    GCRS,
+    TRUE_EQUINOX;
+
+    /*
+ Returns the NOVAS value, 1 for the GCRS and 2 for the true equinox
+     */
+    public int getValue(){
+        return ordinal() + 1;
+    }
+
+    /*
+ Returns the reference system for a NOVAS value
+     */
+    public static ReferenceSystem fromValue(int value){
+        ReferenceSystem[] all = values();
+        if (value < 1 || value > all.length) {
+            throw new IllegalArgumentException("Unknown reference system " + value);
+        }
+        return all[value - 1];
+    }
+}
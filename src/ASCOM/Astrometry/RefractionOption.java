@@ -0,0 +1,25 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Type of refraction correction: none, a standard atmosphere at the site height, or the site's own temperature and pressure
+ 
+
+
+*/
+public enum RefractionOption{
+    NO_REFRACTION,
+    STANDARD_REFRACTION,
+    LOCATION_REFRACTION;
+
+    /*
+ Returns the refraction option for a NOVAS value
+     */
+    public static RefractionOption fromValue(int value){
+        RefractionOption[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown refraction option " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,94 @@
+package ASCOM.Astrometry;
+
+/**
+ * Celestial object's place in the sky, as computed by NOVAS31.Place().
+ *
+ */
+public class SkyPos {
+
+    private double[] rHat = new double[3];
+    private double ra;
+    private double dec;
+    private double dis;
+    private double rv;
+
+    /**
+     * Sets the unit vector toward the object
+     *
+     */
+    public void setRHat(double[] _theValue) {
+        rHat = _theValue;
+    }
+
+    /**
+     * Gets the unit vector toward the object
+     *
+     */
+    public double[] getRHat() {
+        return rHat;
+    }
+
+    /**
+     * Sets the apparent, topocentric or astrometric right ascension (hours)
+     *
+     */
+    public void setRA(double _theValue) {
+        ra = _theValue;
+    }
+
+    /**
+     * Gets the apparent, topocentric or astrometric right ascension (hours)
+     *
+     */
+    public double getRA() {
+        return ra;
+    }
+
+    /**
+     * Sets the apparent, topocentric or astrometric declination (degrees)
+     *
+     */
+    public void setDec(double _theValue) {
+        dec = _theValue;
+    }
+
+    /**
+     * Gets the apparent, topocentric or astrometric declination (degrees)
+     *
+     */
+    public double getDec() {
+        return dec;
+    }
+
+    /**
+     * Sets the true (geometric, Euclidian) distance to the object (AU)
+     *
+     */
+    public void setDis(double _theValue) {
+        dis = _theValue;
+    }
+
+    /**
+     * Gets the true (geometric, Euclidian) distance to the object (AU)
+     *
+     */
+    public double getDis() {
+        return dis;
+    }
+
+    /**
+     * Sets the radial velocity (km/s)
+     *
+     */
+    public void setRV(double _theValue) {
+        rv = _theValue;
+    }
+
+    /**
+     * Gets the radial velocity (km/s)
+     *
+     */
+    public double getRV() {
+        return rv;
+    }
+}
@@ -0,0 +1,41 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Body or location, numbered as in the JPL ephemeris routines; do not confuse
+ with the Body enum, which is used in most other places within NOVAS.
+
+ NUTATIONS gives the nutation in longitude and obliquity and LIBRATIONS the
+ lunar mantle libration angles, where the ephemeris file has them.
+ 
+
+
+*/
+public enum Target{
+    MERCURY,
+    VENUS,
+    EARTH,
+    MARS,
+    JUPITER,
+    SATURN,
+    URANUS,
+    NEPTUNE,
+    PLUTO,
+    MOON,
+    SUN,
+    SOLAR_SYSTEM_BARYCENTRE,
+    EARTH_MOON_BARYCENTRE,
+    NUTATIONS,
+    LIBRATIONS;
+
+    /*
+ Returns the target for a JPL target number, 0 for Mercury to 14 for librations
+     */
+    public static Target fromValue(int value){
+        Target[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown target " + value);
+        }
+        return all[value];
+    }
+}
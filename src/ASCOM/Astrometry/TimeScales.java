@@ -0,0 +1,449 @@
+package ASCOM.Astrometry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converts between UTC, UT1 and TT using a leap second table and,
+ * optionally, a daily table of UT1 - UTC, both read from local IERS files:
+ *
+ * <ul>
+ * <li>Leap_Second.dat, giving TAI - UTC from each MJD on which it
+ * changed;</li>
+ * <li>finals2000A.all, finals2000A.data or finals2000A.daily (or the
+ * older finals.* files of the same layout), giving UT1 - UTC for
+ * each day, observed then predicted.</li>
+ * </ul>
+ *
+ * Without a leap second file the table built in, up to the leap second of
+ * 2017 January 1, is used. Dates before 1972 have no leap seconds; for
+ * them UT1 is taken to be UTC and TT - UT1 comes from DeltaT. For dates
+ * outside the UT1 - UTC table UT1 is taken to be UTC, which is within
+ * 0.9 s by definition of UTC.
+ *
+ * UT1 - UTC is held as UT1 - TAI for each day, so that it interpolates
+ * linearly across leap seconds, along with the TAI - UTC of the day. A
+ * lookup within the table is an array index and a linear interpolation.
+ *
+ * The tables are immutable and replaced as a whole by reload, so readers
+ * never lock and always see one consistent version. watch reloads them
+ * whenever the files change; write new files beside the old ones and
+ * rename them into place so that a file is never read half written. A file
+ * that fails to load leaves the previous tables in use.
+ *
+ * Transform, NOVASCOM.Planet and AstroUtils.EventEngine take their time
+ * scales from shared(), which can be replaced with tables loaded from
+ * files.
+ *
+ */
+public class TimeScales implements AutoCloseable {
+
+    /**
+     * TT - TAI (seconds).
+     */
+    public static final double TT_MINUS_TAI = 32.184;
+
+    private static final double MJD_ZERO = 2400000.5;
+
+    private static final int[] LEAP_MJD = {41317, 41499, 41683, 42048, 42413, 42778, 43144, 43509, 43874, 44239,
+        44786, 45151, 45516, 46247, 47161, 47892, 48257, 48804, 49169, 49534, 50083, 50630, 51179, 53736, 54832,
+        56109, 57204, 57754};
+
+    private static volatile TimeScales shared = new TimeScales();
+
+    private final Path leapSecondFile;
+    private final Path earthOrientationFile;
+    private final AtomicInteger reloads = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile Tables tables;
+    private volatile IOException lastFailure;
+    private ScheduledThreadPoolExecutor watcher;
+
+    /**
+     * Creates time scales from the built in leap second table, without UT1
+     * - UTC.
+     *
+     */
+    public TimeScales() {
+        leapSecondFile = null;
+        earthOrientationFile = null;
+        double[] offsets = new double[LEAP_MJD.length];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = 10 + i;
+        }
+        tables = new Tables(LEAP_MJD.clone(), offsets, 0, new double[0], new byte[0]);
+    }
+
+    /**
+     * Creates time scales from IERS files.
+     *
+     * @param leapSecondFile Leap_Second.dat, null for the built in table
+     * @param earthOrientationFile a finals file, null for none
+     * @throws IOException if a file cannot be read or parsed
+     */
+    public TimeScales(Path leapSecondFile, Path earthOrientationFile) throws IOException {
+        this.leapSecondFile = leapSecondFile;
+        this.earthOrientationFile = earthOrientationFile;
+        tables = load();
+    }
+
+    /**
+     * Gets the time scales used by Transform, Planet and EventEngine.
+     *
+     */
+    public static TimeScales shared() {
+        return shared;
+    }
+
+    /**
+     * Sets the time scales used by Transform, Planet and EventEngine.
+     *
+     */
+    public static void setShared(TimeScales _theValue) {
+        if (_theValue == null) {
+            throw new IllegalArgumentException("Time scales are required");
+        }
+        shared = _theValue;
+    }
+
+    /**
+     * Gets TAI - UTC (seconds).
+     *
+     * @param jdUTC Julian date (UTC)
+     */
+    public double getLeapSeconds(double jdUTC) {
+        Tables t = tables;
+        double mjd = jdUTC - MJD_ZERO;
+        int day = (int) Math.floor(mjd) - t.first;
+        if (day >= 0 && day < t.dayLeap.length) {
+            return t.dayLeap[day];
+        }
+        return t.leapSeconds(mjd);
+    }
+
+    /**
+     * Gets UT1 - UTC (seconds), 0 outside the table.
+     *
+     * @param jdUTC Julian date (UTC)
+     */
+    public double getDeltaUT1(double jdUTC) {
+        Tables t = tables;
+        double x = jdUTC - MJD_ZERO - t.first;
+        int day = (int) Math.floor(x);
+        if (day >= 0 && day < t.ut1MinusTai.length - 1) {
+            double[] v = t.ut1MinusTai;
+            return v[day] + (x - day) * (v[day + 1] - v[day]) + t.dayLeap[day];
+        }
+        return 0.0;
+    }
+
+    /**
+     * Gets TT - UT1 (seconds).
+     *
+     * @param jdUTC Julian date (UTC)
+     */
+    public double getDeltaT(double jdUTC) {
+        Tables t = tables;
+        double mjd = jdUTC - MJD_ZERO;
+        double x = mjd - t.first;
+        int day = (int) Math.floor(x);
+        if (day >= 0 && day < t.ut1MinusTai.length - 1) {
+            double[] v = t.ut1MinusTai;
+            return TT_MINUS_TAI - v[day] - (x - day) * (v[day + 1] - v[day]);
+        }
+        return TT_MINUS_TAI + t.leapSeconds(mjd);
+    }
+
+    /**
+     * Converts a Julian date from UTC to TT.
+     *
+     */
+    public double julianDateTT(double jdUTC) {
+        return jdUTC + (TT_MINUS_TAI + getLeapSeconds(jdUTC)) / 86400.0;
+    }
+
+    /**
+     * Converts a Julian date from UTC to UT1.
+     *
+     */
+    public double julianDateUT1(double jdUTC) {
+        return jdUTC + getDeltaUT1(jdUTC) / 86400.0;
+    }
+
+    /**
+     * Converts a Julian date from TT to UTC.
+     *
+     */
+    public double julianDateUTC(double jdTT) {
+        double jdUTC = jdTT - (TT_MINUS_TAI + getLeapSeconds(jdTT)) / 86400.0;
+        return jdTT - (TT_MINUS_TAI + getLeapSeconds(jdUTC)) / 86400.0;
+    }
+
+    /**
+     * Gets the Julian date (UTC) of the first day of the UT1 - UTC table,
+     * NaN if there is none.
+     *
+     */
+    public double getFirstDate() {
+        Tables t = tables;
+        return t.ut1MinusTai.length == 0 ? Double.NaN : t.first + MJD_ZERO;
+    }
+
+    /**
+     * Gets the Julian date (UTC) of the last day of the UT1 - UTC table,
+     * NaN if there is none.
+     *
+     */
+    public double getLastDate() {
+        Tables t = tables;
+        return t.ut1MinusTai.length == 0 ? Double.NaN : t.first + t.ut1MinusTai.length - 1 + MJD_ZERO;
+    }
+
+    /**
+     * Reads the files again and replaces the tables.
+     *
+     * @throws IOException if a file cannot be read or parsed, in which case
+     * the tables in use are kept
+     */
+    public synchronized void reload() throws IOException {
+        try {
+            tables = load();
+            reloads.incrementAndGet();
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            lastFailure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Starts checking the files for changes, reloading them once a change
+     * has stayed the same for one check. Does nothing for the built in
+     * table or when already watching.
+     *
+     * @param periodMillis time between checks
+     */
+    public synchronized void watch(long periodMillis) {
+        if (periodMillis < 1) {
+            throw new IllegalArgumentException("Watch period must be at least 1 ms");
+        }
+        if (watcher != null || (leapSecondFile == null && earthOrientationFile == null)) {
+            return;
+        }
+        watcher = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "ascom4j-timescales");
+            t.setDaemon(true);
+            return t;
+        });
+        final String[] seen = {stamp()};
+        final String[] pending = {null};
+        watcher.scheduleWithFixedDelay(() -> {
+            String now = stamp();
+            if (now.equals(seen[0])) {
+                pending[0] = null;
+            } else if (now.equals(pending[0])) {
+                seen[0] = now;
+                pending[0] = null;
+                try {
+                    reload();
+                } catch (IOException e) {
+                    // counted by reload; the previous tables stay in use
+                }
+            } else {
+                pending[0] = now;
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching the files.
+     *
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Gets the number of successful reloads.
+     *
+     */
+    public int getReloadCount() {
+        return reloads.get();
+    }
+
+    /**
+     * Gets the number of reloads that failed.
+     *
+     */
+    public int getFailedReloadCount() {
+        return failures.get();
+    }
+
+    /**
+     * Gets the error of the last reload that failed, null if none has.
+     *
+     */
+    public IOException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Gets the modification times and sizes of the files.
+     *
+     */
+    private String stamp() {
+        StringBuilder s = new StringBuilder();
+        for (Path file : new Path[]{leapSecondFile, earthOrientationFile}) {
+            if (file != null) {
+                try {
+                    s.append(Files.getLastModifiedTime(file).toMillis()).append('/').append(Files.size(file));
+                } catch (IOException e) {
+                    s.append("missing");
+                }
+            }
+            s.append(';');
+        }
+        return s.toString();
+    }
+
+    private Tables load() throws IOException {
+        int[] leapMjd;
+        double[] leapOffset;
+        if (leapSecondFile == null) {
+            Tables builtIn = new TimeScales().tables;
+            leapMjd = builtIn.leapMjd;
+            leapOffset = builtIn.leapOffset;
+        } else {
+            int n = 0;
+            leapMjd = new int[64];
+            leapOffset = new double[64];
+            try (BufferedReader in = Files.newBufferedReader(leapSecondFile, StandardCharsets.US_ASCII)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("\\s+");
+                    if (fields.length < 5) {
+                        throw new IOException("Not a leap second line in " + leapSecondFile + ": " + line);
+                    }
+                    try {
+                        int mjd = (int) Double.parseDouble(fields[0]);
+                        if (n > 0 && mjd <= leapMjd[n - 1]) {
+                            throw new IOException("Leap seconds out of order in " + leapSecondFile + ": " + line);
+                        }
+                        if (n == leapMjd.length) {
+                            leapMjd = Arrays.copyOf(leapMjd, n * 2);
+                            leapOffset = Arrays.copyOf(leapOffset, n * 2);
+                        }
+                        leapMjd[n] = mjd;
+                        leapOffset[n++] = Double.parseDouble(fields[4]);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Not a leap second line in " + leapSecondFile + ": " + line, e);
+                    }
+                }
+            }
+            if (n == 0) {
+                throw new IOException("No leap seconds in " + leapSecondFile);
+            }
+            leapMjd = Arrays.copyOf(leapMjd, n);
+            leapOffset = Arrays.copyOf(leapOffset, n);
+        }
+        Tables leaps = new Tables(leapMjd, leapOffset, 0, new double[0], new byte[0]);
+        if (earthOrientationFile == null) {
+            return leaps;
+        }
+
+        int first = 0;
+        int n = 0;
+        double[] ut1MinusTai = new double[1 << 14];
+        try (BufferedReader in = Files.newBufferedReader(earthOrientationFile, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.length() < 68 || line.substring(58, 68).trim().isEmpty()) {
+                    continue;
+                }
+                int mjd;
+                double ut1MinusUtc;
+                try {
+                    mjd = (int) Double.parseDouble(line.substring(7, 15).trim());
+                    ut1MinusUtc = Double.parseDouble(line.substring(58, 68).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Not an Earth orientation line in " + earthOrientationFile + ": " + line, e);
+                }
+                if (n == 0) {
+                    first = mjd;
+                } else if (mjd != first + n) {
+                    throw new IOException("Earth orientation days not consecutive in " + earthOrientationFile
+                            + " at MJD " + mjd);
+                }
+                if (n == ut1MinusTai.length) {
+                    ut1MinusTai = Arrays.copyOf(ut1MinusTai, n * 2);
+                }
+                ut1MinusTai[n++] = ut1MinusUtc - leaps.leapSeconds(mjd);
+            }
+        }
+        if (n < 2) {
+            throw new IOException("No UT1 - UTC values in " + earthOrientationFile);
+        }
+        ut1MinusTai = Arrays.copyOf(ut1MinusTai, n);
+        byte[] dayLeap = new byte[n];
+        for (int i = 0; i < n; i++) {
+            dayLeap[i] = (byte) leaps.leapSeconds(first + i);
+        }
+        return new Tables(leapMjd, leapOffset, first, ut1MinusTai, dayLeap);
+    }
+
+    /**
+     * One immutable version of the tables.
+     *
+     */
+    private static final class Tables {
+
+        final int[] leapMjd;
+        final double[] leapOffset;
+        final int first;
+        final double[] ut1MinusTai;
+        final byte[] dayLeap;
+
+        Tables(int[] leapMjd, double[] leapOffset, int first, double[] ut1MinusTai, byte[] dayLeap) {
+            this.leapMjd = leapMjd;
+            this.leapOffset = leapOffset;
+            this.first = first;
+            this.ut1MinusTai = ut1MinusTai;
+            this.dayLeap = dayLeap;
+        }
+
+        /**
+         * Gets TAI - UTC from the leap second table, or before the first
+         * leap second the value that makes TT - UTC equal DeltaT.
+         *
+         */
+        double leapSeconds(double mjd) {
+            int[] m = leapMjd;
+            int i = m.length - 1;
+            if (mjd < m[i]) {
+                i = Arrays.binarySearch(m, (int) Math.floor(mjd));
+                if (i < 0) {
+                    i = -i - 2;
+                }
+                if (i < 0) {
+                    return DeltaT.DeltaT(mjd + MJD_ZERO) - TT_MINUS_TAI;
+                }
+            }
+            return leapOffset[i];
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package ASCOM.Astrometry.Transform;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Transforms many J2000 positions for one date and site. The date and site
+ * dependent matrices are computed once, in a TransformEpoch, and each star
+ * then costs one rotation, two aberration corrections and, for horizon
+ * coordinates, one more rotation. Large batches are split into chunks that
+ * run in parallel on a fork-join pool.
+ *
+ * <pre>
+ * Transform transform = new Transform();
+ * transform.setSiteLatitude(51.5);
+ * transform.setSiteLongitude(-0.1);
+ * BatchTransform batch = transform.batch();
+ * batch.toAzimuthElevation(ra, dec, azimuth, elevation);
+ * </pre>
+ *
+ * Inputs are parallel RA (hours) and Dec (degrees) arrays or buffers and
+ * the outputs are written to parallel arrays or buffers of the same length.
+ * Buffers are read and written from their positions, which are left
+ * unchanged. The results are identical to those of Transform for the same
+ * date and site.
+ *
+ */
+public class BatchTransform {
+
+    /**
+     * Default number of stars below which a batch is not split further.
+     */
+    public static final int DEFAULT_CHUNK = 4096;
+
+    private final TransformEpoch epoch;
+    private final ForkJoinPool pool;
+    private final int chunk;
+
+    /**
+     * Creates a batch transform running on the common fork-join pool.
+     *
+     */
+    public BatchTransform(TransformEpoch epoch) {
+        this(epoch, ForkJoinPool.commonPool(), DEFAULT_CHUNK);
+    }
+
+    /**
+     *
+     * @param epoch date and site of the transform
+     * @param pool pool to run on
+     * @param chunk number of stars below which a batch is not split further
+     */
+    public BatchTransform(TransformEpoch epoch, ForkJoinPool pool, int chunk) {
+        if (chunk < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.epoch = epoch;
+        this.pool = pool;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Gets the date and site of the transform.
+     *
+     */
+    public TransformEpoch getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Transforms J2000 coordinates to apparent coordinates.
+     *
+     */
+    public void toApparent(double[] ra, double[] dec, double[] raOut, double[] decOut) {
+        run(TransformEpoch.APPARENT, new Arrays(ra, dec, raOut, decOut));
+    }
+
+    /**
+     * Transforms J2000 coordinates to topocentric coordinates.
+     *
+     */
+    public void toTopocentric(double[] ra, double[] dec, double[] raOut, double[] decOut) {
+        run(TransformEpoch.TOPOCENTRIC, new Arrays(ra, dec, raOut, decOut));
+    }
+
+    /**
+     * Transforms J2000 coordinates to topocentric azimuth and elevation
+     * (degrees).
+     *
+     */
+    public void toAzimuthElevation(double[] ra, double[] dec, double[] azimuth, double[] elevation) {
+        run(TransformEpoch.HORIZON, new Arrays(ra, dec, azimuth, elevation));
+    }
+
+    /**
+     * Transforms J2000 coordinates to apparent coordinates.
+     *
+     */
+    public void toApparent(DoubleBuffer ra, DoubleBuffer dec, DoubleBuffer raOut, DoubleBuffer decOut) {
+        run(TransformEpoch.APPARENT, new Buffers(ra, dec, raOut, decOut));
+    }
+
+    /**
+     * Transforms J2000 coordinates to topocentric coordinates.
+     *
+     */
+    public void toTopocentric(DoubleBuffer ra, DoubleBuffer dec, DoubleBuffer raOut, DoubleBuffer decOut) {
+        run(TransformEpoch.TOPOCENTRIC, new Buffers(ra, dec, raOut, decOut));
+    }
+
+    /**
+     * Transforms J2000 coordinates to topocentric azimuth and elevation
+     * (degrees).
+     *
+     */
+    public void toAzimuthElevation(DoubleBuffer ra, DoubleBuffer dec, DoubleBuffer azimuth, DoubleBuffer elevation) {
+        run(TransformEpoch.HORIZON, new Buffers(ra, dec, azimuth, elevation));
+    }
+
+    private void run(int stage, Columns columns) {
+        int count = columns.size();
+        if (count <= chunk) {
+            columns.transform(epoch, stage, 0, count);
+        } else {
+            pool.invoke(new Range(stage, columns, 0, count));
+        }
+    }
+
+    /**
+     * A slice of the batch, split in halves until it is no larger than the
+     * chunk size.
+     *
+     */
+    private final class Range extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int stage;
+        private final Columns columns;
+        private final int from;
+        private final int to;
+
+        Range(int stage, Columns columns, int from, int to) {
+            this.stage = stage;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                columns.transform(epoch, stage, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(stage, columns, from, middle), new Range(stage, columns, middle, to));
+        }
+    }
+
+    /**
+     * Input and output columns of a batch.
+     *
+     */
+    private interface Columns {
+
+        int size();
+
+        void transform(TransformEpoch epoch, int stage, int from, int to);
+    }
+
+    private static final class Arrays implements Columns {
+
+        private final double[] ra;
+        private final double[] dec;
+        private final double[] out0;
+        private final double[] out1;
+
+        Arrays(double[] ra, double[] dec, double[] out0, double[] out1) {
+            if (dec.length != ra.length || out0.length < ra.length || out1.length < ra.length) {
+                throw new IllegalArgumentException("Input and output arrays must have the same length");
+            }
+            this.ra = ra;
+            this.dec = dec;
+            this.out0 = out0;
+            this.out1 = out1;
+        }
+
+        @Override
+        public int size() {
+            return ra.length;
+        }
+
+        @Override
+        public void transform(TransformEpoch epoch, int stage, int from, int to) {
+            double[] out = new double[2];
+            for (int i = from; i < to; i++) {
+                epoch.fromJ2000(stage, ra[i], dec[i], out);
+                out0[i] = out[0];
+                out1[i] = out[1];
+            }
+        }
+    }
+
+    private static final class Buffers implements Columns {
+
+        private final DoubleBuffer ra;
+        private final DoubleBuffer dec;
+        private final DoubleBuffer out0;
+        private final DoubleBuffer out1;
+
+        Buffers(DoubleBuffer ra, DoubleBuffer dec, DoubleBuffer out0, DoubleBuffer out1) {
+            int n = ra.remaining();
+            if (dec.remaining() != n || out0.remaining() < n || out1.remaining() < n) {
+                throw new IllegalArgumentException("Input and output buffers must have the same length");
+            }
+            this.ra = ra.slice();
+            this.dec = dec.slice();
+            this.out0 = out0.slice();
+            this.out1 = out1.slice();
+        }
+
+        @Override
+        public int size() {
+            return ra.limit();
+        }
+
+        @Override
+        public void transform(TransformEpoch epoch, int stage, int from, int to) {
+            double[] out = new double[2];
+            for (int i = from; i < to; i++) {
+                epoch.fromJ2000(stage, ra.get(i), dec.get(i), out);
+                out0.put(i, out[0]);
+                out1.put(i, out[1]);
+            }
+        }
+    }
+}
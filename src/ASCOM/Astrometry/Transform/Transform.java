@@ -0,0 +1,436 @@
+package ASCOM.Astrometry.Transform;
+
+import ASCOM.Astrometry.Exceptions.TransformUninitialisedException;
+import ASCOM.Astrometry.TimeScales;
+
+/**
+ * Coordinate transform component; J2000 - apparent - local topocentric.
+ *
+ * Use this component to transform between J2000, apparent and local
+ * topocentric (JNow) coordinates or vice versa. To use the component,
+ * instantiate it, then use one of SetJ2000, SetApparent, SetTopocentric or
+ * SetAzimuthElevation to initialise with known values. Now use the RAJ2000,
+ * DecJ2000, RAApparent, DECApparent, RATopocentric, DECTopocentric,
+ * AzimuthTopocentric and ElevationTopocentric properties to read off the
+ * required transformed values. The component can be reused simply by
+ * setting new co-ordinates with a Set command, there is no need to create a
+ * new component each time a transform is required.
+ *
+ * Every transform recomputes precession, nutation, aberration and sidereal
+ * time for the current date and site. To transform many stars for one date
+ * and site, configure a Transform and use batch(), which computes them once
+ * and shares them across all stars.
+ *
+ * Transforms are computed in Java; see ASCOM.Astrometry.Reduction for the
+ * models and their accuracy.
+ *
+ */
+public class Transform {
+
+    private static final int NONE = 0;
+    private static final int J2000 = 1;
+    private static final int APPARENT = 2;
+    private static final int TOPOCENTRIC = 3;
+    private static final int HORIZON = 4;
+
+    private double siteLatitude = Double.NaN;
+    private double siteLongitude = Double.NaN;
+    private double siteElevation;
+    private double siteTemperature = 10.0;
+    private boolean refraction;
+    private double julianDateTT;
+    private double julianDateUTC;
+    private boolean utcSetLast;
+
+    private int setBy = NONE;
+    private double setA;
+    private double setB;
+    private boolean dirty;
+
+    private double raJ2000;
+    private double decJ2000;
+    private double raApparent;
+    private double decApparent;
+    private double raTopocentric;
+    private double decTopocentric;
+    private double azimuth;
+    private double elevation;
+
+    /**
+     * Cleans up resources used by the Transform component
+     *
+     */
+    public void Dispose() {
+    }
+
+    /**
+     * Causes the transform component to recalculate values derived from the
+     * last Set command.
+     *
+     * Note: refresh is always performed automatically when required.
+     *
+     */
+    public void Refresh() {
+        dirty = true;
+    }
+
+    /**
+     * Sets the known J2000 Right Ascension and Declination coordinates that
+     * are to be transformed
+     *
+     * @param ra right ascension (hours)
+     * @param dec declination (degrees)
+     */
+    public void SetJ2000(double ra, double dec) {
+        set(J2000, ra, dec);
+    }
+
+    /**
+     * Sets the known apparent Right Ascension and Declination coordinates
+     * that are to be transformed
+     *
+     * @param ra right ascension (hours)
+     * @param dec declination (degrees)
+     */
+    public void SetApparent(double ra, double dec) {
+        set(APPARENT, ra, dec);
+    }
+
+    /**
+     * Sets the known local topocentric Right Ascension and Declination
+     * coordinates that are to be transformed
+     *
+     * @param ra right ascension (hours)
+     * @param dec declination (degrees)
+     */
+    public void SetTopocentric(double ra, double dec) {
+        set(TOPOCENTRIC, ra, dec);
+    }
+
+    /**
+     * Sets the topocentric azimuth and elevation
+     *
+     * @param azimuth azimuth (degrees, north through east)
+     * @param elevation elevation (degrees)
+     */
+    public void SetAzimuthElevation(double azimuth, double elevation) {
+        set(HORIZON, azimuth, elevation);
+    }
+
+    /**
+     * Sets the site latitude. Positive numbers north of the equator,
+     * negative numbers south.
+     *
+     */
+    public void setSiteLatitude(double _theValue) {
+        if (!(_theValue >= -90.0 && _theValue <= 90.0)) {
+            throw new IllegalArgumentException("SiteLatitude must be between -90 and 90: " + _theValue);
+        }
+        siteLatitude = _theValue;
+        dirty = true;
+    }
+
+    /**
+     * Gets the site latitude
+     *
+     */
+    public double getSiteLatitude() {
+        return siteLatitude;
+    }
+
+    /**
+     * Sets the site longitude. Positive numbers east of the Greenwich
+     * meridian, negative numbers west of the Greenwich meridian.
+     *
+     */
+    public void setSiteLongitude(double _theValue) {
+        if (!(_theValue >= -180.0 && _theValue <= 180.0)) {
+            throw new IllegalArgumentException("SiteLongitude must be between -180 and 180: " + _theValue);
+        }
+        siteLongitude = _theValue;
+        dirty = true;
+    }
+
+    /**
+     * Gets the site longitude
+     *
+     */
+    public double getSiteLongitude() {
+        return siteLongitude;
+    }
+
+    /**
+     * Sets the site elevation above sea level (m)
+     *
+     */
+    public void setSiteElevation(double _theValue) {
+        if (!(_theValue >= -300.0 && _theValue <= 10000.0)) {
+            throw new IllegalArgumentException("SiteElevation must be between -300 and 10000: " + _theValue);
+        }
+        siteElevation = _theValue;
+        dirty = true;
+    }
+
+    /**
+     * Gets the site elevation above sea level (m)
+     *
+     */
+    public double getSiteElevation() {
+        return siteElevation;
+    }
+
+    /**
+     * Sets the site ambient temperature (degrees Celsius)
+     *
+     */
+    public void setSiteTemperature(double _theValue) {
+        if (!(_theValue >= -273.15 && _theValue <= 100.0)) {
+            throw new IllegalArgumentException("SiteTemperature must be between -273.15 and 100: " + _theValue);
+        }
+        siteTemperature = _theValue;
+        dirty = true;
+    }
+
+    /**
+     * Gets the site ambient temperature (degrees Celsius)
+     *
+     */
+    public double getSiteTemperature() {
+        return siteTemperature;
+    }
+
+    /**
+     * Sets a flag indicating whether refraction is calculated for
+     * topocentric co-ordinates
+     *
+     */
+    public void setRefraction(boolean _theValue) {
+        refraction = _theValue;
+        dirty = true;
+    }
+
+    /**
+     * Gets a flag indicating whether refraction is calculated for
+     * topocentric co-ordinates
+     *
+     */
+    public boolean getRefraction() {
+        return refraction;
+    }
+
+    /**
+     * Sets the Julian date on the Terrestrial Time timescale for which the
+     * transform will be made. 0.0 means the current date and time of the PC.
+     *
+     * Only one of JulianDateTT or JulianDateUTC needs to be set; Transform
+     * uses the last set value of either.
+     *
+     */
+    public void setJulianDateTT(double _theValue) {
+        julianDateTT = _theValue;
+        utcSetLast = false;
+        dirty = true;
+    }
+
+    /**
+     * Gets the Julian date on the Terrestrial Time timescale for which the
+     * transform will be made
+     *
+     */
+    public double getJulianDateTT() {
+        return julianDateTT;
+    }
+
+    /**
+     * Sets the Julian date on the UTC timescale for which the transform will
+     * be made. 0.0 means the current date and time of the PC.
+     *
+     */
+    public void setJulianDateUTC(double _theValue) {
+        julianDateUTC = _theValue;
+        utcSetLast = true;
+        dirty = true;
+    }
+
+    /**
+     * Gets the Julian date on the UTC timescale for which the transform will
+     * be made
+     *
+     */
+    public double getJulianDateUTC() {
+        return julianDateUTC;
+    }
+
+    /**
+     * Returns the Right Ascension in J2000 co-ordinates (hours)
+     *
+     */
+    public double getRAJ2000() {
+        refresh(false);
+        return raJ2000;
+    }
+
+    /**
+     * Returns the Declination in J2000 co-ordinates (degrees)
+     *
+     */
+    public double getDecJ2000() {
+        refresh(false);
+        return decJ2000;
+    }
+
+    /**
+     * Returns the Right Ascension in apparent co-ordinates (hours)
+     *
+     */
+    public double getRAApparent() {
+        refresh(false);
+        return raApparent;
+    }
+
+    /**
+     * Returns the Declination in apparent co-ordinates (degrees)
+     *
+     */
+    public double getDECApparent() {
+        refresh(false);
+        return decApparent;
+    }
+
+    /**
+     * Returns the Right Ascension in local topocentric co-ordinates (hours)
+     *
+     */
+    public double getRATopocentric() {
+        refresh(true);
+        return raTopocentric;
+    }
+
+    /**
+     * Returns the Declination in local topocentric co-ordinates (degrees)
+     *
+     */
+    public double getDECTopocentric() {
+        refresh(true);
+        return decTopocentric;
+    }
+
+    /**
+     * Returns the topocentric azimuth angle of the target (degrees)
+     *
+     */
+    public double getAzimuthTopocentric() {
+        refresh(true);
+        return azimuth;
+    }
+
+    /**
+     * Returns the topocentric elevation of the target (degrees)
+     *
+     */
+    public double getElevationTopocentric() {
+        refresh(true);
+        return elevation;
+    }
+
+    /**
+     * Computes the date and site dependent part of the transform for the
+     * current settings.
+     *
+     */
+    public TransformEpoch getEpoch() {
+        TimeScales scales = TimeScales.shared();
+        double jdUTC;
+        if (utcSetLast ? julianDateUTC != 0.0 : julianDateTT != 0.0) {
+            jdUTC = utcSetLast ? julianDateUTC : scales.julianDateUTC(julianDateTT);
+        } else {
+            jdUTC = System.currentTimeMillis() / 86400000.0 + 2440587.5;
+        }
+        return new TransformEpoch(scales.julianDateTT(jdUTC), scales.julianDateUT1(jdUTC), Double.isNaN(siteLatitude) ? 0.0 : siteLatitude,
+                Double.isNaN(siteLongitude) ? 0.0 : siteLongitude, siteElevation, siteTemperature, refraction);
+    }
+
+    /**
+     * Creates a batch transform for the current date and site settings. With
+     * JulianDateTT and JulianDateUTC both 0.0 the batch is fixed at the
+     * current time.
+     *
+     */
+    public BatchTransform batch() {
+        checkSite();
+        return new BatchTransform(getEpoch());
+    }
+
+    private void set(int kind, double a, double b) {
+        setBy = kind;
+        setA = a;
+        setB = b;
+        dirty = true;
+    }
+
+    private void checkSite() {
+        if (Double.isNaN(siteLatitude) || Double.isNaN(siteLongitude)) {
+            throw new TransformUninitialisedException("Site latitude and longitude have not been set");
+        }
+    }
+
+    /**
+     * Recomputes every output from the last Set command.
+     *
+     */
+    private void refresh(boolean topocentric) {
+        if (setBy == NONE) {
+            throw new TransformUninitialisedException("No co-ordinates have been set");
+        }
+        if (topocentric || setBy == TOPOCENTRIC || setBy == HORIZON) {
+            checkSite();
+        }
+        if (!dirty && (julianDateTT != 0.0 || julianDateUTC != 0.0)) {
+            return;
+        }
+        TransformEpoch epoch = getEpoch();
+        double[] out = new double[2];
+        switch (setBy) {
+            case J2000:
+                raJ2000 = setA;
+                decJ2000 = setB;
+                break;
+            case APPARENT:
+                epoch.apparentToJ2000(setA, setB, out);
+                raJ2000 = out[0];
+                decJ2000 = out[1];
+                break;
+            case TOPOCENTRIC:
+                epoch.topocentricToApparent(setA, setB, out);
+                epoch.apparentToJ2000(out[0], out[1], out);
+                raJ2000 = out[0];
+                decJ2000 = out[1];
+                break;
+            default:
+                epoch.horizonToApparent(setA, setB, out);
+                epoch.apparentToJ2000(out[0], out[1], out);
+                raJ2000 = out[0];
+                decJ2000 = out[1];
+        }
+        epoch.fromJ2000(TransformEpoch.APPARENT, raJ2000, decJ2000, out);
+        raApparent = out[0];
+        decApparent = out[1];
+        epoch.fromJ2000(TransformEpoch.TOPOCENTRIC, raJ2000, decJ2000, out);
+        raTopocentric = out[0];
+        decTopocentric = out[1];
+        epoch.fromJ2000(TransformEpoch.HORIZON, raJ2000, decJ2000, out);
+        azimuth = out[0];
+        elevation = out[1];
+        if (setBy == APPARENT) {
+            raApparent = setA;
+            decApparent = setB;
+        } else if (setBy == TOPOCENTRIC) {
+            raTopocentric = setA;
+            decTopocentric = setB;
+        } else if (setBy == HORIZON) {
+            azimuth = setA;
+            elevation = setB;
+        }
+        dirty = false;
+    }
+}
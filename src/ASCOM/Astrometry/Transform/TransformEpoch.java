@@ -0,0 +1,329 @@
+package ASCOM.Astrometry.Transform;
+
+import ASCOM.Astrometry.Accuracy;
+import ASCOM.Astrometry.PrecessionNutation;
+import ASCOM.Astrometry.PrecessionNutationCache;
+import ASCOM.Astrometry.Reduction;
+
+/**
+ * Everything a coordinate transform needs that depends only on the date and
+ * the site: the bias-precession-nutation matrix, the Earth's velocity for
+ * annual aberration, the sidereal time, the diurnal aberration of the site
+ * and the rotation into the local horizon. It is computed once on
+ * construction and is immutable, so one epoch can serve any number of
+ * stars on any number of threads.
+ *
+ * J2000 coordinates are taken as ICRS coordinates, apparent coordinates
+ * are geocentric and referred to the true equator and equinox of date, and
+ * topocentric coordinates add the diurnal aberration of the site and,
+ * when enabled, refraction. Transform takes TT and UT1 from
+ * TimeScales.shared().
+ *
+ * The bias-precession-nutation part comes from the shared
+ * PrecessionNutationCache, so transforms for one date share it.
+ *
+ */
+public final class TransformEpoch {
+
+    static final int APPARENT = 0;
+    static final int TOPOCENTRIC = 1;
+    static final int HORIZON = 2;
+
+    private static final double DEG = Math.PI / 180.0;
+    private static final double HOUR = Math.PI / 12.0;
+
+    private final double jdTT;
+    private final double jdUT1;
+    private final double siteLatitude;
+    private final double siteLongitude;
+    private final double siteElevation;
+    private final double siteTemperature;
+    private final boolean refraction;
+    private final double localSiderealTime;
+
+    private final double[] npb = new double[9];
+    private final double[] horizon = new double[9];
+    private final double ax;
+    private final double ay;
+    private final double az;
+    private final double dx;
+    private final double dy;
+
+    /**
+     *
+     * @param jdTT Julian date (TT)
+     * @param jdUT1 the same date (UT1)
+     * @param siteLatitude geodetic latitude (degrees, north positive)
+     * @param siteLongitude longitude (degrees, east positive)
+     * @param siteElevation height above sea level (m)
+     * @param siteTemperature air temperature (degrees Celsius)
+     * @param refraction true to apply refraction to topocentric coordinates
+     */
+    public TransformEpoch(double jdTT, double jdUT1, double siteLatitude, double siteLongitude,
+            double siteElevation, double siteTemperature, boolean refraction) {
+        this.jdTT = jdTT;
+        this.jdUT1 = jdUT1;
+        this.siteLatitude = siteLatitude;
+        this.siteLongitude = siteLongitude;
+        this.siteElevation = siteElevation;
+        this.siteTemperature = siteTemperature;
+        this.refraction = refraction;
+
+        PrecessionNutation pn = PrecessionNutationCache.shared().get(jdTT, Accuracy.FULL);
+        pn.getMatrix(npb);
+        double gast = Reduction.greenwichMeanSiderealTime(jdUT1, jdTT) + pn.getEquationOfEquinoxes();
+        localSiderealTime = Reduction.normalize(gast + siteLongitude * DEG);
+
+        double[] v = new double[3];
+        Reduction.earthVelocity(jdTT, v);
+        ax = v[0] / Reduction.C_AU_PER_DAY;
+        ay = v[1] / Reduction.C_AU_PER_DAY;
+        az = v[2] / Reduction.C_AU_PER_DAY;
+
+        double phi = siteLatitude * DEG;
+        double sp = Math.sin(phi);
+        double cp = Math.cos(phi);
+        double st = Math.sin(localSiderealTime);
+        double ct = Math.cos(localSiderealTime);
+        double speed = Reduction.EARTH_ROTATION * (Reduction.EARTH_RADIUS + siteElevation) * cp / Reduction.C_M_PER_S;
+        dx = -speed * st;
+        dy = speed * ct;
+
+        horizon[0] = -sp * ct;
+        horizon[1] = -sp * st;
+        horizon[2] = cp;
+        horizon[3] = -st;
+        horizon[4] = ct;
+        horizon[5] = 0.0;
+        horizon[6] = cp * ct;
+        horizon[7] = cp * st;
+        horizon[8] = sp;
+    }
+
+    /**
+     * Gets the Julian date (TT) of the epoch.
+     *
+     */
+    public double getJulianDateTT() {
+        return jdTT;
+    }
+
+    /**
+     * Gets the Julian date (UT1) of the epoch.
+     *
+     */
+    public double getJulianDateUT1() {
+        return jdUT1;
+    }
+
+    /**
+     * Gets the local apparent sidereal time (hours).
+     *
+     */
+    public double getLocalSiderealTime() {
+        return localSiderealTime / HOUR;
+    }
+
+    public double getSiteLatitude() {
+        return siteLatitude;
+    }
+
+    public double getSiteLongitude() {
+        return siteLongitude;
+    }
+
+    public double getSiteElevation() {
+        return siteElevation;
+    }
+
+    public double getSiteTemperature() {
+        return siteTemperature;
+    }
+
+    public boolean isRefraction() {
+        return refraction;
+    }
+
+    /**
+     * Transforms J2000 coordinates to one of the output systems.
+     *
+     * @param stage APPARENT, TOPOCENTRIC or HORIZON
+     * @param ra J2000 right ascension (hours)
+     * @param dec J2000 declination (degrees)
+     * @param out receives RA (hours) and Dec (degrees), or azimuth and
+     * elevation (degrees) for HORIZON
+     */
+    void fromJ2000(int stage, double ra, double dec, double[] out) {
+        double a = ra * HOUR;
+        double d = dec * DEG;
+        double cd = Math.cos(d);
+        double x = cd * Math.cos(a) + ax;
+        double y = cd * Math.sin(a) + ay;
+        double z = Math.sin(d) + az;
+        double[] m = npb;
+        double px = m[0] * x + m[1] * y + m[2] * z;
+        double py = m[3] * x + m[4] * y + m[5] * z;
+        double pz = m[6] * x + m[7] * y + m[8] * z;
+        if (stage == APPARENT) {
+            equatorial(px, py, pz, out);
+            return;
+        }
+        double r = Math.sqrt(px * px + py * py + pz * pz);
+        fromApparentVector(stage, px / r + dx, py / r + dy, pz / r, out);
+    }
+
+    /**
+     * Transforms an apparent direction (not necessarily unit length) to
+     * topocentric or horizon coordinates, adding the diurnal aberration.
+     *
+     */
+    private void fromApparentVector(int stage, double x, double y, double z, double[] out) {
+        double[] h = horizon;
+        double north = h[0] * x + h[1] * y + h[2] * z;
+        double east = h[3] * x + h[4] * y;
+        double up = h[6] * x + h[7] * y + h[8] * z;
+        if (!refraction && stage == TOPOCENTRIC) {
+            equatorial(x, y, z, out);
+            return;
+        }
+        double ground = Math.sqrt(north * north + east * east);
+        double el = Math.atan2(up, ground) / DEG;
+        if (refraction) {
+            double refracted = Reduction.refract(el, siteElevation, siteTemperature);
+            if (stage == TOPOCENTRIC) {
+                double ce = Math.cos(refracted * DEG);
+                double se = Math.sin(refracted * DEG);
+                double n = ground == 0.0 ? 0.0 : north / ground * ce;
+                double e = ground == 0.0 ? 0.0 : east / ground * ce;
+                equatorial(h[0] * n + h[3] * e + h[6] * se, h[1] * n + h[4] * e + h[7] * se,
+                        h[2] * n + h[8] * se, out);
+                return;
+            }
+            el = refracted;
+        }
+        double azimuth = Math.atan2(east, north) / DEG;
+        out[0] = azimuth < 0.0 ? azimuth + 360.0 : azimuth;
+        out[1] = el;
+    }
+
+    /**
+     * Transforms apparent coordinates back to J2000, removing nutation,
+     * precession and the annual aberration.
+     *
+     * @param ra apparent right ascension (hours)
+     * @param dec apparent declination (degrees)
+     * @param out receives the J2000 RA (hours) and Dec (degrees)
+     */
+    void apparentToJ2000(double ra, double dec, double[] out) {
+        double a = ra * HOUR;
+        double d = dec * DEG;
+        double cd = Math.cos(d);
+        double[] m = npb;
+        double x = cd * Math.cos(a);
+        double y = cd * Math.sin(a);
+        double z = Math.sin(d);
+        double ux = m[0] * x + m[3] * y + m[6] * z;
+        double uy = m[1] * x + m[4] * y + m[7] * z;
+        double uz = m[2] * x + m[5] * y + m[8] * z;
+        double px = ux - ax;
+        double py = uy - ay;
+        double pz = uz - az;
+        for (int i = 0; i < 3; i++) {
+            double r = Math.sqrt(px * px + py * py + pz * pz);
+            double sx = px / r + ax;
+            double sy = py / r + ay;
+            double sz = pz / r + az;
+            double s = Math.sqrt(sx * sx + sy * sy + sz * sz);
+            px = ux * s - ax;
+            py = uy * s - ay;
+            pz = uz * s - az;
+        }
+        equatorial(px, py, pz, out);
+    }
+
+    /**
+     * Transforms topocentric coordinates back to apparent, removing
+     * refraction when enabled and the diurnal aberration.
+     *
+     * @param ra topocentric right ascension (hours)
+     * @param dec topocentric declination (degrees)
+     * @param out receives the apparent RA (hours) and Dec (degrees)
+     */
+    void topocentricToApparent(double ra, double dec, double[] out) {
+        double a = ra * HOUR;
+        double d = dec * DEG;
+        double cd = Math.cos(d);
+        double x = cd * Math.cos(a);
+        double y = cd * Math.sin(a);
+        double z = Math.sin(d);
+        if (refraction) {
+            double[] h = horizon;
+            double north = h[0] * x + h[1] * y + h[2] * z;
+            double east = h[3] * x + h[4] * y;
+            double up = h[6] * x + h[7] * y + h[8] * z;
+            double[] v = new double[3];
+            horizonVector(Math.atan2(east, north) / DEG, Math.asin(Math.max(-1.0, Math.min(1.0, up))) / DEG, v);
+            x = v[0];
+            y = v[1];
+            z = v[2];
+        }
+        removeDiurnal(x, y, z, out);
+    }
+
+    /**
+     * Transforms azimuth and elevation to apparent coordinates, removing
+     * refraction when enabled and the diurnal aberration.
+     *
+     * @param azimuth azimuth (degrees, north through east)
+     * @param elevation elevation (degrees)
+     * @param out receives the apparent RA (hours) and Dec (degrees)
+     */
+    void horizonToApparent(double azimuth, double elevation, double[] out) {
+        double[] v = new double[3];
+        horizonVector(azimuth, elevation, v);
+        removeDiurnal(v[0], v[1], v[2], out);
+    }
+
+    /**
+     * Converts observed azimuth and elevation to a unit vector on the true
+     * equator of date, removing refraction when enabled.
+     *
+     */
+    private void horizonVector(double azimuth, double elevation, double[] v) {
+        double el = refraction ? elevation - Reduction.refraction(elevation, siteElevation, siteTemperature) : elevation;
+        double ce = Math.cos(el * DEG);
+        double n = ce * Math.cos(azimuth * DEG);
+        double e = ce * Math.sin(azimuth * DEG);
+        double u = Math.sin(el * DEG);
+        double[] h = horizon;
+        v[0] = h[0] * n + h[3] * e + h[6] * u;
+        v[1] = h[1] * n + h[4] * e + h[7] * u;
+        v[2] = h[2] * n + h[8] * u;
+    }
+
+    private void removeDiurnal(double x, double y, double z, double[] out) {
+        double px = x - dx;
+        double py = y - dy;
+        double pz = z;
+        for (int i = 0; i < 2; i++) {
+            double r = Math.sqrt(px * px + py * py + pz * pz);
+            double sx = px / r + dx;
+            double sy = py / r + dy;
+            double s = Math.sqrt(sx * sx + sy * sy + pz * pz / (r * r));
+            px = x * s - dx;
+            py = y * s - dy;
+            pz = z * s;
+        }
+        equatorial(px, py, pz, out);
+    }
+
+    /**
+     * Converts a direction to RA (hours, 0 to 24) and Dec (degrees).
+     *
+     */
+    private static void equatorial(double x, double y, double z, double[] out) {
+        double ra = Math.atan2(y, x) / HOUR;
+        out[0] = ra < 0.0 ? ra + 24.0 : ra;
+        out[1] = Math.atan2(z, Math.sqrt(x * x + y * y)) / DEG;
+    }
+}
@@ -0,0 +1,24 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Direction of transformation: ITRS to Terrestrial Intermediate or vice versa
+ 
+
+
+*/
+public enum TransformationDirection{
+    ITRS_TO_TERRESTRIAL_INTERMEDIATE,
+    TERRESTRIAL_INTERMEDIATE_TO_ITRS;
+
+    /*
+ Returns the transformation direction for a NOVAS value
+     */
+    public static TransformationDirection fromValue(int value){
+        TransformationDirection[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown transformation direction " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,36 @@
+package ASCOM.Astrometry;
+
+/*
+
+ Type of transformation
+
+ Used by TransformCat
+ 
+
+
+*/
+public enum TransformationOption3{
+    CHANGE_EPOCH,
+    CHANGE_EQUATOR_AND_EQUINOX,
+    CHANGE_EQUATOR_AND_EQUINOX_AND_EPOCH,
+    CHANGE_EQUATOR_AND_EQUINOX_J2000_TO_ICRS,
+    CHANGE_ICRS_TO_EQUATOR_AND_EQUINOX_OF_J2000;
+
+    /*
+ Returns the NOVAS transformation option, 1 to 5
+     */
+    public int getValue(){
+        return ordinal() + 1;
+    }
+
+    /*
+ Returns the transformation for a NOVAS option
+     */
+    public static TransformationOption3 fromValue(int value){
+        TransformationOption3[] all = values();
+        if (value < 1 || value > all.length) {
+            throw new IllegalArgumentException("Unknown transformation option " + value);
+        }
+        return all[value - 1];
+    }
+}
@@ -0,0 +1,25 @@
+package ASCOM.DeviceInterface;
+
+/*
+
+ ASCOM Camera status values.
+ 
+
+
+*/
+public enum CameraStates{
+    CAMERA_IDLE,
+    CAMERA_WAITING,
+    CAMERA_EXPOSING,
+    CAMERA_READING,
+    CAMERA_DOWNLOAD,
+    CAMERA_ERROR;
+
+    /*
+ Returns the camera state for a driver value, CAMERA_ERROR if the value is not recognised
+     */
+    public static CameraStates fromValue(int value){
+        CameraStates[] states = values();
+        return value >= 0 && value < states.length ? states[value] : CAMERA_ERROR;
+    }
+}
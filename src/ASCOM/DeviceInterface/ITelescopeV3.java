@@ -1,8 +1,6 @@
 package ASCOM.DeviceInterface;
 
 import ASCOM.MethodNotImplementedException;
-import com.sun.org.glassfish.gmbal.Description;
-import java.util.jar.Attributes.Name;
 
 /**
  *
@@ -1101,7 +1099,7 @@ public interface ITelescopeV3 {
      *
      * @param _theValue
      */
-    public void setDoesRefraction(double _theValue);
+    public void setDoesRefraction(Boolean _theValue);
 
     /**
      * Gets True if the telescope or driver applies atmospheric refraction to
@@ -1131,7 +1129,7 @@ public interface ITelescopeV3 {
      *
      * @return 
      */
-    public double getDoesRefraction();
+    public Boolean getDoesRefraction();
 
     /**
      * Sets Equatorial coordinate system used by this telescope (e.g.
@@ -1317,7 +1315,7 @@ public interface ITelescopeV3 {
      * not support the method).      *
      * @param _theValue
      */
-    public void setIsPulseGuiding(double _theValue);
+    public void setIsPulseGuiding(Boolean _theValue);
 
     /**
      * Gets True if a command is in progress, False otherwise
@@ -1327,7 +1325,7 @@ public interface ITelescopeV3 {
      * not support the method).      *
      * @return 
      */
-    public double getIsPulseGuiding();
+    public Boolean getIsPulseGuiding();
 
     /**
      * Sets The right ascension (hours) of the telescope's current equatorial
@@ -1534,7 +1532,7 @@ public interface ITelescopeV3 {
      *
      * @param _theValue
      */
-    public void setSideOfPier(double _theValue);
+    public void setSideOfPier(PierSide _theValue);
 
     /**
      * Gets Indicates the pointing state of the mount.
@@ -1633,7 +1631,7 @@ public interface ITelescopeV3 {
      *
      * @return 
      */
-    public double getSideOfPier();
+    public PierSide getSideOfPier();
 
     /**
      * Sets The local apparent sidereal time from the telescope's internal clock
@@ -1763,7 +1761,7 @@ public interface ITelescopeV3 {
      * one of the Slew commands, flipping caused by changing the property, or .      *
      * @param _theValue
      */
-    public void setSlewing(double _theValue);
+    public void setSlewing(Boolean _theValue);
 
     /**
      * Gets True if telescope is currently moving in response to one of the Slew
@@ -1777,7 +1775,7 @@ public interface ITelescopeV3 {
      * one of the Slew commands, flipping caused by changing the property, or .      *
      * @return 
      */
-    public double getSlewing();
+    public Boolean getSlewing();
 
     /**
      * Sets Specifies a post-slew settling time (sec.).
@@ -1863,7 +1861,7 @@ public interface ITelescopeV3 {
      * turning tracking on and off. See the property.      *
      * @param _theValue
      */
-    public void setTracking(double _theValue);
+    public void setTracking(Boolean _theValue);
 
     /**
      * Gets The state of the telescope's sidereal tracking drive.
@@ -1877,7 +1875,7 @@ public interface ITelescopeV3 {
      * turning tracking on and off. See the property.      *
      * @return 
      */
-    public double getTracking();
+    public Boolean getTracking();
 
     /**
      * Sets The current tracking rate of the telescope's sidereal drive
@@ -1938,7 +1936,7 @@ public interface ITelescopeV3 {
      *
      * @param _theValue
      */
-    public void setTrackingRates(double _theValue);
+    public void setTrackingRates(Object _theValue);
 
     /**
      * Gets Returns a collection of supported values that describe the
@@ -1951,7 +1949,7 @@ public interface ITelescopeV3 {
      *
      * @return 
      */
-    public double getTrackingRates();
+    public Object getTrackingRates();
 
     /**
      * Sets The UTC date/time of the telescope's internal clock
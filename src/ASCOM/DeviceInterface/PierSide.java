@@ -25,4 +25,26 @@ public enum PierSide{
     private PierSide(int value){
         this.value=value;
     }
+
+    /*
+ Gets
+ The value used for this pointing state by the driver
+     */
+    public int getValue(){
+        return value;
+    }
+
+    /*
+ Returns the pointing state for a driver value, PIER_UNKNOWN if the value is not recognised
+     */
+    public static PierSide fromValue(int value){
+        switch(value){
+            case 0:
+                return PIER_EAST;
+            case 1:
+                return PIER_WEST;
+            default:
+                return PIER_UNKNOWN;
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package ASCOM.DeviceInterface;
+
+/*
+
+ Sensor type, identifies the type of colour sensor
+ V2 cameras only
+ 
+
+
+*/
+public enum SensorType{
+    MONOCHROME,
+    COLOR,
+    RGGB,
+    CMYG,
+    CMYG2,
+    LRGB;
+
+    /*
+ Returns the sensor type for a driver value
+     */
+    public static SensorType fromValue(int value){
+        SensorType[] types = values();
+        if (value < 0 || value >= types.length) {
+            throw new IllegalArgumentException("Unknown sensor type " + value);
+        }
+        return types[value];
+    }
+}
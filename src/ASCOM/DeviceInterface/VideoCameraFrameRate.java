@@ -0,0 +1,25 @@
+package ASCOM.DeviceInterface;
+
+/*
+
+ ASCOM Video Camera supported frame rates.
+ 
+
+
+*/
+public enum VideoCameraFrameRate{
+    VARIABLE,
+    PAL,
+    NTSC;
+
+    /*
+ Returns the frame rate for a driver value
+     */
+    public static VideoCameraFrameRate fromValue(int value){
+        VideoCameraFrameRate[] rates = values();
+        if (value < 0 || value >= rates.length) {
+            throw new IllegalArgumentException("Unknown frame rate " + value);
+        }
+        return rates[value];
+    }
+}
@@ -0,0 +1,22 @@
+package ASCOM.DeviceInterface;
+
+/*
+
+ ASCOM Video Camera status values.
+ 
+
+
+*/
+public enum VideoCameraState{
+    VIDEO_CAMERA_RUNNING,
+    VIDEO_CAMERA_RECORDING,
+    VIDEO_CAMERA_ERROR;
+
+    /*
+ Returns the camera state for a driver value, VIDEO_CAMERA_ERROR if the value is not recognised
+     */
+    public static VideoCameraState fromValue(int value){
+        VideoCameraState[] states = values();
+        return value >= 0 && value < states.length ? states[value] : VIDEO_CAMERA_ERROR;
+    }
+}
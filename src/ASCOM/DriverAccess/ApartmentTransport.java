@@ -0,0 +1,401 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverException;
+import com.jacob.com.ComThread;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Transport decorator that runs every driver call on one thread owned by the
+ * driver. A COM object may only be used from the single-threaded apartment
+ * that created it, so the apartment thread also creates the transport and,
+ * for COM drivers, initializes and releases the apartment.
+ *
+ * <pre>
+ * Telescope scope = new Telescope(new ApartmentTransport("ASCOM.Simulator.Telescope"));
+ * </pre>
+ *
+ * Any number of threads may share the transport. Calls are queued in a
+ * bounded queue; a caller blocks while the queue is full, and fails with a
+ * DriverException if no slot frees up within the enqueue timeout. Calls made
+ * from the apartment thread itself run directly.
+ *
+ * Queue depth and per-call wait and service times are recorded for
+ * monitoring.
+ *
+ */
+public class ApartmentTransport implements DriverTransport {
+
+    /**
+     * Default number of calls that may wait in the queue.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Default time a caller waits for a free queue slot.
+     */
+    public static final long DEFAULT_ENQUEUE_TIMEOUT_MILLIS = 30000;
+
+    private final BlockingQueue<Call> queue;
+    private final Call stop = new Call(() -> null);
+    private final long enqueueTimeoutNanos;
+    private final boolean com;
+    private final Thread thread;
+    private final DriverTransport transport;
+    private volatile boolean released;
+    private volatile boolean stopped;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    /**
+     * Opens the driver registered under the given ProgID on a new apartment
+     * thread, with the default queue capacity and enqueue timeout.
+     *
+     * @param progId driver ProgID
+     */
+    public ApartmentTransport(String progId) {
+        this(progId, () -> DriverTransports.open(progId), DriverTransports.usesCom(),
+                DEFAULT_CAPACITY, DEFAULT_ENQUEUE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     *
+     * @param name name of the apartment thread
+     * @param factory creates the transport; called on the apartment thread
+     * @param com true to initialize a COM single-threaded apartment on the
+     * thread
+     * @param capacity number of calls that may wait in the queue
+     * @param enqueueTimeoutMillis time a caller waits for a free queue slot,
+     * 0 to wait indefinitely
+     */
+    public ApartmentTransport(String name, Supplier<? extends DriverTransport> factory, boolean com,
+            int capacity, long enqueueTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.enqueueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMillis);
+        this.com = com;
+        Call open = new Call(factory::get);
+        this.thread = new Thread(() -> loop(open), "ascom4j-apartment-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        this.transport = (DriverTransport) await(open);
+    }
+
+    /**
+     * Gets the number of calls waiting in the queue.
+     *
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the largest number of calls seen waiting in the queue.
+     *
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Gets the number of calls completed on the apartment thread.
+     *
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    /**
+     * Gets the mean time calls spent in the queue (nanoseconds).
+     *
+     */
+    public double getMeanWaitNanos() {
+        long n = calls.sum();
+        return n == 0 ? 0.0 : (double) waitNanos.sum() / n;
+    }
+
+    /**
+     * Gets the mean time calls spent in the driver (nanoseconds).
+     *
+     */
+    public double getMeanServiceNanos() {
+        long n = calls.sum();
+        return n == 0 ? 0.0 : (double) serviceNanos.sum() / n;
+    }
+
+    /**
+     * Gets the longest queue wait plus driver time of any call (nanoseconds).
+     *
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * Gets the apartment thread.
+     *
+     */
+    public Thread getThread() {
+        return thread;
+    }
+
+    @Override
+    public Object invoke(String member, Object... args) {
+        return submit(() -> transport.invoke(member, args));
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return submit(() -> transport.getProperty(name));
+    }
+
+    @Override
+    public boolean getPropertyAsBoolean(String name) {
+        return (Boolean) submit(() -> transport.getPropertyAsBoolean(name));
+    }
+
+    @Override
+    public double getPropertyAsDouble(String name) {
+        return (Double) submit(() -> transport.getPropertyAsDouble(name));
+    }
+
+    @Override
+    public int getPropertyAsInt(String name) {
+        return (Integer) submit(() -> transport.getPropertyAsInt(name));
+    }
+
+    @Override
+    public String getPropertyAsString(String name) {
+        return (String) submit(() -> transport.getPropertyAsString(name));
+    }
+
+    /**
+     * Reads the whole batch in one apartment call.
+     *
+     */
+    @Override
+    public void getPropertiesAsDouble(String[] names, double[] values) {
+        submit(() -> {
+            transport.getPropertiesAsDouble(names, values);
+            return null;
+        });
+    }
+
+    @Override
+    public void getPropertyAsImage(String name, ImageBuffer image) {
+        submit(() -> {
+            transport.getPropertyAsImage(name, image);
+            return null;
+        });
+    }
+
+    @Override
+    public void setProperty(String name, Object value) {
+        submit(() -> {
+            transport.setProperty(name, value);
+            return null;
+        });
+    }
+
+    @Override
+    public void resolve(Collection<String> members) {
+        submit(() -> {
+            transport.resolve(members);
+            return null;
+        });
+    }
+
+    /**
+     * Releases the driver on the apartment thread and stops the thread.
+     * Calls already queued are completed first. Stopping waits for a free
+     * queue slot however long it takes, so the thread and its COM objects
+     * are never left behind.
+     *
+     */
+    @Override
+    public void release() {
+        if (released) {
+            return;
+        }
+        try {
+            submit(() -> {
+                transport.release();
+                return null;
+            });
+        } finally {
+            released = true;
+            if (Thread.currentThread() != thread) {
+                stop();
+            }
+        }
+    }
+
+    private Object submit(Callable<Object> task) {
+        if (released) {
+            throw new DriverException("Driver has been released", DriverException.NOT_CONNECTED);
+        }
+        if (Thread.currentThread() == thread) {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new DriverException(e.getMessage(), e);
+            }
+        }
+        Call call = new Call(task);
+        enqueue(call);
+        if (stopped && queue.remove(call)) {
+            call.cancel(false);
+        }
+        return await(call);
+    }
+
+    private void enqueue(Call call) {
+        call.queued = System.nanoTime();
+        try {
+            if (enqueueTimeoutNanos == 0) {
+                queue.put(call);
+            } else if (!queue.offer(call, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new DriverException("Apartment queue is full", DriverException.INVALID_OPERATION);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverException("Interrupted while queueing driver call", e);
+        }
+        long depth = queue.size();
+        long max;
+        while (depth > (max = maxQueueDepth.get()) && !maxQueueDepth.compareAndSet(max, depth)) {
+        }
+    }
+
+    /**
+     * Queues the call that ends the apartment loop. Called from the
+     * apartment thread this would wait on itself; the loop instead stops
+     * once it finds the queue empty after a release.
+     *
+     */
+    private void stop() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(stop);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Object await(Call call) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return call.get();
+                } catch (InterruptedException e) {
+                    // the call is already running or queued on the apartment;
+                    // wait for it so the driver is never left mid-call
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new DriverException(cause.getMessage(), cause);
+        } catch (CancellationException e) {
+            throw new DriverException("Driver has been released", DriverException.NOT_CONNECTED);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void loop(Call open) {
+        if (com) {
+            ComThread.InitSTA();
+        }
+        try {
+            open.run();
+            if (!succeeded(open)) {
+                return;
+            }
+            while (true) {
+                Call call;
+                try {
+                    call = released ? queue.poll() : queue.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (call == null || call == stop) {
+                    break;
+                }
+                long start = System.nanoTime();
+                call.run();
+                long end = System.nanoTime();
+                record(start - call.queued, end - start);
+            }
+        } finally {
+            stopped = true;
+            for (Call call; (call = queue.poll()) != null;) {
+                call.cancel(false);
+            }
+            if (com) {
+                ComThread.Release();
+            }
+        }
+    }
+
+    private static boolean succeeded(Call call) {
+        try {
+            call.get();
+            return true;
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    private void record(long wait, long service) {
+        calls.increment();
+        waitNanos.add(wait);
+        serviceNanos.add(service);
+        long latency = wait + service;
+        long max;
+        while (latency > (max = maxLatencyNanos.get()) && !maxLatencyNanos.compareAndSet(max, latency)) {
+        }
+    }
+
+    /**
+     * One queued driver call.
+     *
+     */
+    private static final class Call extends FutureTask<Object> {
+
+        long queued;
+
+        Call(Callable<Object> task) {
+            super(task);
+        }
+    }
+}
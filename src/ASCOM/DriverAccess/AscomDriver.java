@@ -1,14 +1,17 @@
 package ASCOM.DriverAccess;
 
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.*;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Base class for ASCOM driver access toolkit device classes. This class
  * contains the methods common to all devices so that they can be maintained in
  * just one place.
  *
+ * All driver access goes through a DriverTransport, so the same device class
+ * works against a COM driver or an in-process simulator.
  *
  */
 public class AscomDriver {
@@ -44,8 +47,16 @@ public class AscomDriver {
      */
     private String SupportedActions;
 
+    /**
+     * Members common to all devices.
+     */
+    private static final List<String> MEMBERS = Collections.unmodifiableList(Arrays.asList(
+            "Action", "CommandBlind", "CommandBool", "CommandString", "Dispose",
+            "SetupDialog", "Connected", "Description", "DriverInfo",
+            "DriverVersion", "InterfaceVersion", "Name", "SupportedActions"));
+
     private String driver;
-    private ActiveXComponent component = null;
+    private final DriverTransport transport;
 
     /**
      *
@@ -54,7 +65,7 @@ public class AscomDriver {
      *
      */
     public AscomDriver() {
-        component = new ActiveXComponent("ASCOM.AscomDriver");
+        this("ASCOM.AscomDriver");
     }
 
     /**
@@ -64,10 +75,39 @@ public class AscomDriver {
      *
      */
     public AscomDriver(String driver) {
-        this();
+        this(DriverTransports.open(driver));
         this.driver = driver;
     }
 
+    /**
+     *
+     * Creates a new instance of the class that talks to the driver through
+     * the given transport.
+     *
+     *
+     */
+    public AscomDriver(DriverTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Gets the transport used to reach the driver.
+     *
+     */
+    protected DriverTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Gets the names of the driver members used by this device class. They
+     * are handed to the transport for resolution when the device connects.
+     * Subclasses add their own members.
+     *
+     */
+    protected Collection<String> getMemberNames() {
+        return MEMBERS;
+    }
+
     /**
      *
      * Releases the unmanaged late bound COM object
@@ -75,7 +115,8 @@ public class AscomDriver {
      *
      */
     public void Dispose() {
-        Variant v = component.invoke("Dispose");
+        transport.invoke("Dispose");
+        transport.release();
     }
 
     /**
@@ -85,8 +126,7 @@ public class AscomDriver {
      *
      */
     public Boolean Dispose(Boolean bool) {
-        Variant v = component.invoke("Dispose", bool);
-        return v.getBoolean();
+        return (Boolean) transport.invoke("Dispose", bool);
     }
 
     /**
@@ -97,8 +137,7 @@ public class AscomDriver {
      * Must be implemented
      */
     public String SetupDialog() {
-        Variant v = component.invoke("SetupDialog");
-        return v.getString();
+        return (String) transport.invoke("SetupDialog");
     }
 
     /**
@@ -126,8 +165,7 @@ public class AscomDriver {
      *
      */
     public String Action(String action, String params) {
-        Variant v = component.invoke(action, params);
-        return v.getString();
+        return (String) transport.invoke("Action", action, params);
     }
 
     /**
@@ -139,7 +177,7 @@ public class AscomDriver {
      * Can throw a not implemented exception
      */
     public void CommandBlind(String command, Boolean raw) {
-        Variant v = component.invoke(command, raw);
+        transport.invoke("CommandBlind", command, raw);
     }
 
     /**
@@ -151,8 +189,7 @@ public class AscomDriver {
      * Can throw a not implemented exception
      */
     public Boolean CommandBool(String command, Boolean raw) {
-        Variant v = component.invoke(command, raw);
-        return v.getBoolean();
+        return (Boolean) transport.invoke("CommandBool", command, raw);
     }
 
     /**
@@ -164,8 +201,7 @@ public class AscomDriver {
      * Can throw a not implemented exception
      */
     public String CommandString(String command, Boolean raw) {
-        Variant v = component.invoke(command, raw);
-        return v.getString();
+        return (String) transport.invoke("CommandString", command, raw);
     }
 
     /**
@@ -207,8 +243,12 @@ public class AscomDriver {
      *
      */
     public void setConnected(Boolean bool) {
-        component.setProperty("Connected", bool);
-
+        if (bool) {
+            // Before connecting, so that a failure leaves the driver
+            // disconnected.
+            transport.resolve(getMemberNames());
+        }
+        transport.setProperty("Connected", bool);
     }
 
     /**
@@ -230,8 +270,7 @@ public class AscomDriver {
      *
      */
     public Boolean getConnected() {
-        Boolean bool = component.getPropertyAsBoolean("Connected");
-        return bool;
+        return transport.getPropertyAsBoolean("Connected");
     }
 
     /**
@@ -239,7 +278,7 @@ public class AscomDriver {
      * modelnumber. Any ASCII characters may be used. * Must be implemented
      */
     public void setDescription(String description) {
-        component.setProperty("Description", description);
+        transport.setProperty("Description", description);
     }
 
     /**
@@ -247,7 +286,7 @@ public class AscomDriver {
      * modelnumber. Any ASCII characters may be used. * Must be implemented
      */
     public String getDescription() {
-        return component.getPropertyAsString("Description");
+        return transport.getPropertyAsString("Description");
     }
 
     /**
@@ -262,7 +301,7 @@ public class AscomDriver {
      *
      */
     public void setDriverInfo(String driverInfo) {
-        component.setProperty("DriverInfo", driverInfo);
+        transport.setProperty("DriverInfo", driverInfo);
     }
 
     /**
@@ -277,7 +316,7 @@ public class AscomDriver {
      *
      */
     public String getDriverInfo() {
-        return component.getPropertyAsString("DriverInfo");
+        return transport.getPropertyAsString("DriverInfo");
     }
 
     /**
@@ -289,7 +328,7 @@ public class AscomDriver {
      *
      */
     public void setDriverVersion(String driverVersion) {
-        component.setProperty("DriverVersion", driverVersion);
+        transport.setProperty("DriverVersion", driverVersion);
     }
 
     /**
@@ -301,7 +340,7 @@ public class AscomDriver {
      *
      */
     public String getDriverVersion() {
-        return component.getPropertyAsString("DriverVersion");
+        return transport.getPropertyAsString("DriverVersion");
     }
 
     /**
@@ -315,7 +354,7 @@ public class AscomDriver {
      *
      */
     public void setInterfaceVersion(String interfaceVersion) {
-        component.setProperty("InterfaceVersion", interfaceVersion);
+        transport.setProperty("InterfaceVersion", interfaceVersion);
     }
 
     /**
@@ -329,7 +368,7 @@ public class AscomDriver {
      *
      */
     public String getInterfaceVersion() {
-        return component.getPropertyAsString("InterfaceVersion");
+        return transport.getPropertyAsString("InterfaceVersion");
     }
 
     /**
@@ -338,7 +377,7 @@ public class AscomDriver {
      * Must be implemented
      */
     public void setName(String name) {
-        component.setProperty("Name", name);
+        transport.setProperty("Name", name);
     }
 
     /**
@@ -347,7 +386,7 @@ public class AscomDriver {
      * Must be implemented
      */
     public String getName() {
-        return component.getPropertyAsString("Name");
+        return transport.getPropertyAsString("Name");
     }
 
     /**
@@ -371,7 +410,7 @@ public class AscomDriver {
      *
      */
     public void setSupportedActions(String supportedActions) {
-        component.setProperty("SupportedActions", supportedActions);
+        transport.setProperty("SupportedActions", supportedActions);
     }
 
     /**
@@ -395,6 +434,6 @@ public class AscomDriver {
      *
      */
     public String getSupportedActions() {
-        return component.getPropertyAsString("SupportedActions");
+        return transport.getPropertyAsString("SupportedActions");
     }
 }
@@ -0,0 +1,114 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DeviceInterface.IAxisRates;
+import ASCOM.DeviceInterface.IRate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The rates returned by Telescope.AxisRates. Transports return the driver's
+ * collection as a list whose items are IRate objects or {minimum, maximum}
+ * pairs of doubles; this class wraps that list. The collection is read-only.
+ *
+ */
+final class AxisRates implements IAxisRates {
+
+    private final List<IRate> rates;
+
+    AxisRates(List<?> items) {
+        List<IRate> list = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item instanceof IRate) {
+                list.add((IRate) item);
+            } else {
+                double[] range = (double[]) item;
+                list.add(new Rate(range[0], range[1]));
+            }
+        }
+        this.rates = Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public void Dispose() {
+    }
+
+    @Override
+    public Iterator GetEnumerator() {
+        return rates.iterator();
+    }
+
+    /**
+     * The collection is read-only.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setItem(IRate _theRate) {
+        throw new UnsupportedOperationException("AxisRates is read-only");
+    }
+
+    /**
+     * Gets the first rate, or null if the axis cannot be moved.
+     *
+     */
+    @Override
+    public IRate getItem() {
+        return rates.isEmpty() ? null : rates.get(0);
+    }
+
+    /**
+     * The collection is read-only.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setCount(int _theValue) {
+        throw new UnsupportedOperationException("AxisRates is read-only");
+    }
+
+    @Override
+    public int getCount() {
+        return rates.size();
+    }
+
+    /**
+     * One range of rates (degrees per second).
+     *
+     */
+    static final class Rate implements IRate {
+
+        private double minimum;
+        private double maximum;
+
+        Rate(double minimum, double maximum) {
+            this.minimum = minimum;
+            this.maximum = maximum;
+        }
+
+        @Override
+        public void Dispose() {
+        }
+
+        @Override
+        public void setMaximum(double _theValue) {
+            this.maximum = _theValue;
+        }
+
+        @Override
+        public double getMaximum() {
+            return maximum;
+        }
+
+        @Override
+        public void setMinimum(double _theValue) {
+            this.minimum = _theValue;
+        }
+
+        @Override
+        public double getMinimum() {
+            return minimum;
+        }
+    }
+}
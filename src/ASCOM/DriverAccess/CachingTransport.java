@@ -0,0 +1,290 @@
+package ASCOM.DriverAccess;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transport decorator that keeps property values for the time allowed by a
+ * PropertyCachePolicy, so static capabilities are read from the driver once
+ * per session instead of on every call.
+ *
+ * <pre>
+ * Telescope scope = new Telescope(new CachingTransport(
+ *         DriverTransports.open("ASCOM.Simulator.Telescope"),
+ *         PropertyCachePolicy.telescope()));
+ * </pre>
+ *
+ * Writing a property drops its cached value. Writing Connected, disposing or
+ * releasing drops every cached value. Hit and miss counters cover reads of
+ * cacheable properties only.
+ *
+ */
+public class CachingTransport implements DriverTransport {
+
+    private final DriverTransport transport;
+    private final PropertyCachePolicy policy;
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     *
+     * @param transport transport to the driver
+     * @param policy which properties to cache and for how long
+     */
+    public CachingTransport(DriverTransport transport, PropertyCachePolicy policy) {
+        this.transport = transport;
+        this.policy = policy;
+    }
+
+    /**
+     * Gets the number of reads answered from the cache.
+     *
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of reads of cacheable properties that went to the
+     * driver.
+     *
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the fraction of cacheable reads answered from the cache.
+     *
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Drops every cached value.
+     *
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Drops the cached value of one property.
+     *
+     */
+    public void invalidate(String name) {
+        cache.remove(name);
+    }
+
+    @Override
+    public Object invoke(String member, Object... args) {
+        if ("Dispose".equals(member)) {
+            cache.clear();
+        }
+        return transport.invoke(member, args);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        long ttl = policy.getTtlNanos(name);
+        if (ttl == 0L) {
+            return transport.getProperty(name);
+        }
+        Entry entry = lookup(name, ttl);
+        return entry != null ? entry.value : store(name, transport.getProperty(name));
+    }
+
+    @Override
+    public boolean getPropertyAsBoolean(String name) {
+        long ttl = policy.getTtlNanos(name);
+        if (ttl == 0L) {
+            return transport.getPropertyAsBoolean(name);
+        }
+        Entry entry = lookup(name, ttl);
+        if (entry != null) {
+            return asBoolean(entry.value);
+        }
+        boolean value = transport.getPropertyAsBoolean(name);
+        store(name, value);
+        return value;
+    }
+
+    @Override
+    public double getPropertyAsDouble(String name) {
+        long ttl = policy.getTtlNanos(name);
+        if (ttl == 0L) {
+            return transport.getPropertyAsDouble(name);
+        }
+        Entry entry = lookup(name, ttl);
+        if (entry != null) {
+            return asDouble(entry.value);
+        }
+        double value = transport.getPropertyAsDouble(name);
+        store(name, value);
+        return value;
+    }
+
+    @Override
+    public int getPropertyAsInt(String name) {
+        long ttl = policy.getTtlNanos(name);
+        if (ttl == 0L) {
+            return transport.getPropertyAsInt(name);
+        }
+        Entry entry = lookup(name, ttl);
+        if (entry != null) {
+            return (int) asDouble(entry.value);
+        }
+        int value = transport.getPropertyAsInt(name);
+        store(name, value);
+        return value;
+    }
+
+    @Override
+    public String getPropertyAsString(String name) {
+        long ttl = policy.getTtlNanos(name);
+        if (ttl == 0L) {
+            return transport.getPropertyAsString(name);
+        }
+        Entry entry = lookup(name, ttl);
+        if (entry != null) {
+            return entry.value == null ? null : entry.value.toString();
+        }
+        String value = transport.getPropertyAsString(name);
+        store(name, value);
+        return value;
+    }
+
+    /**
+     * Answers cached values locally and reads the rest from the driver in
+     * one batch.
+     *
+     */
+    @Override
+    public void getPropertiesAsDouble(String[] names, double[] values) {
+        String[] missing = null;
+        int[] slots = null;
+        int count = 0;
+        for (int i = 0; i < names.length; i++) {
+            long ttl = policy.getTtlNanos(names[i]);
+            Entry entry = ttl == 0L ? null : lookup(names[i], ttl);
+            if (entry != null) {
+                values[i] = asDouble(entry.value);
+            } else {
+                if (missing == null) {
+                    missing = new String[names.length];
+                    slots = new int[names.length];
+                }
+                missing[count] = names[i];
+                slots[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        if (count == names.length) {
+            transport.getPropertiesAsDouble(names, values);
+            storeAll(names, values);
+            return;
+        }
+        String[] batch = new String[count];
+        System.arraycopy(missing, 0, batch, 0, count);
+        double[] read = new double[count];
+        transport.getPropertiesAsDouble(batch, read);
+        for (int i = 0; i < count; i++) {
+            values[slots[i]] = read[i];
+        }
+        storeAll(batch, read);
+    }
+
+    @Override
+    public void getPropertyAsImage(String name, ImageBuffer image) {
+        transport.getPropertyAsImage(name, image);
+    }
+
+    /**
+     * Writes the property, dropping its cached value both before and after
+     * the write, so that a read racing the write cannot leave the old value
+     * cached.
+     *
+     */
+    @Override
+    public void setProperty(String name, Object value) {
+        drop(name);
+        try {
+            transport.setProperty(name, value);
+        } finally {
+            drop(name);
+        }
+    }
+
+    @Override
+    public void resolve(Collection<String> members) {
+        transport.resolve(members);
+    }
+
+    @Override
+    public void release() {
+        cache.clear();
+        transport.release();
+    }
+
+    private void drop(String name) {
+        if ("Connected".equals(name)) {
+            cache.clear();
+        } else {
+            cache.remove(name);
+        }
+    }
+
+    private Entry lookup(String name, long ttl) {
+        Entry entry = cache.get(name);
+        if (entry != null && System.nanoTime() - entry.loaded < ttl) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    private Object store(String name, Object value) {
+        cache.put(name, new Entry(value, System.nanoTime()));
+        return value;
+    }
+
+    /**
+     * Stores the cacheable values of a batch read. Booleans arrive as 1.0 or
+     * 0.0 and are kept that way; asBoolean reads them back.
+     *
+     */
+    private void storeAll(String[] names, double[] values) {
+        for (int i = 0; i < names.length; i++) {
+            if (policy.getTtlNanos(names[i]) != 0L) {
+                store(names[i], values[i]);
+            }
+        }
+    }
+
+    private static double asDouble(Object value) {
+        return value instanceof Boolean ? ((Boolean) value ? 1.0 : 0.0) : ((Number) value).doubleValue();
+    }
+
+    private static boolean asBoolean(Object value) {
+        return value instanceof Boolean ? (Boolean) value : ((Number) value).doubleValue() != 0.0;
+    }
+
+    private static final class Entry {
+
+        final Object value;
+        final long loaded;
+
+        Entry(Object value, long loaded) {
+            this.value = value;
+            this.loaded = loaded;
+        }
+    }
+}
@@ -0,0 +1,818 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DeviceInterface.CameraStates;
+import ASCOM.DeviceInterface.GuideDirections;
+import ASCOM.DeviceInterface.SensorType;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implements a camera class to access any registered ASCOM Camera
+ */
+public class Camera extends AscomDriver {
+
+    /**
+     * Camera specific members.
+     */
+    private static final List<String> MEMBERS = Collections.unmodifiableList(Arrays.asList(
+            "AbortExposure", "PulseGuide", "StartExposure", "StopExposure",
+            "BinX", "BinY", "CameraState", "CameraXSize", "CameraYSize",
+            "CanAbortExposure", "CanAsymmetricBin", "CanGetCoolerPower",
+            "CanPulseGuide", "CanSetCCDTemperature", "CanStopExposure",
+            "CCDTemperature", "CoolerOn", "CoolerPower", "ElectronsPerADU",
+            "FullWellCapacity", "HasShutter", "HeatSinkTemperature",
+            "ImageReady", "IsPulseGuiding", "LastExposureDuration",
+            "LastExposureStartTime", "MaxADU", "MaxBinX", "MaxBinY", "NumX",
+            "NumY", "PixelSizeX", "PixelSizeY", "SetCCDTemperature",
+            "StartX", "StartY", "BayerOffsetX", "BayerOffsetY",
+            "CanFastReadout", "ExposureMax", "ExposureMin",
+            "ExposureResolution", "FastReadout", "Gain", "GainMax",
+            "GainMin", "Gains", "PercentCompleted", "ReadoutMode",
+            "ReadoutModes", "SensorName", "SensorType", "ImageArray",
+            "ImageArrayVariant"));
+
+    /**
+     * Creates an instance of the camera class.
+     *
+     */
+    public Camera(String _name) {
+        super(_name);
+    }
+
+    /**
+     * Creates an instance of the camera class that talks to the driver
+     * through the given transport.
+     *
+     */
+    public Camera(DriverTransport transport) {
+        super(transport);
+    }
+
+    @Override
+    protected Collection<String> getMemberNames() {
+        List<String> members = new ArrayList<>(super.getMemberNames());
+        members.addAll(MEMBERS);
+        return members;
+    }
+
+    /**
+     * The Choose() method returns the DriverID of the selected driver. Choose()
+     * allows you to optionally pass the DriverID of a "current" driver, and
+     * the corresponding camera type is pre-selected in the Chooser's list.
+     *
+     * See DriverTransports.choose: with the simulators the camera simulator
+     * is returned without asking.
+     *
+     */
+    public String Choose(String _theValue) {
+        return DriverTransports.choose("Camera", _theValue);
+    }
+
+    /**
+     * Aborts the current exposure, if any, and returns the camera to Idle
+     * state.
+     *
+     * Must throw exception if camera is not idle and abort is unsuccessful (or
+     * not possible, e.g. during download). Must throw exception if hardware or
+     * communications error occurs. Must NOT throw an exception if the camera
+     * is already idle.
+     *
+     */
+    public void AbortExposure() {
+        getTransport().invoke("AbortExposure");
+    }
+
+    /**
+     * Activates the Camera's mount control sytem to instruct the mount to move
+     * in a particular direction for a given period of time.
+     *
+     * This method returns only after the move has completed, unless the
+     * driver can pulse guide asynchronously, in which case IsPulseGuiding is
+     * True until the move completes.
+     *
+     */
+    public void PulseGuide(GuideDirections direction, int duration) {
+        getTransport().invoke("PulseGuide", direction.ordinal(), duration);
+    }
+
+    /**
+     * Starts an exposure. Use ImageReady to check when the exposure is
+     * complete.
+     *
+     * A dark frame or bias exposure may be shorter than the V2 ExposureMin
+     * value and for a bias frame can be zero. Check the value of Light and
+     * allow exposures down to 0 seconds if Light is False.
+     *
+     */
+    public void StartExposure(double duration, Boolean light) {
+        getTransport().invoke("StartExposure", duration, light);
+    }
+
+    /**
+     * Stops the current exposure, if any. If an exposure is in progress, the
+     * readout process is initiated. Ignored if readout is already in process.
+     *
+     */
+    public void StopExposure() {
+        getTransport().invoke("StopExposure");
+    }
+
+    /**
+     * Sets the binning factor for the X axis.
+     *
+     * Should default to 1 when the camera connection is established. Note:
+     * driver does not check for compatible subframe values when this value is
+     * set; rather they are checked upon StartExposure.
+     *
+     */
+    public void setBinX(int _theValue) {
+        getTransport().setProperty("BinX", (short) _theValue);
+    }
+
+    /**
+     * Gets the binning factor for the X axis.
+     *
+     * Should default to 1 when the camera connection is established. Note:
+     * driver does not check for compatible subframe values when this value is
+     * set; rather they are checked upon StartExposure.
+     *
+     */
+    public int getBinX() {
+        return getTransport().getPropertyAsInt("BinX");
+    }
+
+    /**
+     * Sets the binning factor for the Y axis.
+     *
+     * Should default to 1 when the camera connection is established. Note:
+     * driver does not check for compatible subframe values when this value is
+     * set; rather they are checked upon StartExposure.
+     *
+     */
+    public void setBinY(int _theValue) {
+        getTransport().setProperty("BinY", (short) _theValue);
+    }
+
+    /**
+     * Gets the binning factor for the Y axis.
+     *
+     * Should default to 1 when the camera connection is established. Note:
+     * driver does not check for compatible subframe values when this value is
+     * set; rather they are checked upon StartExposure.
+     *
+     */
+    public int getBinY() {
+        return getTransport().getPropertyAsInt("BinY");
+    }
+
+    /**
+     * Gets the current camera operational state.
+     *
+     * CAMERA_IDLE: at idle state, available to start exposure. CAMERA_WAITING:
+     * exposure started but waiting (for shutter, trigger, filter wheel, etc.).
+     * CAMERA_EXPOSING: exposure currently in progress. CAMERA_READING: CCD
+     * array is being read out (digitized). CAMERA_DOWNLOAD: downloading data to
+     * PC. CAMERA_ERROR: camera error condition serious enough to prevent
+     * further operations.
+     *
+     */
+    public CameraStates getCameraState() {
+        return CameraStates.fromValue(getTransport().getPropertyAsInt("CameraState"));
+    }
+
+    /**
+     * Gets the width of the CCD camera chip in unbinned pixels.
+     *
+     */
+    public int getCameraXSize() {
+        return getTransport().getPropertyAsInt("CameraXSize");
+    }
+
+    /**
+     * Gets the height of the CCD camera chip in unbinned pixels.
+     *
+     */
+    public int getCameraYSize() {
+        return getTransport().getPropertyAsInt("CameraYSize");
+    }
+
+    /**
+     * Gets True if the camera can abort exposures; False if not.
+     *
+     */
+    public Boolean getCanAbortExposure() {
+        return getTransport().getPropertyAsBoolean("CanAbortExposure");
+    }
+
+    /**
+     * Gets a flag showing whether this camera supports asymmetric binning.
+     *
+     * If True, the camera can have different binning on the X and Y axes, as
+     * determined by BinX and BinY. If False, the binning must be equal on the X
+     * and Y axes.
+     *
+     */
+    public Boolean getCanAsymmetricBin() {
+        return getTransport().getPropertyAsBoolean("CanAsymmetricBin");
+    }
+
+    /**
+     * Gets True if the camera's cooler power setting can be read.
+     *
+     */
+    public Boolean getCanGetCoolerPower() {
+        return getTransport().getPropertyAsBoolean("CanGetCoolerPower");
+    }
+
+    /**
+     * Gets a flag indicating whether this camera supports pulse guiding.
+     *
+     * Returns True if the camera can send autoguider pulses to the telescope
+     * mount; False if not. Note: this does not provide any indication of
+     * whether the autoguider cable is actually connected.
+     *
+     */
+    public Boolean getCanPulseGuide() {
+        return getTransport().getPropertyAsBoolean("CanPulseGuide");
+    }
+
+    /**
+     * Gets a flag indicating whether this camera supports setting the CCD
+     * temperature.
+     *
+     * If True, the camera's cooler setpoint can be adjusted. If False, the
+     * camera either uses open-loop cooling or does not have the ability to
+     * adjust temperature from software, and setting the SetCCDTemperature
+     * property has no effect.
+     *
+     */
+    public Boolean getCanSetCCDTemperature() {
+        return getTransport().getPropertyAsBoolean("CanSetCCDTemperature");
+    }
+
+    /**
+     * Gets a flag indicating whether this camera can stop an exposure that is
+     * in progress.
+     *
+     * Some cameras support StopExposure, which allows the exposure to be
+     * terminated before the exposure timer completes, but will still read out
+     * the image.
+     *
+     */
+    public Boolean getCanStopExposure() {
+        return getTransport().getPropertyAsBoolean("CanStopExposure");
+    }
+
+    /**
+     * Gets the current CCD temperature in degrees Celsius.
+     *
+     * Only valid if CanSetCCDTemperature is True.
+     *
+     */
+    public double getCCDTemperature() {
+        return getTransport().getPropertyAsDouble("CCDTemperature");
+    }
+
+    /**
+     * Sets the current cooler on/off state.
+     *
+     * Warning: turning the cooler off when the cooler is operating at high
+     * delta-T (typically >20C below ambient) may result in thermal shock.
+     * Repeated thermal shock may lead to damage to the sensor or cooler stack.
+     *
+     */
+    public void setCoolerOn(Boolean _theValue) {
+        getTransport().setProperty("CoolerOn", _theValue);
+    }
+
+    /**
+     * Gets the current cooler on/off state.
+     *
+     * Warning: turning the cooler off when the cooler is operating at high
+     * delta-T (typically >20C below ambient) may result in thermal shock.
+     * Repeated thermal shock may lead to damage to the sensor or cooler stack.
+     *
+     */
+    public Boolean getCoolerOn() {
+        return getTransport().getPropertyAsBoolean("CoolerOn");
+    }
+
+    /**
+     * Gets the present cooler power level, in percent.
+     *
+     * Returns zero if CoolerOn is False.
+     *
+     */
+    public double getCoolerPower() {
+        return getTransport().getPropertyAsDouble("CoolerPower");
+    }
+
+    /**
+     * Gets the gain of the camera in photoelectrons per A/D unit.
+     *
+     * Some cameras have multiple gain modes; these should be selected via the
+     * SetupDialog and thus are static during a session.
+     *
+     */
+    public double getElectronsPerADU() {
+        return getTransport().getPropertyAsDouble("ElectronsPerADU");
+    }
+
+    /**
+     * Gets the full well capacity of the camera in electrons, at the current
+     * camera settings (binning, SetupDialog settings, etc.)
+     *
+     */
+    public double getFullWellCapacity() {
+        return getTransport().getPropertyAsDouble("FullWellCapacity");
+    }
+
+    /**
+     * Gets a flag indicating whether this camera has a mechanical shutter.
+     *
+     * If there is no shutter, the StartExposure command will ignore the Light
+     * parameter.
+     *
+     */
+    public Boolean getHasShutter() {
+        return getTransport().getPropertyAsBoolean("HasShutter");
+    }
+
+    /**
+     * Gets the current heat sink temperature (called "ambient temperature" by
+     * some manufacturers) in degrees Celsius.
+     *
+     * Only valid if CanSetCCDTemperature is True.
+     *
+     */
+    public double getHeatSinkTemperature() {
+        return getTransport().getPropertyAsDouble("HeatSinkTemperature");
+    }
+
+    /**
+     * Gets a safearray of int of size NumX * NumY containing the pixel values
+     * from the last exposure.
+     *
+     * The value is indexed [x][y] (or [x][y][plane] for colour cameras). Each
+     * call allocates the whole image; use getImageArray(ImageBuffer) to
+     * download into a reusable primitive buffer instead.
+     *
+     */
+    public Object getImageArray() {
+        return getTransport().getProperty("ImageArray");
+    }
+
+    /**
+     * Downloads the last exposure into a reusable buffer.
+     *
+     * The pixels are copied into the buffer's primitive storage without
+     * boxing. A buffer created by ImageBuffer.ints(), shorts() or direct()
+     * only allocates when the frame grows, so the same buffer can be passed
+     * for every exposure.
+     *
+     * @return the buffer
+     */
+    public ImageBuffer getImageArray(ImageBuffer image) {
+        getTransport().getPropertyAsImage("ImageArray", image);
+        return image;
+    }
+
+    /**
+     * Downloads the last exposure into a caller supplied int[], row by row
+     * with X varying fastest.
+     *
+     * @return a buffer describing the frame
+     */
+    public ImageBuffer getImageArray(int[] pixels) {
+        return getImageArray(ImageBuffer.wrap(pixels));
+    }
+
+    /**
+     * Downloads the last exposure into a caller supplied short[] of unsigned
+     * 16 bit values, row by row with X varying fastest.
+     *
+     * @return a buffer describing the frame
+     */
+    public ImageBuffer getImageArray(short[] pixels) {
+        return getImageArray(ImageBuffer.wrap(pixels));
+    }
+
+    /**
+     * Downloads the last exposure into a caller supplied ByteBuffer as
+     * unsigned 16 bit values in the buffer's byte order, row by row with X
+     * varying fastest.
+     *
+     * @return a buffer describing the frame
+     */
+    public ImageBuffer getImageArray(ByteBuffer pixels) {
+        return getImageArray(ImageBuffer.wrap(pixels, 2));
+    }
+
+    /**
+     * Downloads the last exposure into a frame leased from a pool, waiting
+     * for a free frame if all are in use. Release the frame once the image
+     * has been processed.
+     *
+     * @return the leased frame
+     */
+    public FramePool.Frame getImageArray(FramePool pool) {
+        return pool.download(getTransport(), "ImageArray");
+    }
+
+    /**
+     * Gets a safearray of Variant of size NumX * NumY containing the pixel
+     * values from the last exposure.
+     *
+     * Every pixel is a separate object. This is intended for scripting
+     * clients; getImageArray(ImageBuffer) is far cheaper.
+     *
+     */
+    public Object getImageArrayVariant() {
+        return getTransport().getProperty("ImageArrayVariant");
+    }
+
+    /**
+     * Gets a flag indicating whether the image is ready to be downloaded from
+     * the camera.
+     *
+     * If False, no image is available and attempts to use the ImageArray method
+     * will produce an exception.
+     *
+     */
+    public Boolean getImageReady() {
+        return getTransport().getPropertyAsBoolean("ImageReady");
+    }
+
+    /**
+     * Gets a flag indicating whether the camera is currently in a PulseGuide
+     * operation.
+     *
+     * Required if the PulseGuide method (which is non-blocking) is implemented.
+     *
+     */
+    public Boolean getIsPulseGuiding() {
+        return getTransport().getPropertyAsBoolean("IsPulseGuiding");
+    }
+
+    /**
+     * Gets the actual exposure duration in seconds (i.e. shutter open time).
+     *
+     * This may differ from the exposure time requested due to shutter latency,
+     * camera timing precision, etc.
+     *
+     */
+    public double getLastExposureDuration() {
+        return getTransport().getPropertyAsDouble("LastExposureDuration");
+    }
+
+    /**
+     * Gets the actual exposure start in the FITS-standard CCYY-MM-
+     * DDThh:mm:ss[.sss...] format.
+     *
+     */
+    public String getLastExposureStartTime() {
+        return getTransport().getPropertyAsString("LastExposureStartTime");
+    }
+
+    /**
+     * Gets the maximum ADU value the camera can produce.
+     *
+     */
+    public int getMaxADU() {
+        return getTransport().getPropertyAsInt("MaxADU");
+    }
+
+    /**
+     * Gets the maximum allowed binning for the X camera axis.
+     *
+     * If CanAsymmetricBin is False, returns the maximum allowed binning factor.
+     * If True, returns the maximum allowed binning factor for the X axis.
+     *
+     */
+    public int getMaxBinX() {
+        return getTransport().getPropertyAsInt("MaxBinX");
+    }
+
+    /**
+     * Gets the maximum allowed binning for the Y camera axis.
+     *
+     * If CanAsymmetricBin is False, equals MaxBinX. If True, returns the
+     * maximum allowed binning factor for the Y axis.
+     *
+     */
+    public int getMaxBinY() {
+        return getTransport().getPropertyAsInt("MaxBinY");
+    }
+
+    /**
+     * Sets the subframe width.
+     *
+     * If binning is active, value is in binned pixels. No error check is
+     * performed when the value is set. Should default to CameraXSize.
+     *
+     */
+    public void setNumX(int _theValue) {
+        getTransport().setProperty("NumX", _theValue);
+    }
+
+    /**
+     * Gets the subframe width.
+     *
+     * If binning is active, value is in binned pixels. No error check is
+     * performed when the value is set. Should default to CameraXSize.
+     *
+     */
+    public int getNumX() {
+        return getTransport().getPropertyAsInt("NumX");
+    }
+
+    /**
+     * Sets the subframe height.
+     *
+     * If binning is active, value is in binned pixels. No error check is
+     * performed when the value is set. Should default to CameraYSize.
+     *
+     */
+    public void setNumY(int _theValue) {
+        getTransport().setProperty("NumY", _theValue);
+    }
+
+    /**
+     * Gets the subframe height.
+     *
+     * If binning is active, value is in binned pixels. No error check is
+     * performed when the value is set. Should default to CameraYSize.
+     *
+     */
+    public int getNumY() {
+        return getTransport().getPropertyAsInt("NumY");
+    }
+
+    /**
+     * Gets the width of the CCD chip pixels in microns.
+     *
+     */
+    public double getPixelSizeX() {
+        return getTransport().getPropertyAsDouble("PixelSizeX");
+    }
+
+    /**
+     * Gets the height of the CCD chip pixels in microns.
+     *
+     */
+    public double getPixelSizeY() {
+        return getTransport().getPropertyAsDouble("PixelSizeY");
+    }
+
+    /**
+     * Sets the camera cooler setpoint in degrees Celsius.
+     *
+     * The driver should throw an exception if an attempt is made to set outside
+     * the valid range for the camera.
+     *
+     */
+    public void setSetCCDTemperature(double _theValue) {
+        getTransport().setProperty("SetCCDTemperature", _theValue);
+    }
+
+    /**
+     * Gets the camera cooler setpoint in degrees Celsius.
+     *
+     * The driver should throw an exception if an attempt is made to set outside
+     * the valid range for the camera.
+     *
+     */
+    public double getSetCCDTemperature() {
+        return getTransport().getPropertyAsDouble("SetCCDTemperature");
+    }
+
+    /**
+     * Sets the subframe start position for the X axis (0 based).
+     *
+     * If binning is active, value is in binned pixels.
+     *
+     */
+    public void setStartX(int _theValue) {
+        getTransport().setProperty("StartX", _theValue);
+    }
+
+    /**
+     * Gets the subframe start position for the X axis (0 based).
+     *
+     * If binning is active, value is in binned pixels.
+     *
+     */
+    public int getStartX() {
+        return getTransport().getPropertyAsInt("StartX");
+    }
+
+    /**
+     * Sets the subframe start position for the Y axis (0 based).
+     *
+     * If binning is active, value is in binned pixels.
+     *
+     */
+    public void setStartY(int _theValue) {
+        getTransport().setProperty("StartY", _theValue);
+    }
+
+    /**
+     * Gets the subframe start position for the Y axis (0 based).
+     *
+     * If binning is active, value is in binned pixels.
+     *
+     */
+    public int getStartY() {
+        return getTransport().getPropertyAsInt("StartY");
+    }
+
+    /**
+     * Gets the X offset of the Bayer matrix, Interface Version 2 only.
+     *
+     * Value returned must be in the range 0 to M-1, where M is the width of the
+     * Bayer matrix. The offset is relative to the 0,0 pixel in the sensor
+     * array, and does not change to reflect subframe settings.
+     *
+     */
+    public int getBayerOffsetX() {
+        return getTransport().getPropertyAsInt("BayerOffsetX");
+    }
+
+    /**
+     * Gets the Y offset of the Bayer matrix, Interface Version 2 only.
+     *
+     * The offset is relative to the 0,0 pixel in the sensor array, and does not
+     * change to reflect subframe settings.
+     *
+     */
+    public int getBayerOffsetY() {
+        return getTransport().getPropertyAsInt("BayerOffsetY");
+    }
+
+    /**
+     * Gets True if the camera has a fast readout mode, Interface Version 2
+     * only.
+     *
+     */
+    public Boolean getCanFastReadout() {
+        return getTransport().getPropertyAsBoolean("CanFastReadout");
+    }
+
+    /**
+     * Gets the maximum exposure time supported by StartExposure, Interface
+     * Version 2 only.
+     *
+     */
+    public double getExposureMax() {
+        return getTransport().getPropertyAsDouble("ExposureMax");
+    }
+
+    /**
+     * Gets the minimum exposure time supported by StartExposure, Interface
+     * Version 2 only.
+     *
+     * This must be a non-zero number representing the shortest possible
+     * exposure time supported by the camera model. For bias frame acquisition
+     * an even shorter exposure may be possible.
+     *
+     */
+    public double getExposureMin() {
+        return getTransport().getPropertyAsDouble("ExposureMin");
+    }
+
+    /**
+     * Gets the smallest increment in exposure time supported by StartExposure,
+     * Interface Version 2 only.
+     *
+     */
+    public double getExposureResolution() {
+        return getTransport().getPropertyAsDouble("ExposureResolution");
+    }
+
+    /**
+     * Sets the fast readout mode, Interface Version 2 only.
+     *
+     * Must throw an exception if CanFastReadout returns False.
+     *
+     */
+    public void setFastReadout(Boolean _theValue) {
+        getTransport().setProperty("FastReadout", _theValue);
+    }
+
+    /**
+     * Gets the fast readout mode, Interface Version 2 only.
+     *
+     * Must throw an exception if CanFastReadout returns False.
+     *
+     */
+    public Boolean getFastReadout() {
+        return getTransport().getPropertyAsBoolean("FastReadout");
+    }
+
+    /**
+     * Sets the index into Gains of the selected camera gain, or the gain value
+     * between GainMin and GainMax, Interface Version 2 only.
+     *
+     */
+    public void setGain(int _theValue) {
+        getTransport().setProperty("Gain", (short) _theValue);
+    }
+
+    /**
+     * Gets the index into Gains of the selected camera gain, or the gain value
+     * between GainMin and GainMax, Interface Version 2 only.
+     *
+     */
+    public int getGain() {
+        return getTransport().getPropertyAsInt("Gain");
+    }
+
+    /**
+     * Gets the maximum value of Gain, Interface Version 2 only.
+     *
+     */
+    public int getGainMax() {
+        return getTransport().getPropertyAsInt("GainMax");
+    }
+
+    /**
+     * Gets the minimum value of Gain, Interface Version 2 only.
+     *
+     */
+    public int getGainMin() {
+        return getTransport().getPropertyAsInt("GainMin");
+    }
+
+    /**
+     * Gets the gains supported by the camera, Interface Version 2 only.
+     *
+     * This is often used to specify ISO settings for DSLR cameras.
+     *
+     */
+    public Object getGains() {
+        return getTransport().getProperty("Gains");
+    }
+
+    /**
+     * Gets the progress of the current operation in percent, Interface Version
+     * 2 only.
+     *
+     */
+    public int getPercentCompleted() {
+        return getTransport().getPropertyAsInt("PercentCompleted");
+    }
+
+    /**
+     * Sets the index into ReadoutModes of the selected readout mode, Interface
+     * Version 2 only.
+     *
+     * Defaults to 0 if not set. Throws an exception if the selected mode is not
+     * available.
+     *
+     */
+    public void setReadoutMode(int _theValue) {
+        getTransport().setProperty("ReadoutMode", (short) _theValue);
+    }
+
+    /**
+     * Gets the index into ReadoutModes of the selected readout mode, Interface
+     * Version 2 only.
+     *
+     * Defaults to 0 if not set. Throws an exception if the selected mode is not
+     * available.
+     *
+     */
+    public int getReadoutMode() {
+        return getTransport().getPropertyAsInt("ReadoutMode");
+    }
+
+    /**
+     * Gets the list of available readout modes, Interface Version 2 only.
+     *
+     */
+    public Object getReadoutModes() {
+        return getTransport().getProperty("ReadoutModes");
+    }
+
+    /**
+     * Gets the name (datasheet part number) of the sensor, e.g. ICX285AL,
+     * Interface Version 2 only.
+     *
+     */
+    public String getSensorName() {
+        return getTransport().getPropertyAsString("SensorName");
+    }
+
+    /**
+     * Gets the type of colour information returned by the camera sensor,
+     * Interface Version 2 only.
+     *
+     */
+    public SensorType getSensorType() {
+        return SensorType.fromValue(getTransport().getPropertyAsInt("SensorType"));
+    }
+}
@@ -0,0 +1,146 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Completes futures when a device condition becomes true, e.g. Slewing turning
+ * false. One poller thread serves every watched operation on every device, so
+ * coordinating many mounts does not need a thread per mount.
+ *
+ * Polling is adaptive: the first check happens after the expected duration of
+ * the operation (or the minimum interval when none is known), and the
+ * interval then grows by half on every unsuccessful check up to the maximum
+ * interval. Conditions are evaluated on the poller thread, so they should be
+ * a single quick driver read.
+ *
+ */
+public class DevicePoller {
+
+    private static final DevicePoller SHARED = new DevicePoller(50, 1000);
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     *
+     * @param minIntervalMillis shortest time between checks
+     * @param maxIntervalMillis longest time between checks
+     */
+    public DevicePoller(long minIntervalMillis, long maxIntervalMillis) {
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        this.maxIntervalNanos = TimeUnit.MILLISECONDS.toNanos(maxIntervalMillis);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("ascom4j-poller"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Gets the poller shared by all devices.
+     *
+     */
+    public static DevicePoller shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the number of operations currently being watched.
+     *
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Watches a condition.
+     *
+     * @param done condition that is true once the operation has finished
+     * @param expectedMillis expected duration of the operation, 0 if unknown
+     * @param timeoutMillis time after which the future fails, 0 for none
+     * @return a future completed when done returns true, or completed
+     * exceptionally when done throws or the timeout passes
+     */
+    public CompletableFuture<Void> watch(BooleanSupplier done, long expectedMillis, long timeoutMillis) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        long now = System.nanoTime();
+        long first = Math.max(minIntervalNanos, TimeUnit.MILLISECONDS.toNanos(expectedMillis));
+        active.incrementAndGet();
+        future.whenComplete((v, e) -> active.decrementAndGet());
+        new Check(done, future, timeoutMillis > 0, now + TimeUnit.MILLISECONDS.toNanos(timeoutMillis)).schedule(first);
+        return future;
+    }
+
+    /**
+     * Stops the poller. Pending futures are not completed.
+     *
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    static ThreadFactory daemonThreads(final String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * One watched condition, rescheduled until it is done.
+     *
+     */
+    private class Check implements Runnable {
+
+        private final BooleanSupplier done;
+        private final CompletableFuture<Void> future;
+        private final boolean timed;
+        private final long deadline;
+        private long interval = minIntervalNanos;
+
+        Check(BooleanSupplier done, CompletableFuture<Void> future, boolean timed, long deadline) {
+            this.done = done;
+            this.future = future;
+            this.timed = timed;
+            this.deadline = deadline;
+        }
+
+        void schedule(long delay) {
+            scheduler.schedule(this, delay, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                if (done.getAsBoolean()) {
+                    future.complete(null);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            long delay = interval;
+            if (timed) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    future.completeExceptionally(new DriverException("Operation timed out", DriverException.INVALID_OPERATION));
+                    return;
+                }
+                delay = Math.min(delay, left);
+            }
+            schedule(delay);
+            interval = Math.min(maxIntervalNanos, interval + interval / 2);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ASCOM.DriverAccess;
+
+/**
+ * Raw late-bound dispatch interface, the Java view of IDispatch. Members are
+ * addressed by DISPID; getIDOfName performs the GetIDsOfNames round trip.
+ *
+ * Failures are reported as ASCOM.DriverException.
+ *
+ */
+public interface DispatchTarget {
+
+    /**
+     * Invoke a method.
+     */
+    public static final int METHOD = 1;
+
+    /**
+     * Read a property.
+     */
+    public static final int GET = 2;
+
+    /**
+     * Write a property.
+     */
+    public static final int PUT = 4;
+
+    /**
+     * DriverException number of a member name the driver does not have
+     * (DISP_E_UNKNOWNNAME).
+     */
+    public static final int UNKNOWN_NAME = 0x80020006;
+
+    /**
+     * Resolves a member name to its DISPID.
+     *
+     * @param name member name
+     * @return the DISPID
+     * @throws ASCOM.DriverException numbered UNKNOWN_NAME if the driver has
+     * no such member
+     */
+    public int getIDOfName(String name);
+
+    /**
+     * Invokes a member by DISPID.
+     *
+     * @param name member name, used for diagnostics only
+     * @param dispId DISPID returned by getIDOfName
+     * @param flags METHOD, GET or PUT
+     * @param args arguments in declaration order; the new value for PUT
+     * @return the result, or null for void methods and property writes
+     */
+    public Object invoke(String name, int dispId, int flags, Object[] args);
+
+    /**
+     * Releases the underlying object.
+     *
+     */
+    public void release();
+}
@@ -0,0 +1,128 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transport over a DispatchTarget that remembers the DISPID of every member it
+ * has resolved, so each member name costs one GetIDsOfNames round trip per
+ * driver instead of one per call. The device class resolves its members when
+ * it connects; members first used later are resolved on first use.
+ *
+ * With caching disabled every call resolves the name again, which is how a
+ * plain late-bound call behaves.
+ *
+ */
+public class DispatchTransport implements DriverTransport {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final DispatchTarget target;
+    private final boolean cacheIds;
+    private final ConcurrentHashMap<String, Integer> dispIds = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param target dispatch interface of the driver
+     * @param cacheIds true to cache DISPIDs
+     */
+    public DispatchTransport(DispatchTarget target, boolean cacheIds) {
+        this.target = target;
+        this.cacheIds = cacheIds;
+    }
+
+    /**
+     * Gets the dispatch interface of the driver.
+     *
+     */
+    protected DispatchTarget getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the number of cached DISPIDs.
+     *
+     */
+    public int getCachedIdCount() {
+        return dispIds.size();
+    }
+
+    /**
+     * Returns the DISPID for a member, resolving it only if it is not cached.
+     *
+     */
+    protected int dispId(String name) {
+        if (!cacheIds) {
+            return target.getIDOfName(name);
+        }
+        Integer id = dispIds.get(name);
+        if (id == null) {
+            id = target.getIDOfName(name);
+            dispIds.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Resolves and caches the members. Names the driver does not have, such
+     * as V3 members of a V1 driver, are skipped and fail when first used.
+     *
+     */
+    @Override
+    public void resolve(Collection<String> members) {
+        if (cacheIds) {
+            for (String member : members) {
+                try {
+                    dispId(member);
+                } catch (DriverException e) {
+                    if (e.getNumber() != DispatchTarget.UNKNOWN_NAME) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Object invoke(String member, Object... args) {
+        return target.invoke(member, dispId(member), DispatchTarget.METHOD, args == null ? NO_ARGS : args);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return target.invoke(name, dispId(name), DispatchTarget.GET, NO_ARGS);
+    }
+
+    @Override
+    public boolean getPropertyAsBoolean(String name) {
+        return (Boolean) getProperty(name);
+    }
+
+    @Override
+    public double getPropertyAsDouble(String name) {
+        return ((Number) getProperty(name)).doubleValue();
+    }
+
+    @Override
+    public int getPropertyAsInt(String name) {
+        return ((Number) getProperty(name)).intValue();
+    }
+
+    @Override
+    public String getPropertyAsString(String name) {
+        Object value = getProperty(name);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public void setProperty(String name, Object value) {
+        target.invoke(name, dispId(name), DispatchTarget.PUT, new Object[]{value});
+    }
+
+    @Override
+    public void release() {
+        dispIds.clear();
+        target.release();
+    }
+}
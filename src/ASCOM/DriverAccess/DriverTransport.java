@@ -0,0 +1,117 @@
+package ASCOM.DriverAccess;
+
+import java.util.Collection;
+
+/**
+ * Late-bound access to a single driver instance. Device classes never talk to
+ * the driver directly; every property read, property write and method call is
+ * expressed in terms of the ASCOM member name and handed to a transport.
+ *
+ * JacobTransport reaches a registered COM driver through JACOB, the
+ * simulators in ASCOM.DriverAccess.Simulator answer in-process.
+ *
+ * Failures are reported as ASCOM.DriverException.
+ *
+ */
+public interface DriverTransport {
+
+    /**
+     * Calls the named driver method.
+     *
+     * @param member ASCOM method name, e.g. "SlewToCoordinatesAsync"
+     * @param args method arguments in declaration order
+     * @return the method result, or null for void methods
+     */
+    public Object invoke(String member, Object... args);
+
+    /**
+     * Reads the named driver property.
+     *
+     * @param name ASCOM property name, e.g. "RightAscension"
+     * @return the property value
+     */
+    public Object getProperty(String name);
+
+    /**
+     * Reads the named driver property as a boolean.
+     *
+     * @param name ASCOM property name
+     * @return the property value
+     */
+    public boolean getPropertyAsBoolean(String name);
+
+    /**
+     * Reads the named driver property as a double.
+     *
+     * @param name ASCOM property name
+     * @return the property value
+     */
+    public double getPropertyAsDouble(String name);
+
+    /**
+     * Reads the named driver property as an int.
+     *
+     * @param name ASCOM property name
+     * @return the property value
+     */
+    public int getPropertyAsInt(String name);
+
+    /**
+     * Reads the named driver property as a String.
+     *
+     * @param name ASCOM property name
+     * @return the property value
+     */
+    public String getPropertyAsString(String name);
+
+    /**
+     * Reads several numeric or boolean properties in one call. Booleans are
+     * returned as 1.0 and 0.0. Transports that can read a consistent set of
+     * values in one pass override this; the default reads them one by one.
+     *
+     * @param names ASCOM property names
+     * @param values receives the value of each property, in the same order
+     */
+    public default void getPropertiesAsDouble(String[] names, double[] values) {
+        for (int i = 0; i < names.length; i++) {
+            Object value = getProperty(names[i]);
+            values[i] = value instanceof Boolean ? ((Boolean) value ? 1.0 : 0.0) : ((Number) value).doubleValue();
+        }
+    }
+
+    /**
+     * Reads an image valued property (ImageArray, ImageArrayVariant) into a
+     * reusable buffer. Transports that can copy pixels straight into the
+     * buffer override this; the default reads the property and copies it.
+     *
+     * @param name ASCOM property name
+     * @param image receives the image
+     */
+    public default void getPropertyAsImage(String name, ImageBuffer image) {
+        image.fill(getProperty(name));
+    }
+
+    /**
+     * Writes the named driver property.
+     *
+     * @param name ASCOM property name
+     * @param value new value
+     */
+    public void setProperty(String name, Object value);
+
+    /**
+     * Resolves member names ahead of use. Called by the device class when it
+     * connects, so transports that bind member names late can do the lookups
+     * once instead of on every call. The default does nothing.
+     *
+     * @param members ASCOM member names used by the device class
+     */
+    public default void resolve(Collection<String> members) {
+    }
+
+    /**
+     * Releases the driver. The transport must not be used afterwards.
+     *
+     */
+    public void release();
+}
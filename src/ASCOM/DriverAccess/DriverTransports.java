@@ -0,0 +1,107 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverAccess.Simulator.CameraSimulator;
+import ASCOM.DriverAccess.Simulator.DomeSimulator;
+import ASCOM.DriverAccess.Simulator.FilterWheelSimulator;
+import ASCOM.DriverAccess.Simulator.FocuserSimulator;
+import ASCOM.DriverAccess.Simulator.RotatorSimulator;
+import ASCOM.DriverAccess.Simulator.SwitchSimulator;
+import ASCOM.DriverAccess.Simulator.TelescopeSimulator;
+import ASCOM.DriverAccess.Simulator.VideoSimulator;
+import ASCOM.DriverException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chooses the transport for a driver ProgID.
+ *
+ * The system property ascom4j.transport selects the backend: "jacob" always
+ * uses COM, "simulator" always uses the in-process simulators. When the
+ * property is not set, COM is used on Windows and the simulators everywhere
+ * else. Only the standard simulator ProgIDs (ASCOM.Simulator.Telescope,
+ * ASCOM.Simulator.Camera, ...) have an in-process implementation.
+ *
+ */
+public final class DriverTransports {
+
+    /**
+     * System property selecting the transport backend.
+     */
+    public static final String TRANSPORT_PROPERTY = "ascom4j.transport";
+
+    private static final Map<String, Class<? extends DriverTransport>> SIMULATORS = new HashMap<>();
+
+    static {
+        SIMULATORS.put("ASCOM.Simulator.Telescope", TelescopeSimulator.class);
+        SIMULATORS.put("ASCOM.Simulator.Camera", CameraSimulator.class);
+        SIMULATORS.put("ASCOM.Simulator.Focuser", FocuserSimulator.class);
+        SIMULATORS.put("ASCOM.Simulator.Dome", DomeSimulator.class);
+        SIMULATORS.put("ASCOM.Simulator.FilterWheel", FilterWheelSimulator.class);
+        SIMULATORS.put("ASCOM.Simulator.Rotator", RotatorSimulator.class);
+        SIMULATORS.put("ASCOM.Simulator.Switch", SwitchSimulator.class);
+        SIMULATORS.put("ASCOM.Simulator.Video", VideoSimulator.class);
+    }
+
+    private DriverTransports() {
+    }
+
+    /**
+     * Opens a transport to the driver registered under the given ProgID.
+     *
+     * @param progId driver ProgID
+     * @return a new transport
+     */
+    public static DriverTransport open(String progId) {
+        if (useSimulators()) {
+            Class<? extends DriverTransport> simulator = SIMULATORS.get(progId);
+            if (simulator == null) {
+                throw new DriverException("No in-process simulator for " + progId);
+            }
+            try {
+                return simulator.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new DriverException("Unable to create simulator for " + progId, e);
+            }
+        }
+        return new JacobTransport(progId);
+    }
+
+    /**
+     * Lets the user pick a driver of the given device type and returns its
+     * ProgID. Through COM this shows the ASCOM Chooser with the current
+     * driver pre-selected; the result is empty if the user cancels. The
+     * simulators offer one driver per device type, which is returned
+     * without asking.
+     *
+     * @param deviceType ASCOM device type, e.g. "Telescope"
+     * @param current ProgID to pre-select, or empty
+     * @return the chosen ProgID, or an empty string
+     */
+    public static String choose(String deviceType, String current) {
+        if (useSimulators()) {
+            String progId = "ASCOM.Simulator." + deviceType;
+            if (!SIMULATORS.containsKey(progId)) {
+                throw new DriverException("No in-process simulator for " + deviceType + " devices");
+            }
+            return progId;
+        }
+        return JacobTransport.choose(deviceType, current);
+    }
+
+    /**
+     * Returns true if drivers are opened through COM.
+     *
+     */
+    static boolean usesCom() {
+        return !useSimulators();
+    }
+
+    private static boolean useSimulators() {
+        String transport = System.getProperty(TRANSPORT_PROPERTY);
+        if (transport == null) {
+            return !System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+        }
+        return "simulator".equalsIgnoreCase(transport);
+    }
+}
@@ -0,0 +1,168 @@
+package ASCOM.DriverAccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of exposures for ExposureSequencer.
+ *
+ * <pre>
+ * ExposurePlan plan = new ExposurePlan()
+ *         .repeat(ExposurePlan.fullFrame(30.0, true, 1), 20)
+ *         .add(ExposurePlan.fullFrame(30.0, false, 1));
+ * </pre>
+ *
+ */
+public class ExposurePlan {
+
+    private final List<Exposure> exposures = new ArrayList<>();
+
+    /**
+     * Appends an exposure.
+     *
+     * @return this plan
+     */
+    public ExposurePlan add(Exposure exposure) {
+        exposures.add(exposure);
+        return this;
+    }
+
+    /**
+     * Appends an exposure several times.
+     *
+     * @return this plan
+     */
+    public ExposurePlan repeat(Exposure exposure, int count) {
+        for (int i = 0; i < count; i++) {
+            exposures.add(exposure);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the exposures in order.
+     *
+     */
+    public List<Exposure> getExposures() {
+        return Collections.unmodifiableList(exposures);
+    }
+
+    /**
+     * Gets the number of exposures.
+     *
+     */
+    public int size() {
+        return exposures.size();
+    }
+
+    /**
+     * Gets the sum of the exposure durations (seconds).
+     *
+     */
+    public double getTotalDuration() {
+        double total = 0.0;
+        for (Exposure exposure : exposures) {
+            total += exposure.getDuration();
+        }
+        return total;
+    }
+
+    /**
+     * Creates a full frame exposure; the subframe is the whole sensor at the
+     * given binning.
+     *
+     */
+    public static Exposure fullFrame(double duration, boolean light, int bin) {
+        return new Exposure(duration, light, bin, bin, 0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a subframe exposure.
+     *
+     */
+    public static Exposure subFrame(double duration, boolean light, int bin, int startX, int startY, int numX, int numY) {
+        return new Exposure(duration, light, bin, bin, startX, startY, numX, numY);
+    }
+
+    /**
+     * One exposure: duration, frame type, binning and subframe. A numX or
+     * numY of 0 means the whole sensor width or height at the binning.
+     *
+     */
+    public static final class Exposure {
+
+        private final double duration;
+        private final boolean light;
+        private final int binX;
+        private final int binY;
+        private final int startX;
+        private final int startY;
+        private final int numX;
+        private final int numY;
+
+        /**
+         *
+         * @param duration exposure time (seconds)
+         * @param light true for a light frame, false for a dark or bias
+         * @param binX binning along X
+         * @param binY binning along Y
+         * @param startX subframe start in binned pixels
+         * @param startY subframe start in binned pixels
+         * @param numX subframe width in binned pixels, 0 for the full width
+         * @param numY subframe height in binned pixels, 0 for the full height
+         */
+        public Exposure(double duration, boolean light, int binX, int binY, int startX, int startY, int numX, int numY) {
+            if (duration < 0.0 || binX < 1 || binY < 1 || startX < 0 || startY < 0 || numX < 0 || numY < 0) {
+                throw new IllegalArgumentException("Invalid exposure " + duration + "s bin " + binX + "x" + binY
+                        + " subframe " + startX + "," + startY + " " + numX + "x" + numY);
+            }
+            this.duration = duration;
+            this.light = light;
+            this.binX = binX;
+            this.binY = binY;
+            this.startX = startX;
+            this.startY = startY;
+            this.numX = numX;
+            this.numY = numY;
+        }
+
+        public double getDuration() {
+            return duration;
+        }
+
+        public boolean isLight() {
+            return light;
+        }
+
+        public int getBinX() {
+            return binX;
+        }
+
+        public int getBinY() {
+            return binY;
+        }
+
+        public int getStartX() {
+            return startX;
+        }
+
+        public int getStartY() {
+            return startY;
+        }
+
+        public int getNumX() {
+            return numX;
+        }
+
+        public int getNumY() {
+            return numY;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %.3fs bin %dx%d subframe %d,%d %dx%d", light ? "light" : "dark",
+                    duration, binX, binY, startX, startY, numX, numY);
+        }
+    }
+}
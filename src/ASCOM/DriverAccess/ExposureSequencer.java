@@ -0,0 +1,302 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an ExposurePlan on a camera with frame processing taken off the
+ * acquisition path. The moment frame N has been downloaded into a pooled
+ * frame, frame N+1 is configured and started; frame N is handed to the
+ * FrameHandler on a separate processing thread, so processing runs while the
+ * camera integrates the next frame.
+ *
+ * <pre>
+ * FramePool pool = FramePool.forCamera(camera, 3);
+ * SequenceReport report = new ExposureSequencer(camera, pool,
+ *         (index, exposure, image) -> writeFits(index, image)).run(plan);
+ * System.out.println(report);
+ * </pre>
+ *
+ * ASCOM cameras discard the last image when a new exposure starts, so the
+ * download of frame N always precedes StartExposure for frame N+1; what
+ * overlaps the next integration is everything downstream of the download.
+ * Binning and subframe properties are only written when they differ from
+ * the previous exposure, which keeps the gap between frames to the download
+ * and one StartExposure call.
+ *
+ * The pool bounds how far processing may fall behind: when every frame is
+ * still being processed the sequencer waits for one before starting the next
+ * exposure, and that wait is reported as the STALL stage.
+ *
+ */
+public class ExposureSequencer {
+
+    /**
+     * Stages timed for every frame.
+     */
+    public enum Stage {
+        /* Writing binning and subframe properties */
+        SETUP,
+        /* Waiting for a free pooled frame */
+        STALL,
+        /* The StartExposure call */
+        START,
+        /* From StartExposure returning to the end of the requested duration */
+        INTEGRATE,
+        /* From the end of the requested duration to ImageReady */
+        READOUT,
+        /* The ImageArray download */
+        DOWNLOAD,
+        /* From the download to the handler being called */
+        QUEUE,
+        /* The FrameHandler call */
+        PROCESS
+    }
+
+    /**
+     * Receives downloaded frames, in order, on the processing thread.
+     *
+     */
+    public interface FrameHandler {
+
+        /**
+         * Processes one frame. The image is only valid during the call; it
+         * goes back to the pool when the call returns.
+         *
+         * @param index position of the exposure in the plan
+         * @param exposure the exposure that produced the image
+         * @param image the downloaded pixels
+         */
+        void frameReady(int index, ExposurePlan.Exposure exposure, ImageBuffer image);
+    }
+
+    private static final long DEFAULT_POLL_MILLIS = 5;
+
+    private final Camera camera;
+    private final FramePool pool;
+    private final FrameHandler handler;
+    private final long pollNanos;
+
+    private volatile boolean aborted;
+    private volatile Throwable handlerFailure;
+
+    /**
+     * Creates a sequencer that polls ImageReady every 5 ms once the
+     * requested duration has passed.
+     *
+     */
+    public ExposureSequencer(Camera camera, FramePool pool, FrameHandler handler) {
+        this(camera, pool, handler, DEFAULT_POLL_MILLIS);
+    }
+
+    /**
+     *
+     * @param camera connected camera
+     * @param pool frames to download into; its capacity limits how many
+     * frames may wait for or be in processing
+     * @param handler receives every frame
+     * @param pollMillis time between ImageReady checks during readout
+     */
+    public ExposureSequencer(Camera camera, FramePool pool, FrameHandler handler, long pollMillis) {
+        if (pollMillis < 1) {
+            throw new IllegalArgumentException("Poll interval must be at least 1 ms");
+        }
+        this.camera = camera;
+        this.pool = pool;
+        this.handler = handler;
+        this.pollNanos = TimeUnit.MILLISECONDS.toNanos(pollMillis);
+    }
+
+    /**
+     * Runs the plan and returns once every frame has been processed.
+     *
+     * A driver error stops the sequence and is rethrown after the frames
+     * already downloaded have been processed. An exception from the handler
+     * stops the sequence as well and is rethrown as a DriverException.
+     *
+     * @return timing of every frame; after abort() it covers the frames
+     * completed before the abort
+     */
+    public SequenceReport run(ExposurePlan plan) {
+        List<ExposurePlan.Exposure> exposures = plan.getExposures();
+        long[][] nanos = new long[exposures.size()][Stage.values().length];
+        aborted = false;
+        handlerFailure = null;
+        ExecutorService processing = Executors.newSingleThreadExecutor(DevicePoller.daemonThreads("ascom4j-sequencer"));
+        DriverTransport transport = camera.getTransport();
+        long begin = System.nanoTime();
+        int started = 0;
+        try {
+            ExposurePlan.Exposure previous = null;
+            for (; started < exposures.size() && !stopped(); started++) {
+                ExposurePlan.Exposure exposure = exposures.get(started);
+                long[] times = nanos[started];
+                long t0 = System.nanoTime();
+                configure(exposure, previous);
+                previous = exposure;
+                long t1 = System.nanoTime();
+                FramePool.Frame frame = acquire();
+                long t2 = System.nanoTime();
+                try {
+                    camera.StartExposure(exposure.getDuration(), exposure.isLight());
+                    long t3 = System.nanoTime();
+                    long end = t3 + (long) (exposure.getDuration() * 1e9);
+                    if (!awaitImage(end)) {
+                        camera.AbortExposure();
+                        frame.release();
+                        break;
+                    }
+                    long t5 = System.nanoTime();
+                    transport.getPropertyAsImage("ImageArray", frame.getImage());
+                    long t6 = System.nanoTime();
+                    times[Stage.SETUP.ordinal()] = t1 - t0;
+                    times[Stage.STALL.ordinal()] = t2 - t1;
+                    times[Stage.START.ordinal()] = t3 - t2;
+                    times[Stage.INTEGRATE.ordinal()] = Math.min(end, t5) - t3;
+                    times[Stage.READOUT.ordinal()] = Math.max(0L, t5 - end);
+                    times[Stage.DOWNLOAD.ordinal()] = t6 - t5;
+                } catch (RuntimeException | Error e) {
+                    frame.release();
+                    throw e;
+                }
+                processing.execute(new Process(started, exposure, frame, times));
+            }
+        } finally {
+            processing.shutdown();
+            awaitTermination(processing);
+        }
+        long wall = System.nanoTime() - begin;
+        if (handlerFailure != null) {
+            throw new DriverException("Frame handler failed", handlerFailure);
+        }
+        return new SequenceReport(exposures, nanos, started, wall);
+    }
+
+    /**
+     * Stops a running sequence. The exposure in progress is aborted and run
+     * returns once the frames already downloaded have been processed.
+     *
+     */
+    public void abort() {
+        aborted = true;
+    }
+
+    private boolean stopped() {
+        return aborted || handlerFailure != null;
+    }
+
+    /**
+     * Writes the binning and subframe of an exposure, skipping values equal
+     * to those of the previous exposure.
+     *
+     */
+    private void configure(ExposurePlan.Exposure exposure, ExposurePlan.Exposure previous) {
+        boolean binChanged = previous == null || previous.getBinX() != exposure.getBinX()
+                || previous.getBinY() != exposure.getBinY();
+        if (binChanged) {
+            camera.setBinX(exposure.getBinX());
+            camera.setBinY(exposure.getBinY());
+        }
+        if (binChanged || previous.getStartX() != exposure.getStartX()) {
+            camera.setStartX(exposure.getStartX());
+        }
+        if (binChanged || previous.getStartY() != exposure.getStartY()) {
+            camera.setStartY(exposure.getStartY());
+        }
+        if (binChanged || previous.getNumX() != exposure.getNumX()) {
+            camera.setNumX(exposure.getNumX() > 0 ? exposure.getNumX()
+                    : camera.getCameraXSize() / exposure.getBinX() - exposure.getStartX());
+        }
+        if (binChanged || previous.getNumY() != exposure.getNumY()) {
+            camera.setNumY(exposure.getNumY() > 0 ? exposure.getNumY()
+                    : camera.getCameraYSize() / exposure.getBinY() - exposure.getStartY());
+        }
+    }
+
+    private FramePool.Frame acquire() {
+        try {
+            return pool.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverException("Interrupted while waiting for a free frame", e);
+        }
+    }
+
+    /**
+     * Sleeps until the requested duration is over, then polls ImageReady.
+     *
+     * @return false if the sequence was aborted first
+     */
+    private boolean awaitImage(long end) {
+        try {
+            for (long left = end - System.nanoTime(); left > 0 && !stopped(); left = end - System.nanoTime()) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(left, TimeUnit.MILLISECONDS.toNanos(100)));
+            }
+            while (!stopped()) {
+                if (camera.getImageReady()) {
+                    return true;
+                }
+                TimeUnit.NANOSECONDS.sleep(pollNanos);
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverException("Interrupted while waiting for the image", e);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService processing) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (processing.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processing of one frame; releases the frame when done.
+     *
+     */
+    private final class Process implements Runnable {
+
+        private final int index;
+        private final ExposurePlan.Exposure exposure;
+        private final FramePool.Frame frame;
+        private final long[] times;
+        private final long queued = System.nanoTime();
+
+        Process(int index, ExposurePlan.Exposure exposure, FramePool.Frame frame, long[] times) {
+            this.index = index;
+            this.exposure = exposure;
+            this.frame = frame;
+            this.times = times;
+        }
+
+        @Override
+        public void run() {
+            long begin = System.nanoTime();
+            try {
+                if (handlerFailure == null) {
+                    handler.frameReady(index, exposure, frame.getImage());
+                }
+            } catch (RuntimeException | Error e) {
+                handlerFailure = e;
+            } finally {
+                frame.release();
+                times[Stage.QUEUE.ordinal()] = begin - queued;
+                times[Stage.PROCESS.ordinal()] = System.nanoTime() - begin;
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Header cards for FitsWriter. The writer adds the mandatory SIMPLE, BITPIX,
+ * NAXISn, BZERO and BSCALE cards itself; this class holds everything after
+ * them, in the order they were added.
+ *
+ * forCamera() reads the exposure cards from a camera and addPointing() adds
+ * the pointing of a telescope. Properties a driver does not implement are
+ * left out. Read them before the next exposure starts: LastExposureDuration
+ * and the like describe the last exposure started, so a frame handler of an
+ * ExposureSequencer should use forExposure() instead.
+ *
+ */
+public class FitsHeader {
+
+    /**
+     * Bytes per header card.
+     */
+    static final int CARD = 80;
+
+    /**
+     * Bytes per FITS block.
+     */
+    static final int BLOCK = 2880;
+
+    private final List<String> cards = new ArrayList<>();
+
+    /**
+     * Creates a header with the exposure cards of a camera: EXPTIME, DATE-OBS,
+     * XBINNING, YBINNING, XORGSUBF, YORGSUBF, CCD-TEMP, XPIXSZ, YPIXSZ and
+     * INSTRUME.
+     *
+     */
+    public static FitsHeader forCamera(final Camera camera) {
+        FitsHeader header = new FitsHeader();
+        header.tryAdd("EXPTIME", () -> camera.getLastExposureDuration(), "Exposure time (seconds)");
+        header.tryAdd("DATE-OBS", () -> camera.getLastExposureStartTime(), "Exposure start time (UTC)");
+        header.tryAdd("XBINNING", () -> camera.getBinX(), "Binning factor in X");
+        header.tryAdd("YBINNING", () -> camera.getBinY(), "Binning factor in Y");
+        header.tryAdd("XORGSUBF", () -> camera.getStartX(), "Subframe X origin (binned pixels)");
+        header.tryAdd("YORGSUBF", () -> camera.getStartY(), "Subframe Y origin (binned pixels)");
+        header.tryAdd("CCD-TEMP", () -> camera.getCCDTemperature(), "Sensor temperature (C)");
+        header.tryAdd("XPIXSZ", () -> camera.getPixelSizeX() * camera.getBinX(), "Pixel width incl. binning (um)");
+        header.tryAdd("YPIXSZ", () -> camera.getPixelSizeY() * camera.getBinY(), "Pixel height incl. binning (um)");
+        header.tryAdd("INSTRUME", () -> camera.getName(), "Camera");
+        return header;
+    }
+
+    /**
+     * Creates a header describing an exposure of a plan: EXPTIME, IMAGETYP,
+     * XBINNING, YBINNING, XORGSUBF and YORGSUBF.
+     *
+     */
+    public static FitsHeader forExposure(ExposurePlan.Exposure exposure) {
+        return new FitsHeader()
+                .add("EXPTIME", exposure.getDuration(), "Exposure time (seconds)")
+                .add("IMAGETYP", exposure.isLight() ? "Light Frame" : "Dark Frame", "Frame type")
+                .add("XBINNING", exposure.getBinX(), "Binning factor in X")
+                .add("YBINNING", exposure.getBinY(), "Binning factor in Y")
+                .add("XORGSUBF", exposure.getStartX(), "Subframe X origin (binned pixels)")
+                .add("YORGSUBF", exposure.getStartY(), "Subframe Y origin (binned pixels)");
+    }
+
+    /**
+     * Adds the telescope pointing: RA and DEC in degrees, OBJCTRA and
+     * OBJCTDEC as sexagesimal strings, SITELAT, SITELONG and TELESCOP.
+     *
+     * @return this header
+     */
+    public FitsHeader addPointing(final Telescope telescope) {
+        try {
+            double ra = telescope.getRightAscension();
+            double dec = telescope.getDeclination();
+            add("RA", ra * 15.0, "Right ascension (degrees)");
+            add("DEC", dec, "Declination (degrees)");
+            add("OBJCTRA", sexagesimal(ra, false, 2), "Right ascension (hours)");
+            add("OBJCTDEC", sexagesimal(dec, true, 1), "Declination (degrees)");
+        } catch (DriverException e) {
+            // pointing not available
+        }
+        tryAdd("SITELAT", () -> telescope.getSiteLatitude(), "Site latitude (degrees)");
+        tryAdd("SITELONG", () -> telescope.getSiteLongitude(), "Site longitude (degrees, east positive)");
+        tryAdd("TELESCOP", () -> telescope.getName(), "Telescope");
+        return this;
+    }
+
+    /**
+     * Adds or replaces a string card.
+     *
+     * @return this header
+     */
+    public FitsHeader add(String keyword, String value, String comment) {
+        StringBuilder quoted = new StringBuilder("'");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                throw new IllegalArgumentException("FITS strings must be printable ASCII: " + value);
+            }
+            quoted.append(c == '\'' ? "''" : String.valueOf(c));
+        }
+        while (quoted.length() < 9) {
+            quoted.append(' ');
+        }
+        quoted.append('\'');
+        return put(keyword, String.format("%-20s", quoted), comment);
+    }
+
+    /**
+     * Adds or replaces an integer card.
+     *
+     * @return this header
+     */
+    public FitsHeader add(String keyword, long value, String comment) {
+        return put(keyword, String.format("%20d", value), comment);
+    }
+
+    /**
+     * Adds or replaces a real card.
+     *
+     * @return this header
+     */
+    public FitsHeader add(String keyword, double value, String comment) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(keyword + " is not a finite number: " + value);
+        }
+        return put(keyword, String.format(Locale.ROOT, "%20s", Double.toString(value)), comment);
+    }
+
+    /**
+     * Adds or replaces a logical card.
+     *
+     * @return this header
+     */
+    public FitsHeader add(String keyword, boolean value, String comment) {
+        return put(keyword, String.format("%20s", value ? "T" : "F"), comment);
+    }
+
+    /**
+     * Adds a COMMENT card.
+     *
+     * @return this header
+     */
+    public FitsHeader comment(String text) {
+        cards.add(fit(String.format("COMMENT %s", text)));
+        return this;
+    }
+
+    /**
+     * Gets the number of cards.
+     *
+     */
+    public int size() {
+        return cards.size();
+    }
+
+    /**
+     * Gets the cards as 80 character strings.
+     *
+     */
+    public List<String> getCards() {
+        return new ArrayList<>(cards);
+    }
+
+    /**
+     * Encodes the header with the mandatory cards in front and the END card
+     * behind, padded with spaces to whole blocks.
+     *
+     */
+    byte[] encode(List<String> mandatory) {
+        int count = mandatory.size() + cards.size() + 1;
+        int blocks = (count * CARD + BLOCK - 1) / BLOCK;
+        StringBuilder s = new StringBuilder(blocks * BLOCK);
+        for (String card : mandatory) {
+            s.append(card);
+        }
+        for (String card : cards) {
+            s.append(card);
+        }
+        s.append(fit("END"));
+        while (s.length() < blocks * BLOCK) {
+            s.append(' ');
+        }
+        return s.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Formats a value card.
+     *
+     */
+    static String card(String keyword, String value, String comment) {
+        String card = String.format("%-8s= %s", keyword, value);
+        if (comment != null && !comment.isEmpty()) {
+            card += " / " + comment;
+        }
+        return fit(card);
+    }
+
+    private FitsHeader put(String keyword, String value, String comment) {
+        if (keyword.length() > 8 || !keyword.matches("[A-Z0-9_-]+")) {
+            throw new IllegalArgumentException("Invalid FITS keyword " + keyword);
+        }
+        if (value.length() > 70) {
+            throw new IllegalArgumentException(keyword + " value is too long");
+        }
+        String card = card(keyword, value, comment);
+        String prefix = String.format("%-8s=", keyword);
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i).startsWith(prefix)) {
+                cards.set(i, card);
+                return this;
+            }
+        }
+        cards.add(card);
+        return this;
+    }
+
+    private void tryAdd(String keyword, Supplier<Object> value, String comment) {
+        Object v;
+        try {
+            v = value.get();
+        } catch (DriverException e) {
+            return;
+        }
+        if (v instanceof String) {
+            add(keyword, (String) v, comment);
+        } else if (v instanceof Double || v instanceof Float) {
+            double d = ((Number) v).doubleValue();
+            if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                add(keyword, d, comment);
+            }
+        } else if (v instanceof Number) {
+            add(keyword, ((Number) v).longValue(), comment);
+        } else if (v instanceof Boolean) {
+            add(keyword, (Boolean) v, comment);
+        }
+    }
+
+    /**
+     * Pads or truncates a card to 80 characters.
+     *
+     */
+    private static String fit(String card) {
+        if (card.length() >= CARD) {
+            return card.substring(0, CARD);
+        }
+        StringBuilder s = new StringBuilder(CARD).append(card);
+        while (s.length() < CARD) {
+            s.append(' ');
+        }
+        return s.toString();
+    }
+
+    /**
+     * Formats hours or degrees as "HH MM SS.ss" or "+DD MM SS.s".
+     *
+     */
+    private static String sexagesimal(double value, boolean signed, int decimals) {
+        double scale = Math.pow(10, decimals);
+        long units = Math.round(Math.abs(value) * 3600.0 * scale);
+        long whole = units / (long) (3600 * scale);
+        long minutes = units / (long) (60 * scale) % 60;
+        double seconds = units % (long) (60 * scale) / scale;
+        String sign = signed ? (value < 0 ? "-" : "+") : "";
+        return String.format(Locale.ROOT, "%s%02d %02d %0" + (3 + decimals) + "." + decimals + "f",
+                sign, whole, minutes, seconds);
+    }
+}
@@ -0,0 +1,283 @@
+package ASCOM.DriverAccess;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes Camera frames as FITS files through memory-mapped output. The
+ * pixels go from the ImageBuffer straight into the mapped file, converted to
+ * big endian on the way, so no frame sized copy is made on the heap.
+ *
+ * Frames with 2 bytes per pixel are written as BITPIX 16 and frames with 4
+ * bytes per pixel as BITPIX 32, both as unsigned values with the standard
+ * BZERO offset. Multi-plane images get NAXIS3.
+ *
+ * write() returns once the file contents are in the page cache, so the
+ * frame can be reused straight away. Forcing the pages to disk happens on a
+ * flusher thread and completes the returned future; close() waits for every
+ * outstanding flush.
+ *
+ * <pre>
+ * try (FitsWriter writer = new FitsWriter()) {
+ *     new ExposureSequencer(camera, pool, (index, exposure, image) -&gt;
+ *             writer.writeUnchecked(dir.resolve("frame" + index + ".fits"),
+ *                     FitsHeader.forExposure(exposure), image)).run(plan);
+ * }
+ * </pre>
+ *
+ */
+public class FitsWriter implements AutoCloseable {
+
+    private static final int UNSIGNED_SHORT = 0x8000;
+    private static final int UNSIGNED_INT = 0x80000000;
+
+    private final ExecutorService flusher;
+    private final boolean flush;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong files = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+
+    /**
+     * Creates a writer that forces every file to disk on its own flusher
+     * thread.
+     *
+     */
+    public FitsWriter() {
+        this(true);
+    }
+
+    /**
+     *
+     * @param flush true to force every file to disk on the flusher thread,
+     * false to leave write back to the operating system
+     */
+    public FitsWriter(boolean flush) {
+        this.flush = flush;
+        this.flusher = Executors.newSingleThreadExecutor(DevicePoller.daemonThreads("ascom4j-fits"));
+    }
+
+    /**
+     * Writes an image as a FITS file, replacing any existing file.
+     *
+     * @param path file to write
+     * @param header cards to write after the mandatory ones; may be null
+     * @param image the pixels
+     * @return a future completing with the path once the file is on disk
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public CompletableFuture<Path> write(Path path, FitsHeader header, ImageBuffer image) throws IOException {
+        long begin = System.nanoTime();
+        int bpp = image.getBytesPerPixel();
+        List<String> mandatory = mandatoryCards(image);
+        byte[] head = (header != null ? header : new FitsHeader()).encode(mandatory);
+        long data = (long) image.getPixelCount() * bpp;
+        long size = head.length + (data + FitsHeader.BLOCK - 1) / FitsHeader.BLOCK * FitsHeader.BLOCK;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Image too large for one mapping: " + size + " bytes");
+        }
+        final MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        mapped.put(head);
+        ByteBuffer pixels = mapped.slice().order(ByteOrder.BIG_ENDIAN);
+        if (bpp == 2) {
+            copyShorts(image, pixels.asShortBuffer());
+        } else {
+            copyInts(image, pixels.asIntBuffer());
+        }
+        files.incrementAndGet();
+        bytes.addAndGet(size);
+        writeNanos.addAndGet(System.nanoTime() - begin);
+        if (!flush) {
+            return CompletableFuture.completedFuture(path);
+        }
+        pending.incrementAndGet();
+        final CompletableFuture<Path> done = new CompletableFuture<>();
+        try {
+            flusher.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    mapped.force();
+                    flushNanos.addAndGet(System.nanoTime() - start);
+                    done.complete(path);
+                } catch (RuntimeException | Error e) {
+                    done.completeExceptionally(e);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("FitsWriter is closed", e);
+        }
+        return done;
+    }
+
+    /**
+     * Same as write, with an IOException rethrown as an
+     * UncheckedIOException, for use in an ExposureSequencer frame handler.
+     *
+     */
+    public CompletableFuture<Path> writeUnchecked(Path path, FitsHeader header, ImageBuffer image) {
+        try {
+            return write(path, header, image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the number of files whose flush has not completed.
+     *
+     */
+    public int getPendingFlushes() {
+        return pending.get();
+    }
+
+    /**
+     * Gets the number of files written.
+     *
+     */
+    public long getFileCount() {
+        return files.get();
+    }
+
+    /**
+     * Gets the number of bytes written, headers and padding included.
+     *
+     */
+    public long getBytesWritten() {
+        return bytes.get();
+    }
+
+    /**
+     * Gets the total time spent in write(), i.e. on the caller's thread.
+     *
+     */
+    public long getWriteNanos() {
+        return writeNanos.get();
+    }
+
+    /**
+     * Gets the total time spent forcing files to disk.
+     *
+     */
+    public long getFlushNanos() {
+        return flushNanos.get();
+    }
+
+    /**
+     * Waits for outstanding flushes and stops the flusher thread.
+     *
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (flusher.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<String> mandatoryCards(ImageBuffer image) {
+        int bpp = image.getBytesPerPixel();
+        if (bpp != 2 && bpp != 4) {
+            throw new IllegalArgumentException("Unsupported pixel size " + bpp);
+        }
+        boolean cube = image.getPlanes() > 1;
+        List<String> cards = new ArrayList<>();
+        cards.add(FitsHeader.card("SIMPLE", String.format("%20s", "T"), "Standard FITS"));
+        cards.add(FitsHeader.card("BITPIX", String.format("%20d", bpp * 8), "Bits per pixel"));
+        cards.add(FitsHeader.card("NAXIS", String.format("%20d", cube ? 3 : 2), "Number of axes"));
+        cards.add(FitsHeader.card("NAXIS1", String.format("%20d", image.getWidth()), "Width"));
+        cards.add(FitsHeader.card("NAXIS2", String.format("%20d", image.getHeight()), "Height"));
+        if (cube) {
+            cards.add(FitsHeader.card("NAXIS3", String.format("%20d", image.getPlanes()), "Planes"));
+        }
+        cards.add(FitsHeader.card("BZERO", String.format("%20d", bpp == 2 ? 32768L : 2147483648L),
+                "Offset for unsigned values"));
+        cards.add(FitsHeader.card("BSCALE", String.format("%20d", 1), "Default scaling"));
+        return cards;
+    }
+
+    /**
+     * Copies 16 bit pixels, flipping the sign bit to apply BZERO.
+     *
+     */
+    private static void copyShorts(ImageBuffer image, ShortBuffer out) {
+        int count = image.getPixelCount();
+        short[] shorts = image.getShorts();
+        if (shorts != null) {
+            for (int i = 0; i < count; i++) {
+                out.put(i, (short) (shorts[i] ^ UNSIGNED_SHORT));
+            }
+            return;
+        }
+        ByteBuffer source = image.getByteBuffer();
+        if (source != null) {
+            ShortBuffer in = ((ByteBuffer) source.duplicate().clear()).order(source.order()).asShortBuffer();
+            for (int i = 0; i < count; i++) {
+                out.put(i, (short) (in.get(i) ^ UNSIGNED_SHORT));
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            out.put(i, (short) (image.get(i) ^ UNSIGNED_SHORT));
+        }
+    }
+
+    /**
+     * Copies 32 bit pixels, flipping the sign bit to apply BZERO.
+     *
+     */
+    private static void copyInts(ImageBuffer image, IntBuffer out) {
+        int count = image.getPixelCount();
+        int[] ints = image.getInts();
+        if (ints != null) {
+            for (int i = 0; i < count; i++) {
+                out.put(i, ints[i] ^ UNSIGNED_INT);
+            }
+            return;
+        }
+        ByteBuffer source = image.getByteBuffer();
+        if (source != null) {
+            IntBuffer in = ((ByteBuffer) source.duplicate().clear()).order(source.order()).asIntBuffer();
+            for (int i = 0; i < count; i++) {
+                out.put(i, in.get(i) ^ UNSIGNED_INT);
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            out.put(i, image.get(i) ^ UNSIGNED_INT);
+        }
+    }
+}
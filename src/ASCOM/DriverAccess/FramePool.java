@@ -0,0 +1,315 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of off-heap frame buffers for Camera and Video downloads. All
+ * frames are allocated up front as direct ByteBuffers, so continuous imaging
+ * creates no image garbage: a frame is leased, filled by
+ * Camera.getImageArray(FramePool) or Video.getLastVideoFrame(FramePool),
+ * processed, and released back to the pool.
+ *
+ * <pre>
+ * FramePool pool = FramePool.forVideo(video, 4);
+ * while (running) {
+ *     try (FramePool.Frame frame = video.getLastVideoFrame(pool)) {
+ *         process(frame.getImage());
+ *     }
+ * }
+ * </pre>
+ *
+ * Leasing and releasing allocate nothing. When every frame is leased,
+ * acquire() waits for a release and tryAcquire() returns null; both cases
+ * are counted, together with the current and peak number of leased frames.
+ *
+ */
+public class FramePool {
+
+    private final int width;
+    private final int height;
+    private final int bytesPerPixel;
+    private final Frame[] free;
+    private int available;
+
+    private long acquisitions;
+    private long waits;
+    private long misses;
+    private int peakLeased;
+
+    /**
+     * Creates a pool of frames in native byte order.
+     *
+     * @param frames number of frames
+     * @param width frame width in pixels
+     * @param height frame height in pixels
+     * @param bytesPerPixel 2 for pixels of up to 16 bits, 4 for wider pixels
+     */
+    public FramePool(int frames, int width, int height, int bytesPerPixel) {
+        this(frames, width, height, bytesPerPixel, ByteOrder.nativeOrder());
+    }
+
+    /**
+     *
+     * @param frames number of frames
+     * @param width frame width in pixels
+     * @param height frame height in pixels
+     * @param bytesPerPixel 2 for pixels of up to 16 bits, 4 for wider pixels
+     * @param order byte order of the pixels
+     */
+    public FramePool(int frames, int width, int height, int bytesPerPixel, ByteOrder order) {
+        if (frames < 1) {
+            throw new IllegalArgumentException("A frame pool needs at least one frame");
+        }
+        this.width = width;
+        this.height = height;
+        this.bytesPerPixel = bytesPerPixel;
+        this.free = new Frame[frames];
+        long bytes = (long) width * height * bytesPerPixel;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Frame too large " + width + "x" + height);
+        }
+        for (int i = 0; i < frames; i++) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) bytes).order(order);
+            free[i] = new Frame(ImageBuffer.wrap(buffer, bytesPerPixel));
+        }
+        this.available = frames;
+    }
+
+    /**
+     * Creates a pool sized for full frames of a connected camera. Cameras
+     * with a MaxADU above 65535 get 32 bit pixels.
+     *
+     */
+    public static FramePool forCamera(Camera camera, int frames) {
+        return new FramePool(frames, camera.getCameraXSize(), camera.getCameraYSize(),
+                camera.getMaxADU() > 0xFFFF ? 4 : 2);
+    }
+
+    /**
+     * Creates a pool sized for the frames of a connected video camera.
+     * Cameras with a BitDepth above 16 get 32 bit pixels.
+     *
+     */
+    public static FramePool forVideo(Video video, int frames) {
+        return new FramePool(frames, video.getWidth(), video.getHeight(),
+                video.getBitDepth() > 16 ? 4 : 2);
+    }
+
+    /**
+     * Leases a frame, waiting until one is released if all are in use.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized Frame acquire() throws InterruptedException {
+        if (available == 0) {
+            waits++;
+            while (available == 0) {
+                wait();
+            }
+        }
+        return lease();
+    }
+
+    /**
+     * Leases a frame, waiting at most the given time.
+     *
+     * @return the frame, or null if none was released in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized Frame acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        if (available == 0) {
+            waits++;
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            for (long left = unit.toNanos(timeout); available == 0; left = deadline - System.nanoTime()) {
+                if (left <= 0) {
+                    misses++;
+                    return null;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+        }
+        return lease();
+    }
+
+    /**
+     * Leases a frame if one is free.
+     *
+     * @return the frame, or null if all frames are leased
+     */
+    public synchronized Frame tryAcquire() {
+        if (available == 0) {
+            misses++;
+            return null;
+        }
+        return lease();
+    }
+
+    /**
+     * Gets the number of frames in the pool.
+     *
+     */
+    public int getCapacity() {
+        return free.length;
+    }
+
+    /**
+     * Gets the number of frames that are not leased.
+     *
+     */
+    public synchronized int getAvailable() {
+        return available;
+    }
+
+    /**
+     * Gets the number of frames currently leased.
+     *
+     */
+    public synchronized int getLeased() {
+        return free.length - available;
+    }
+
+    /**
+     * Gets the largest number of frames leased at the same time.
+     *
+     */
+    public synchronized int getPeakLeased() {
+        return peakLeased;
+    }
+
+    /**
+     * Gets the number of successful leases.
+     *
+     */
+    public synchronized long getAcquireCount() {
+        return acquisitions;
+    }
+
+    /**
+     * Gets the number of leases that had to wait for a release.
+     *
+     */
+    public synchronized long getWaitCount() {
+        return waits;
+    }
+
+    /**
+     * Gets the number of lease attempts that found no frame (tryAcquire) or
+     * timed out.
+     *
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the frame width in pixels.
+     *
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the frame height in pixels.
+     *
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the bytes per pixel of the frames.
+     *
+     */
+    public int getBytesPerPixel() {
+        return bytesPerPixel;
+    }
+
+    /**
+     * Leases a frame and reads an image valued property into it. The frame
+     * is returned to the pool if the read fails.
+     *
+     */
+    Frame download(DriverTransport transport, String name) {
+        Frame frame;
+        try {
+            frame = acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverException("Interrupted while waiting for a free frame", e);
+        }
+        try {
+            transport.getPropertyAsImage(name, frame.image);
+            return frame;
+        } catch (RuntimeException | Error e) {
+            frame.release();
+            throw e;
+        }
+    }
+
+    private Frame lease() {
+        Frame frame = free[--available];
+        free[available] = null;
+        frame.leased = true;
+        acquisitions++;
+        peakLeased = Math.max(peakLeased, free.length - available);
+        return frame;
+    }
+
+    private synchronized void release(Frame frame) {
+        if (!frame.leased) {
+            throw new IllegalStateException("Frame has already been released");
+        }
+        frame.leased = false;
+        free[available++] = frame;
+        notify();
+    }
+
+    /**
+     * One pooled frame. Release it, or close it in a try-with-resources
+     * block, once the image has been processed; the frame must not be used
+     * afterwards.
+     *
+     */
+    public final class Frame implements AutoCloseable {
+
+        private final ImageBuffer image;
+        private boolean leased;
+
+        private Frame(ImageBuffer image) {
+            this.image = image;
+        }
+
+        /**
+         * Gets the image held by the frame.
+         *
+         */
+        public ImageBuffer getImage() {
+            return image;
+        }
+
+        /**
+         * Gets the pool the frame belongs to.
+         *
+         */
+        public FramePool getPool() {
+            return FramePool.this;
+        }
+
+        /**
+         * Returns the frame to the pool.
+         *
+         */
+        public void release() {
+            FramePool.this.release(this);
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
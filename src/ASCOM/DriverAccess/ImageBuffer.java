@@ -0,0 +1,390 @@
+package ASCOM.DriverAccess;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reusable primitive pixel store for Camera images. A transport fills the
+ * buffer in place, so downloading a frame creates no boxed values and, once
+ * the buffer is large enough, no garbage at all.
+ *
+ * Pixels are stored row by row with X varying fastest: pixel (x, y) of plane
+ * p is at index (p * height + y) * width + x. The storage is one of
+ * <ul>
+ * <li>an int[] holding the values as read,</li>
+ * <li>a short[] holding unsigned 16 bit values,</li>
+ * <li>a ByteBuffer holding 2 or 4 bytes per pixel in the buffer's byte
+ * order.</li>
+ * </ul>
+ *
+ * Buffers created by ints(), shorts() and direct() grow as needed. Buffers
+ * created by wrap() use the caller's storage and fail if a frame does not
+ * fit.
+ *
+ * <pre>
+ * ImageBuffer frame = ImageBuffer.shorts();
+ * while (imaging) {
+ *     ...
+ *     camera.getImageArray(frame);
+ *     process(frame.getShorts(), frame.getWidth(), frame.getHeight());
+ * }
+ * </pre>
+ *
+ */
+public final class ImageBuffer {
+
+    private static final int INT = 0;
+    private static final int SHORT = 1;
+    private static final int BYTES = 2;
+
+    private final int kind;
+    private final boolean growable;
+    private final int bytesPerPixel;
+    private final ByteOrder order;
+    private int[] ints;
+    private short[] shorts;
+    private ByteBuffer bytes;
+    private int width;
+    private int height;
+    private int planes;
+    private int allocations;
+
+    private ImageBuffer(int kind, boolean growable, int bytesPerPixel, ByteOrder order) {
+        this.kind = kind;
+        this.growable = growable;
+        this.bytesPerPixel = bytesPerPixel;
+        this.order = order;
+    }
+
+    /**
+     * Creates a growable buffer backed by an int[].
+     *
+     */
+    public static ImageBuffer ints() {
+        ImageBuffer buffer = new ImageBuffer(INT, true, 4, null);
+        buffer.ints = new int[0];
+        return buffer;
+    }
+
+    /**
+     * Creates a growable buffer backed by a short[] of unsigned 16 bit values.
+     *
+     */
+    public static ImageBuffer shorts() {
+        ImageBuffer buffer = new ImageBuffer(SHORT, true, 2, null);
+        buffer.shorts = new short[0];
+        return buffer;
+    }
+
+    /**
+     * Creates a growable buffer backed by a direct ByteBuffer.
+     *
+     * @param bytesPerPixel 2 for unsigned 16 bit pixels, 4 for 32 bit pixels
+     * @param order byte order of the pixels
+     */
+    public static ImageBuffer direct(int bytesPerPixel, ByteOrder order) {
+        ImageBuffer buffer = new ImageBuffer(BYTES, true, checkBytesPerPixel(bytesPerPixel), order);
+        buffer.bytes = ByteBuffer.allocateDirect(0).order(order);
+        return buffer;
+    }
+
+    /**
+     * Wraps a caller supplied int[].
+     *
+     */
+    public static ImageBuffer wrap(int[] pixels) {
+        ImageBuffer buffer = new ImageBuffer(INT, false, 4, null);
+        buffer.ints = pixels;
+        return buffer;
+    }
+
+    /**
+     * Wraps a caller supplied short[]; pixels are stored as unsigned 16 bit
+     * values.
+     *
+     */
+    public static ImageBuffer wrap(short[] pixels) {
+        ImageBuffer buffer = new ImageBuffer(SHORT, false, 2, null);
+        buffer.shorts = pixels;
+        return buffer;
+    }
+
+    /**
+     * Wraps a caller supplied ByteBuffer, normally a direct one. Pixels are
+     * written from position 0 in the buffer's byte order; the position and
+     * limit are not changed.
+     *
+     * @param bytesPerPixel 2 for unsigned 16 bit pixels, 4 for 32 bit pixels
+     */
+    public static ImageBuffer wrap(ByteBuffer pixels, int bytesPerPixel) {
+        ImageBuffer buffer = new ImageBuffer(BYTES, false, checkBytesPerPixel(bytesPerPixel), pixels.order());
+        buffer.bytes = pixels;
+        return buffer;
+    }
+
+    /**
+     * Sets the dimensions of the next frame, growing the storage if needed.
+     * Called by transports before they fill the buffer.
+     *
+     */
+    public void resize(int width, int height, int planes) {
+        if (width < 0 || height < 0 || planes < 1) {
+            throw new IllegalArgumentException("Invalid image size " + width + "x" + height + "x" + planes);
+        }
+        long count = (long) width * height * planes;
+        if (count * bytesPerPixel > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Image too large " + width + "x" + height + "x" + planes);
+        }
+        if (count > capacity()) {
+            if (!growable) {
+                throw new IllegalArgumentException("Image of " + count + " pixels does not fit in a buffer of " + capacity());
+            }
+            allocate((int) count);
+        }
+        this.width = width;
+        this.height = height;
+        this.planes = planes;
+    }
+
+    /**
+     * Stores one pixel.
+     *
+     */
+    public void put(int index, int value) {
+        switch (kind) {
+            case INT:
+                ints[index] = value;
+                break;
+            case SHORT:
+                shorts[index] = (short) value;
+                break;
+            default:
+                if (bytesPerPixel == 2) {
+                    bytes.putShort(index << 1, (short) value);
+                } else {
+                    bytes.putInt(index << 2, value);
+                }
+        }
+    }
+
+    /**
+     * Stores consecutive pixels.
+     *
+     */
+    public void put(int index, int[] values, int offset, int length) {
+        switch (kind) {
+            case INT:
+                System.arraycopy(values, offset, ints, index, length);
+                break;
+            case SHORT:
+                for (int i = 0; i < length; i++) {
+                    shorts[index + i] = (short) values[offset + i];
+                }
+                break;
+            default:
+                if (bytesPerPixel == 2) {
+                    for (int i = 0; i < length; i++) {
+                        bytes.putShort((index + i) << 1, (short) values[offset + i]);
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        bytes.putInt((index + i) << 2, values[offset + i]);
+                    }
+                }
+        }
+    }
+
+    /**
+     * Gets one pixel; 16 bit pixels are returned unsigned.
+     *
+     */
+    public int get(int index) {
+        switch (kind) {
+            case INT:
+                return ints[index];
+            case SHORT:
+                return shorts[index] & 0xFFFF;
+            default:
+                return bytesPerPixel == 2 ? bytes.getShort(index << 1) & 0xFFFF : bytes.getInt(index << 2);
+        }
+    }
+
+    /**
+     * Gets pixel (x, y) of the first plane.
+     *
+     */
+    public int get(int x, int y) {
+        return get(y * width + x);
+    }
+
+    /**
+     * Copies an ImageArray or ImageArrayVariant value as returned by
+     * DriverTransport.getProperty into the buffer. Accepts int[][],
+     * int[][][], short[][] and arrays of Number indexed [x][y] or
+     * [x][y][plane].
+     *
+     */
+    public void fill(Object image) {
+        if (image instanceof int[][]) {
+            int[][] columns = (int[][]) image;
+            resize(columns.length, columns.length == 0 ? 0 : columns[0].length, 1);
+            for (int x = 0; x < width; x++) {
+                int[] column = columns[x];
+                for (int y = 0; y < height; y++) {
+                    put(y * width + x, column[y]);
+                }
+            }
+        } else if (image instanceof short[][]) {
+            short[][] columns = (short[][]) image;
+            resize(columns.length, columns.length == 0 ? 0 : columns[0].length, 1);
+            for (int x = 0; x < width; x++) {
+                short[] column = columns[x];
+                for (int y = 0; y < height; y++) {
+                    put(y * width + x, column[y] & 0xFFFF);
+                }
+            }
+        } else if (image instanceof int[][][]) {
+            int[][][] cube = (int[][][]) image;
+            int h = cube.length == 0 ? 0 : cube[0].length;
+            resize(cube.length, h, h == 0 ? 1 : cube[0][0].length);
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    for (int p = 0; p < planes; p++) {
+                        put((p * height + y) * width + x, cube[x][y][p]);
+                    }
+                }
+            }
+        } else if (image instanceof Object[][]) {
+            Object[][] columns = (Object[][]) image;
+            int h = columns.length == 0 ? 0 : columns[0].length;
+            boolean cube = h > 0 && columns[0][0] instanceof Object[];
+            resize(columns.length, h, cube ? ((Object[]) columns[0][0]).length : 1);
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    if (cube) {
+                        Object[] pixel = (Object[]) columns[x][y];
+                        for (int p = 0; p < planes; p++) {
+                            put((p * height + y) * width + x, ((Number) pixel[p]).intValue());
+                        }
+                    } else {
+                        put(y * width + x, ((Number) columns[x][y]).intValue());
+                    }
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Not an image array: " + (image == null ? null : image.getClass().getName()));
+        }
+    }
+
+    /**
+     * Gets the frame width in pixels.
+     *
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the frame height in pixels.
+     *
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of colour planes, 1 for monochrome frames.
+     *
+     */
+    public int getPlanes() {
+        return planes;
+    }
+
+    /**
+     * Gets the number of pixels in the current frame.
+     *
+     */
+    public int getPixelCount() {
+        return width * height * planes;
+    }
+
+    /**
+     * Gets the number of pixels the storage can hold without growing.
+     *
+     */
+    public int capacity() {
+        switch (kind) {
+            case INT:
+                return ints.length;
+            case SHORT:
+                return shorts.length;
+            default:
+                return bytes.capacity() / bytesPerPixel;
+        }
+    }
+
+    /**
+     * Gets the bytes used per pixel by the storage.
+     *
+     */
+    public int getBytesPerPixel() {
+        return bytesPerPixel;
+    }
+
+    /**
+     * Gets how many times the storage has been (re)allocated. Stays constant
+     * while frames of the same size are downloaded into the buffer.
+     *
+     */
+    public int getAllocationCount() {
+        return allocations;
+    }
+
+    /**
+     * Gets the int[] storage, or null if the buffer is not int backed. The
+     * array may be larger than the frame.
+     *
+     */
+    public int[] getInts() {
+        return ints;
+    }
+
+    /**
+     * Gets the short[] storage, or null if the buffer is not short backed.
+     * The array may be larger than the frame.
+     *
+     */
+    public short[] getShorts() {
+        return shorts;
+    }
+
+    /**
+     * Gets the ByteBuffer storage, or null if the buffer is not byte backed.
+     * The buffer may be larger than the frame.
+     *
+     */
+    public ByteBuffer getByteBuffer() {
+        return bytes;
+    }
+
+    private void allocate(int count) {
+        switch (kind) {
+            case INT:
+                ints = new int[count];
+                break;
+            case SHORT:
+                shorts = new short[count];
+                break;
+            default:
+                bytes = ByteBuffer.allocateDirect(count * bytesPerPixel).order(order);
+        }
+        allocations++;
+    }
+
+    private static int checkBytesPerPixel(int bytesPerPixel) {
+        if (bytesPerPixel != 2 && bytesPerPixel != 4) {
+            throw new IllegalArgumentException("Bytes per pixel must be 2 or 4, not " + bytesPerPixel);
+        }
+        return bytesPerPixel;
+    }
+}
@@ -0,0 +1,340 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverException;
+import com.jacob.activeX.ActiveXComponent;
+import com.jacob.com.ComException;
+import com.jacob.com.Dispatch;
+import com.jacob.com.SafeArray;
+import com.jacob.com.Variant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport that reaches a registered COM driver through JACOB. Members are
+ * called by DISPID, with the DISPIDs cached per driver.
+ *
+ * Numeric reads are coerced with Variant.changeType, so enum, short and DATE
+ * valued properties can be read through the int and double accessors. COM
+ * failures are rethrown as ASCOM.DriverException carrying the HRESULT
+ * reported by the driver.
+ *
+ */
+public class JacobTransport extends DispatchTransport {
+
+    private final ComTarget com;
+
+    /**
+     * Creates the COM object registered under the given ProgID.
+     *
+     * @param progId driver ProgID, e.g. "ASCOM.Simulator.Telescope"
+     */
+    public JacobTransport(String progId) {
+        this(progId, true);
+    }
+
+    /**
+     * Creates the COM object registered under the given ProgID.
+     *
+     * @param progId driver ProgID
+     * @param cacheIds true to cache DISPIDs
+     */
+    public JacobTransport(String progId, boolean cacheIds) {
+        this(new ComTarget(progId), cacheIds);
+    }
+
+    private JacobTransport(ComTarget com, boolean cacheIds) {
+        super(com, cacheIds);
+        this.com = com;
+    }
+
+    /**
+     * Gets the ProgID this transport was created for.
+     *
+     */
+    public String getProgId() {
+        return com.progId;
+    }
+
+    /**
+     * Gets the underlying COM object.
+     *
+     */
+    protected ActiveXComponent getComponent() {
+        return com.component;
+    }
+
+    @Override
+    public double getPropertyAsDouble(String name) {
+        int dispId = dispId(name);
+        try {
+            return Dispatch.get(com.component, dispId).changeType(Variant.VariantDouble).getDouble();
+        } catch (ComException e) {
+            throw com.failure(name, e);
+        }
+    }
+
+    @Override
+    public int getPropertyAsInt(String name) {
+        int dispId = dispId(name);
+        try {
+            return Dispatch.get(com.component, dispId).changeType(Variant.VariantInt).getInt();
+        } catch (ComException e) {
+            throw com.failure(name, e);
+        }
+    }
+
+    /**
+     * Copies a SAFEARRAY image into the buffer without boxing pixels. For a
+     * property holding an IVideoFrame (LastVideoFrame) the frame's
+     * ImageArray is read.
+     *
+     */
+    @Override
+    public void getPropertyAsImage(String name, ImageBuffer image) {
+        int dispId = dispId(name);
+        Variant value = null;
+        try {
+            value = Dispatch.get(com.component, dispId);
+            if (value.getvt() == Variant.VariantDispatch) {
+                // IVideoFrame: the pixels are its ImageArray property
+                Variant frame = value;
+                value = Dispatch.get(frame.toDispatch(), "ImageArray");
+                frame.safeRelease();
+            }
+            copy(value.toSafeArray(false), image);
+        } catch (ComException e) {
+            throw com.failure(name, e);
+        } finally {
+            if (value != null) {
+                value.safeRelease();
+            }
+        }
+    }
+
+    /**
+     * Shows the ASCOM Chooser for a device type.
+     *
+     */
+    static String choose(String deviceType, String current) {
+        ActiveXComponent chooser;
+        try {
+            chooser = new ActiveXComponent("ASCOM.Utilities.Chooser");
+        } catch (ComException e) {
+            throw new DriverException("Unable to create ASCOM.Utilities.Chooser", e.getHResult(), e);
+        }
+        try {
+            chooser.setProperty("DeviceType", deviceType);
+            String progId = chooser.invoke("Choose", current == null ? "" : current).getString();
+            return progId == null ? "" : progId;
+        } catch (ComException e) {
+            throw new DriverException("ASCOM.Utilities.Chooser.Choose: " + e.getMessage(), e.getHResult(), e);
+        } finally {
+            chooser.safeRelease();
+        }
+    }
+
+    /**
+     * Copies a SAFEARRAY image into the buffer. The SAFEARRAY is dimensioned
+     * [x, y] or [x, y, plane] and stored with x varying fastest, which is the
+     * buffer layout. JACOB has no bulk read of part of a multi-dimensional
+     * SAFEARRAY, and reading pixel by pixel costs a native call each, so the
+     * pixels are read with one toIntArray, toShortArray or, for any other
+     * element type (ImageArrayVariant), toDoubleArray call, which allocates
+     * an array per frame, and copied into the buffer in memory order.
+     *
+     */
+    private static void copy(SafeArray array, ImageBuffer image) {
+        int dims = array.getNumDim();
+        int width = extent(array, 1);
+        int height = dims > 1 ? extent(array, 2) : 1;
+        int planes = dims > 2 ? extent(array, 3) : 1;
+        image.resize(width, height, planes);
+        switch (array.getvt()) {
+            case Variant.VariantInt:
+                int[] ints = array.toIntArray();
+                image.put(0, ints, 0, ints.length);
+                break;
+            case Variant.VariantShort:
+                short[] shorts = array.toShortArray();
+                for (int i = 0; i < shorts.length; i++) {
+                    image.put(i, shorts[i]);
+                }
+                break;
+            default:
+                double[] doubles = array.toDoubleArray();
+                for (int i = 0; i < doubles.length; i++) {
+                    image.put(i, (int) doubles[i]);
+                }
+        }
+    }
+
+    /**
+     * Converts a two or three dimensional SAFEARRAY image to a Java array
+     * indexed [x][y] or [x][y][plane]: int[][] or int[][][] for an int or
+     * short SAFEARRAY (ImageArray), else Object[][] of Double, with an
+     * Object[] per pixel for three dimensions (ImageArrayVariant). Other
+     * arrays are returned as JACOB converts them.
+     *
+     */
+    private static Object toArray(Variant v) {
+        SafeArray array = v.toSafeArray(false);
+        int dims = array.getNumDim();
+        if (dims < 2 || dims > 3) {
+            return v.toJavaObject();
+        }
+        int width = extent(array, 1);
+        int height = extent(array, 2);
+        int planes = dims > 2 ? extent(array, 3) : 1;
+        boolean integer = array.getvt() == Variant.VariantInt || array.getvt() == Variant.VariantShort;
+        ImageBuffer image = null;
+        double[] doubles = null;
+        if (integer) {
+            image = ImageBuffer.ints();
+            copy(array, image);
+        } else {
+            doubles = array.toDoubleArray();
+        }
+        if (dims == 2) {
+            if (integer) {
+                int[][] columns = new int[width][height];
+                for (int x = 0; x < width; x++) {
+                    for (int y = 0; y < height; y++) {
+                        columns[x][y] = image.get(y * width + x);
+                    }
+                }
+                return columns;
+            }
+            Object[][] columns = new Object[width][height];
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    columns[x][y] = doubles[y * width + x];
+                }
+            }
+            return columns;
+        }
+        if (integer) {
+            int[][][] cube = new int[width][height][planes];
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    for (int p = 0; p < planes; p++) {
+                        cube[x][y][p] = image.get((p * height + y) * width + x);
+                    }
+                }
+            }
+            return cube;
+        }
+        Object[][] cube = new Object[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                Object[] pixel = new Object[planes];
+                for (int p = 0; p < planes; p++) {
+                    pixel[p] = doubles[(p * height + y) * width + x];
+                }
+                cube[x][y] = pixel;
+            }
+        }
+        return cube;
+    }
+
+    private static int extent(SafeArray array, int dim) {
+        return array.getUBound(dim) - array.getLBound(dim) + 1;
+    }
+
+    /**
+     * DispatchTarget over a JACOB ActiveXComponent.
+     *
+     */
+    private static class ComTarget implements DispatchTarget {
+
+        private final String progId;
+        private ActiveXComponent component;
+
+        ComTarget(String progId) {
+            this.progId = progId;
+            try {
+                component = new ActiveXComponent(progId);
+            } catch (ComException e) {
+                throw new DriverException("Unable to create " + progId, e.getHResult(), e);
+            }
+        }
+
+        @Override
+        public int getIDOfName(String name) {
+            try {
+                return Dispatch.getIDOfName(component, name);
+            } catch (ComException e) {
+                throw failure(name, e);
+            }
+        }
+
+        @Override
+        public Object invoke(String name, int dispId, int flags, Object[] args) {
+            try {
+                switch (flags) {
+                    case GET:
+                        return toJava(Dispatch.get(component, dispId));
+                    case PUT:
+                        Dispatch.put(component, dispId, args[0]);
+                        return null;
+                    default:
+                        return toJava(Dispatch.call(component, dispId, args));
+                }
+            } catch (ComException e) {
+                throw failure(name, e);
+            }
+        }
+
+        @Override
+        public void release() {
+            if (component != null) {
+                component.safeRelease();
+                component = null;
+            }
+        }
+
+        /**
+         * Converts a result to Java. Image SAFEARRAYs are converted by
+         * toArray. ASCOM collections (AxisRates, TrackingRates, ...) are
+         * read into a List, with each IRate item read as a {Minimum,
+         * Maximum} pair; other objects are returned as their Dispatch.
+         *
+         */
+        private static Object toJava(Variant v) {
+            if (v == null) {
+                return null;
+            }
+            if ((v.getvt() & Variant.VariantArray) != 0) {
+                return toArray(v);
+            }
+            if (v.getvt() != Variant.VariantDispatch) {
+                return v.toJavaObject();
+            }
+            Dispatch object = v.toDispatch();
+            int count;
+            try {
+                count = Dispatch.get(object, "Count").changeType(Variant.VariantInt).getInt();
+            } catch (ComException e) {
+                return object;
+            }
+            List<Object> items = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                Variant item = Dispatch.call(object, "Item", i);
+                if (item.getvt() == Variant.VariantDispatch) {
+                    Dispatch rate = item.toDispatch();
+                    items.add(new double[]{
+                        Dispatch.get(rate, "Minimum").changeType(Variant.VariantDouble).getDouble(),
+                        Dispatch.get(rate, "Maximum").changeType(Variant.VariantDouble).getDouble()});
+                    rate.safeRelease();
+                } else {
+                    items.add(item.toJavaObject());
+                }
+            }
+            object.safeRelease();
+            return items;
+        }
+
+        private DriverException failure(String member, ComException e) {
+            return new DriverException(progId + "." + member + ": " + e.getMessage(), e.getHResult(), e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ASCOM.DriverAccess;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Declares how long CachingTransport may keep each driver property. Properties
+ * that are not declared are never cached.
+ *
+ * <pre>
+ * PropertyCachePolicy policy = new PropertyCachePolicy()
+ *         .forever("CanSlew", "CanPark")
+ *         .expireAfter(5, TimeUnit.SECONDS, "SiteElevation");
+ * </pre>
+ *
+ */
+public class PropertyCachePolicy {
+
+    /**
+     * Time to live of values that are kept until the device disconnects.
+     */
+    public static final long FOREVER = Long.MAX_VALUE;
+
+    /**
+     * Members common to all devices that do not change while connected.
+     */
+    private static final String[] DEVICE_CONSTANTS = {
+        "Description", "DriverInfo", "DriverVersion", "InterfaceVersion",
+        "Name", "SupportedActions"};
+
+    private final Map<String, Long> ttls = new HashMap<>();
+
+    /**
+     * Caches the given properties until the device disconnects or the
+     * property is written.
+     *
+     * @return this policy
+     */
+    public PropertyCachePolicy forever(String... names) {
+        for (String name : names) {
+            ttls.put(name, FOREVER);
+        }
+        return this;
+    }
+
+    /**
+     * Caches the given properties for a limited time.
+     *
+     * @return this policy
+     */
+    public PropertyCachePolicy expireAfter(long duration, TimeUnit unit, String... names) {
+        long nanos = unit.toNanos(duration);
+        for (String name : names) {
+            if (nanos > 0) {
+                ttls.put(name, nanos);
+            } else {
+                ttls.remove(name);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Gets the time to live of a property in nanoseconds, 0 if it is not
+     * cached.
+     *
+     */
+    public long getTtlNanos(String name) {
+        Long ttl = ttls.get(name);
+        return ttl == null ? 0L : ttl;
+    }
+
+    /**
+     * Policy for any device: only the driver description is cached.
+     *
+     */
+    public static PropertyCachePolicy device() {
+        return new PropertyCachePolicy().forever(DEVICE_CONSTANTS);
+    }
+
+    /**
+     * Policy for Telescope: capabilities and optics are cached for the
+     * session, site and rate settings for a few seconds, position and
+     * motion state are never cached.
+     *
+     */
+    public static PropertyCachePolicy telescope() {
+        return device()
+                .forever("AlignmentMode", "ApertureArea", "ApertureDiameter",
+                        "CanFindHome", "CanPark", "CanPulseGuide",
+                        "CanSetDeclinationRate", "CanSetGuideRates", "CanSetPark",
+                        "CanSetPierSide", "CanSetRightAscensionRate",
+                        "CanSetTracking", "CanSlew", "CanSlewAltAz",
+                        "CanSlewAltAzAsync", "CanSlewAsync", "CanSync",
+                        "CanSyncAltAz", "CanUnpark", "EquatorialSystem",
+                        "FocalLength", "SiteLatitude", "SiteLongitude")
+                .expireAfter(5, TimeUnit.SECONDS, "SiteElevation",
+                        "DoesRefraction", "GuideRateDeclination",
+                        "GuideRateRightAscension", "SlewSettleTime",
+                        "TrackingRate");
+    }
+}
@@ -0,0 +1,138 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DriverAccess.ExposureSequencer.Stage;
+import java.util.List;
+
+/**
+ * Timing of an ExposureSequencer run: the nanoseconds spent in every stage of
+ * every completed frame, and the duty cycle achieved, i.e. the fraction of
+ * the wall clock time the camera spent integrating.
+ *
+ * getSerialDutyCycle() estimates the duty cycle the same frames would have
+ * reached with processing done between exposures instead of alongside them.
+ *
+ */
+public final class SequenceReport {
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final List<ExposurePlan.Exposure> exposures;
+    private final long[][] nanos;
+    private final int frames;
+    private final long wallNanos;
+
+    SequenceReport(List<ExposurePlan.Exposure> exposures, long[][] nanos, int frames, long wallNanos) {
+        this.exposures = exposures;
+        this.nanos = nanos;
+        this.frames = frames;
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * Gets the number of frames downloaded and processed.
+     *
+     */
+    public int getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Gets the wall clock time of the whole run.
+     *
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Gets the time one frame spent in a stage.
+     *
+     */
+    public long getNanos(int frame, Stage stage) {
+        if (frame < 0 || frame >= frames) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " of " + frames);
+        }
+        return nanos[frame][stage.ordinal()];
+    }
+
+    /**
+     * Gets the time all frames spent in a stage.
+     *
+     */
+    public long getTotalNanos(Stage stage) {
+        long total = 0;
+        for (int i = 0; i < frames; i++) {
+            total += nanos[i][stage.ordinal()];
+        }
+        return total;
+    }
+
+    /**
+     * Gets the mean time per frame spent in a stage.
+     *
+     */
+    public double getMeanNanos(Stage stage) {
+        return frames == 0 ? 0.0 : (double) getTotalNanos(stage) / frames;
+    }
+
+    /**
+     * Gets the longest time one frame spent in a stage.
+     *
+     */
+    public long getMaxNanos(Stage stage) {
+        long max = 0;
+        for (int i = 0; i < frames; i++) {
+            max = Math.max(max, nanos[i][stage.ordinal()]);
+        }
+        return max;
+    }
+
+    /**
+     * Gets the requested exposure time of the completed frames (seconds).
+     *
+     */
+    public double getIntegrationSeconds() {
+        double total = 0.0;
+        for (int i = 0; i < frames; i++) {
+            total += exposures.get(i).getDuration();
+        }
+        return total;
+    }
+
+    /**
+     * Gets the fraction of the wall clock time spent integrating.
+     *
+     */
+    public double getDutyCycle() {
+        return wallNanos == 0 ? 0.0 : getIntegrationSeconds() * 1e9 / wallNanos;
+    }
+
+    /**
+     * Gets the duty cycle estimated for running the same frames with
+     * processing serialized between exposures.
+     *
+     */
+    public double getSerialDutyCycle() {
+        long serial = getTotalNanos(Stage.SETUP) + getTotalNanos(Stage.START) + getTotalNanos(Stage.INTEGRATE)
+                + getTotalNanos(Stage.READOUT) + getTotalNanos(Stage.DOWNLOAD) + getTotalNanos(Stage.PROCESS);
+        return serial == 0 ? 0.0 : getIntegrationSeconds() * 1e9 / serial;
+    }
+
+    /**
+     * Lists mean and maximum milliseconds per stage, then the duty cycles.
+     *
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(String.format("%d frames, %.3f s integrating in %.3f s%n",
+                frames, getIntegrationSeconds(), wallNanos / 1e9));
+        for (Stage stage : STAGES) {
+            s.append(String.format("  %-10s mean %10.3f ms  max %10.3f ms%n",
+                    stage, getMeanNanos(stage) / 1e6, getMaxNanos(stage) / 1e6));
+        }
+        s.append(String.format("  duty cycle %.1f%% (serial estimate %.1f%%)",
+                100.0 * getDutyCycle(), 100.0 * getSerialDutyCycle()));
+        return s.toString();
+    }
+}
@@ -0,0 +1,380 @@
+package ASCOM.DriverAccess.Simulator;
+
+import ASCOM.DriverAccess.ImageBuffer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * In-process monochrome camera. An exposure runs for the requested duration,
+ * then reads out at a fixed pixel rate before ImageReady becomes true. Frames
+ * are synthetic: a bias level, a sky level proportional to the exposure time
+ * for light frames and deterministic pseudo-random noise.
+ *
+ */
+public class CameraSimulator extends SimulatorTransport {
+
+    /**
+     * Readout speed (pixels per second).
+     */
+    public static final double READOUT_RATE = 50e6;
+
+    private static final int CAMERA_IDLE = 0;
+    private static final int CAMERA_EXPOSING = 2;
+    private static final int CAMERA_READING = 3;
+    private static final int MAX_BIN = 4;
+    private static final int BIAS = 1000;
+
+    private final int cameraXSize;
+    private final int cameraYSize;
+    private final int maxAdu;
+
+    private int binX = 1;
+    private int binY = 1;
+    private int startX;
+    private int startY;
+    private int numX;
+    private int numY;
+    private boolean coolerOn;
+    private double setCCDTemperature = -10.0;
+    private int readoutMode;
+
+    private boolean exposing;
+    private boolean light;
+    private long exposureStart;
+    private long exposureEnd;
+    private long readoutEnd;
+    private double lastExposureDuration = Double.NaN;
+    private long lastExposureStartMillis;
+    private int frameX;
+    private int frameY;
+    private int frameBinX;
+    private int frameBinY;
+    private int frameStartX;
+    private int frameStartY;
+    private int sequence;
+
+    /**
+     * Creates a 1024 x 1024, 16 bit camera.
+     *
+     */
+    public CameraSimulator() {
+        this(1024, 1024, 65535);
+    }
+
+    /**
+     *
+     * @param cameraXSize sensor width in unbinned pixels
+     * @param cameraYSize sensor height in unbinned pixels
+     * @param maxAdu maximum pixel value
+     */
+    public CameraSimulator(int cameraXSize, int cameraYSize, int maxAdu) {
+        super("Camera", 2);
+        this.cameraXSize = cameraXSize;
+        this.cameraYSize = cameraYSize;
+        this.maxAdu = maxAdu;
+        this.numX = cameraXSize;
+        this.numY = cameraYSize;
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        switch (member) {
+            case "StartExposure":
+                startExposure(toDouble(args[0]), toBoolean(args[1]));
+                return null;
+            case "AbortExposure":
+                exposing = false;
+                readoutEnd = 0;
+                return null;
+            case "StopExposure":
+                stopExposure();
+                return null;
+            default:
+                throw notImplemented(member);
+        }
+    }
+
+    @Override
+    protected Object read(String name) {
+        switch (name) {
+            case "BinX":
+                return binX;
+            case "BinY":
+                return binY;
+            case "CCDTemperature":
+                return coolerOn ? setCCDTemperature : 20.0;
+            case "CameraState":
+                return cameraState();
+            case "CameraXSize":
+                return cameraXSize;
+            case "CameraYSize":
+                return cameraYSize;
+            case "CanAbortExposure":
+            case "CanGetCoolerPower":
+            case "CanSetCCDTemperature":
+            case "CanStopExposure":
+            case "HasShutter":
+                return true;
+            case "CanAsymmetricBin":
+            case "CanPulseGuide":
+            case "CanFastReadout":
+            case "IsPulseGuiding":
+                return false;
+            case "CoolerOn":
+                return coolerOn;
+            case "CoolerPower":
+                return coolerOn ? 40.0 : 0.0;
+            case "ElectronsPerADU":
+                return 1.0;
+            case "FullWellCapacity":
+                return (double) maxAdu;
+            case "HeatSinkTemperature":
+                return 20.0;
+            case "ImageArray":
+                return imageArray();
+            case "ImageArrayVariant":
+                return imageArrayVariant();
+            case "ImageReady":
+                return imageReady();
+            case "LastExposureDuration":
+                checkExposureTaken(name);
+                return lastExposureDuration;
+            case "LastExposureStartTime":
+                checkExposureTaken(name);
+                return fitsDate(lastExposureStartMillis);
+            case "MaxADU":
+                return maxAdu;
+            case "MaxBinX":
+            case "MaxBinY":
+                return MAX_BIN;
+            case "NumX":
+                return numX;
+            case "NumY":
+                return numY;
+            case "PixelSizeX":
+            case "PixelSizeY":
+                return 5.4;
+            case "SetCCDTemperature":
+                return setCCDTemperature;
+            case "StartX":
+                return startX;
+            case "StartY":
+                return startY;
+            case "ExposureMax":
+                return 3600.0;
+            case "ExposureMin":
+                return 0.0;
+            case "ExposureResolution":
+                return 0.001;
+            case "PercentCompleted":
+                return percentCompleted();
+            case "ReadoutMode":
+                return readoutMode;
+            case "ReadoutModes": {
+                ArrayList<String> modes = new ArrayList<>();
+                modes.add("Default");
+                return modes;
+            }
+            case "SensorName":
+                return "SIM-" + cameraXSize + "x" + cameraYSize;
+            case "SensorType":
+                return 0;
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    @Override
+    protected void write(String name, Object value) {
+        switch (name) {
+            case "BinX":
+                binX = checkBin(name, toInt(value));
+                binY = binX;
+                break;
+            case "BinY":
+                binY = checkBin(name, toInt(value));
+                binX = binY;
+                break;
+            case "CoolerOn":
+                coolerOn = toBoolean(value);
+                break;
+            case "NumX":
+                numX = toInt(value);
+                break;
+            case "NumY":
+                numY = toInt(value);
+                break;
+            case "SetCCDTemperature": {
+                double t = toDouble(value);
+                if (t < -60.0 || t > 40.0) {
+                    throw invalidValue(name, value);
+                }
+                setCCDTemperature = t;
+                break;
+            }
+            case "StartX":
+                startX = toInt(value);
+                break;
+            case "StartY":
+                startY = toInt(value);
+                break;
+            case "ReadoutMode":
+                if (toInt(value) != 0) {
+                    throw invalidValue(name, value);
+                }
+                readoutMode = 0;
+                break;
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    /**
+     * Writes the frame straight into the buffer.
+     *
+     */
+    @Override
+    protected void readImage(String name, ImageBuffer image) {
+        if (!"ImageArray".equals(name) && !"ImageArrayVariant".equals(name)) {
+            super.readImage(name, image);
+            return;
+        }
+        checkImageReady(name);
+        image.resize(frameX, frameY, 1);
+        for (int y = 0, i = 0; y < frameY; y++) {
+            for (int x = 0; x < frameX; x++) {
+                image.put(i++, pixel(x, y));
+            }
+        }
+    }
+
+    /**
+     * Value of the synthetic pixel at the given frame position.
+     *
+     */
+    private int pixel(int x, int y) {
+        int ux = (frameStartX + x) * frameBinX;
+        int uy = (frameStartY + y) * frameBinY;
+        int h = ux * 0x9E3779B1 ^ uy * 0x85EBCA77 ^ sequence * 0xC2B2AE3D;
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        h ^= h >>> 12;
+        int noise = (h & 0xFF) - 128;
+        int sky = light ? (int) (lastExposureDuration * 100.0) : 0;
+        long value = (long) (BIAS + sky) * frameBinX * frameBinY + noise;
+        return (int) Math.max(0, Math.min(maxAdu, value));
+    }
+
+    /**
+     * Fails unless a completed image is available for download.
+     *
+     */
+    private void checkImageReady(String member) {
+        if (!imageReady()) {
+            throw invalidOperation(member, "no image available");
+        }
+    }
+
+    private void startExposure(double duration, boolean light) {
+        if (exposing && System.nanoTime() < readoutEnd) {
+            throw invalidOperation("StartExposure", "exposure in progress");
+        }
+        if (duration < 0.0 || duration > 3600.0) {
+            throw invalidValue("StartExposure", duration);
+        }
+        if (numX < 1 || numY < 1 || (startX + numX) * binX > cameraXSize || (startY + numY) * binY > cameraYSize) {
+            throw invalidValue("StartExposure", "subframe " + startX + "," + startY + " " + numX + "x" + numY);
+        }
+        long now = System.nanoTime();
+        this.light = light;
+        exposing = true;
+        exposureStart = now;
+        exposureEnd = now + (long) (duration * 1e9);
+        readoutEnd = exposureEnd + (long) ((double) numX * numY / READOUT_RATE * 1e9);
+        lastExposureDuration = duration;
+        lastExposureStartMillis = System.currentTimeMillis();
+        frameX = numX;
+        frameY = numY;
+        frameBinX = binX;
+        frameBinY = binY;
+        frameStartX = startX;
+        frameStartY = startY;
+        sequence++;
+    }
+
+    private void stopExposure() {
+        long now = System.nanoTime();
+        if (exposing && now < exposureEnd) {
+            lastExposureDuration = (now - exposureStart) / 1e9;
+            readoutEnd = now + (readoutEnd - exposureEnd);
+            exposureEnd = now;
+        }
+    }
+
+    private int cameraState() {
+        long now = System.nanoTime();
+        if (!exposing || now >= readoutEnd) {
+            return CAMERA_IDLE;
+        }
+        return now < exposureEnd ? CAMERA_EXPOSING : CAMERA_READING;
+    }
+
+    private boolean imageReady() {
+        return exposing && System.nanoTime() >= readoutEnd;
+    }
+
+    private double percentCompleted() {
+        long now = System.nanoTime();
+        if (!exposing || now >= readoutEnd) {
+            return 100.0;
+        }
+        if (now < exposureEnd) {
+            return 100.0 * (now - exposureStart) / Math.max(1L, exposureEnd - exposureStart);
+        }
+        return 100.0 * (now - exposureEnd) / Math.max(1L, readoutEnd - exposureEnd);
+    }
+
+    private int[][] imageArray() {
+        checkImageReady("ImageArray");
+        int[][] image = new int[frameX][frameY];
+        for (int x = 0; x < frameX; x++) {
+            int[] column = image[x];
+            for (int y = 0; y < frameY; y++) {
+                column[y] = pixel(x, y);
+            }
+        }
+        return image;
+    }
+
+    private Object[][] imageArrayVariant() {
+        checkImageReady("ImageArrayVariant");
+        Object[][] image = new Object[frameX][frameY];
+        for (int x = 0; x < frameX; x++) {
+            for (int y = 0; y < frameY; y++) {
+                image[x][y] = pixel(x, y);
+            }
+        }
+        return image;
+    }
+
+    private int checkBin(String name, int bin) {
+        if (bin < 1 || bin > MAX_BIN) {
+            throw invalidValue(name, bin);
+        }
+        return bin;
+    }
+
+    private void checkExposureTaken(String name) {
+        if (Double.isNaN(lastExposureDuration)) {
+            throw invalidOperation(name, "no exposure has been taken");
+        }
+    }
+
+    private static String fitsDate(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(millis));
+    }
+}
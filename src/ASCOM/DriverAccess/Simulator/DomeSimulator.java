@@ -0,0 +1,169 @@
+package ASCOM.DriverAccess.Simulator;
+
+/**
+ * In-process dome with a rotating azimuth, a shutter that takes a fixed time
+ * to open or close and a settable altitude slit.
+ *
+ */
+public class DomeSimulator extends SimulatorTransport {
+
+    /**
+     * Rotation speed (degrees per second).
+     */
+    public static final double ROTATION_RATE = 5.0;
+
+    /**
+     * Time taken to open or close the shutter (seconds).
+     */
+    public static final double SHUTTER_TIME = 5.0;
+
+    private static final int SHUTTER_OPEN = 0;
+    private static final int SHUTTER_CLOSED = 1;
+    private static final int SHUTTER_OPENING = 2;
+    private static final int SHUTTER_CLOSING = 3;
+
+    /**
+     * Azimuth is tracked unwrapped so a slew always takes the short way
+     * round; it is normalised when read.
+     */
+    private final LinearMove azimuth = new LinearMove(0.0, ROTATION_RATE);
+    private final LinearMove altitude = new LinearMove(0.0, ROTATION_RATE);
+    private final LinearMove shutter = new LinearMove(0.0, 1.0 / SHUTTER_TIME);
+
+    private double parkAzimuth = 180.0;
+    private boolean slaved;
+    private boolean parking;
+    private boolean atPark;
+    private boolean homing;
+    private boolean atHome = true;
+
+    public DomeSimulator() {
+        super("Dome", 2);
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        settle();
+        switch (member) {
+            case "AbortSlew":
+                azimuth.halt();
+                altitude.halt();
+                parking = homing = false;
+                return null;
+            case "CloseShutter":
+                shutter.moveTo(0.0);
+                return null;
+            case "OpenShutter":
+                shutter.moveTo(1.0);
+                return null;
+            case "FindHome":
+                slewToAzimuth(0.0);
+                homing = true;
+                return null;
+            case "Park":
+                slewToAzimuth(parkAzimuth);
+                parking = true;
+                return null;
+            case "SetPark":
+                parkAzimuth = normalize(azimuth.value());
+                return null;
+            case "SlewToAltitude": {
+                double alt = toDouble(args[0]);
+                if (alt < 0.0 || alt > 90.0) {
+                    throw invalidValue(member, alt);
+                }
+                altitude.moveTo(alt);
+                return null;
+            }
+            case "SlewToAzimuth": {
+                double az = toDouble(args[0]);
+                if (az < 0.0 || az >= 360.0) {
+                    throw invalidValue(member, az);
+                }
+                slewToAzimuth(az);
+                return null;
+            }
+            case "SyncToAzimuth":
+                azimuth.set(toDouble(args[0]));
+                return null;
+            default:
+                throw notImplemented(member);
+        }
+    }
+
+    @Override
+    protected Object read(String name) {
+        settle();
+        switch (name) {
+            case "Altitude":
+                return altitude.value();
+            case "AtHome":
+                return atHome;
+            case "AtPark":
+                return atPark;
+            case "Azimuth":
+                return normalize(azimuth.value());
+            case "CanFindHome":
+            case "CanPark":
+            case "CanSetAltitude":
+            case "CanSetAzimuth":
+            case "CanSetPark":
+            case "CanSetShutter":
+            case "CanSlave":
+            case "CanSyncAzimuth":
+                return true;
+            case "ShutterStatus":
+                return shutterStatus();
+            case "Slaved":
+                return slaved;
+            case "Slewing":
+                return azimuth.isMoving() || altitude.isMoving();
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    @Override
+    protected void write(String name, Object value) {
+        if ("Slaved".equals(name)) {
+            slaved = toBoolean(value);
+        } else {
+            throw notImplemented(name);
+        }
+    }
+
+    private void settle() {
+        if (!azimuth.isMoving()) {
+            if (parking) {
+                atPark = true;
+                parking = false;
+            }
+            if (homing) {
+                atHome = true;
+                homing = false;
+            }
+        }
+    }
+
+    private void slewToAzimuth(double target) {
+        double current = azimuth.value();
+        double delta = normalize(target - current);
+        if (delta > 180.0) {
+            delta -= 360.0;
+        }
+        atPark = atHome = false;
+        azimuth.moveTo(current + delta);
+    }
+
+    private int shutterStatus() {
+        if (shutter.isMoving()) {
+            return shutter.target() > 0.5 ? SHUTTER_OPENING : SHUTTER_CLOSING;
+        }
+        return shutter.value() > 0.5 ? SHUTTER_OPEN : SHUTTER_CLOSED;
+    }
+
+    private static double normalize(double degrees) {
+        double d = degrees % 360.0;
+        return d < 0.0 ? d + 360.0 : d;
+    }
+}
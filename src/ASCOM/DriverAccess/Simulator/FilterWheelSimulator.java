@@ -0,0 +1,52 @@
+package ASCOM.DriverAccess.Simulator;
+
+/**
+ * In-process filter wheel. Position reads -1 while the wheel is moving.
+ *
+ */
+public class FilterWheelSimulator extends SimulatorTransport {
+
+    /**
+     * Wheel speed (slots per second).
+     */
+    public static final double SLOT_RATE = 2.0;
+
+    private final String[] names = {"Luminance", "Red", "Green", "Blue", "Ha", "OIII", "SII", "Dark"};
+    private final int[] focusOffsets = {0, 12, 8, -4, 20, 18, 22, 0};
+    private final LinearMove position = new LinearMove(0.0, SLOT_RATE);
+
+    public FilterWheelSimulator() {
+        super("FilterWheel", 2);
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        throw notImplemented(member);
+    }
+
+    @Override
+    protected Object read(String name) {
+        switch (name) {
+            case "FocusOffsets":
+                return focusOffsets.clone();
+            case "Names":
+                return names.clone();
+            case "Position":
+                return position.isMoving() ? -1 : (int) position.value();
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    @Override
+    protected void write(String name, Object value) {
+        if (!"Position".equals(name)) {
+            throw notImplemented(name);
+        }
+        int slot = toInt(value);
+        if (slot < 0 || slot >= names.length) {
+            throw invalidValue(name, slot);
+        }
+        position.moveTo(slot);
+    }
+}
@@ -0,0 +1,79 @@
+package ASCOM.DriverAccess.Simulator;
+
+/**
+ * In-process absolute focuser moving at a fixed step rate.
+ *
+ */
+public class FocuserSimulator extends SimulatorTransport {
+
+    /**
+     * Focuser speed (steps per second).
+     */
+    public static final double STEP_RATE = 1000.0;
+
+    private static final int MAX_STEP = 50000;
+
+    private final LinearMove position = new LinearMove(25000, STEP_RATE);
+    private boolean tempComp;
+
+    public FocuserSimulator() {
+        super("Focuser", 2);
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        switch (member) {
+            case "Halt":
+                position.halt();
+                position.set(Math.round(position.value()));
+                return null;
+            case "Move": {
+                if (tempComp) {
+                    throw invalidOperation(member, "temperature compensation is active");
+                }
+                int target = toInt(args[0]);
+                if (target < 0 || target > MAX_STEP) {
+                    throw invalidValue(member, target);
+                }
+                position.moveTo(target);
+                return null;
+            }
+            default:
+                throw notImplemented(member);
+        }
+    }
+
+    @Override
+    protected Object read(String name) {
+        switch (name) {
+            case "Absolute":
+            case "TempCompAvailable":
+            case "Link":
+                return true;
+            case "IsMoving":
+                return position.isMoving();
+            case "MaxIncrement":
+            case "MaxStep":
+                return MAX_STEP;
+            case "Position":
+                return (int) Math.round(position.value());
+            case "StepSize":
+                return 10.0;
+            case "TempComp":
+                return tempComp;
+            case "Temperature":
+                return 10.0;
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    @Override
+    protected void write(String name, Object value) {
+        if ("TempComp".equals(name)) {
+            tempComp = toBoolean(value);
+        } else {
+            throw notImplemented(name);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ASCOM.DriverAccess.Simulator;
+
+/**
+ * A single coordinate that moves from its current value towards a target at a
+ * constant rate. The value is computed from the elapsed time whenever it is
+ * read, so simulators need no background threads.
+ *
+ */
+class LinearMove {
+
+    private final double rate;
+    private double from;
+    private double to;
+    private long startNanos;
+    private long endNanos;
+
+    /**
+     * Creates a coordinate at rest.
+     *
+     * @param value initial value
+     * @param rate speed in units per second
+     */
+    LinearMove(double value, double rate) {
+        this.rate = rate;
+        this.from = value;
+        this.to = value;
+    }
+
+    /**
+     * Starts moving towards the target from the current value.
+     *
+     * @return the duration of the move in nanoseconds
+     */
+    long moveTo(double target) {
+        long now = System.nanoTime();
+        from = value(now);
+        to = target;
+        startNanos = now;
+        endNanos = now + (long) (Math.abs(to - from) / rate * 1e9);
+        return endNanos - now;
+    }
+
+    /**
+     * Stops at the current value.
+     *
+     */
+    void halt() {
+        long now = System.nanoTime();
+        from = value(now);
+        to = from;
+        endNanos = now;
+    }
+
+    /**
+     * Jumps to the given value without moving.
+     *
+     */
+    void set(double value) {
+        from = value;
+        to = value;
+        endNanos = System.nanoTime();
+    }
+
+    double value() {
+        return value(System.nanoTime());
+    }
+
+    double value(long now) {
+        if (now >= endNanos) {
+            return to;
+        }
+        return from + (to - from) * (now - startNanos) / (double) (endNanos - startNanos);
+    }
+
+    double target() {
+        return to;
+    }
+
+    boolean isMoving() {
+        return System.nanoTime() < endNanos;
+    }
+}
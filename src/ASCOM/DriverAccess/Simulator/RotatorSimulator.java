@@ -0,0 +1,84 @@
+package ASCOM.DriverAccess.Simulator;
+
+/**
+ * In-process camera rotator with a position angle in the range 0 to 360
+ * degrees.
+ *
+ */
+public class RotatorSimulator extends SimulatorTransport {
+
+    /**
+     * Rotation speed (degrees per second).
+     */
+    public static final double ROTATION_RATE = 10.0;
+
+    private final LinearMove position = new LinearMove(0.0, ROTATION_RATE);
+    private boolean reverse;
+
+    public RotatorSimulator() {
+        super("Rotator", 2);
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        switch (member) {
+            case "Halt":
+                position.halt();
+                return null;
+            case "Move":
+                moveTo(member, position.target() + toDouble(args[0]));
+                return null;
+            case "MoveAbsolute":
+                moveTo(member, toDouble(args[0]));
+                return null;
+            default:
+                throw notImplemented(member);
+        }
+    }
+
+    @Override
+    protected Object read(String name) {
+        switch (name) {
+            case "CanReverse":
+                return true;
+            case "IsMoving":
+                return position.isMoving();
+            case "Position":
+                return (float) normalize(position.value());
+            case "Reverse":
+                return reverse;
+            case "StepSize":
+                return 0.1f;
+            case "TargetPosition":
+                return (float) normalize(position.target());
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    @Override
+    protected void write(String name, Object value) {
+        if ("Reverse".equals(name)) {
+            reverse = toBoolean(value);
+        } else {
+            throw notImplemented(name);
+        }
+    }
+
+    private void moveTo(String member, double target) {
+        if (Double.isNaN(target) || Double.isInfinite(target)) {
+            throw invalidValue(member, target);
+        }
+        double current = position.value();
+        double delta = normalize(target - current);
+        if (delta > 180.0) {
+            delta -= 360.0;
+        }
+        position.moveTo(current + delta);
+    }
+
+    private static double normalize(double degrees) {
+        double d = degrees % 360.0;
+        return d < 0.0 ? d + 360.0 : d;
+    }
+}
@@ -0,0 +1,233 @@
+package ASCOM.DriverAccess.Simulator;
+
+import ASCOM.DriverAccess.DriverTransport;
+import ASCOM.DriverAccess.ImageBuffer;
+import ASCOM.DriverException;
+
+/**
+ * Base class for the in-process device simulators. It answers the members
+ * common to every ASCOM device (Connected, Description, DriverInfo, ...) and
+ * hands everything else to the device specific call, read and write methods.
+ *
+ * All members except the common ones require the simulator to be connected.
+ * Calls are serialised on the simulator instance.
+ *
+ */
+public abstract class SimulatorTransport implements DriverTransport {
+
+    private final String deviceType;
+    private final int interfaceVersion;
+    private boolean connected;
+    private boolean released;
+
+    /**
+     *
+     * @param deviceType ASCOM device type, e.g. "Telescope"
+     * @param interfaceVersion interface version reported to clients
+     */
+    protected SimulatorTransport(String deviceType, int interfaceVersion) {
+        this.deviceType = deviceType;
+        this.interfaceVersion = interfaceVersion;
+    }
+
+    /**
+     * Gets the ASCOM device type this simulator answers for.
+     *
+     */
+    public String getDeviceType() {
+        return deviceType;
+    }
+
+    @Override
+    public synchronized Object invoke(String member, Object... args) {
+        checkReleased(member);
+        switch (member) {
+            case "SetupDialog":
+                return null;
+            case "Dispose":
+                released = true;
+                return null;
+            case "Action":
+            case "CommandBlind":
+            case "CommandBool":
+            case "CommandString":
+                throw notImplemented(member);
+            default:
+                checkConnected(member);
+                return call(member, args);
+        }
+    }
+
+    @Override
+    public synchronized Object getProperty(String name) {
+        checkReleased(name);
+        switch (name) {
+            case "Connected":
+                return connected;
+            case "Description":
+                return "ASCOM4J " + deviceType + " simulator";
+            case "DriverInfo":
+                return "In-process " + deviceType + " simulator for ASCOM4J";
+            case "DriverVersion":
+                return "1.0";
+            case "InterfaceVersion":
+                return interfaceVersion;
+            case "Name":
+                return deviceType + " Simulator";
+            case "SupportedActions":
+                return "";
+            default:
+                checkConnected(name);
+                return read(name);
+        }
+    }
+
+    @Override
+    public boolean getPropertyAsBoolean(String name) {
+        return (Boolean) getProperty(name);
+    }
+
+    @Override
+    public double getPropertyAsDouble(String name) {
+        return ((Number) getProperty(name)).doubleValue();
+    }
+
+    @Override
+    public int getPropertyAsInt(String name) {
+        return ((Number) getProperty(name)).intValue();
+    }
+
+    @Override
+    public String getPropertyAsString(String name) {
+        Object value = getProperty(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Reads all values under one hold of the simulator lock, so the set is
+     * consistent.
+     *
+     */
+    @Override
+    public synchronized void getPropertiesAsDouble(String[] names, double[] values) {
+        DriverTransport.super.getPropertiesAsDouble(names, values);
+    }
+
+    @Override
+    public synchronized void getPropertyAsImage(String name, ImageBuffer image) {
+        checkReleased(name);
+        checkConnected(name);
+        readImage(name, image);
+    }
+
+    @Override
+    public synchronized void setProperty(String name, Object value) {
+        checkReleased(name);
+        if ("Connected".equals(name)) {
+            boolean state = (Boolean) value;
+            if (state != connected) {
+                connected = state;
+                connectionChanged(state);
+            }
+            return;
+        }
+        checkConnected(name);
+        write(name, value);
+    }
+
+    @Override
+    public synchronized void release() {
+        released = true;
+        connected = false;
+    }
+
+    /**
+     * Calls a device specific method. The simulator is connected.
+     *
+     */
+    protected abstract Object call(String member, Object[] args);
+
+    /**
+     * Reads a device specific property. The simulator is connected.
+     *
+     */
+    protected abstract Object read(String name);
+
+    /**
+     * Reads an image valued property into a buffer. The simulator is
+     * connected. The default copies the value returned by read.
+     *
+     */
+    protected void readImage(String name, ImageBuffer image) {
+        image.fill(read(name));
+    }
+
+    /**
+     * Writes a device specific property. The simulator is connected. Read-only
+     * and unknown properties are rejected.
+     *
+     */
+    protected void write(String name, Object value) {
+        throw notImplemented(name);
+    }
+
+    /**
+     * Called after the Connected state has changed.
+     *
+     */
+    protected void connectionChanged(boolean connected) {
+    }
+
+    protected DriverException notImplemented(String member) {
+        return new DriverException(deviceType + "." + member + " is not implemented", DriverException.NOT_IMPLEMENTED);
+    }
+
+    protected DriverException invalidValue(String member, Object value) {
+        return new DriverException(deviceType + "." + member + ": invalid value " + value, DriverException.INVALID_VALUE);
+    }
+
+    protected DriverException invalidOperation(String member, String reason) {
+        return new DriverException(deviceType + "." + member + ": " + reason, DriverException.INVALID_OPERATION);
+    }
+
+    /**
+     * Blocks the calling thread for the given time without holding the
+     * simulator lock, so other threads can watch a synchronous move.
+     *
+     */
+    protected final void await(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        try {
+            for (long left = nanos; left > 0; left = deadline - System.nanoTime()) {
+                wait(left / 1000000L, (int) (left % 1000000L));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverException(deviceType + ": interrupted", e);
+        }
+    }
+
+    protected static double toDouble(Object value) {
+        return ((Number) value).doubleValue();
+    }
+
+    protected static int toInt(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    protected static boolean toBoolean(Object value) {
+        return (Boolean) value;
+    }
+
+    private void checkReleased(String member) {
+        if (released) {
+            throw invalidOperation(member, "simulator has been released");
+        }
+    }
+
+    private void checkConnected(String member) {
+        if (!connected) {
+            throw new DriverException(deviceType + "." + member + ": not connected", DriverException.NOT_CONNECTED);
+        }
+    }
+}
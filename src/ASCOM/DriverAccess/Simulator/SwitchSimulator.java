@@ -0,0 +1,79 @@
+package ASCOM.DriverAccess.Simulator;
+
+/**
+ * In-process switch device. Switches 0 and 1 are boolean, switch 2 is a 0-100
+ * dimmer and switch 3 is a read-only 0-1023 sensor.
+ *
+ */
+public class SwitchSimulator extends SimulatorTransport {
+
+    private final String[] names = {"Power", "Dew Heater", "Flat Panel", "Sky Sensor"};
+    private final String[] descriptions = {"Mount power", "Dew heater", "Flat panel brightness", "Sky brightness sensor"};
+    private final double[] minimum = {0, 0, 0, 0};
+    private final double[] maximum = {1, 1, 100, 1023};
+    private final double[] step = {1, 1, 1, 1};
+    private final boolean[] writable = {true, true, true, false};
+    private final double[] value = {1, 0, 0, 512};
+
+    public SwitchSimulator() {
+        super("Switch", 2);
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        int id = toInt(args[0]);
+        if (id < 0 || id >= names.length) {
+            throw invalidValue(member, id);
+        }
+        switch (member) {
+            case "GetSwitchName":
+                return names[id];
+            case "SetSwitchName":
+                names[id] = (String) args[1];
+                return null;
+            case "GetSwitchDescription":
+                return descriptions[id];
+            case "CanWrite":
+                return writable[id];
+            case "GetSwitch":
+                return value[id] >= (minimum[id] + maximum[id]) / 2.0;
+            case "SetSwitch":
+                checkWritable(member, id);
+                value[id] = toBoolean(args[1]) ? maximum[id] : minimum[id];
+                return null;
+            case "MaxSwitchValue":
+                return maximum[id];
+            case "MinSwitchValue":
+                return minimum[id];
+            case "SwitchStep":
+                return step[id];
+            case "GetSwitchValue":
+                return value[id];
+            case "SetSwitchValue": {
+                checkWritable(member, id);
+                double v = toDouble(args[1]);
+                if (v < minimum[id] || v > maximum[id]) {
+                    throw invalidValue(member, v);
+                }
+                value[id] = v;
+                return null;
+            }
+            default:
+                throw notImplemented(member);
+        }
+    }
+
+    @Override
+    protected Object read(String name) {
+        if ("MaxSwitch".equals(name)) {
+            return (short) names.length;
+        }
+        throw notImplemented(name);
+    }
+
+    private void checkWritable(String member, int id) {
+        if (!writable[id]) {
+            throw notImplemented(member + "(" + id + ")");
+        }
+    }
+}
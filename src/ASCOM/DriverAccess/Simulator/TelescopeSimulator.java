@@ -0,0 +1,463 @@
+package ASCOM.DriverAccess.Simulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * In-process German equatorial mount. Slews move both axes at a fixed rate,
+ * alt/az and side of pier are derived from the current position, the site
+ * and the system clock. Equatorial coordinates stay fixed while tracking is
+ * off.
+ *
+ */
+public class TelescopeSimulator extends SimulatorTransport {
+
+    /**
+     * Slew rate on both axes (degrees per second).
+     */
+    public static final double SLEW_RATE = 8.0;
+
+    /**
+     * Sidereal rate (degrees per second).
+     */
+    public static final double SIDEREAL_RATE = 0.004178074;
+
+    private final LinearMove rightAscension = new LinearMove(0.0, SLEW_RATE / 15.0);
+    private final LinearMove declination = new LinearMove(90.0, SLEW_RATE);
+
+    private double siteLatitude = 51.07861;
+    private double siteLongitude = -0.29444;
+    private double siteElevation = 80.0;
+
+    private boolean tracking = true;
+    private boolean doesRefraction = false;
+    private int trackingRate = 0;
+    private int slewSettleTime = 0;
+    private double rightAscensionRate = 0.0;
+    private double declinationRate = 0.0;
+    private double guideRateRightAscension = SIDEREAL_RATE / 2.0;
+    private double guideRateDeclination = SIDEREAL_RATE / 2.0;
+    private double targetRightAscension = Double.NaN;
+    private double targetDeclination = Double.NaN;
+
+    private final double[] axisRate = new double[2];
+    private long axisSince;
+    private long pulseGuideEnd;
+
+    private double parkHourAngle = 0.0;
+    private double parkDeclination = 90.0;
+    private boolean atPark;
+    private boolean parking;
+    private boolean atHome;
+    private boolean homing;
+
+    public TelescopeSimulator() {
+        super("Telescope", 3);
+    }
+
+    @Override
+    protected void connectionChanged(boolean connected) {
+        if (connected) {
+            rightAscension.set(siderealTime());
+        }
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        settle();
+        switch (member) {
+            case "AbortSlew":
+                checkNotParked(member);
+                rightAscension.halt();
+                declination.halt();
+                axisRate[0] = axisRate[1] = 0.0;
+                parking = homing = false;
+                return null;
+            case "AxisRates": {
+                ArrayList<double[]> rates = new ArrayList<>();
+                if (toInt(args[0]) < 2) {
+                    rates.add(new double[]{0.0, SLEW_RATE});
+                }
+                return rates;
+            }
+            case "CanMoveAxis":
+                return toInt(args[0]) < 2;
+            case "DestinationSideOfPier":
+                return sideOfPier(toDouble(args[0]));
+            case "FindHome":
+                checkNotParked(member);
+                long home = slewTo(siderealTime(), 90.0);
+                homing = true;
+                await(home);
+                return null;
+            case "MoveAxis":
+                checkNotParked(member);
+                moveAxis(toInt(args[0]), toDouble(args[1]));
+                return null;
+            case "Park":
+                if (!atPark) {
+                    tracking = false;
+                    long park = slewTo(siderealTime() - parkHourAngle, parkDeclination);
+                    parking = true;
+                    await(park);
+                }
+                return null;
+            case "PulseGuide":
+                checkNotParked(member);
+                pulseGuide(toInt(args[0]), toInt(args[1]));
+                return null;
+            case "SetPark":
+                parkHourAngle = hourAngle(rightAscension.value());
+                parkDeclination = declination.value();
+                return null;
+            case "SlewToAltAz":
+                await(slewToAltAz(member, toDouble(args[0]), toDouble(args[1])));
+                return null;
+            case "SlewToAltAzAsync":
+                slewToAltAz(member, toDouble(args[0]), toDouble(args[1]));
+                return null;
+            case "SlewToCoordinates":
+                setTarget(member, toDouble(args[0]), toDouble(args[1]));
+                await(slewToTarget(member));
+                return null;
+            case "SlewToCoordinatesAsync":
+                setTarget(member, toDouble(args[0]), toDouble(args[1]));
+                slewToTarget(member);
+                return null;
+            case "SlewToTarget":
+                await(slewToTarget(member));
+                return null;
+            case "SlewToTargetAsync":
+                slewToTarget(member);
+                return null;
+            case "SyncToAltAz": {
+                checkNotParked(member);
+                double[] equ = toEquatorial(toDouble(args[0]), toDouble(args[1]));
+                rightAscension.set(equ[0]);
+                declination.set(equ[1]);
+                return null;
+            }
+            case "SyncToCoordinates":
+                checkNotParked(member);
+                setTarget(member, toDouble(args[0]), toDouble(args[1]));
+                rightAscension.set(targetRightAscension);
+                declination.set(targetDeclination);
+                return null;
+            case "SyncToTarget":
+                checkNotParked(member);
+                checkTarget(member);
+                rightAscension.set(targetRightAscension);
+                declination.set(targetDeclination);
+                return null;
+            case "Unpark":
+                atPark = parking = false;
+                return null;
+            default:
+                throw notImplemented(member);
+        }
+    }
+
+    @Override
+    protected Object read(String name) {
+        settle();
+        switch (name) {
+            case "AlignmentMode":
+                return 2;
+            case "Altitude":
+                return toHorizontal(rightAscension.value(), declination.value())[1];
+            case "ApertureArea":
+                return 0.0269;
+            case "ApertureDiameter":
+                return 0.2;
+            case "AtHome":
+                return atHome;
+            case "AtPark":
+                return atPark;
+            case "Azimuth":
+                return toHorizontal(rightAscension.value(), declination.value())[0];
+            case "CanFindHome":
+            case "CanPark":
+            case "CanPulseGuide":
+            case "CanSetDeclinationRate":
+            case "CanSetGuideRates":
+            case "CanSetPark":
+            case "CanSetRightAscensionRate":
+            case "CanSetTracking":
+            case "CanSlew":
+            case "CanSlewAltAz":
+            case "CanSlewAltAzAsync":
+            case "CanSlewAsync":
+            case "CanSync":
+            case "CanSyncAltAz":
+            case "CanUnpark":
+                return true;
+            case "CanSetPierSide":
+                return false;
+            case "Declination":
+                return declination.value();
+            case "DeclinationRate":
+                return declinationRate;
+            case "DoesRefraction":
+                return doesRefraction;
+            case "EquatorialSystem":
+                return 1;
+            case "FocalLength":
+                return 1.26;
+            case "GuideRateDeclination":
+                return guideRateDeclination;
+            case "GuideRateRightAscension":
+                return guideRateRightAscension;
+            case "IsPulseGuiding":
+                return System.nanoTime() < pulseGuideEnd;
+            case "RightAscension":
+                return rightAscension.value();
+            case "RightAscensionRate":
+                return rightAscensionRate;
+            case "SideOfPier":
+                return sideOfPier(rightAscension.value());
+            case "SiderealTime":
+                return siderealTime();
+            case "SiteElevation":
+                return siteElevation;
+            case "SiteLatitude":
+                return siteLatitude;
+            case "SiteLongitude":
+                return siteLongitude;
+            case "SlewSettleTime":
+                return slewSettleTime;
+            case "Slewing":
+                return isSlewing();
+            case "TargetDeclination":
+                checkTarget(name);
+                return targetDeclination;
+            case "TargetRightAscension":
+                checkTarget(name);
+                return targetRightAscension;
+            case "Tracking":
+                return tracking;
+            case "TrackingRate":
+                return trackingRate;
+            case "TrackingRates":
+                return new ArrayList<>(Arrays.asList(0, 1, 2, 3));
+            case "UTCDate":
+                return System.currentTimeMillis() / 86400000.0 + 25569.0;
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    @Override
+    protected void write(String name, Object value) {
+        switch (name) {
+            case "DeclinationRate":
+                declinationRate = toDouble(value);
+                break;
+            case "DoesRefraction":
+                doesRefraction = toBoolean(value);
+                break;
+            case "GuideRateDeclination":
+                guideRateDeclination = toDouble(value);
+                break;
+            case "GuideRateRightAscension":
+                guideRateRightAscension = toDouble(value);
+                break;
+            case "RightAscensionRate":
+                rightAscensionRate = toDouble(value);
+                break;
+            case "SiteElevation":
+                siteElevation = toDouble(value);
+                break;
+            case "SiteLatitude":
+                siteLatitude = checkRange(name, toDouble(value), -90.0, 90.0);
+                break;
+            case "SiteLongitude":
+                siteLongitude = checkRange(name, toDouble(value), -180.0, 180.0);
+                break;
+            case "SlewSettleTime":
+                slewSettleTime = (int) checkRange(name, toInt(value), 0, Short.MAX_VALUE);
+                break;
+            case "TargetDeclination":
+                targetDeclination = checkRange(name, toDouble(value), -90.0, 90.0);
+                break;
+            case "TargetRightAscension":
+                targetRightAscension = checkRange(name, toDouble(value), 0.0, 24.0);
+                break;
+            case "Tracking":
+                tracking = toBoolean(value);
+                break;
+            case "TrackingRate":
+                trackingRate = (int) checkRange(name, toInt(value), 0, 3);
+                break;
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    /**
+     * Applies MoveAxis motion accumulated since the last call and latches the
+     * park and home states once the corresponding slew has finished.
+     *
+     */
+    private void settle() {
+        long now = System.nanoTime();
+        if (axisRate[0] != 0.0 || axisRate[1] != 0.0) {
+            double seconds = (now - axisSince) / 1e9;
+            rightAscension.set(normalizeHours(rightAscension.value() + axisRate[0] * seconds / 15.0));
+            declination.set(Math.max(-90.0, Math.min(90.0, declination.value() + axisRate[1] * seconds)));
+        }
+        axisSince = now;
+        if (!isSlewing()) {
+            if (parking) {
+                atPark = true;
+                parking = false;
+            }
+            if (homing) {
+                atHome = true;
+                homing = false;
+            }
+        }
+    }
+
+    private boolean isSlewing() {
+        return rightAscension.isMoving() || declination.isMoving()
+                || axisRate[0] != 0.0 || axisRate[1] != 0.0;
+    }
+
+    private long slewTo(double ra, double dec) {
+        atHome = false;
+        axisRate[0] = axisRate[1] = 0.0;
+        long settle = slewSettleTime * 1000000000L;
+        return Math.max(rightAscension.moveTo(normalizeHours(ra)), declination.moveTo(dec)) + settle;
+    }
+
+    private long slewToTarget(String member) {
+        checkNotParked(member);
+        checkTarget(member);
+        return slewTo(targetRightAscension, targetDeclination);
+    }
+
+    private long slewToAltAz(String member, double azimuth, double altitude) {
+        checkNotParked(member);
+        checkRange(member, azimuth, 0.0, 360.0);
+        checkRange(member, altitude, -90.0, 90.0);
+        double[] equ = toEquatorial(azimuth, altitude);
+        return slewTo(equ[0], equ[1]);
+    }
+
+    private void setTarget(String member, double ra, double dec) {
+        targetRightAscension = checkRange(member, ra, 0.0, 24.0);
+        targetDeclination = checkRange(member, dec, -90.0, 90.0);
+    }
+
+    private void moveAxis(int axis, double rate) {
+        if (axis > 1) {
+            throw invalidValue("MoveAxis", axis);
+        }
+        checkRange("MoveAxis", Math.abs(rate), 0.0, SLEW_RATE);
+        axisRate[axis] = rate;
+        atHome = false;
+    }
+
+    private void pulseGuide(int direction, int duration) {
+        double seconds = duration / 1000.0;
+        switch (direction) {
+            case 0:
+                declination.set(Math.min(90.0, declination.value() + guideRateDeclination * seconds));
+                break;
+            case 1:
+                declination.set(Math.max(-90.0, declination.value() - guideRateDeclination * seconds));
+                break;
+            case 2:
+                rightAscension.set(normalizeHours(rightAscension.value() + guideRateRightAscension * seconds / 15.0));
+                break;
+            case 3:
+                rightAscension.set(normalizeHours(rightAscension.value() - guideRateRightAscension * seconds / 15.0));
+                break;
+            default:
+                throw invalidValue("PulseGuide", direction);
+        }
+        pulseGuideEnd = System.nanoTime() + duration * 1000000L;
+    }
+
+    private void checkNotParked(String member) {
+        if (atPark || parking) {
+            throw invalidOperation(member, "telescope is parked");
+        }
+    }
+
+    private void checkTarget(String member) {
+        if (Double.isNaN(targetRightAscension) || Double.isNaN(targetDeclination)) {
+            throw invalidOperation(member, "target has not been set");
+        }
+    }
+
+    private double checkRange(String member, double value, double min, double max) {
+        if (!(value >= min && value <= max)) {
+            throw invalidValue(member, value);
+        }
+        return value;
+    }
+
+    /**
+     * Pointing state for the given right ascension: pierEast (0) while the
+     * target is west of the meridian, pierWest (1) otherwise.
+     *
+     */
+    private int sideOfPier(double ra) {
+        return hourAngle(ra) >= 0.0 ? 0 : 1;
+    }
+
+    private double hourAngle(double ra) {
+        double ha = normalizeHours(siderealTime() - ra);
+        return ha > 12.0 ? ha - 24.0 : ha;
+    }
+
+    /**
+     * Local apparent sidereal time from the system clock (hours).
+     *
+     */
+    private double siderealTime() {
+        double jd = System.currentTimeMillis() / 86400000.0 + 2440587.5;
+        double gmst = 18.697374558 + 24.06570982441908 * (jd - 2451545.0);
+        return normalizeHours(gmst + siteLongitude / 15.0);
+    }
+
+    /**
+     * Converts equatorial coordinates to {azimuth, altitude} in degrees.
+     *
+     */
+    private double[] toHorizontal(double ra, double dec) {
+        double h = Math.toRadians(hourAngle(ra) * 15.0);
+        double d = Math.toRadians(dec);
+        double lat = Math.toRadians(siteLatitude);
+        double alt = Math.asin(Math.sin(d) * Math.sin(lat) + Math.cos(d) * Math.cos(lat) * Math.cos(h));
+        double az = Math.atan2(-Math.cos(d) * Math.sin(h), Math.sin(d) * Math.cos(lat) - Math.cos(d) * Math.cos(h) * Math.sin(lat));
+        return new double[]{normalizeDegrees(Math.toDegrees(az)), Math.toDegrees(alt)};
+    }
+
+    /**
+     * Converts horizontal coordinates to {right ascension, declination}.
+     *
+     */
+    private double[] toEquatorial(double azimuth, double altitude) {
+        double a = Math.toRadians(azimuth);
+        double e = Math.toRadians(altitude);
+        double lat = Math.toRadians(siteLatitude);
+        double dec = Math.asin(Math.sin(e) * Math.sin(lat) + Math.cos(e) * Math.cos(lat) * Math.cos(a));
+        double h = Math.atan2(-Math.sin(a) * Math.cos(e) * Math.cos(lat), Math.sin(e) - Math.sin(lat) * Math.sin(dec));
+        return new double[]{normalizeHours(siderealTime() - Math.toDegrees(h) / 15.0), Math.toDegrees(dec)};
+    }
+
+    private static double normalizeHours(double hours) {
+        double h = hours % 24.0;
+        return h < 0.0 ? h + 24.0 : h;
+    }
+
+    private static double normalizeDegrees(double degrees) {
+        double d = degrees % 360.0;
+        if (d < 0.0) {
+            d += 360.0;
+        }
+        return d >= 360.0 ? 0.0 : d + 0.0;
+    }
+}
@@ -0,0 +1,225 @@
+package ASCOM.DriverAccess.Simulator;
+
+import ASCOM.DriverAccess.ImageBuffer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * In-process 8 bit PAL video camera. Frames arrive at 25 frames per second
+ * from the moment the simulator connects; LastVideoFrame always returns the
+ * most recent one. Frame content is synthetic and changes with every frame.
+ *
+ * Reading LastVideoFrame as a plain property returns a Map with the
+ * IVideoFrame members ImageArray (int[][] indexed [x][y]), FrameNumber,
+ * ExposureDuration and ExposureStartTime.
+ *
+ */
+public class VideoSimulator extends SimulatorTransport {
+
+    /**
+     * Frames per second.
+     */
+    public static final double FRAME_RATE = 25.0;
+
+    private static final int WIDTH = 720;
+    private static final int HEIGHT = 576;
+    private static final int BIT_DEPTH = 8;
+    private static final int PAL = 1;
+    private static final int RUNNING = 0;
+    private static final int RECORDING = 1;
+    private static final long FRAME_NANOS = (long) (1e9 / FRAME_RATE);
+    private static final Double[] INTEGRATION_RATES = {0.04, 0.08, 0.16, 0.32, 0.64, 1.28, 2.56};
+    private static final String[] GAMMAS = {"OFF", "LO", "HI"};
+
+    private long startNanos;
+    private long startMillis;
+    private int integrationRate;
+    private int gain;
+    private int gamma;
+    private String recording;
+
+    public VideoSimulator() {
+        super("Video", 1);
+    }
+
+    @Override
+    protected void connectionChanged(boolean connected) {
+        if (connected) {
+            startNanos = System.nanoTime();
+            startMillis = System.currentTimeMillis();
+        } else {
+            recording = null;
+        }
+    }
+
+    @Override
+    protected Object call(String member, Object[] args) {
+        switch (member) {
+            case "StartRecordingVideoFile":
+                if (recording != null) {
+                    throw invalidOperation(member, "already recording " + recording);
+                }
+                recording = args[0] + ".avi";
+                return recording;
+            case "StopRecordingVideoFile":
+                if (recording == null) {
+                    throw invalidOperation(member, "not recording");
+                }
+                recording = null;
+                return null;
+            case "ConfigureDeviceProperties":
+                return null;
+            default:
+                throw notImplemented(member);
+        }
+    }
+
+    @Override
+    protected Object read(String name) {
+        switch (name) {
+            case "VideoCaptureDeviceName":
+                return "ASCOM4J frame grabber";
+            case "ExposureMax":
+                return INTEGRATION_RATES[INTEGRATION_RATES.length - 1];
+            case "ExposureMin":
+                return INTEGRATION_RATES[0];
+            case "FrameRate":
+                return PAL;
+            case "SupportedIntegrationRates":
+                return new ArrayList<>(Arrays.asList(INTEGRATION_RATES));
+            case "IntegrationRate":
+                return integrationRate;
+            case "LastVideoFrame":
+                return lastVideoFrame();
+            case "SensorName":
+                return "ICX429ALL";
+            case "SensorType":
+                return 0;
+            case "Width":
+                return WIDTH;
+            case "Height":
+                return HEIGHT;
+            case "PixelSizeX":
+                return 8.6;
+            case "PixelSizeY":
+                return 8.3;
+            case "BitDepth":
+                return BIT_DEPTH;
+            case "VideoCodec":
+                return "";
+            case "VideoFileFormat":
+                return "AVI";
+            case "VideoFramesBufferSize":
+                return 0;
+            case "CameraState":
+                return recording != null ? RECORDING : RUNNING;
+            case "GainMax":
+                return 255;
+            case "GainMin":
+                return 0;
+            case "Gain":
+                return gain;
+            case "Gammas":
+                return new ArrayList<>(Arrays.asList(GAMMAS));
+            case "Gamma":
+                return gamma;
+            case "CanConfigureDeviceProperties":
+                return false;
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    @Override
+    protected void write(String name, Object value) {
+        switch (name) {
+            case "IntegrationRate":
+                integrationRate = checkIndex(name, toInt(value), INTEGRATION_RATES.length);
+                break;
+            case "Gain": {
+                int g = toInt(value);
+                if (g < 0 || g > 255) {
+                    throw invalidValue(name, value);
+                }
+                gain = g;
+                break;
+            }
+            case "Gamma":
+                gamma = checkIndex(name, toInt(value), GAMMAS.length);
+                break;
+            default:
+                throw notImplemented(name);
+        }
+    }
+
+    /**
+     * Writes the pixels of the latest frame straight into the buffer.
+     *
+     */
+    @Override
+    protected void readImage(String name, ImageBuffer image) {
+        if (!"LastVideoFrame".equals(name)) {
+            super.readImage(name, image);
+            return;
+        }
+        long frame = frameNumber();
+        image.resize(WIDTH, HEIGHT, 1);
+        for (int y = 0, i = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                image.put(i++, pixel(x, y, frame));
+            }
+        }
+    }
+
+    private Map<String, Object> lastVideoFrame() {
+        long frame = frameNumber();
+        int[][] pixels = new int[WIDTH][HEIGHT];
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                pixels[x][y] = pixel(x, y, frame);
+            }
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("ImageArray", pixels);
+        result.put("FrameNumber", frame);
+        result.put("ExposureDuration", 1.0 / FRAME_RATE);
+        result.put("ExposureStartTime", fitsDate(startMillis + frame * FRAME_NANOS / 1000000L));
+        return result;
+    }
+
+    private long frameNumber() {
+        return (System.nanoTime() - startNanos) / FRAME_NANOS;
+    }
+
+    /**
+     * Value of the synthetic pixel: a gradient scaled by the integration
+     * rate and gain, with a bright spot drifting across the frame.
+     *
+     */
+    private int pixel(int x, int y, long frame) {
+        int spotX = (int) (frame * 3 % WIDTH);
+        int dx = x - spotX;
+        int dy = y - HEIGHT / 2;
+        int spot = dx * dx + dy * dy < 25 ? 200 : 0;
+        int level = (16 + (x + y) / 40 + spot) * (1 << integrationRate) * (64 + gain) / 64;
+        return Math.min(level, (1 << BIT_DEPTH) - 1);
+    }
+
+    private int checkIndex(String name, int index, int length) {
+        if (index < 0 || index >= length) {
+            throw invalidValue(name, index);
+        }
+        return index;
+    }
+
+    private static String fitsDate(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(millis));
+    }
+}
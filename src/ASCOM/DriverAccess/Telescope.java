@@ -1,13 +1,40 @@
 package ASCOM.DriverAccess;
 
 import ASCOM.DeviceInterface.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Implements a telescope class to access any registered ASCOM telescope
  */
 public class Telescope extends AscomDriver implements ITelescopeV3 {
 
-   
+    /**
+     * Telescope specific members.
+     */
+    private static final List<String> MEMBERS = Collections.unmodifiableList(Arrays.asList(
+            "AbortSlew", "AxisRates", "CanMoveAxis", "DestinationSideOfPier",
+            "FindHome", "MoveAxis", "Park", "PulseGuide", "SetPark", "SlewToAltAz",
+            "SlewToAltAzAsync", "SlewToCoordinates", "SlewToCoordinatesAsync",
+            "SlewToTarget", "SlewToTargetAsync", "SyncToAltAz",
+            "SyncToCoordinates", "SyncToTarget", "Unpark", "AlignmentMode",
+            "Altitude", "ApertureArea", "ApertureDiameter", "AtHome", "AtPark",
+            "Azimuth", "CanFindHome", "CanPark", "CanPulseGuide",
+            "CanSetDeclinationRate", "CanSetGuideRates", "CanSetPark",
+            "CanSetPierSide", "CanSetRightAscensionRate", "CanSetTracking",
+            "CanSlew", "CanSlewAltAz", "CanSlewAltAzAsync", "CanSlewAsync",
+            "CanSync", "CanSyncAltAz", "CanUnpark", "Declination",
+            "DeclinationRate", "DoesRefraction", "EquatorialSystem",
+            "FocalLength", "GuideRateDeclination", "GuideRateRightAscension",
+            "IsPulseGuiding", "RightAscension", "RightAscensionRate",
+            "SideOfPier", "SiderealTime", "SiteElevation", "SiteLatitude",
+            "SiteLongitude", "SlewSettleTime", "Slewing", "TargetDeclination",
+            "TargetRightAscension", "Tracking", "TrackingRate", "TrackingRates",
+            "UTCDate"));
+
     /**
      * Creates an instance of the telescope class.
      *
@@ -16,6 +43,48 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
         super(_name);
     }
 
+    /**
+     * Creates an instance of the telescope class that talks to the driver
+     * through the given transport.
+     *
+     */
+    public Telescope(DriverTransport transport) {
+        super(transport);
+    }
+
+    @Override
+    protected Collection<String> getMemberNames() {
+        List<String> members = new ArrayList<>(super.getMemberNames());
+        members.addAll(MEMBERS);
+        return members;
+    }
+
+    /**
+     * Reads the telescope position and state in one driver call.
+     *
+     * Returns RightAscension, Declination, Altitude, Azimuth, SideOfPier,
+     * Slewing, Tracking and SiderealTime with a common timestamp.
+     *
+     */
+    public TelescopeSnapshot snapshot() {
+        return snapshot(TelescopeSnapshot.ALL);
+    }
+
+    /**
+     * Reads the selected telescope state values in one driver call.
+     *
+     * @param fields mask of TelescopeSnapshot field constants, e.g.
+     * TelescopeSnapshot.POSITION | TelescopeSnapshot.SLEWING
+     */
+    public TelescopeSnapshot snapshot(int fields) {
+        String[] names = TelescopeSnapshot.propertyNames(fields);
+        double[] values = new double[names.length];
+        long start = System.nanoTime();
+        getTransport().getPropertiesAsDouble(names, values);
+        long end = System.nanoTime();
+        return new TelescopeSnapshot(fields, values, start, end, System.currentTimeMillis());
+    }
+
     /**
      * The Choose() method returns the DriverID of the selected driver. Choose()
      * allows you to optionally pass the DriverID of a "current" driver (you
@@ -23,9 +92,13 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * is pre-selected in the Chooser's list. In this case, the OK button starts
      * out enabled (lit-up); the assumption is that the pre-selected driver has
      * already been configured.      *
+     *
+     * See DriverTransports.choose: with the simulators the telescope
+     * simulator is returned without asking.
+     *
      */
-    public void Choose(String _theValue) {
-        return null;
+    public String Choose(String _theValue) {
+        return DriverTransports.choose("Telescope", _theValue);
     }
 
     /**
@@ -36,7 +109,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * error if is true.      *
      */
     public void AbortSlew() {
-        return null;
+        getTransport().invoke("AbortSlew");
     }
 
     /**
@@ -54,8 +127,9 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * positive rates.
      *
      */
-    public void AxisRates(ASCOM.DeviceInterface.TelescopeAxes) {
-        return null;
+    public IAxisRates AxisRates(ASCOM.DeviceInterface.TelescopeAxes axis) {
+        Object rates = getTransport().invoke("AxisRates", axis.ordinal());
+        return rates instanceof IAxisRates ? (IAxisRates) rates : new AxisRates((List<?>) rates);
     }
 
     /**
@@ -70,8 +144,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * axisTertiary 2 Tertiary axis (e.g. imager rotator/de-rotator)
      *
      */
-    public void CanMoveAxis(ASCOM.DeviceInterface.TelescopeAxes) {
-        return null;
+    public Boolean CanMoveAxis(ASCOM.DeviceInterface.TelescopeAxes axis) {
+        return (Boolean) getTransport().invoke("CanMoveAxis", axis.ordinal());
     }
 
     /**
@@ -81,7 +155,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public PierSide DestinationSideOfPier(Double RA, Double dec) {
-        return null;
+        Number side = (Number) getTransport().invoke("DestinationSideOfPier", RA, dec);
+        return PierSide.fromValue(side.intValue());
     }
 
     /**
@@ -94,7 +169,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void FindHome() {
-        return;
+        getTransport().invoke("FindHome");
     }
 
     /**
@@ -131,7 +206,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void MoveAxis(ASCOM.DeviceInterface.TelescopeAxes axis, Double rate) {
-        return ;
+        getTransport().invoke("MoveAxis", axis.ordinal(), rate);
     }
 
     /**
@@ -146,7 +221,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * nothing (harmless)      *
      */
     public void Park() {
-        return ;
+        getTransport().invoke("Park");
     }
 
     /**
@@ -169,6 +244,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void PulseGuide(ASCOM.DeviceInterface.GuideDirections guideDirections, long duration) {
+        getTransport().invoke("PulseGuide", guideDirections.ordinal(), (int) duration);
     }
 
     /**
@@ -176,6 +252,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void SetPark() {
+        getTransport().invoke("SetPark");
     }
 
     /**
@@ -194,6 +271,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void SlewToAltAz(Double azimuth, Double altitude) {
+        getTransport().invoke("SlewToAltAz", azimuth, altitude);
     }
 
     /**
@@ -213,6 +291,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void SlewToAltAzAsync(Double azimuth, Double altitude) {
+        getTransport().invoke("SlewToAltAzAsync", azimuth, altitude);
     }
 
     /**
@@ -229,6 +308,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void SlewToCoordinates(Double RA, Double dec) {
+        getTransport().invoke("SlewToCoordinates", RA, dec);
     }
 
     /**
@@ -248,6 +328,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void SlewToCoordinatesAsync(Double RA, Double dec) {
+        getTransport().invoke("SlewToCoordinatesAsync", RA, dec);
     }
 
     /**
@@ -261,7 +342,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * False.      *
      */
     public void SlewToTarget() {
-        return null;
+        getTransport().invoke("SlewToTarget");
     }
 
     /**
@@ -279,7 +360,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * Raises an error if is True, or if is False.      *
      */
     public void SlewToTargetAsync() {
-        return null;
+        getTransport().invoke("SlewToTargetAsync");
     }
 
     /**
@@ -291,8 +372,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void SyncToAltAz(Double RA, Double dec) {
-        return null;
+    public void SyncToAltAz(Double azimuth, Double altitude) {
+        getTransport().invoke("SyncToAltAz", azimuth, altitude);
     }
 
     /**
@@ -307,7 +388,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void SyncToCoordinates(Double RA, Double dec) {
-        return null;
+        getTransport().invoke("SyncToCoordinates", RA, dec);
     }
 
     /**
@@ -322,7 +403,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void SyncToTarget() {
-        return null;
+        getTransport().invoke("SyncToTarget");
     }
 
     /**
@@ -334,7 +415,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * nothing (harmless)      *
      */
     public void Unpark() {
-        return null;
+        getTransport().invoke("Unpark");
     }
 
     /**
@@ -343,8 +424,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * This is only available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setAlignmentMode(double _theValue) {
-        this.AlignmentMode = _theValue;
+    public void setAlignmentMode(AlignmentModes _theValue) {
+        getTransport().setProperty("AlignmentMode", _theValue.ordinal());
     }
 
     /**
@@ -353,8 +434,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * This is only available for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getAlignmentMode() {
-        return AlignmentMode;
+    public AlignmentModes getAlignmentMode() {
+        return AlignmentModes.values()[getTransport().getPropertyAsInt("AlignmentMode")];
     }
 
     /**
@@ -363,7 +444,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setAltitude(double _theValue) {
-        this.Altitude = _theValue;
+        getTransport().setProperty("Altitude", _theValue);
     }
 
     /**
@@ -372,7 +453,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getAltitude() {
-        return Altitude;
+        return getTransport().getPropertyAsDouble("Altitude");
     }
 
     /**
@@ -383,7 +464,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setApertureArea(double _theValue) {
-        this.ApertureArea = _theValue;
+        getTransport().setProperty("ApertureArea", _theValue);
     }
 
     /**
@@ -394,7 +475,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getApertureArea() {
-        return ApertureArea;
+        return getTransport().getPropertyAsDouble("ApertureArea");
     }
 
     /**
@@ -404,7 +485,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setApertureDiameter(double _theValue) {
-        this.ApertureDiameter = _theValue;
+        getTransport().setProperty("ApertureDiameter", _theValue);
     }
 
     /**
@@ -414,7 +495,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getApertureDiameter() {
-        return ApertureDiameter;
+        return getTransport().getPropertyAsDouble("ApertureDiameter");
     }
 
     /**
@@ -422,8 +503,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * following a FindHome() operation, and reset with any slew operation. This
      * property must be False if the telescope does not support homing.      *
      */
-    public void setAtHome(double _theValue) {
-        this.AtHome = _theValue;
+    public void setAtHome(Boolean _theValue) {
+        getTransport().setProperty("AtHome", _theValue);
     }
 
     /**
@@ -431,8 +512,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * following a FindHome() operation, and reset with any slew operation. This
      * property must be False if the telescope does not support homing.      *
      */
-    public double getAtHome() {
-        return AtHome;
+    public Boolean getAtHome() {
+        return getTransport().getPropertyAsBoolean("AtHome");
     }
 
     /**
@@ -449,8 +530,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setAtPark(double _theValue) {
-        this.AtPark = _theValue;
+    public void setAtPark(Boolean _theValue) {
+        getTransport().setProperty("AtPark", _theValue);
     }
 
     /**
@@ -467,8 +548,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getAtPark() {
-        return AtPark;
+    public Boolean getAtPark() {
+        return getTransport().getPropertyAsBoolean("AtPark");
     }
 
     /**
@@ -477,7 +558,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setAzimuth(double _theValue) {
-        this.Azimuth = _theValue;
+        getTransport().setProperty("Azimuth", _theValue);
     }
 
     /**
@@ -486,7 +567,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getAzimuth() {
-        return Azimuth;
+        return getTransport().getPropertyAsDouble("Azimuth");
     }
 
     /**
@@ -497,8 +578,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setCanFindHome(double _theValue) {
-        this.CanFindHome = _theValue;
+    public void setCanFindHome(Boolean _theValue) {
+        getTransport().setProperty("CanFindHome", _theValue);
     }
 
     /**
@@ -509,8 +590,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getCanFindHome() {
-        return CanFindHome;
+    public Boolean getCanFindHome() {
+        return getTransport().getPropertyAsBoolean("CanFindHome");
     }
 
     /**
@@ -520,8 +601,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setCanPark(double _theValue) {
-        this.CanPark = _theValue;
+    public void setCanPark(Boolean _theValue) {
+        getTransport().setProperty("CanPark", _theValue);
     }
 
     /**
@@ -531,8 +612,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getCanPark() {
-        return CanPark;
+    public Boolean getCanPark() {
+        return getTransport().getPropertyAsBoolean("CanPark");
     }
 
     /**
@@ -541,8 +622,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public void setCanPulseGuide(double _theValue) {
-        this.CanPulseGuide = _theValue;
+    public void setCanPulseGuide(Boolean _theValue) {
+        getTransport().setProperty("CanPulseGuide", _theValue);
     }
 
     /**
@@ -551,8 +632,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public double getCanPulseGuide() {
-        return CanPulseGuide;
+    public Boolean getCanPulseGuide() {
+        return getTransport().getPropertyAsBoolean("CanPulseGuide");
     }
 
     /**
@@ -561,8 +642,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public void setCanSetDeclinationRate(double _theValue) {
-        this.CanSetDeclinationRate = _theValue;
+    public void setCanSetDeclinationRate(Boolean _theValue) {
+        getTransport().setProperty("CanSetDeclinationRate", _theValue);
     }
 
     /**
@@ -571,8 +652,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public double getCanSetDeclinationRate() {
-        return CanSetDeclinationRate;
+    public Boolean getCanSetDeclinationRate() {
+        return getTransport().getPropertyAsBoolean("CanSetDeclinationRate");
     }
 
     /**
@@ -582,8 +663,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setCanSetGuideRates(double _theValue) {
-        this.CanSetGuideRates = _theValue;
+    public void setCanSetGuideRates(Boolean _theValue) {
+        getTransport().setProperty("CanSetGuideRates", _theValue);
     }
 
     /**
@@ -593,8 +674,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getCanSetGuideRates() {
-        return CanSetGuideRates;
+    public Boolean getCanSetGuideRates() {
+        return getTransport().getPropertyAsBoolean("CanSetGuideRates");
     }
 
     /**
@@ -605,8 +686,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setCanSetPark(double _theValue) {
-        this.CanSetPark = _theValue;
+    public void setCanSetPark(Boolean _theValue) {
+        getTransport().setProperty("CanSetPark", _theValue);
     }
 
     /**
@@ -617,8 +698,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * available for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getCanSetPark() {
-        return CanSetPark;
+    public Boolean getCanSetPark() {
+        return getTransport().getPropertyAsBoolean("CanSetPark");
     }
 
     /**
@@ -630,8 +711,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * connected. This is only available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setCanSetPierSide(double _theValue) {
-        this.CanSetPierSide = _theValue;
+    public void setCanSetPierSide(Boolean _theValue) {
+        getTransport().setProperty("CanSetPierSide", _theValue);
     }
 
     /**
@@ -643,8 +724,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * connected. This is only available for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getCanSetPierSide() {
-        return CanSetPierSide;
+    public Boolean getCanSetPierSide() {
+        return getTransport().getPropertyAsBoolean("CanSetPierSide");
     }
 
     /**
@@ -653,8 +734,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public void setCanSetRightAscensionRate(double _theValue) {
-        this.CanSetRightAscensionRate = _theValue;
+    public void setCanSetRightAscensionRate(Boolean _theValue) {
+        getTransport().setProperty("CanSetRightAscensionRate", _theValue);
     }
 
     /**
@@ -663,8 +744,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public double getCanSetRightAscensionRate() {
-        return CanSetRightAscensionRate;
+    public Boolean getCanSetRightAscensionRate() {
+        return getTransport().getPropertyAsBoolean("CanSetRightAscensionRate");
     }
 
     /**
@@ -673,8 +754,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public void setCanSetTracking(double _theValue) {
-        this.CanSetTracking = _theValue;
+    public void setCanSetTracking(Boolean _theValue) {
+        getTransport().setProperty("CanSetTracking", _theValue);
     }
 
     /**
@@ -683,8 +764,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public double getCanSetTracking() {
-        return CanSetTracking;
+    public Boolean getCanSetTracking() {
+        return getTransport().getPropertyAsBoolean("CanSetTracking");
     }
 
     /**
@@ -695,8 +776,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * guaranteed to be supported. See the property for the asynchronous slewing
      * capability flag. May raise an error if the telescope is not connected.      *
      */
-    public void setCanSlew(double _theValue) {
-        this.CanSlew = _theValue;
+    public void setCanSlew(Boolean _theValue) {
+        getTransport().setProperty("CanSlew", _theValue);
     }
 
     /**
@@ -707,8 +788,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * guaranteed to be supported. See the property for the asynchronous slewing
      * capability flag. May raise an error if the telescope is not connected.      *
      */
-    public double getCanSlew() {
-        return CanSlew;
+    public Boolean getCanSlew() {
+        return getTransport().getPropertyAsBoolean("CanSlew");
     }
 
     /**
@@ -720,8 +801,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * asynchronous slewing capability flag. May raise an error if the telescope
      * is not connected.      *
      */
-    public void setCanSlewAltAz(double _theValue) {
-        this.CanSlewAltAz = _theValue;
+    public void setCanSlewAltAz(Boolean _theValue) {
+        getTransport().setProperty("CanSlewAltAz", _theValue);
     }
 
     /**
@@ -733,8 +814,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * asynchronous slewing capability flag. May raise an error if the telescope
      * is not connected.      *
      */
-    public double getCanSlewAltAz() {
-        return CanSlewAltAz;
+    public Boolean getCanSlewAltAz() {
+        return getTransport().getPropertyAsBoolean("CanSlewAltAz");
     }
 
     /**
@@ -745,8 +826,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * supported. If this is True, then will also be true. May raise an error if
      * the telescope is not connected.      *
      */
-    public void setCanSlewAltAzAsync(double _theValue) {
-        this.CanSlewAltAzAsync = _theValue;
+    public void setCanSlewAltAzAsync(Boolean _theValue) {
+        getTransport().setProperty("CanSlewAltAzAsync", _theValue);
     }
 
     /**
@@ -757,8 +838,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * supported. If this is True, then will also be true. May raise an error if
      * the telescope is not connected.      *
      */
-    public double getCanSlewAltAzAsync() {
-        return CanSlewAltAzAsync;
+    public Boolean getCanSlewAltAzAsync() {
+        return getTransport().getPropertyAsBoolean("CanSlewAltAzAsync");
     }
 
     /**
@@ -769,8 +850,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * supported. If this is True, then will also be true. May raise an error if
      * the telescope is not connected.      *
      */
-    public void setCanSlewAsync(double _theValue) {
-        this.CanSlewAsync = _theValue;
+    public void setCanSlewAsync(Boolean _theValue) {
+        getTransport().setProperty("CanSlewAsync", _theValue);
     }
 
     /**
@@ -781,8 +862,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * supported. If this is True, then will also be true. May raise an error if
      * the telescope is not connected.      *
      */
-    public double getCanSlewAsync() {
-        return CanSlewAsync;
+    public Boolean getCanSlewAsync() {
+        return getTransport().getPropertyAsBoolean("CanSlewAsync");
     }
 
     /**
@@ -791,8 +872,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public void setCanSync(double _theValue) {
-        this.CanSync = _theValue;
+    public void setCanSync(Boolean _theValue) {
+        getTransport().setProperty("CanSync", _theValue);
     }
 
     /**
@@ -801,8 +882,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public double getCanSync() {
-        return CanSync;
+    public Boolean getCanSync() {
+        return getTransport().getPropertyAsBoolean("CanSync");
     }
 
     /**
@@ -811,8 +892,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public void setCanSyncAltAz(double _theValue) {
-        this.CanSyncAltAz = _theValue;
+    public void setCanSyncAltAz(Boolean _theValue) {
+        getTransport().setProperty("CanSyncAltAz", _theValue);
     }
 
     /**
@@ -821,8 +902,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      * May raise an error if the telescope is not connected.      *
      */
-    public double getCanSyncAltAz() {
-        return CanSyncAltAz;
+    public Boolean getCanSyncAltAz() {
+        return getTransport().getPropertyAsBoolean("CanSyncAltAz");
     }
 
     /**
@@ -833,8 +914,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * connected. This is only available for telescope InterfaceVersions 2 and 3
      *
      */
-    public void setCanUnpark(double _theValue) {
-        this.CanUnpark = _theValue;
+    public void setCanUnpark(Boolean _theValue) {
+        getTransport().setProperty("CanUnpark", _theValue);
     }
 
     /**
@@ -845,8 +926,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * connected. This is only available for telescope InterfaceVersions 2 and 3
      *
      */
-    public double getCanUnpark() {
-        return CanUnpark;
+    public Boolean getCanUnpark() {
+        return getTransport().getPropertyAsBoolean("CanUnpark");
     }
 
     /**
@@ -855,7 +936,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * property will raise an error if the value is unavailable.      *
      */
     public void setDeclination(double _theValue) {
-        this.Declination = _theValue;
+        getTransport().setProperty("Declination", _theValue);
     }
 
     /**
@@ -864,7 +945,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * property will raise an error if the value is unavailable.      *
      */
     public double getDeclination() {
-        return Declination;
+        return getTransport().getPropertyAsDouble("Declination");
     }
 
     /**
@@ -897,7 +978,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setDeclinationRate(double _theValue) {
-        this.DeclinationRate = _theValue;
+        getTransport().setProperty("DeclinationRate", _theValue);
     }
 
     /**
@@ -930,7 +1011,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getDeclinationRate() {
-        return DeclinationRate;
+        return getTransport().getPropertyAsDouble("DeclinationRate");
     }
 
     /**
@@ -958,8 +1039,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      *
      */
-    public void setDoesRefraction(double _theValue) {
-        this.DoesRefraction = _theValue;
+    public void setDoesRefraction(Boolean _theValue) {
+        getTransport().setProperty("DoesRefraction", _theValue);
     }
 
     /**
@@ -987,8 +1068,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      *
      */
-    public double getDoesRefraction() {
-        return DoesRefraction;
+    public Boolean getDoesRefraction() {
+        return getTransport().getPropertyAsBoolean("DoesRefraction");
     }
 
     /**
@@ -1008,7 +1089,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setEquatorialSystem(double _theValue) {
-        this.EquatorialSystem = _theValue;
+        getTransport().setProperty("EquatorialSystem", _theValue);
     }
 
     /**
@@ -1028,7 +1109,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getEquatorialSystem() {
-        return EquatorialSystem;
+        return getTransport().getPropertyAsDouble("EquatorialSystem");
     }
 
     /**
@@ -1040,7 +1121,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setFocalLength(double _theValue) {
-        this.FocalLength = _theValue;
+        getTransport().setProperty("FocalLength", _theValue);
     }
 
     /**
@@ -1052,7 +1133,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getFocalLength() {
-        return FocalLength;
+        return getTransport().getPropertyAsDouble("FocalLength");
     }
 
     /**
@@ -1078,7 +1159,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setGuideRateDeclination(double _theValue) {
-        this.GuideRateDeclination = _theValue;
+        getTransport().setProperty("GuideRateDeclination", _theValue);
     }
 
     /**
@@ -1104,7 +1185,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getGuideRateDeclination() {
-        return GuideRateDeclination;
+        return getTransport().getPropertyAsDouble("GuideRateDeclination");
     }
 
     /**
@@ -1130,7 +1211,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setGuideRateRightAscension(double _theValue) {
-        this.GuideRateRightAscension = _theValue;
+        getTransport().setProperty("GuideRateRightAscension", _theValue);
     }
 
     /**
@@ -1156,7 +1237,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getGuideRateRightAscension() {
-        return GuideRateRightAscension;
+        return getTransport().getPropertyAsDouble("GuideRateRightAscension");
     }
 
     /**
@@ -1165,8 +1246,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * Raises an error if the value of the property is false (the driver does
      * not support the method).      *
      */
-    public void setIsPulseGuiding(double _theValue) {
-        this.IsPulseGuiding = _theValue;
+    public void setIsPulseGuiding(Boolean _theValue) {
+        getTransport().setProperty("IsPulseGuiding", _theValue);
     }
 
     /**
@@ -1175,8 +1256,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * Raises an error if the value of the property is false (the driver does
      * not support the method).      *
      */
-    public double getIsPulseGuiding() {
-        return IsPulseGuiding;
+    public Boolean getIsPulseGuiding() {
+        return getTransport().getPropertyAsBoolean("IsPulseGuiding");
     }
 
     /**
@@ -1187,7 +1268,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * Reading the property will raise an error if the value is unavailable.      *
      */
     public void setRightAscension(double _theValue) {
-        this.RightAscension = _theValue;
+        getTransport().setProperty("RightAscension", _theValue);
     }
 
     /**
@@ -1198,7 +1279,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * Reading the property will raise an error if the value is unavailable.      *
      */
     public double getRightAscension() {
-        return RightAscension;
+        return getTransport().getPropertyAsDouble("RightAscension");
     }
 
     /**
@@ -1238,7 +1319,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setRightAscensionRate(double _theValue) {
-        this.RightAscensionRate = _theValue;
+        getTransport().setProperty("RightAscensionRate", _theValue);
     }
 
     /**
@@ -1278,7 +1359,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getRightAscensionRate() {
-        return RightAscensionRate;
+        return getTransport().getPropertyAsDouble("RightAscensionRate");
     }
 
     /**
@@ -1376,8 +1457,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * reports the pointing state as defined above.
      *
      */
-    public void setSideOfPier(double _theValue) {
-        this.SideOfPier = _theValue;
+    public void setSideOfPier(PierSide _theValue) {
+        getTransport().setProperty("SideOfPier", _theValue.getValue());
     }
 
     /**
@@ -1475,8 +1556,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * reports the pointing state as defined above.
      *
      */
-    public double getSideOfPier() {
-        return SideOfPier;
+    public PierSide getSideOfPier() {
+        return PierSide.fromValue(getTransport().getPropertyAsInt("SideOfPier"));
     }
 
     /**
@@ -1490,7 +1571,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * nutation in longitude and true ecliptic obliquity.      *
      */
     public void setSiderealTime(double _theValue) {
-        this.SiderealTime = _theValue;
+        getTransport().setProperty("SiderealTime", _theValue);
     }
 
     /**
@@ -1504,7 +1585,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * nutation in longitude and true ecliptic obliquity.      *
      */
     public double getSiderealTime() {
-        return SiderealTime;
+        return getTransport().getPropertyAsDouble("SiderealTime");
     }
 
     /**
@@ -1518,7 +1599,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setSiteElevation(double _theValue) {
-        this.SiteElevation = _theValue;
+        getTransport().setProperty("SiteElevation", _theValue);
     }
 
     /**
@@ -1532,7 +1613,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getSiteElevation() {
-        return SiteElevation;
+        return getTransport().getPropertyAsDouble("SiteElevation");
     }
 
     /**
@@ -1546,7 +1627,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setSiteLatitude(double _theValue) {
-        this.SiteLatitude = _theValue;
+        getTransport().setProperty("SiteLatitude", _theValue);
     }
 
     /**
@@ -1560,7 +1641,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getSiteLatitude() {
-        return SiteLatitude;
+        return getTransport().getPropertyAsDouble("SiteLatitude");
     }
 
     /**
@@ -1575,7 +1656,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setSiteLongitude(double _theValue) {
-        this.SiteLongitude = _theValue;
+        getTransport().setProperty("SiteLongitude", _theValue);
     }
 
     /**
@@ -1590,7 +1671,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getSiteLongitude() {
-        return SiteLongitude;
+        return getTransport().getPropertyAsDouble("SiteLongitude");
     }
 
     /**
@@ -1602,7 +1683,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * mounts that require extra settling time after a slew.      *
      */
     public void setSlewSettleTime(double _theValue) {
-        this.SlewSettleTime = _theValue;
+        getTransport().setProperty("SlewSettleTime", _theValue);
     }
 
     /**
@@ -1614,7 +1695,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * mounts that require extra settling time after a slew.      *
      */
     public double getSlewSettleTime() {
-        return SlewSettleTime;
+        return getTransport().getPropertyAsDouble("SlewSettleTime");
     }
 
     /**
@@ -1627,8 +1708,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * sidereal tracking, PulseGuide, , and . It reflects only motion caused by
      * one of the Slew commands, flipping caused by changing the property, or .      *
      */
-    public void setSlewing(double _theValue) {
-        this.Slewing = _theValue;
+    public void setSlewing(Boolean _theValue) {
+        getTransport().setProperty("Slewing", _theValue);
     }
 
     /**
@@ -1641,8 +1722,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * sidereal tracking, PulseGuide, , and . It reflects only motion caused by
      * one of the Slew commands, flipping caused by changing the property, or .      *
      */
-    public double getSlewing() {
-        return Slewing;
+    public Boolean getSlewing() {
+        return getTransport().getPropertyAsBoolean("Slewing");
     }
 
     /**
@@ -1654,7 +1735,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * the value has never been set or is otherwise unavailable.      *
      */
     public void setTargetDeclination(double _theValue) {
-        this.TargetDeclination = _theValue;
+        getTransport().setProperty("TargetDeclination", _theValue);
     }
 
     /**
@@ -1666,7 +1747,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * the value has never been set or is otherwise unavailable.      *
      */
     public double getTargetDeclination() {
-        return TargetDeclination;
+        return getTransport().getPropertyAsDouble("TargetDeclination");
     }
 
     /**
@@ -1678,7 +1759,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * value has never been set or is otherwise unavailable.      *
      */
     public void setTargetRightAscension(double _theValue) {
-        this.TargetRightAscension = _theValue;
+        getTransport().setProperty("TargetRightAscension", _theValue);
     }
 
     /**
@@ -1690,7 +1771,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * value has never been set or is otherwise unavailable.      *
      */
     public double getTargetRightAscension() {
-        return TargetRightAscension;
+        return getTransport().getPropertyAsDouble("TargetRightAscension");
     }
 
     /**
@@ -1701,8 +1782,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * property and thus may not support turning tracking on and off. See the
      * property.      *
      */
-    public void setTracking(double _theValue) {
-        this.Tracking = _theValue;
+    public void setTracking(Boolean _theValue) {
+        getTransport().setProperty("Tracking", _theValue);
     }
 
     /**
@@ -1713,8 +1794,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * property and thus may not support turning tracking on and off. See the
      * property.      *
      */
-    public double getTracking() {
-        return Tracking;
+    public Boolean getTracking() {
+        return getTransport().getPropertyAsBoolean("Tracking");
     }
 
     /**
@@ -1735,7 +1816,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public void setTrackingRate(double _theValue) {
-        this.TrackingRate = _theValue;
+        getTransport().setProperty("TrackingRate", _theValue);
     }
 
     /**
@@ -1756,7 +1837,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      *
      */
     public double getTrackingRate() {
-        return TrackingRate;
+        return getTransport().getPropertyAsDouble("TrackingRate");
     }
 
     /**
@@ -1767,8 +1848,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * telescope InterfaceVersions 2 and 3
      *
      */
-    public void setTrackingRates(double _theValue) {
-        this.TrackingRates = _theValue;
+    public void setTrackingRates(Object _theValue) {
+        getTransport().setProperty("TrackingRates", _theValue);
     }
 
     /**
@@ -1779,8 +1860,8 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * telescope InterfaceVersions 2 and 3
      *
      */
-    public double getTrackingRates() {
-        return TrackingRates;
+    public Object getTrackingRates() {
+        return getTransport().getProperty("TrackingRates");
     }
 
     /**
@@ -1796,7 +1877,7 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * otherwise unavailable.      *
      */
     public void setUTCDate(double _theValue) {
-        this.UTCDate = _theValue;
+        getTransport().setProperty("UTCDate", _theValue);
     }
 
     /**
@@ -1812,16 +1893,6 @@ public class Telescope extends AscomDriver implements ITelescopeV3 {
      * otherwise unavailable.      *
      */
     public double getUTCDate() {
-        return UTCDate;
-    }
-
-    @Override
-    public void PulseGuide(GuideDirections direction, long Duration) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
-
-    @Override
-    public void setAlignmentMode(AlignmentModes _theValue) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        return getTransport().getPropertyAsDouble("UTCDate");
     }
 }
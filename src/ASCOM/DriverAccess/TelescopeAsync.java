@@ -0,0 +1,173 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DeviceInterface.GuideDirections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Asynchronous view of a Telescope. Each operation starts the driver call and
+ * returns a future that completes when the mount reports the operation
+ * finished, instead of the caller polling Slewing or IsPulseGuiding.
+ *
+ * Completion is detected by a DevicePoller, by default the one shared by all
+ * devices. Cancelling a slew, park or home future aborts the motion. Failures
+ * to start an operation are reported through the returned future.
+ *
+ * Park and FindHome may not return until the mount has arrived, so they run
+ * on a thread belonging to this view; parking many mounts at once does not
+ * queue them behind each other. The thread exits when idle.
+ *
+ */
+public class TelescopeAsync {
+
+    /**
+     * Default time after which a slew, park or home is reported as failed.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+
+    private final Telescope telescope;
+    private final DevicePoller poller;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor blocking;
+
+    /**
+     * Creates an asynchronous view using the shared poller.
+     *
+     */
+    public TelescopeAsync(Telescope telescope) {
+        this(telescope, DevicePoller.shared(), DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     *
+     * @param telescope the telescope to drive
+     * @param poller poller that detects completion
+     * @param timeoutMillis time after which operations fail, 0 for none
+     */
+    public TelescopeAsync(Telescope telescope, DevicePoller poller, long timeoutMillis) {
+        this.telescope = telescope;
+        this.poller = poller;
+        this.timeoutMillis = timeoutMillis;
+        this.blocking = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                DevicePoller.daemonThreads("ascom4j-blocking"));
+        this.blocking.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the telescope driven by this view.
+     *
+     */
+    public Telescope getTelescope() {
+        return telescope;
+    }
+
+    /**
+     * Slews to equatorial coordinates; completes when Slewing is false.
+     *
+     */
+    public CompletableFuture<Void> slewToCoordinates(double ra, double dec) {
+        try {
+            telescope.SlewToCoordinatesAsync(ra, dec);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        return whenSlewDone();
+    }
+
+    /**
+     * Slews to horizontal coordinates; completes when Slewing is false.
+     *
+     */
+    public CompletableFuture<Void> slewToAltAz(double azimuth, double altitude) {
+        try {
+            telescope.SlewToAltAzAsync(azimuth, altitude);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        return whenSlewDone();
+    }
+
+    /**
+     * Slews to the current target; completes when Slewing is false.
+     *
+     */
+    public CompletableFuture<Void> slewToTarget() {
+        try {
+            telescope.SlewToTargetAsync();
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        return whenSlewDone();
+    }
+
+    /**
+     * Finds the home position; completes when FindHome has returned and
+     * AtHome is true.
+     *
+     */
+    public CompletableFuture<Void> findHome() {
+        return whenArrived(telescope::FindHome, telescope::getAtHome);
+    }
+
+    /**
+     * Parks the mount; completes when Park has returned and AtPark is true.
+     *
+     */
+    public CompletableFuture<Void> park() {
+        return whenArrived(telescope::Park, telescope::getAtPark);
+    }
+
+    /**
+     * Pulse guides; completes when IsPulseGuiding is false. The first check
+     * is made after the pulse duration.
+     *
+     */
+    public CompletableFuture<Void> pulseGuide(GuideDirections direction, long durationMillis) {
+        try {
+            telescope.PulseGuide(direction, durationMillis);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        return poller.watch(() -> !telescope.getIsPulseGuiding(), durationMillis,
+                timeoutMillis > 0 ? durationMillis + timeoutMillis : 0);
+    }
+
+    private CompletableFuture<Void> whenSlewDone() {
+        CompletableFuture<Void> future = poller.watch(() -> !telescope.getSlewing(), 0, timeoutMillis);
+        future.whenComplete((v, e) -> {
+            if (future.isCancelled()) {
+                telescope.AbortSlew();
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<Void> whenArrived(Runnable call, BooleanSupplier arrived) {
+        CompletableFuture<Void> started = CompletableFuture.runAsync(call, blocking);
+        // The driver is not read until the call returns, so the poller thread
+        // never waits behind a blocking Park or FindHome.
+        CompletableFuture<Void> future = poller.watch(() -> started.isDone() && arrived.getAsBoolean(), 0,
+                timeoutMillis);
+        started.whenComplete((v, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+            }
+        });
+        future.whenComplete((v, e) -> {
+            if (future.isCancelled()) {
+                started.cancel(false);
+                telescope.AbortSlew();
+            }
+        });
+        return future;
+    }
+
+    private static CompletableFuture<Void> failed(Throwable e) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+}
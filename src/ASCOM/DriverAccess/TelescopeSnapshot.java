@@ -0,0 +1,218 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DeviceInterface.PierSide;
+
+/**
+ * Immutable set of telescope state values read together by
+ * Telescope.snapshot(). The values are held in one flat primitive array, and
+ * a bit mask records which fields were read. Reading a field that is not in
+ * the snapshot throws an IllegalStateException.
+ *
+ * The timestamps mark the midpoint of the driver read, so position and time
+ * are consistent to within half of getReadNanos().
+ *
+ */
+public final class TelescopeSnapshot {
+
+    public static final int RIGHT_ASCENSION = 1;
+    public static final int DECLINATION = 1 << 1;
+    public static final int ALTITUDE = 1 << 2;
+    public static final int AZIMUTH = 1 << 3;
+    public static final int SIDE_OF_PIER = 1 << 4;
+    public static final int SLEWING = 1 << 5;
+    public static final int TRACKING = 1 << 6;
+    public static final int SIDEREAL_TIME = 1 << 7;
+
+    /**
+     * Equatorial position only.
+     */
+    public static final int POSITION = RIGHT_ASCENSION | DECLINATION;
+
+    /**
+     * Every field.
+     */
+    public static final int ALL = (1 << 8) - 1;
+
+    /**
+     * Driver property for each field, indexed by bit number.
+     */
+    private static final String[] PROPERTIES = {
+        "RightAscension", "Declination", "Altitude", "Azimuth",
+        "SideOfPier", "Slewing", "Tracking", "SiderealTime"};
+
+    /**
+     * Property names to read for each mask.
+     */
+    private static final String[][] NAMES = new String[ALL + 1][];
+
+    static {
+        for (int mask = 0; mask <= ALL; mask++) {
+            String[] names = new String[Integer.bitCount(mask)];
+            for (int bit = 0, n = 0; bit < PROPERTIES.length; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    names[n++] = PROPERTIES[bit];
+                }
+            }
+            NAMES[mask] = names;
+        }
+    }
+
+    private final int fields;
+    private final double[] values = new double[PROPERTIES.length];
+    private final long timestamp;
+    private final long nanoTime;
+    private final long readNanos;
+
+    /**
+     *
+     * @param fields mask of the fields read
+     * @param read values in the order of propertyNames(fields)
+     * @param startNanos System.nanoTime() before the read
+     * @param endNanos System.nanoTime() after the read
+     * @param endMillis System.currentTimeMillis() after the read
+     */
+    TelescopeSnapshot(int fields, double[] read, long startNanos, long endNanos, long endMillis) {
+        this.fields = fields;
+        for (int bit = 0, n = 0; bit < PROPERTIES.length; bit++) {
+            if ((fields & (1 << bit)) != 0) {
+                values[bit] = read[n++];
+            }
+        }
+        this.readNanos = endNanos - startNanos;
+        this.nanoTime = startNanos + readNanos / 2;
+        this.timestamp = endMillis - readNanos / 2000000L;
+    }
+
+    /**
+     * Gets the driver property names to read for a field mask, in bit order.
+     *
+     */
+    static String[] propertyNames(int fields) {
+        if ((fields & ~ALL) != 0) {
+            throw new IllegalArgumentException("Unknown snapshot fields " + Integer.toHexString(fields));
+        }
+        return NAMES[fields];
+    }
+
+    /**
+     * Gets the mask of the fields in this snapshot.
+     *
+     */
+    public int getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns true if the given fields are all in this snapshot.
+     *
+     */
+    public boolean has(int field) {
+        return (fields & field) == field;
+    }
+
+    /**
+     * Gets the wall clock time of the read (milliseconds since the epoch).
+     *
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the System.nanoTime() of the read, for interval arithmetic.
+     *
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    /**
+     * Gets how long the driver read took (nanoseconds).
+     *
+     */
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+    /**
+     * Gets the right ascension (hours).
+     *
+     */
+    public double getRightAscension() {
+        return value(RIGHT_ASCENSION, 0);
+    }
+
+    /**
+     * Gets the declination (degrees).
+     *
+     */
+    public double getDeclination() {
+        return value(DECLINATION, 1);
+    }
+
+    /**
+     * Gets the altitude (degrees).
+     *
+     */
+    public double getAltitude() {
+        return value(ALTITUDE, 2);
+    }
+
+    /**
+     * Gets the azimuth (degrees).
+     *
+     */
+    public double getAzimuth() {
+        return value(AZIMUTH, 3);
+    }
+
+    /**
+     * Gets the pointing state.
+     *
+     */
+    public PierSide getSideOfPier() {
+        return PierSide.fromValue((int) value(SIDE_OF_PIER, 4));
+    }
+
+    /**
+     * Gets whether the telescope was slewing.
+     *
+     */
+    public boolean isSlewing() {
+        return value(SLEWING, 5) != 0.0;
+    }
+
+    /**
+     * Gets whether the telescope was tracking.
+     *
+     */
+    public boolean isTracking() {
+        return value(TRACKING, 6) != 0.0;
+    }
+
+    /**
+     * Gets the local apparent sidereal time (hours).
+     *
+     */
+    public double getSiderealTime() {
+        return value(SIDEREAL_TIME, 7);
+    }
+
+    private double value(int field, int index) {
+        if ((fields & field) == 0) {
+            throw new IllegalStateException(PROPERTIES[index] + " is not in this snapshot");
+        }
+        return values[index];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TelescopeSnapshot[");
+        for (int bit = 0; bit < PROPERTIES.length; bit++) {
+            if ((fields & (1 << bit)) != 0) {
+                sb.append(PROPERTIES[bit]).append('=').append(values[bit]).append(' ');
+            }
+        }
+        return sb.append("t=").append(timestamp).append(']').toString();
+    }
+}
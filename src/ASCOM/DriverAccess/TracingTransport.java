@@ -0,0 +1,205 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.Utilities.TraceLogger;
+import java.util.Collection;
+
+/**
+ * Transport decorator that logs every driver call to a TraceLogger: the
+ * member, what was done, the value read, written or returned and the time
+ * the call took.
+ *
+ * <pre>
+ * TraceLogger trace = new TraceLogger("Telescope");
+ * Telescope scope = new Telescope(new TracingTransport(
+ *         DriverTransports.open("ASCOM.Simulator.Telescope"), trace));
+ * </pre>
+ *
+ * Logging only stores the call in the logger's ring; values are formatted
+ * and written by the logger's thread. While the logger is disabled, calls
+ * pass straight through. A call that fails is logged as an issue and the
+ * exception rethrown.
+ *
+ */
+public class TracingTransport implements DriverTransport {
+
+    private final DriverTransport transport;
+    private final TraceLogger trace;
+
+    /**
+     *
+     * @param transport transport to the driver
+     * @param trace logger to write to
+     */
+    public TracingTransport(DriverTransport transport, TraceLogger trace) {
+        this.transport = transport;
+        this.trace = trace;
+    }
+
+    /**
+     * Gets the logger calls are written to.
+     *
+     */
+    public TraceLogger getTraceLogger() {
+        return trace;
+    }
+
+    @Override
+    public Object invoke(String member, Object... args) {
+        if (!trace.getEnabled()) {
+            return transport.invoke(member, args);
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = transport.invoke(member, args);
+            trace.LogCall(member, "Invoke", args.length == 0 ? result : new Object[]{args.clone(), result},
+                    System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            throw failed(member, e);
+        }
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        if (!trace.getEnabled()) {
+            return transport.getProperty(name);
+        }
+        long start = System.nanoTime();
+        try {
+            Object value = transport.getProperty(name);
+            trace.LogCall(name, "Get", value, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            throw failed(name, e);
+        }
+    }
+
+    @Override
+    public boolean getPropertyAsBoolean(String name) {
+        if (!trace.getEnabled()) {
+            return transport.getPropertyAsBoolean(name);
+        }
+        long start = System.nanoTime();
+        try {
+            boolean value = transport.getPropertyAsBoolean(name);
+            trace.LogCall(name, "Get", value, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            throw failed(name, e);
+        }
+    }
+
+    @Override
+    public double getPropertyAsDouble(String name) {
+        if (!trace.getEnabled()) {
+            return transport.getPropertyAsDouble(name);
+        }
+        long start = System.nanoTime();
+        try {
+            double value = transport.getPropertyAsDouble(name);
+            trace.LogCall(name, "Get", value, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            throw failed(name, e);
+        }
+    }
+
+    @Override
+    public int getPropertyAsInt(String name) {
+        if (!trace.getEnabled()) {
+            return transport.getPropertyAsInt(name);
+        }
+        long start = System.nanoTime();
+        try {
+            int value = transport.getPropertyAsInt(name);
+            trace.LogCall(name, "Get", value, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            throw failed(name, e);
+        }
+    }
+
+    @Override
+    public String getPropertyAsString(String name) {
+        if (!trace.getEnabled()) {
+            return transport.getPropertyAsString(name);
+        }
+        long start = System.nanoTime();
+        try {
+            String value = transport.getPropertyAsString(name);
+            trace.LogCall(name, "Get", value, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            throw failed(name, e);
+        }
+    }
+
+    /**
+     * Logs the batch as one call, with the names and a copy of the values.
+     *
+     */
+    @Override
+    public void getPropertiesAsDouble(String[] names, double[] values) {
+        if (!trace.getEnabled()) {
+            transport.getPropertiesAsDouble(names, values);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            transport.getPropertiesAsDouble(names, values);
+            trace.LogCall("Properties", "Get", new Object[]{names.clone(), values.clone()},
+                    System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            throw failed("Properties", e);
+        }
+    }
+
+    /**
+     * Logs the read without the pixels.
+     *
+     */
+    @Override
+    public void getPropertyAsImage(String name, ImageBuffer image) {
+        if (!trace.getEnabled()) {
+            transport.getPropertyAsImage(name, image);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            transport.getPropertyAsImage(name, image);
+            trace.LogCall(name, "Get image", null, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            throw failed(name, e);
+        }
+    }
+
+    @Override
+    public void setProperty(String name, Object value) {
+        if (!trace.getEnabled()) {
+            transport.setProperty(name, value);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            transport.setProperty(name, value);
+            trace.LogCall(name, "Set", value, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            throw failed(name, e);
+        }
+    }
+
+    @Override
+    public void resolve(Collection<String> members) {
+        transport.resolve(members);
+    }
+
+    @Override
+    public void release() {
+        transport.release();
+    }
+
+    private RuntimeException failed(String member, RuntimeException e) {
+        trace.LogIssue(member, String.valueOf(e.getMessage()));
+        return e;
+    }
+}
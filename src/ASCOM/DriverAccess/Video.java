@@ -0,0 +1,412 @@
+package ASCOM.DriverAccess;
+
+import ASCOM.DeviceInterface.SensorType;
+import ASCOM.DeviceInterface.VideoCameraFrameRate;
+import ASCOM.DeviceInterface.VideoCameraState;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides universal access to Video drivers
+ */
+public class Video extends AscomDriver {
+
+    /**
+     * Video specific members.
+     */
+    private static final List<String> MEMBERS = Collections.unmodifiableList(Arrays.asList(
+            "ConfigureDeviceProperties", "StartRecordingVideoFile",
+            "StopRecordingVideoFile", "VideoCaptureDeviceName",
+            "ExposureMax", "ExposureMin", "FrameRate",
+            "SupportedIntegrationRates", "IntegrationRate", "SensorName",
+            "SensorType", "Width", "Height", "PixelSizeX", "PixelSizeY",
+            "BitDepth", "VideoCodec", "VideoFileFormat",
+            "VideoFramesBufferSize", "CameraState", "GainMax", "GainMin",
+            "Gain", "Gains", "GammaMax", "GammaMin", "Gamma", "Gammas",
+            "CanConfigureDeviceProperties", "LastVideoFrame"));
+
+    /**
+     * Creates a Video object with the given Prog ID
+     *
+     */
+    public Video(String _name) {
+        super(_name);
+    }
+
+    /**
+     * Creates a Video object that talks to the driver through the given
+     * transport.
+     *
+     */
+    public Video(DriverTransport transport) {
+        super(transport);
+    }
+
+    @Override
+    protected Collection<String> getMemberNames() {
+        List<String> members = new ArrayList<>(super.getMemberNames());
+        members.addAll(MEMBERS);
+        return members;
+    }
+
+    /**
+     * Brings up the ASCOM Chooser Dialog to choose a Video device
+     *
+     * See DriverTransports.choose: with the simulators the video simulator
+     * is returned without asking.
+     *
+     */
+    public String Choose(String _theValue) {
+        return DriverTransports.choose("Video", _theValue);
+    }
+
+    /**
+     * Starts recording a new video file.
+     *
+     * @param preferredFileName the file name requested by the client; the
+     * driver may change it
+     * @return the name of the file actually being recorded
+     */
+    public String StartRecordingVideoFile(String preferredFileName) {
+        return (String) getTransport().invoke("StartRecordingVideoFile", preferredFileName);
+    }
+
+    /**
+     * Stops the recording of a video file.
+     *
+     */
+    public void StopRecordingVideoFile() {
+        getTransport().invoke("StopRecordingVideoFile");
+    }
+
+    /**
+     * Displays a device properties configuration dialog that allows the
+     * configuration of specialized settings.
+     *
+     * This dialog is not intended to be used in unattended mode but can give
+     * greater control over video cameras that provide special features.
+     *
+     */
+    public void ConfigureDeviceProperties() {
+        getTransport().invoke("ConfigureDeviceProperties");
+    }
+
+    /**
+     * Gets the name of the video capture device when such a device is used.
+     *
+     * For analogue video this is usually the video capture card or dongle
+     * attached to the computer.
+     *
+     */
+    public String getVideoCaptureDeviceName() {
+        return getTransport().getPropertyAsString("VideoCaptureDeviceName");
+    }
+
+    /**
+     * Gets the maximum supported exposure (integration time) in seconds.
+     *
+     * This value is for information purposes only. The exposure cannot be set
+     * directly in seconds, use IntegrationRate to change the exposure.
+     *
+     */
+    public double getExposureMax() {
+        return getTransport().getPropertyAsDouble("ExposureMax");
+    }
+
+    /**
+     * Gets the minimum supported exposure (integration time) in seconds.
+     *
+     * This value is for information purposes only. The exposure cannot be set
+     * directly in seconds, use IntegrationRate to change the exposure.
+     *
+     */
+    public double getExposureMin() {
+        return getTransport().getPropertyAsDouble("ExposureMin");
+    }
+
+    /**
+     * Gets the frame rate at which the camera is running.
+     *
+     * Analogue cameras run in one of the two fixed frame rates - 25fps for PAL
+     * video and 29.97fps for NTSC video. Digital cameras usually can run at a
+     * variable frame rate.
+     *
+     */
+    public VideoCameraFrameRate getFrameRate() {
+        return VideoCameraFrameRate.fromValue(getTransport().getPropertyAsInt("FrameRate"));
+    }
+
+    /**
+     * Gets the list of integration rates supported by the video camera.
+     *
+     */
+    public Object getSupportedIntegrationRates() {
+        return getTransport().getProperty("SupportedIntegrationRates");
+    }
+
+    /**
+     * Sets the index into SupportedIntegrationRates of the selected camera
+     * integration rate.
+     *
+     * Can be used to adjust the integration rate (exposure) of the camera, if
+     * supported.
+     *
+     */
+    public void setIntegrationRate(int _theValue) {
+        getTransport().setProperty("IntegrationRate", _theValue);
+    }
+
+    /**
+     * Gets the index into SupportedIntegrationRates of the selected camera
+     * integration rate.
+     *
+     * Can be used to adjust the integration rate (exposure) of the camera, if
+     * supported.
+     *
+     */
+    public int getIntegrationRate() {
+        return getTransport().getPropertyAsInt("IntegrationRate");
+    }
+
+    /**
+     * Gets the last video frame as an IVideoFrame with its ImageArray
+     * property populated.
+     *
+     * Each call allocates the whole frame; use getLastVideoFrame(FramePool)
+     * or getLastVideoFrame(ImageBuffer) to download into reusable storage
+     * instead.
+     *
+     */
+    public Object getLastVideoFrame() {
+        return getTransport().getProperty("LastVideoFrame");
+    }
+
+    /**
+     * Downloads the pixels of the last video frame into a reusable buffer,
+     * row by row with X varying fastest.
+     *
+     * @return the buffer
+     */
+    public ImageBuffer getLastVideoFrame(ImageBuffer image) {
+        getTransport().getPropertyAsImage("LastVideoFrame", image);
+        return image;
+    }
+
+    /**
+     * Downloads the pixels of the last video frame into a frame leased from
+     * a pool, waiting for a free frame if all are in use. Release the frame
+     * once the image has been processed.
+     *
+     * @return the leased frame
+     */
+    public FramePool.Frame getLastVideoFrame(FramePool pool) {
+        return pool.download(getTransport(), "LastVideoFrame");
+    }
+
+    /**
+     * Gets the name (datasheet part number) of the sensor, e.g. ICX285AL.
+     *
+     */
+    public String getSensorName() {
+        return getTransport().getPropertyAsString("SensorName");
+    }
+
+    /**
+     * Gets the type of colour information returned by the camera sensor.
+     *
+     */
+    public SensorType getSensorType() {
+        return SensorType.fromValue(getTransport().getPropertyAsInt("SensorType"));
+    }
+
+    /**
+     * Gets the width of the video frame in pixels.
+     *
+     * For analogue video cameras working via a frame grabber the dimensions of
+     * the video frames may be different than the dimension of the CCD chip.
+     *
+     */
+    public int getWidth() {
+        return getTransport().getPropertyAsInt("Width");
+    }
+
+    /**
+     * Gets the height of the video frame in pixels.
+     *
+     * For analogue video cameras working via a frame grabber the dimensions of
+     * the video frames may be different than the dimension of the CCD chip.
+     *
+     */
+    public int getHeight() {
+        return getTransport().getPropertyAsInt("Height");
+    }
+
+    /**
+     * Gets the width of the CCD chip pixels in microns.
+     *
+     */
+    public double getPixelSizeX() {
+        return getTransport().getPropertyAsDouble("PixelSizeX");
+    }
+
+    /**
+     * Gets the height of the CCD chip pixels in microns.
+     *
+     */
+    public double getPixelSizeY() {
+        return getTransport().getPropertyAsDouble("PixelSizeY");
+    }
+
+    /**
+     * Gets the bit depth the camera can produce.
+     *
+     */
+    public int getBitDepth() {
+        return getTransport().getPropertyAsInt("BitDepth");
+    }
+
+    /**
+     * Gets the video codec used to record the video file.
+     *
+     * For AVI files this is usually the FourCC identifier of the codec, e.g.
+     * XVID, DVSD, YUY2, HFYU. If the recorded video file doesn't use codecs an
+     * empty string is returned.
+     *
+     */
+    public String getVideoCodec() {
+        return getTransport().getPropertyAsString("VideoCodec");
+    }
+
+    /**
+     * Gets the file format of the recorded video file, e.g. AVI, MPEG, ADV etc.
+     *
+     */
+    public String getVideoFileFormat() {
+        return getTransport().getPropertyAsString("VideoFileFormat");
+    }
+
+    /**
+     * Gets the size of the video frame buffer in frames, 0 if the driver does
+     * not buffer frames.
+     *
+     * When retrieving video frames using LastVideoFrame the driver may use a
+     * buffer to queue the frames waiting to be read by the client.
+     *
+     */
+    public int getVideoFramesBufferSize() {
+        return getTransport().getPropertyAsInt("VideoFramesBufferSize");
+    }
+
+    /**
+     * Gets the current camera operational state.
+     *
+     * VIDEO_CAMERA_RUNNING: the camera is running and video frames are
+     * available for viewing and recording. VIDEO_CAMERA_RECORDING: the camera
+     * is running and recording a video file. VIDEO_CAMERA_ERROR: camera error
+     * condition serious enough to prevent further operations.
+     *
+     */
+    public VideoCameraState getCameraState() {
+        return VideoCameraState.fromValue(getTransport().getPropertyAsInt("CameraState"));
+    }
+
+    /**
+     * Gets the maximum value of Gain.
+     *
+     */
+    public int getGainMax() {
+        return getTransport().getPropertyAsInt("GainMax");
+    }
+
+    /**
+     * Gets the minimum value of Gain.
+     *
+     */
+    public int getGainMin() {
+        return getTransport().getPropertyAsInt("GainMin");
+    }
+
+    /**
+     * Sets the index into Gains of the selected camera gain, or the gain value
+     * between GainMin and GainMax.
+     *
+     */
+    public void setGain(int _theValue) {
+        getTransport().setProperty("Gain", (short) _theValue);
+    }
+
+    /**
+     * Gets the index into Gains of the selected camera gain, or the gain value
+     * between GainMin and GainMax.
+     *
+     */
+    public int getGain() {
+        return getTransport().getPropertyAsInt("Gain");
+    }
+
+    /**
+     * Gets the gains supported by the camera.
+     *
+     */
+    public Object getGains() {
+        return getTransport().getProperty("Gains");
+    }
+
+    /**
+     * Gets the maximum value of Gamma.
+     *
+     */
+    public int getGammaMax() {
+        return getTransport().getPropertyAsInt("GammaMax");
+    }
+
+    /**
+     * Gets the minimum value of Gamma.
+     *
+     */
+    public int getGammaMin() {
+        return getTransport().getPropertyAsInt("GammaMin");
+    }
+
+    /**
+     * Sets the index into Gammas of the selected camera gamma, or the gamma
+     * value between GammaMin and GammaMax.
+     *
+     */
+    public void setGamma(int _theValue) {
+        getTransport().setProperty("Gamma", (short) _theValue);
+    }
+
+    /**
+     * Gets the index into Gammas of the selected camera gamma, or the gamma
+     * value between GammaMin and GammaMax.
+     *
+     */
+    public int getGamma() {
+        return getTransport().getPropertyAsInt("Gamma");
+    }
+
+    /**
+     * Gets the gammas supported by the camera.
+     *
+     * This list can contain the widely used values of OFF, LO and HI that
+     * correspond to gammas of 1.00, 0.45 and 0.35 as well as other extended
+     * values.
+     *
+     */
+    public Object getGammas() {
+        return getTransport().getProperty("Gammas");
+    }
+
+    /**
+     * Gets True if the driver supports custom device properties configuration
+     * via the ConfigureDeviceProperties method.
+     *
+     */
+    public Boolean getCanConfigureDeviceProperties() {
+        return getTransport().getPropertyAsBoolean("CanConfigureDeviceProperties");
+    }
+}
@@ -0,0 +1,104 @@
+package ASCOM;
+
+/*
+
+              This is the generic driver exception. Drivers are permitted to directly throw this
+              exception as well as any derived exceptions. The Number property carries the
+              COM error code reported by the driver.
+              This exception should only be thrown if there is no other more appropriate exception already defined, e.g. PropertyNotImplemented,
+                InvalidOperationException, InvalidValueException, NotConnectedException etc.
+              As good programming practice, the message should not be empty, so that users understand why the exception was thrown.
+
+
+
+*/
+public class DriverException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Error code returned when a property or method is not implemented.
+     */
+    public static final int NOT_IMPLEMENTED = 0x80040400;
+
+    /**
+     * Error code returned when a value is out of range or otherwise invalid.
+     */
+    public static final int INVALID_VALUE = 0x80040401;
+
+    /**
+     * Error code returned when an operation requires a connected device.
+     */
+    public static final int NOT_CONNECTED = 0x80040407;
+
+    /**
+     * Error code returned when an operation is not valid in the current
+     * state of the device.
+     */
+    public static final int INVALID_OPERATION = 0x8004040B;
+
+    /**
+     * Generic error code used when no more specific code is available.
+     */
+    public static final int DRIVER_ERROR = 0x800404FF;
+
+    /*
+
+              The COM error code for this exception (hex 80040400 - 800404FF)
+
+
+     */
+    private final int number;
+
+    /*
+
+              Create a new ASCOM exception using the specified text message and error code.
+
+
+     */
+    public DriverException(String message, int number) {
+        super(message);
+        this.number = number;
+    }
+
+    /*
+
+              Create a new ASCOM exception based on another exception plus additional descriptive text and error code.
+
+
+     */
+    public DriverException(String message, int number, Throwable cause) {
+        super(message, cause);
+        this.number = number;
+    }
+
+    /*
+
+              Initializes a new instance with a human-readable descriptive message.
+
+
+     */
+    public DriverException(String message) {
+        this(message, DRIVER_ERROR);
+    }
+
+    /*
+
+              Initializes a new instance from another caught exception and a human-readable descriptive message.
+
+
+     */
+    public DriverException(String message, Throwable cause) {
+        this(message, DRIVER_ERROR, cause);
+    }
+
+    /*
+ Gets
+              The COM error code for this exception (hex 80040400 - 800404FF)
+
+
+     */
+    public int getNumber() {
+        return number;
+    }
+}
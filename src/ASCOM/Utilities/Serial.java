@@ -0,0 +1,677 @@
+package ASCOM.Utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Provides a simple set of commands to use a serial port: ASCII and binary
+ * I/O with controllable timeout.
+ *
+ * PortName is the path of a tty or pseudo-terminal, such as /dev/ttyUSB0
+ * or one end of a socat pty pair, or tcp://host:port for a serial server.
+ * A tty is configured with stty when connecting; DTREnable and RTSEnable
+ * are kept for compatibility but not applied, as stty cannot drive the
+ * lines.
+ *
+ * Every port is served by a SerialEngine, which frames responses on one
+ * thread for any number of ports; the calls here block the calling thread
+ * until their request completes. Use getLink to submit requests without
+ * blocking. Port settings take effect on the next connect.
+ *
+ * Set a SerialRecorder to capture the port's traffic and the messages
+ * passed to LogMessage to a file, off the calling and engine threads.
+ *
+ */
+public class Serial {
+
+    private static final int DEFAULT_TIMEOUT_MS = 5000;
+    private static final long GRACE_MS = 1000;
+
+    private final SerialEngine engine;
+    private String PortName = "COM1";
+    private SerialSpeed Speed = SerialSpeed.PS_9600;
+    private int DataBits = 8;
+    private SerialParity Parity = SerialParity.NONE;
+    private SerialStopBits StopBits = SerialStopBits.ONE;
+    private SerialHandshake Handshake = SerialHandshake.NONE;
+    private boolean DTREnable = true;
+    private boolean RTSEnable;
+    private int ReceiveTimeoutMs = DEFAULT_TIMEOUT_MS;
+    private int bufferSize = SerialLink.DEFAULT_BUFFER_SIZE;
+    private SerialRecorder recorder;
+    private SerialLink link;
+    private ByteBuffer command = ByteBuffer.allocateDirect(256);
+    private byte[] response = new byte[256];
+
+    /**
+     * Creates a port served by the shared engine.
+     *
+     */
+    public Serial() throws IOException {
+        this(SerialEngine.shared());
+    }
+
+    /**
+     * Creates a port served by the given engine.
+     *
+     */
+    public Serial(SerialEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("An engine is required");
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Disposes of resources used by the serial object.
+     *
+     */
+    public synchronized void Dispose() {
+        if (link != null) {
+            link.close();
+            link = null;
+        }
+    }
+
+    /**
+     * Adds a message to the serial trace, if the port is connected and
+     * being recorded.
+     *
+     * This can be called regardless of whether logging is enabled.
+     *
+     */
+    public synchronized void LogMessage(String Caller, String Data) {
+        if (link != null) {
+            link.note(Caller + " " + Data);
+        }
+    }
+
+    /**
+     * Translates a supplied string into hex characters: control and
+     * non-ASCII characters become [XX], the rest are kept.
+     *
+     */
+    public String MakeHex(String Data) {
+        StringBuilder hex = new StringBuilder(Data.length() * 2);
+        for (int i = 0; i < Data.length(); i++) {
+            char c = Data.charAt(i);
+            if (c < 32 || c > 126) {
+                String digits = Integer.toHexString(c).toUpperCase();
+                hex.append(digits.length() < 2 ? "[0" : "[").append(digits).append(']');
+            } else {
+                hex.append(c);
+            }
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Clears the ASCOM serial port receive buffers.
+     *
+     */
+    public synchronized void ClearBuffers() throws IOException {
+        Call call = new Call();
+        link().clear(call);
+        awaitQuietly(call, 0);
+    }
+
+    /**
+     * Receive at least one text character from the ASCOM serial port.
+     *
+     * This method reads all of the characters currently in the serial
+     * receive buffer. It will not return unless it reads at least one
+     * character.
+     *
+     * @throws TimeoutException if nothing arrives in time
+     */
+    public synchronized String Receive() throws IOException, TimeoutException {
+        return text(exchange(null, SerialFraming.AVAILABLE));
+    }
+
+    /**
+     * Receive one binary byte from the ASCOM serial port.
+     *
+     * @throws TimeoutException if nothing arrives in time
+     */
+    public synchronized byte ReceiveByte() throws IOException, TimeoutException {
+        exchange(null, SerialFraming.counted(1));
+        return response[0];
+    }
+
+    /**
+     * Receive exactly the given number of characters from the ASCOM serial
+     * port and return as a string.
+     *
+     * @throws TimeoutException if they do not arrive in time
+     */
+    public synchronized String ReceiveCounted(int Count) throws IOException, TimeoutException {
+        return text(exchange(null, SerialFraming.counted(Count)));
+    }
+
+    /**
+     * Receive exactly the given number of characters from the ASCOM serial
+     * port and return as a byte array.
+     *
+     * @throws TimeoutException if they do not arrive in time
+     */
+    public synchronized byte[] ReceiveCountedBinary(int Count) throws IOException, TimeoutException {
+        return Arrays.copyOf(response, exchange(null, SerialFraming.counted(Count)));
+    }
+
+    /**
+     * Receive characters from the ASCOM serial port until the given
+     * terminator string is seen. The terminator is included.
+     *
+     * @throws TimeoutException if the terminator does not arrive in time
+     */
+    public synchronized String ReceiveTerminated(String Terminator) throws IOException, TimeoutException {
+        return text(exchange(null, SerialFraming.terminated(Terminator)));
+    }
+
+    /**
+     * Receive characters from the ASCOM serial port until the given
+     * terminator bytes are seen, return as a byte array. The terminator is
+     * included.
+     *
+     * @throws TimeoutException if the terminator does not arrive in time
+     */
+    public synchronized byte[] ReceiveTerminatedBinary(byte[] TerminatorBytes) throws IOException,
+            TimeoutException {
+        return Arrays.copyOf(response, exchange(null, SerialFraming.terminated(TerminatorBytes)));
+    }
+
+    /**
+     * Transmits a string through the ASCOM serial port.
+     *
+     */
+    public synchronized void Transmit(String Data) throws IOException {
+        command.clear();
+        for (int i = 0, n = Data.length(); i < n; i++) {
+            put((byte) Data.charAt(i));
+        }
+        command.flip();
+        transmit();
+    }
+
+    /**
+     * Transmit an array of binary bytes through the ASCOM serial port.
+     *
+     */
+    public synchronized void TransmitBinary(byte[] Data) throws IOException {
+        command.clear();
+        for (byte b : Data) {
+            put(b);
+        }
+        command.flip();
+        transmit();
+    }
+
+    /**
+     * Returns a list of the serial ports of this computer: the tty devices
+     * of serial ports, USB serial adapters and modems, in name order.
+     *
+     */
+    public String[] getAvailableCOMPorts() {
+        List<String> ports = new ArrayList<>();
+        String[] names = new File("/dev").list();
+        if (names != null) {
+            Arrays.sort(names);
+            for (String name : names) {
+                if (name.matches("tty(S|USB|ACM|AMA)\\d+")) {
+                    ports.add("/dev/" + name);
+                }
+            }
+        }
+        return ports.toArray(new String[0]);
+    }
+
+    /**
+     * Gets the link serving the port, to submit requests without blocking.
+     *
+     * @throws IllegalStateException if not connected
+     */
+    public synchronized SerialLink getLink() {
+        return link();
+    }
+
+    private SerialLink link() {
+        if (link == null || !link.isOpen()) {
+            throw new IllegalStateException("Serial port " + PortName + " is not connected");
+        }
+        return link;
+    }
+
+    private void put(byte b) {
+        if (!command.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(command.capacity() * 2);
+            command.flip();
+            larger.put(command);
+            command = larger;
+        }
+        command.put(b);
+    }
+
+    private void transmit() throws IOException {
+        if (command.remaining() > bufferSize) {
+            throw new IllegalArgumentException("Cannot transmit more than " + bufferSize + " bytes at once");
+        }
+        long writeMs = command.remaining() * 10000L / Speed.getValue();
+        Call call = new Call();
+        link().submit(command, SerialFraming.NONE, 0, call);
+        awaitQuietly(call, writeMs + ReceiveTimeoutMs);
+    }
+
+    /**
+     * Submits a request and waits for it.
+     *
+     * @return the length of the response, copied to response
+     */
+    private int exchange(ByteBuffer command, SerialFraming framing) throws IOException, TimeoutException {
+        Call call = new Call();
+        link().submit(command, framing, ReceiveTimeoutMs, call);
+        return call.await(ReceiveTimeoutMs + GRACE_MS);
+    }
+
+    private void awaitQuietly(Call call, long timeoutMs) throws IOException {
+        try {
+            call.await(timeoutMs + GRACE_MS);
+        } catch (TimeoutException e) {
+            throw new IOException("Serial port " + PortName + " is not responding", e);
+        }
+    }
+
+    private String text(int length) {
+        return new String(response, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private void open() throws IOException {
+        ByteChannel channel;
+        if (PortName.startsWith("tcp://")) {
+            URI uri = URI.create(PortName);
+            if (uri.getHost() == null || uri.getPort() < 0) {
+                throw new IOException("Serial server must be given as tcp://host:port: " + PortName);
+            }
+            SocketChannel socket = SocketChannel.open(new InetSocketAddress(uri.getHost(), uri.getPort()));
+            socket.socket().setTcpNoDelay(true);
+            channel = socket;
+        } else {
+            configure();
+            channel = FileChannel.open(Paths.get(PortName), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        link = engine.open(PortName, channel, bufferSize);
+        link.setRecorder(recorder);
+    }
+
+    /**
+     * Sets the speed, character format and handshake of a tty, raw mode
+     * and reads that return at once.
+     *
+     */
+    private void configure() throws IOException {
+        List<String> stty = new ArrayList<>(Arrays.asList("stty", "-F", PortName, Integer.toString(Speed.getValue()),
+                "cs" + DataBits, "raw", "-echo", "clocal", "min", "0", "time", "0"));
+        stty.add(Parity == SerialParity.NONE ? "-parenb" : "parenb");
+        if (Parity != SerialParity.NONE) {
+            stty.add(Parity == SerialParity.ODD || Parity == SerialParity.MARK ? "parodd" : "-parodd");
+            if (Parity == SerialParity.MARK || Parity == SerialParity.SPACE) {
+                stty.add("cmspar");
+            }
+        }
+        stty.add(StopBits == SerialStopBits.TWO ? "cstopb" : "-cstopb");
+        boolean rts = Handshake == SerialHandshake.REQUEST_TO_SEND
+                || Handshake == SerialHandshake.REQUEST_TO_SEND_XON_XOFF;
+        boolean xon = Handshake == SerialHandshake.XON_XOFF || Handshake == SerialHandshake.REQUEST_TO_SEND_XON_XOFF;
+        stty.add(rts ? "crtscts" : "-crtscts");
+        stty.add(xon ? "ixon" : "-ixon");
+        stty.add(xon ? "ixoff" : "-ixoff");
+        Process process = new ProcessBuilder(stty).redirectErrorStream(true).start();
+        StringBuilder output = new StringBuilder();
+        try (InputStream in = process.getInputStream()) {
+            int c;
+            while ((c = in.read()) >= 0) {
+                output.append((char) c);
+            }
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("Cannot configure serial port " + PortName + ": " + output.toString().trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted configuring serial port " + PortName, e);
+        }
+    }
+
+    /**
+     * Sets the number of data bits in each byte.
+     *
+     */
+    public void setDataBits(int _theValue) {
+        if (_theValue < 5 || _theValue > 8) {
+            throw new IllegalArgumentException("Data bits must be from 5 to 8: " + _theValue);
+        }
+        this.DataBits = _theValue;
+    }
+
+    /**
+     * Gets the number of data bits in each byte.
+     *
+     */
+    public int getDataBits() {
+        return DataBits;
+    }
+
+    /**
+     * Sets the state of the DTR line.
+     *
+     */
+    public void setDTREnable(boolean _theValue) {
+        this.DTREnable = _theValue;
+    }
+
+    /**
+     * Gets the state of the DTR line.
+     *
+     */
+    public boolean getDTREnable() {
+        return DTREnable;
+    }
+
+    /**
+     * Sets use of the RTS handshake control line.
+     *
+     */
+    public void setRTSEnable(boolean _theValue) {
+        this.RTSEnable = _theValue;
+    }
+
+    /**
+     * Gets use of the RTS handshake control line.
+     *
+     */
+    public boolean getRTSEnable() {
+        return RTSEnable;
+    }
+
+    /**
+     * Sets the type of serial handshake used on the serial link.
+     *
+     */
+    public void setHandshake(SerialHandshake _theValue) {
+        this.Handshake = _theValue;
+    }
+
+    /**
+     * Gets the type of serial handshake used on the serial link.
+     *
+     */
+    public SerialHandshake getHandshake() {
+        return Handshake;
+    }
+
+    /**
+     * Sets the type of parity check used over the serial link.
+     *
+     */
+    public void setParity(SerialParity _theValue) {
+        this.Parity = _theValue;
+    }
+
+    /**
+     * Gets the type of parity check used over the serial link.
+     *
+     */
+    public SerialParity getParity() {
+        return Parity;
+    }
+
+    /**
+     * Sets the number of stop bits used on the serial link.
+     *
+     */
+    public void setStopBits(SerialStopBits _theValue) {
+        if (_theValue == SerialStopBits.NONE || _theValue == SerialStopBits.ONE_POINT_FIVE) {
+            throw new IllegalArgumentException("Stop bits not supported: " + _theValue);
+        }
+        this.StopBits = _theValue;
+    }
+
+    /**
+     * Gets the number of stop bits used on the serial link.
+     *
+     */
+    public SerialStopBits getStopBits() {
+        return StopBits;
+    }
+
+    /**
+     * Sets the connected state of the ASCOM serial port.
+     *
+     */
+    public synchronized void setConnected(boolean _theValue) throws IOException {
+        if (_theValue && (link == null || !link.isOpen())) {
+            open();
+        } else if (!_theValue) {
+            Dispose();
+        }
+    }
+
+    /**
+     * Gets the connected state of the ASCOM serial port.
+     *
+     */
+    public synchronized boolean getConnected() {
+        return link != null && link.isOpen();
+    }
+
+    /**
+     * Sets the number of the ASCOM serial port, giving the port name COMn.
+     *
+     */
+    public void setPort(int _theValue) {
+        this.PortName = "COM" + _theValue;
+    }
+
+    /**
+     * Gets the number of the ASCOM serial port, 0 if the port name is not
+     * of the form COMn.
+     *
+     */
+    public int getPort() {
+        return PortName.matches("COM\\d+") ? Integer.parseInt(PortName.substring(3)) : 0;
+    }
+
+    /**
+     * Sets the maximum time that the ASCOM serial port will wait for
+     * incoming receive data (seconds, default = 5).
+     *
+     */
+    public void setReceiveTimeout(int _theValue) {
+        setReceiveTimeoutMs(_theValue * 1000);
+    }
+
+    /**
+     * Gets the maximum time that the ASCOM serial port will wait for
+     * incoming receive data (seconds).
+     *
+     */
+    public int getReceiveTimeout() {
+        return ReceiveTimeoutMs / 1000;
+    }
+
+    /**
+     * Sets the maximum time that the ASCOM serial port will wait for
+     * incoming receive data (milliseconds, default = 5000).
+     *
+     */
+    public void setReceiveTimeoutMs(int _theValue) {
+        if (_theValue < 1) {
+            throw new IllegalArgumentException("Receive timeout must be at least 1 ms: " + _theValue);
+        }
+        this.ReceiveTimeoutMs = _theValue;
+    }
+
+    /**
+     * Gets the maximum time that the ASCOM serial port will wait for
+     * incoming receive data (milliseconds).
+     *
+     */
+    public int getReceiveTimeoutMs() {
+        return ReceiveTimeoutMs;
+    }
+
+    /**
+     * Sets the baud rate of the ASCOM serial port.
+     *
+     */
+    public void setSpeed(SerialSpeed _theValue) {
+        this.Speed = _theValue;
+    }
+
+    /**
+     * Gets the baud rate of the ASCOM serial port.
+     *
+     */
+    public SerialSpeed getSpeed() {
+        return Speed;
+    }
+
+    /**
+     * Sets the ASCOM serial port name: a device path or tcp://host:port.
+     *
+     */
+    public void setPortName(String _theValue) {
+        if (_theValue == null || _theValue.isEmpty()) {
+            throw new IllegalArgumentException("A port name is required");
+        }
+        this.PortName = _theValue;
+    }
+
+    /**
+     * Gets the ASCOM serial port name.
+     *
+     */
+    public String getPortName() {
+        return PortName;
+    }
+
+    /**
+     * Sets the size of the transmit and receive buffers, the longest
+     * command and response (bytes, default 4096).
+     *
+     */
+    public void setBufferSize(int _theValue) {
+        if (_theValue < 16) {
+            throw new IllegalArgumentException("Buffer size must be at least 16 bytes: " + _theValue);
+        }
+        this.bufferSize = _theValue;
+    }
+
+    /**
+     * Gets the size of the transmit and receive buffers (bytes).
+     *
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the recorder that captures the port's traffic, or null for none.
+     *
+     */
+    public synchronized void setRecorder(SerialRecorder _theValue) {
+        this.recorder = _theValue;
+        if (link != null) {
+            link.setRecorder(_theValue);
+        }
+    }
+
+    /**
+     * Gets the recorder that captures the port's traffic, or null.
+     *
+     */
+    public synchronized SerialRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Waits for one request of the calling thread, copying its response.
+     * A call that has timed out is abandoned: a late response to it is
+     * dropped, so it can neither wake nor overwrite the response of a later
+     * request.
+     *
+     */
+    private final class Call implements SerialLink.Listener {
+
+        private boolean done;
+        private boolean abandoned;
+        private int length;
+        private Exception error;
+
+        @Override
+        public synchronized void received(ByteBuffer frame) {
+            if (abandoned) {
+                return;
+            }
+            length = frame.remaining();
+            if (length > response.length) {
+                response = new byte[Math.max(length, response.length * 2)];
+            }
+            frame.get(response, 0, length);
+            done = true;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void failed(Exception e) {
+            error = e;
+            done = true;
+            notifyAll();
+        }
+
+        synchronized int await(long timeoutMs) throws IOException, TimeoutException {
+            long end = System.nanoTime() + timeoutMs * 1000000L;
+            boolean interrupted = false;
+            try {
+                while (!done) {
+                    long left = end - System.nanoTime();
+                    if (left <= 0) {
+                        abandoned = true;
+                        throw new TimeoutException("No response from " + PortName + " within " + timeoutMs + " ms");
+                    }
+                    try {
+                        wait(left / 1000000L, (int) (left % 1000000L));
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (error instanceof TimeoutException) {
+                throw new TimeoutException(error.getMessage());
+            }
+            if (error != null) {
+                throw error instanceof IOException ? new IOException(error.getMessage(), error)
+                        : new IOException(error);
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package ASCOM.Utilities;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Reads a file written by SerialRecorder one record at a time.
+ *
+ * The file starts with the bytes ASCOMSER, a version byte and the wall
+ * clock time the recording started as microseconds since 1970, big endian.
+ * Each record follows as a kind byte, then for DROPPED the number of
+ * records lost, and for the other kinds the port number, the time since the
+ * record before as a zigzag varint of nanoseconds, and the length and bytes
+ * of the data. Varints are unsigned LEB128.
+ *
+ */
+public final class SerialCapture implements Closeable {
+
+    /**
+     * A port was added; the data is its name.
+     */
+    public static final int PORT = 0;
+
+    /**
+     * Bytes written to a port.
+     */
+    public static final int TRANSMIT = 1;
+
+    /**
+     * Bytes read from a port.
+     */
+    public static final int RECEIVE = 2;
+
+    /**
+     * A note from Serial.LogMessage.
+     */
+    public static final int NOTE = 3;
+
+    /**
+     * Records were lost because the recorder's ring was full.
+     */
+    public static final int DROPPED = 4;
+
+    static final byte[] MAGIC = "ASCOMSER".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+
+    private final InputStream in;
+    private final long startMicros;
+    private final ArrayList<String> names = new ArrayList<>();
+    private byte[] data = new byte[256];
+    private int kind;
+    private int port;
+    private int length;
+    private long nanos;
+    private long dropped;
+
+    /**
+     * Opens a capture file.
+     *
+     * @throws IOException if the file cannot be read or is not a capture
+     */
+    public SerialCapture(Path path) throws IOException {
+        this.in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            readFully(magic, magic.length);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a serial capture: " + path);
+            }
+            int version = in.read();
+            if (version != VERSION) {
+                throw new IOException("Unsupported serial capture version " + version + ": " + path);
+            }
+            long micros = 0;
+            for (int i = 0; i < 8; i++) {
+                micros = micros << 8 | readByte();
+            }
+            this.startMicros = micros;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return false at the end of the file
+     */
+    public boolean next() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            return false;
+        }
+        kind = b;
+        length = 0;
+        if (kind == DROPPED) {
+            dropped += readVarint();
+            return true;
+        }
+        if (kind > DROPPED) {
+            throw new IOException("Unknown serial capture record " + kind);
+        }
+        port = (int) readVarint();
+        long zigzag = readVarint();
+        nanos += (zigzag >>> 1) ^ -(zigzag & 1);
+        length = (int) readVarint();
+        if (length > data.length) {
+            data = new byte[Math.max(length, data.length * 2)];
+        }
+        readFully(data, length);
+        if (kind == PORT) {
+            while (names.size() <= port) {
+                names.add(null);
+            }
+            names.set(port, getText());
+        }
+        return true;
+    }
+
+    /**
+     * Gets the kind of the record: PORT, TRANSMIT, RECEIVE, NOTE or
+     * DROPPED.
+     *
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the number of the record's port.
+     *
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Gets the name of a port, or null if it has not been read yet.
+     *
+     */
+    public String getPortName(int port) {
+        return port < names.size() ? names.get(port) : null;
+    }
+
+    /**
+     * Gets the time of the record since the recording started (ns).
+     *
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Gets the wall clock time the recording started, in microseconds since
+     * 1970.
+     *
+     */
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    /**
+     * Gets the data of the record, valid until the next record is read.
+     *
+     */
+    public ByteBuffer getData() {
+        return ByteBuffer.wrap(data, 0, length);
+    }
+
+    /**
+     * Gets the data of the record as text: UTF-8 for names and notes,
+     * ISO-8859-1 for traffic.
+     *
+     */
+    public String getText() {
+        return new String(data, 0, length,
+                kind == TRANSMIT || kind == RECEIVE ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of records lost so far.
+     *
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Serial capture is truncated");
+        }
+        return b;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in serial capture");
+    }
+
+    private void readFully(byte[] into, int length) throws IOException {
+        int n = 0;
+        while (n < length) {
+            int read = in.read(into, n, length - n);
+            if (read < 0) {
+                throw new EOFException("Serial capture is truncated");
+            }
+            n += read;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package ASCOM.Utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves any number of serial ports from one thread. Each port is a
+ * SerialLink over a byte channel: a tty or pseudo-terminal opened as a
+ * file, or a selectable channel such as a socket to a serial server.
+ *
+ * Selectable channels are multiplexed on a Selector. A tty cannot be
+ * registered with a Selector, so Serial sets it to return from a read at
+ * once (stty min 0 time 0) and the engine reads it every poll interval,
+ * but only while a response is awaited; an idle port costs nothing. At
+ * 9600 baud a character takes about a millisecond, so the default interval
+ * adds at most one character time to a response. Writes to a tty block
+ * the engine until the kernel has taken the bytes, which for commands of
+ * a few bytes is at once.
+ *
+ * A listener that throws does not stop the engine; the exception is passed
+ * to the uncaught exception handler of the engine thread.
+ *
+ */
+public final class SerialEngine implements Closeable {
+
+    /**
+     * Default time between reads of a tty awaiting a response (ms).
+     */
+    public static final long DEFAULT_POLL_MILLIS = 1;
+
+    private static SerialEngine shared;
+
+    private final long pollMillis;
+    private final Selector selector;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<SerialLink> added = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<SerialLink> woken = new ConcurrentLinkedQueue<>();
+    private final ArrayList<SerialLink> links = new ArrayList<>();
+    private final ArrayList<SerialLink> active = new ArrayList<>();
+    private volatile boolean running = true;
+
+    /**
+     * Creates an engine with the default poll interval.
+     *
+     */
+    public SerialEngine() throws IOException {
+        this(DEFAULT_POLL_MILLIS);
+    }
+
+    /**
+     * Creates an engine and starts its thread.
+     *
+     * @param pollMillis time between reads of a tty awaiting a response
+     */
+    public SerialEngine(long pollMillis) throws IOException {
+        if (pollMillis < 1) {
+            throw new IllegalArgumentException("Poll interval must be at least 1 ms");
+        }
+        this.pollMillis = pollMillis;
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, "ascom4j-serial");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the engine used by Serial unless another is given.
+     *
+     */
+    public static synchronized SerialEngine shared() throws IOException {
+        if (shared == null || !shared.running) {
+            shared = new SerialEngine();
+        }
+        return shared;
+    }
+
+    /**
+     * Adds a port.
+     *
+     * @param name name of the port, for messages
+     * @param channel open channel to the port; a selectable channel is
+     * switched to non-blocking mode
+     * @param bufferSize size of the transmit and receive buffers (bytes)
+     * @return the link, which closes the channel when closed
+     */
+    public SerialLink open(String name, ByteChannel channel, int bufferSize) throws IOException {
+        if (!running) {
+            throw new IllegalStateException("Serial engine is closed");
+        }
+        if (channel instanceof SelectableChannel) {
+            ((SelectableChannel) channel).configureBlocking(false);
+        }
+        SerialLink link = new SerialLink(this, name, channel, bufferSize);
+        added.add(link);
+        selector.wakeup();
+        return link;
+    }
+
+    /**
+     * Stops the engine and closes its ports.
+     *
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Asks the engine to serve a link.
+     *
+     */
+    void wake(SerialLink link) {
+        if (Thread.currentThread() == thread) {
+            if (!link.active) {
+                link.active = true;
+                active.add(link);
+            }
+        } else {
+            woken.add(link);
+            selector.wakeup();
+        }
+    }
+
+    void listenerFailed(RuntimeException e) {
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        if (handler != null) {
+            handler.uncaughtException(thread, e);
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                long timeout = timeout(System.nanoTime());
+                if (timeout < 0) {
+                    selector.select();
+                } else if (timeout == 0) {
+                    selector.selectNow();
+                } else {
+                    selector.select(timeout);
+                }
+                SerialLink link;
+                while ((link = added.poll()) != null) {
+                    links.add(link);
+                    if (link.isSelectable()) {
+                        link.key = ((SelectableChannel) link.channel()).register(selector, SelectionKey.OP_READ, link);
+                    }
+                    wake(link);
+                }
+                while ((link = woken.poll()) != null) {
+                    wake(link);
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    wake((SerialLink) key.attachment());
+                }
+                selector.selectedKeys().clear();
+                serve(System.nanoTime());
+            }
+        } catch (IOException e) {
+            // the selector failed; the ports are closed below
+        } finally {
+            running = false;
+            SerialLink link;
+            while ((link = added.poll()) != null) {
+                links.add(link);
+            }
+            for (SerialLink closing : links) {
+                closing.close();
+                closing.serve(System.nanoTime());
+            }
+            links.clear();
+            active.clear();
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+    }
+
+    /**
+     * Serves the active links, keeping those that still have requests.
+     *
+     */
+    private void serve(long now) {
+        int kept = 0;
+        for (int i = 0; i < active.size(); i++) {
+            SerialLink link = active.get(i);
+            boolean open = link.serve(now);
+            if (open && link.busy()) {
+                active.set(kept++, link);
+            } else {
+                link.active = false;
+                if (!open) {
+                    links.remove(link);
+                }
+            }
+        }
+        for (int i = active.size() - 1; i >= kept; i--) {
+            active.remove(i);
+        }
+    }
+
+    /**
+     * Gets how long to wait for the selector: -1 for no limit, else
+     * milliseconds.
+     *
+     */
+    private long timeout(long now) {
+        long deadline = Long.MAX_VALUE;
+        boolean poll = false;
+        for (int i = 0; i < active.size(); i++) {
+            SerialLink link = active.get(i);
+            deadline = Math.min(deadline, link.deadline());
+            poll |= !link.isSelectable();
+        }
+        if (!woken.isEmpty() || !added.isEmpty()) {
+            return 0;
+        }
+        long millis = deadline == Long.MAX_VALUE ? -1
+                : Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - now + 999999));
+        if (poll) {
+            millis = millis < 0 ? pollMillis : Math.min(millis, pollMillis);
+        }
+        return millis;
+    }
+}
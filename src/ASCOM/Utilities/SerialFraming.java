@@ -0,0 +1,155 @@
+package ASCOM.Utilities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Describes where a response read from a SerialLink ends: at a terminator,
+ * after a count of bytes, with whatever has arrived, or with no response
+ * at all. Framings are immutable and may be shared.
+ *
+ */
+public final class SerialFraming {
+
+    /**
+     * No response; the request completes once its command is written.
+     */
+    public static final SerialFraming NONE = new SerialFraming(0, null, 0);
+
+    /**
+     * Everything received so far, at least one byte.
+     */
+    public static final SerialFraming AVAILABLE = new SerialFraming(1, null, 1);
+
+    private static final int BLIND = 0;
+    private static final int ANY = 1;
+    private static final int COUNTED = 2;
+    private static final int TERMINATED = 3;
+
+    private final int kind;
+    private final byte[] terminator;
+    private final int count;
+
+    private SerialFraming(int kind, byte[] terminator, int count) {
+        this.kind = kind;
+        this.terminator = terminator;
+        this.count = count;
+    }
+
+    /**
+     * Gets the framing of a response of exactly count bytes.
+     *
+     */
+    public static SerialFraming counted(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be at least 1: " + count);
+        }
+        return new SerialFraming(COUNTED, null, count);
+    }
+
+    /**
+     * Gets the framing of a response ending with the given bytes, which
+     * are included in the response.
+     *
+     */
+    public static SerialFraming terminated(byte... terminator) {
+        if (terminator == null || terminator.length == 0) {
+            throw new IllegalArgumentException("A terminator is required");
+        }
+        return new SerialFraming(TERMINATED, terminator.clone(), 0);
+    }
+
+    /**
+     * Gets the framing of a response ending with the given ASCII text.
+     *
+     */
+    public static SerialFraming terminated(String terminator) {
+        if (terminator == null || terminator.isEmpty()) {
+            throw new IllegalArgumentException("A terminator is required");
+        }
+        return new SerialFraming(TERMINATED, terminator.getBytes(StandardCharsets.ISO_8859_1), 0);
+    }
+
+    /**
+     * Returns true if a response is expected.
+     *
+     */
+    public boolean expectsResponse() {
+        return kind != BLIND;
+    }
+
+    /**
+     * Finds the end of a response.
+     *
+     * @param in received bytes from index 0 to the position
+     * @param from index from which the terminator may start; bytes before
+     * it have already been searched
+     * @return the length of the response, or -1 if it is not complete
+     */
+    int find(ByteBuffer in, int from) {
+        int available = in.position();
+        switch (kind) {
+            case ANY:
+                return available > 0 ? available : -1;
+            case COUNTED:
+                return available >= count ? count : -1;
+            case TERMINATED:
+                byte last = terminator[terminator.length - 1];
+                for (int i = Math.max(from, 0) + terminator.length - 1; i < available; i++) {
+                    if (in.get(i) == last && matches(in, i + 1 - terminator.length)) {
+                        return i + 1;
+                    }
+                }
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Gets the index from which the next search should start after a search
+     * of the given bytes found nothing.
+     *
+     */
+    int resume(int available) {
+        return kind == TERMINATED ? Math.max(0, available - terminator.length + 1) : 0;
+    }
+
+    private boolean matches(ByteBuffer in, int start) {
+        for (int j = 0; j < terminator.length - 1; j++) {
+            if (in.get(start + j) != terminator[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof SerialFraming)) {
+            return false;
+        }
+        SerialFraming that = (SerialFraming) other;
+        return kind == that.kind && count == that.count && Arrays.equals(terminator, that.terminator);
+    }
+
+    @Override
+    public int hashCode() {
+        return (kind * 31 + count) * 31 + Arrays.hashCode(terminator);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case BLIND:
+                return "none";
+            case ANY:
+                return "available";
+            case COUNTED:
+                return count + " bytes";
+            default:
+                return "terminated by " + new String(terminator, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
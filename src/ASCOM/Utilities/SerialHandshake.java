@@ -0,0 +1,26 @@
+package ASCOM.Utilities;
+
+/*
+
+ The control protocol used by the serial port
+ 
+
+
+*/
+public enum SerialHandshake{
+    NONE,
+    XON_XOFF,
+    REQUEST_TO_SEND,
+    REQUEST_TO_SEND_XON_XOFF;
+
+    /*
+ Returns the handshake for a serial port handshake value
+     */
+    public static SerialHandshake fromValue(int value){
+        SerialHandshake[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown serial handshake " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,508 @@
+package ASCOM.Utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * One serial port served by a SerialEngine. Requests, each an optional
+ * command and the framing of its response, are carried out in the order
+ * they are submitted: the command is written, then the response is read
+ * and passed to the request's listener on the engine thread.
+ *
+ * Commands are copied into a direct transmit buffer when submitted and
+ * responses are framed in place in a direct receive buffer, so serving a
+ * request allocates nothing beyond the request itself. The buffer passed to
+ * a listener is a view of the receive buffer that is valid only during
+ * the call.
+ *
+ * By default a command is written only once the response to the one
+ * before it has arrived. With a window of more than one, up to that many
+ * requests await their responses at once, as devices that answer commands
+ * strictly in order allow; responses are matched to requests by order.
+ *
+ * A timeout fails every request then in flight and discards what has been
+ * received, so a partial or late response is never matched to the next
+ * request.
+ *
+ * A SerialRecorder set on a link captures every chunk written and read.
+ *
+ * Links are thread safe; any number of threads may submit requests.
+ *
+ */
+public final class SerialLink implements Closeable {
+
+    /**
+     * Receives the outcome of a request, on the engine thread. Listeners
+     * must not block.
+     */
+    public interface Listener {
+
+        /**
+         * Called with the response, from its position to its limit, or an
+         * empty buffer for a request without a response.
+         */
+        void received(ByteBuffer response);
+
+        /**
+         * Called with a TimeoutException if the response did not arrive in
+         * time, or an IOException if the port failed or was closed.
+         */
+        void failed(Exception error);
+    }
+
+    /**
+     * Default size of the transmit and receive buffers (bytes).
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private final SerialEngine engine;
+    private final String name;
+    private final ByteChannel channel;
+    private final boolean selectable;
+    private final ByteBuffer outbound;
+    private final ByteBuffer inbound;
+    private final ByteBuffer view;
+    private final ConcurrentLinkedQueue<Request> submitted = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Request> waiting = new ArrayDeque<>();
+    private final ArrayDeque<Request> inFlight = new ArrayDeque<>();
+    private volatile boolean closed;
+    private volatile int window = 1;
+    private volatile Tap tap;
+    private int scanned;
+    SelectionKey key;
+    boolean active;
+
+    SerialLink(SerialEngine engine, String name, ByteChannel channel, int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer size must be at least 16 bytes: " + bufferSize);
+        }
+        this.engine = engine;
+        this.name = name;
+        this.channel = channel;
+        this.selectable = channel instanceof SelectableChannel;
+        this.outbound = ByteBuffer.allocateDirect(bufferSize);
+        this.inbound = ByteBuffer.allocateDirect(bufferSize);
+        this.view = inbound.duplicate();
+    }
+
+    /**
+     * Submits a request.
+     *
+     * @param command bytes to write from the position to the limit, or null
+     * to only read a response; the bytes are copied and the buffer is
+     * left at its limit
+     * @param framing framing of the response
+     * @param timeoutMillis time allowed for the response, counted from the
+     * end of the write
+     * @param listener receives the response or the failure
+     * @throws IllegalStateException if the link is closed or the transmit
+     * buffer has no room for the command
+     */
+    public void submit(ByteBuffer command, SerialFraming framing, long timeoutMillis, Listener listener) {
+        if (framing == null || listener == null) {
+            throw new IllegalArgumentException("A framing and a listener are required");
+        }
+        enqueue(command, new Request(framing, TimeUnit.MILLISECONDS.toNanos(timeoutMillis), listener));
+    }
+
+    /**
+     * Submits a request that discards everything received so far, after
+     * the requests before it have completed.
+     *
+     */
+    public void clear(Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("A listener is required");
+        }
+        Request request = new Request(SerialFraming.NONE, 0L, listener);
+        request.clear = true;
+        enqueue(null, request);
+    }
+
+    private void enqueue(ByteBuffer command, Request request) {
+        synchronized (outbound) {
+            if (closed) {
+                throw new IllegalStateException("Serial link " + name + " is closed");
+            }
+            if (command != null) {
+                if (command.remaining() > outbound.remaining()) {
+                    throw new IllegalStateException("Transmit buffer of " + name + " is full");
+                }
+                request.length = command.remaining();
+                outbound.put(command);
+            }
+            submitted.add(request);
+        }
+        engine.wake(this);
+    }
+
+    /**
+     * Gets the name of the port.
+     *
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the number of requests that may await their responses at once.
+     *
+     */
+    public void setWindow(int _theValue) {
+        if (_theValue < 1) {
+            throw new IllegalArgumentException("Window must be at least 1: " + _theValue);
+        }
+        window = _theValue;
+        engine.wake(this);
+    }
+
+    /**
+     * Gets the number of requests that may await their responses at once.
+     *
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Sets the recorder that captures the port's traffic, or null for none.
+     *
+     */
+    public synchronized void setRecorder(SerialRecorder _theValue) {
+        Tap current = tap;
+        if (current != null && current.recorder == _theValue) {
+            return;
+        }
+        tap = _theValue == null ? null : new Tap(_theValue, _theValue.register(name));
+    }
+
+    /**
+     * Gets the recorder that captures the port's traffic, or null.
+     *
+     */
+    public SerialRecorder getRecorder() {
+        Tap current = tap;
+        return current == null ? null : current.recorder;
+    }
+
+    /**
+     * Records a note with the port's traffic, if it is being recorded.
+     *
+     */
+    void note(String text) {
+        Tap current = tap;
+        if (current != null) {
+            current.recorder.note(current.port, text);
+        }
+    }
+
+    /**
+     * Returns true until the link is closed or its port fails.
+     *
+     */
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Closes the port. Requests not yet completed fail with a
+     * ClosedChannelException.
+     *
+     */
+    @Override
+    public void close() {
+        synchronized (outbound) {
+            closed = true;
+        }
+        engine.wake(this);
+    }
+
+    boolean isSelectable() {
+        return selectable;
+    }
+
+    ByteChannel channel() {
+        return channel;
+    }
+
+    /**
+     * Gets the time by which the engine must next serve the link,
+     * Long.MAX_VALUE if it only waits for data.
+     *
+     */
+    long deadline() {
+        Request head = inFlight.peek();
+        return head == null ? Long.MAX_VALUE : head.deadline;
+    }
+
+    /**
+     * Returns true if the link has requests to carry out.
+     *
+     */
+    boolean busy() {
+        return !waiting.isEmpty() || !inFlight.isEmpty() || !submitted.isEmpty();
+    }
+
+    /**
+     * Writes commands, reads and frames responses and expires requests.
+     * Called on the engine thread only.
+     *
+     * @return false once the link is closed
+     */
+    boolean serve(long now) {
+        if (closed) {
+            shut(new ClosedChannelException());
+            return false;
+        }
+        try {
+            boolean progress = true;
+            while (progress) {
+                Request request;
+                while ((request = submitted.poll()) != null) {
+                    waiting.add(request);
+                }
+                progress = false;
+                boolean writable = true;
+                while (writable && !waiting.isEmpty() && inFlight.size() < window) {
+                    Request head = waiting.peek();
+                    writable = write(head);
+                    if (writable) {
+                        waiting.poll();
+                        start(head, now);
+                        progress = true;
+                    }
+                }
+                if (key != null) {
+                    key.interestOps(writable ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+                if (read()) {
+                    shut(new IOException("Serial port " + name + " was closed by the device"));
+                    return false;
+                }
+                progress |= frame();
+                Request head = inFlight.peek();
+                if (head != null && now - head.deadline >= 0) {
+                    inFlight.poll();
+                    inbound.clear();
+                    scanned = 0;
+                    TimeoutException timeout = new TimeoutException("No response from " + name + " within "
+                            + TimeUnit.NANOSECONDS.toMillis(head.timeout) + " ms (" + head.framing + ")");
+                    fail(head, timeout);
+                    while ((head = inFlight.poll()) != null) {
+                        fail(head, timeout);
+                    }
+                    progress = true;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            shut(e);
+            return false;
+        }
+    }
+
+    private void start(Request request, long now) throws IOException {
+        if (request.clear) {
+            inbound.clear();
+            scanned = 0;
+            while (read0() > 0) {
+                inbound.clear();
+            }
+            complete(request, 0);
+        } else if (!request.framing.expectsResponse()) {
+            complete(request, 0);
+        } else {
+            request.deadline = now + request.timeout;
+            inFlight.add(request);
+        }
+    }
+
+    /**
+     * Writes what is left of a request's command.
+     *
+     * @return true if all of it has been written
+     */
+    private boolean write(Request request) throws IOException {
+        if (request.written == request.length) {
+            return true;
+        }
+        synchronized (outbound) {
+            outbound.flip();
+            int limit = outbound.limit();
+            outbound.limit(request.length - request.written);
+            try {
+                do {
+                    int start = outbound.position();
+                    int n = channel.write(outbound);
+                    request.written += n;
+                    record(SerialCapture.TRANSMIT, outbound, start, n);
+                } while (!selectable && outbound.hasRemaining());
+            } finally {
+                outbound.limit(limit);
+                outbound.compact();
+            }
+        }
+        return request.written == request.length;
+    }
+
+    /**
+     * Reads what is available.
+     *
+     * @return true at end of stream
+     */
+    private boolean read() throws IOException {
+        while (inbound.hasRemaining()) {
+            int n = read0();
+            if (n < 0) {
+                return true;
+            }
+            if (n == 0) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads once. A tty set to return at once with no data reads as end of
+     * stream, so only a selectable channel reports it.
+     *
+     */
+    private int read0() throws IOException {
+        int start = inbound.position();
+        int n = channel.read(inbound);
+        record(SerialCapture.RECEIVE, inbound, start, n);
+        return n < 0 && !selectable ? 0 : n;
+    }
+
+    private void record(int kind, ByteBuffer buffer, int start, int length) {
+        Tap current = tap;
+        if (current != null && length > 0) {
+            current.recorder.record(current.port, kind, buffer, start, start + length, System.nanoTime());
+        }
+    }
+
+    /**
+     * Passes complete responses to the requests waiting for them.
+     *
+     * @return true if any request completed
+     */
+    private boolean frame() {
+        boolean completed = false;
+        Request head;
+        while ((head = inFlight.peek()) != null) {
+            int end = head.framing.find(inbound, scanned);
+            if (end < 0) {
+                if (inbound.hasRemaining()) {
+                    scanned = head.framing.resume(inbound.position());
+                    return completed;
+                }
+                inFlight.poll();
+                inbound.clear();
+                scanned = 0;
+                fail(head, new IOException("Response from " + name + " is longer than " + inbound.capacity()
+                        + " bytes (" + head.framing + ")"));
+                completed = true;
+                continue;
+            }
+            inFlight.poll();
+            complete(head, end);
+            inbound.flip();
+            inbound.position(end);
+            inbound.compact();
+            scanned = 0;
+            completed = true;
+        }
+        return completed;
+    }
+
+    private void complete(Request request, int length) {
+        view.limit(length).position(0);
+        try {
+            request.listener.received(view);
+        } catch (RuntimeException e) {
+            engine.listenerFailed(e);
+        }
+    }
+
+    private void fail(Request request, Exception error) {
+        try {
+            request.listener.failed(error);
+        } catch (RuntimeException e) {
+            engine.listenerFailed(e);
+        }
+    }
+
+    /**
+     * Closes the channel and fails every request.
+     *
+     */
+    private void shut(Exception error) {
+        synchronized (outbound) {
+            closed = true;
+        }
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already failing
+        }
+        Request request;
+        while ((request = inFlight.poll()) != null) {
+            fail(request, error);
+        }
+        while ((request = waiting.poll()) != null) {
+            fail(request, error);
+        }
+        while ((request = submitted.poll()) != null) {
+            fail(request, error);
+        }
+    }
+
+    /**
+     * A recorder and the number it gave the port.
+     *
+     */
+    private static final class Tap {
+
+        final SerialRecorder recorder;
+        final int port;
+
+        Tap(SerialRecorder recorder, int port) {
+            this.recorder = recorder;
+            this.port = port;
+        }
+    }
+
+    /**
+     * One submitted request.
+     *
+     */
+    private static final class Request {
+
+        final SerialFraming framing;
+        final long timeout;
+        final Listener listener;
+        int length;
+        int written;
+        long deadline;
+        boolean clear;
+
+        Request(SerialFraming framing, long timeout, Listener listener) {
+            this.framing = framing;
+            this.timeout = timeout;
+            this.listener = listener;
+        }
+    }
+}
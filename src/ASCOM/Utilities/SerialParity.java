@@ -0,0 +1,33 @@
+package ASCOM.Utilities;
+
+/*
+
+ The type of parity used on the serial port
+ 
+
+ Parity is an error-checking procedure in which the number of 1s must always be the 
+ same — either even or odd — for each group of bits that is transmitted without error. 
+ Parity is one of the parameters that must be 
+ agreed upon by both sending and receiving parties before transmission can take place. 
+ 
+
+
+*/
+public enum SerialParity{
+    NONE,
+    ODD,
+    EVEN,
+    MARK,
+    SPACE;
+
+    /*
+ Returns the parity for a serial port parity value
+     */
+    public static SerialParity fromValue(int value){
+        SerialParity[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown serial parity " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,322 @@
+package ASCOM.Utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Queues requests for a device on one serial port, such as an LX200-style
+ * mount, and keeps several of them on the wire at once. Each request is a
+ * command and the framing of its response: a terminator, a count, or none
+ * for a blind command.
+ *
+ * Up to the window of requests await their responses at once, so a command
+ * is sent while the device is still answering the one before it rather than
+ * after a full turnaround. A window of more than one is only for devices
+ * that read commands while they answer and reply strictly in order; use 1
+ * for one that drops input while busy.
+ *
+ * A query that repeats one still queued, with the same command bytes and
+ * framing and no other command queued after it, is answered by that one
+ * instead of being sent again: two clients polling :GR# in the same moment
+ * cost one transaction. Commands are never merged. A merged query keeps
+ * the timeout of the first.
+ *
+ * Listeners are called on the engine thread and must not block; the
+ * response buffer is valid only during the call. Pipelines are thread safe.
+ *
+ */
+public final class SerialPipeline {
+
+    private static final int DEFAULT_TIMEOUT_MS = 5000;
+
+    private final SerialLink link;
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final int window;
+    private int outstanding;
+    private long requests;
+    private long transactions;
+    private volatile long timeoutMillis = DEFAULT_TIMEOUT_MS;
+
+    /**
+     * Creates a pipeline on a connected port, with its receive timeout.
+     *
+     * @param serial connected port
+     * @param window number of requests that may await their responses at
+     * once
+     * @throws IllegalStateException if the port is not connected
+     */
+    public SerialPipeline(Serial serial, int window) {
+        this(serial.getLink(), window);
+        this.timeoutMillis = serial.getReceiveTimeoutMs();
+    }
+
+    /**
+     * Creates a pipeline on a link, setting the link's window.
+     *
+     * @param link open link
+     * @param window number of requests that may await their responses at
+     * once
+     */
+    public SerialPipeline(SerialLink link, int window) {
+        link.setWindow(window);
+        this.link = link;
+        this.window = window;
+    }
+
+    /**
+     * Queues a query, merging it with an identical one still queued.
+     *
+     * @param command bytes to write from the position to the limit; the
+     * buffer is left at its limit
+     * @param framing framing of the response
+     * @param timeoutMillis time allowed for the response
+     * @param listener receives the response or the failure
+     */
+    public void query(ByteBuffer command, SerialFraming framing, long timeoutMillis, SerialLink.Listener listener) {
+        enqueue(command, framing, timeoutMillis, listener, true);
+    }
+
+    /**
+     * Queues a command, which is always sent.
+     *
+     * @param command bytes to write from the position to the limit; the
+     * buffer is left at its limit
+     * @param framing framing of the response, SerialFraming.NONE for a blind
+     * command
+     * @param timeoutMillis time allowed for the response
+     * @param listener receives the response or the failure
+     */
+    public void command(ByteBuffer command, SerialFraming framing, long timeoutMillis, SerialLink.Listener listener) {
+        enqueue(command, framing, timeoutMillis, listener, false);
+    }
+
+    /**
+     * Queues an ASCII query with the pipeline's timeout.
+     *
+     * @return the response as text
+     */
+    public CompletableFuture<String> query(String command, SerialFraming framing) {
+        Result result = new Result();
+        query(ascii(command), framing, timeoutMillis, result);
+        return result;
+    }
+
+    /**
+     * Queues an ASCII command with the pipeline's timeout.
+     *
+     * @return the response as text, empty for a blind command
+     */
+    public CompletableFuture<String> command(String command, SerialFraming framing) {
+        Result result = new Result();
+        command(ascii(command), framing, timeoutMillis, result);
+        return result;
+    }
+
+    /**
+     * Sets the time allowed for responses to ASCII requests (ms).
+     *
+     */
+    public void setTimeoutMs(long _theValue) {
+        if (_theValue < 1) {
+            throw new IllegalArgumentException("Timeout must be at least 1 ms: " + _theValue);
+        }
+        timeoutMillis = _theValue;
+    }
+
+    /**
+     * Gets the time allowed for responses to ASCII requests (ms).
+     *
+     */
+    public long getTimeoutMs() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Gets the number of requests that may await their responses at once.
+     *
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Gets the number of requests queued so far.
+     *
+     */
+    public long getRequestCount() {
+        synchronized (pending) {
+            return requests;
+        }
+    }
+
+    /**
+     * Gets the number of requests sent to the device so far; the rest were
+     * merged.
+     *
+     */
+    public long getTransactionCount() {
+        synchronized (pending) {
+            return transactions;
+        }
+    }
+
+    private void enqueue(ByteBuffer command, SerialFraming framing, long timeoutMillis,
+            SerialLink.Listener listener, boolean coalesce) {
+        if (command == null || framing == null || listener == null) {
+            throw new IllegalArgumentException("A command, a framing and a listener are required");
+        }
+        synchronized (pending) {
+            requests++;
+            if (coalesce) {
+                Iterator<Entry> queued = pending.descendingIterator();
+                while (queued.hasNext()) {
+                    Entry entry = queued.next();
+                    if (!entry.coalesce) {
+                        break;
+                    }
+                    if (entry.matches(command, framing)) {
+                        command.position(command.limit());
+                        entry.listeners.add(listener);
+                        return;
+                    }
+                }
+            }
+            byte[] bytes = new byte[command.remaining()];
+            command.get(bytes);
+            pending.add(new Entry(bytes, framing, timeoutMillis, listener, coalesce));
+            pump();
+        }
+    }
+
+    /**
+     * Sends queued requests while the window has room. Called holding the
+     * pending lock.
+     *
+     */
+    private void pump() {
+        Entry entry;
+        while (outstanding < window && (entry = pending.poll()) != null) {
+            outstanding++;
+            transactions++;
+            try {
+                link.submit(ByteBuffer.wrap(entry.command), entry.framing, entry.timeoutMillis, entry);
+            } catch (IllegalStateException e) {
+                outstanding--;
+                entry.fail(new IOException(e.getMessage(), e));
+            }
+        }
+    }
+
+    private void finished() {
+        synchronized (pending) {
+            outstanding--;
+            pump();
+        }
+    }
+
+    private static ByteBuffer ascii(String command) {
+        return ByteBuffer.wrap(command.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * One transaction and the requests it answers.
+     *
+     */
+    private final class Entry implements SerialLink.Listener {
+
+        final byte[] command;
+        final SerialFraming framing;
+        final long timeoutMillis;
+        final boolean coalesce;
+        final ArrayList<SerialLink.Listener> listeners = new ArrayList<>(2);
+
+        Entry(byte[] command, SerialFraming framing, long timeoutMillis, SerialLink.Listener listener,
+                boolean coalesce) {
+            this.command = command;
+            this.framing = framing;
+            this.timeoutMillis = timeoutMillis;
+            this.coalesce = coalesce;
+            listeners.add(listener);
+        }
+
+        boolean matches(ByteBuffer other, SerialFraming otherFraming) {
+            if (other.remaining() != command.length || !framing.equals(otherFraming)) {
+                return false;
+            }
+            int start = other.position();
+            for (int i = 0; i < command.length; i++) {
+                if (other.get(start + i) != command[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void received(ByteBuffer response) {
+            finished();
+            RuntimeException thrown = null;
+            int start = response.position();
+            for (SerialLink.Listener listener : listeners) {
+                response.position(start);
+                try {
+                    listener.received(response);
+                } catch (RuntimeException e) {
+                    thrown = thrown == null ? e : thrown;
+                }
+            }
+            if (thrown != null) {
+                throw thrown;
+            }
+        }
+
+        @Override
+        public void failed(Exception error) {
+            finished();
+            fail(error);
+        }
+
+        /**
+         * Passes a failure to every listener, then rethrows the first
+         * exception a listener threw.
+         *
+         */
+        void fail(Exception error) {
+            RuntimeException thrown = null;
+            for (SerialLink.Listener listener : listeners) {
+                try {
+                    listener.failed(error);
+                } catch (RuntimeException e) {
+                    thrown = thrown == null ? e : thrown;
+                }
+            }
+            if (thrown != null) {
+                throw thrown;
+            }
+        }
+    }
+
+    /**
+     * Completes with the response of an ASCII request.
+     *
+     */
+    private static final class Result extends CompletableFuture<String> implements SerialLink.Listener {
+
+        @Override
+        public void received(ByteBuffer response) {
+            byte[] bytes = new byte[response.remaining()];
+            response.get(bytes);
+            complete(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+
+        @Override
+        public void failed(Exception error) {
+            completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package ASCOM.Utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Captures the traffic of serial ports to a file: every chunk a SerialLink
+ * writes or reads, stamped with System.nanoTime when the channel returned
+ * it, and the notes passed to Serial.LogMessage. Read the file back with
+ * SerialCapture.
+ *
+ * Recording copies the bytes into a preallocated ring of fixed-size slots
+ * claimed with a compare-and-set, so it never blocks or allocates on the
+ * engine thread; a daemon thread writes the ring to the file in batches.
+ * A chunk longer than a slot takes several slots with the same time. When
+ * the ring is full, records are dropped and counted, and the file records
+ * how many were lost at that point.
+ *
+ * One recorder may serve any number of ports and engines.
+ *
+ */
+public final class SerialRecorder implements Closeable {
+
+    /**
+     * Default number of slots in the ring.
+     */
+    public static final int DEFAULT_SLOTS = 8192;
+
+    /**
+     * Default number of bytes a slot holds.
+     */
+    public static final int DEFAULT_SLOT_SIZE = 64;
+
+    /**
+     * Default time the writer sleeps when the ring is empty (ms).
+     */
+    public static final long DEFAULT_FLUSH_MILLIS = 10;
+
+    /**
+     * Size of the buffer the writer fills before each file write, and the
+     * room a record needs beyond its bytes.
+     */
+    private static final int BATCH_BYTES = 1 << 16;
+    private static final int RECORD_OVERHEAD = 32;
+
+    private final int slotSize;
+    private final int mask;
+    private final byte[] data;
+    private final byte[] kinds;
+    private final int[] ports;
+    private final int[] lengths;
+    private final long[] times;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong nextPort = new AtomicLong();
+    private volatile long consumed;
+    private volatile boolean running = true;
+    private final long flushNanos;
+    private final FileChannel file;
+    private final ByteBuffer batch = ByteBuffer.allocate(BATCH_BYTES);
+    private final Thread writer;
+    private long written;
+    private long lastTime;
+    private long reportedDrops;
+    private volatile IOException failure;
+
+    /**
+     * Creates a recorder with the default ring.
+     *
+     */
+    public SerialRecorder(Path path) throws IOException {
+        this(path, DEFAULT_SLOTS, DEFAULT_SLOT_SIZE, DEFAULT_FLUSH_MILLIS);
+    }
+
+    /**
+     * Creates a recorder, replacing any file at the path.
+     *
+     * @param path file to write
+     * @param slots number of slots in the ring, a power of two
+     * @param slotSize number of bytes a slot holds, at most 65504
+     * @param flushMillis time the writer sleeps when the ring is empty
+     */
+    public SerialRecorder(Path path, int slots, int slotSize, long flushMillis) throws IOException {
+        if (slots < 2 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Slots must be a power of two: " + slots);
+        }
+        if (slotSize < 1 || slotSize > BATCH_BYTES - RECORD_OVERHEAD
+                || (long) slots * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Slot size out of range: " + slotSize);
+        }
+        if (flushMillis < 1) {
+            throw new IllegalArgumentException("Flush interval must be at least 1 ms");
+        }
+        this.slotSize = slotSize;
+        this.mask = slots - 1;
+        this.data = new byte[slots * slotSize];
+        this.kinds = new byte[slots];
+        this.ports = new int[slots];
+        this.lengths = new int[slots];
+        this.times = new long[slots];
+        this.published = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            published.set(i, -1L);
+        }
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.lastTime = System.nanoTime();
+        batch.put(SerialCapture.MAGIC).put((byte) SerialCapture.VERSION)
+                .putLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+        this.writer = new Thread(this::run, "ascom4j-serial-recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Gets the number of records taken so far, including dropped ones.
+     *
+     */
+    public long getRecordCount() {
+        return claimed.get() + dropped.get();
+    }
+
+    /**
+     * Gets the number of records dropped because the ring was full.
+     *
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of bytes written to the file so far.
+     *
+     */
+    public synchronized long getBytesWritten() {
+        return written;
+    }
+
+    /**
+     * Writes everything recorded and closes the file.
+     *
+     * @throws IOException if writing the file failed
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Assigns a number to a port and records its name, waiting for room in
+     * the ring rather than dropping it.
+     *
+     */
+    int register(String name) {
+        int port = (int) nextPort.getAndIncrement();
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        while (running && !record(port, SerialCapture.PORT, bytes, 0, bytes.length, System.nanoTime(), false)) {
+            LockSupport.parkNanos(flushNanos);
+        }
+        return port;
+    }
+
+    /**
+     * Records bytes from start to end of a buffer, without moving it.
+     *
+     */
+    void record(int port, int kind, ByteBuffer buffer, int start, int end, long nanos) {
+        while (start < end) {
+            int length = Math.min(end - start, slotSize);
+            long sequence = claim(true);
+            if (sequence < 0) {
+                return;
+            }
+            int slot = (int) (sequence & mask);
+            int offset = slot * slotSize;
+            for (int i = 0; i < length; i++) {
+                data[offset + i] = buffer.get(start + i);
+            }
+            publish(sequence, slot, port, kind, length, nanos);
+            start += length;
+        }
+    }
+
+    /**
+     * Records a note, truncated to one slot.
+     *
+     */
+    void note(int port, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        record(port, SerialCapture.NOTE, bytes, 0, Math.min(bytes.length, slotSize), System.nanoTime(), true);
+    }
+
+    private boolean record(int port, int kind, byte[] bytes, int start, int length, long nanos, boolean drop) {
+        long sequence = claim(drop);
+        if (sequence < 0) {
+            return false;
+        }
+        int slot = (int) (sequence & mask);
+        System.arraycopy(bytes, start, data, slot * slotSize, Math.min(length, slotSize));
+        publish(sequence, slot, port, kind, Math.min(length, slotSize), nanos);
+        return true;
+    }
+
+    /**
+     * Claims the next slot.
+     *
+     * @return its sequence number, or -1 if the ring is full
+     */
+    private long claim(boolean drop) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (!running || sequence - consumed > mask) {
+                if (drop) {
+                    dropped.incrementAndGet();
+                }
+                return -1;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    private void publish(long sequence, int slot, int port, int kind, int length, long nanos) {
+        kinds[slot] = (byte) kind;
+        ports[slot] = port;
+        lengths[slot] = length;
+        times[slot] = nanos;
+        published.lazySet(slot, sequence);
+    }
+
+    private void run() {
+        try {
+            boolean more = true;
+            while (more) {
+                more = running;
+                if (!drain()) {
+                    LockSupport.parkNanos(flushNanos);
+                }
+            }
+            while (consumed != claimed.get()) {
+                if (!drain()) {
+                    Thread.yield();
+                }
+            }
+            reportDrops();
+            flush();
+        } catch (IOException e) {
+            failure = e;
+            running = false;
+        } finally {
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the published records to the file.
+     *
+     * @return true if there were any
+     */
+    private boolean drain() throws IOException {
+        long next = consumed;
+        long start = next;
+        int slot;
+        while (published.get(slot = (int) (next & mask)) == next) {
+            reportDrops();
+            ensure(RECORD_OVERHEAD + lengths[slot]);
+            batch.put(kinds[slot]);
+            putVarint(ports[slot]);
+            long delta = times[slot] - lastTime;
+            putVarint((delta << 1) ^ (delta >> 63));
+            lastTime = times[slot];
+            putVarint(lengths[slot]);
+            batch.put(data, slot * slotSize, lengths[slot]);
+            consumed = ++next;
+        }
+        flush();
+        return next != start;
+    }
+
+    /**
+     * Records how many records were dropped since the last report.
+     *
+     */
+    private void reportDrops() throws IOException {
+        long drops = dropped.get();
+        if (drops != reportedDrops) {
+            ensure(16);
+            batch.put((byte) SerialCapture.DROPPED);
+            putVarint(drops - reportedDrops);
+            reportedDrops = drops;
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (batch.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        batch.flip();
+        int n = batch.remaining();
+        while (batch.hasRemaining()) {
+            file.write(batch);
+        }
+        batch.clear();
+        synchronized (this) {
+            written += n;
+        }
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            batch.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        batch.put((byte) value);
+    }
+}
@@ -0,0 +1,50 @@
+package ASCOM.Utilities;
+
+/*
+
+ Enumeration of serial port speeds for use with the Serial port
+ 
+This contains an additional speed 230,400 baud that the COM component doesn't support.
+ 
+
+
+*/
+public enum SerialSpeed{
+    PS_300(300),
+    PS_1200(1200),
+    PS_2400(2400),
+    PS_4800(4800),
+    PS_9600(9600),
+    PS_14400(14400),
+    PS_19200(19200),
+    PS_28800(28800),
+    PS_38400(38400),
+    PS_57600(57600),
+    PS_115200(115200),
+    PS_230400(230400);
+
+    private final int value;
+
+    private SerialSpeed(int value){
+        this.value = value;
+    }
+
+    /*
+ Returns the speed in baud
+     */
+    public int getValue(){
+        return value;
+    }
+
+    /*
+ Returns the serial speed for a speed in baud
+     */
+    public static SerialSpeed fromValue(int value){
+        for (SerialSpeed speed : values()) {
+            if (speed.value == value) {
+                return speed;
+            }
+        }
+        throw new IllegalArgumentException("Unknown serial speed " + value);
+    }
+}
@@ -0,0 +1,32 @@
+package ASCOM.Utilities;
+
+/*
+
+ Number of stop bits appended to a serial character
+ 
+
+ This enumeration specifies the number of stop bits to use. Stop bits separate each unit of data 
+ on an asynchronous serial connection. 
+ The None option is not supported. Setting the StopBits property to None raises an 
+ IllegalArgumentException. 
+ 
+
+
+*/
+public enum SerialStopBits{
+    NONE,
+    ONE,
+    TWO,
+    ONE_POINT_FIVE;
+
+    /*
+ Returns the stop bits for a serial port stop bits value
+     */
+    public static SerialStopBits fromValue(int value){
+        SerialStopBits[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown serial stop bits " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,314 @@
+package ASCOM.Utilities;
+
+import java.nio.CharBuffer;
+
+/**
+ * Formats and parses sexagesimal values without allocating, for code that
+ * handles a value on every line of a serial protocol. Util's string
+ * methods are built on these.
+ *
+ * Values are written as units (degrees or hours, at least two digits),
+ * minutes and seconds, or units and minutes, each followed by its
+ * delimiter, with the last field rounded to the given number of decimal
+ * places and carried into the others. A negative value starts with a
+ * minus sign, even if it rounds to zero; no plus sign is written. The
+ * decimal separator is always a period.
+ *
+ * Parsing splits the text into runs of digits and periods; everything
+ * else separates them. The first three runs are taken as units, minutes
+ * and seconds, further runs are ignored, and any run may have a fraction,
+ * so "00:30.5:30" is the same as "00:31:00". The value is negative if a
+ * minus sign comes before the first digit.
+ *
+ */
+public final class Sexagesimal {
+
+    /**
+     * Largest number of decimal places of the last field.
+     */
+    public static final int MAX_DECIMALS = 9;
+
+    private static final long[] POW10 = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+        100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+        100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L};
+    private static final long MAX_MANTISSA = (1L << 53) / 10L;
+    private static final double MAX_SCALED = 9.0e18;
+
+    private Sexagesimal() {
+    }
+
+    /**
+     * Appends units, minutes and seconds.
+     *
+     * @param out receives the text
+     * @param value degrees or hours
+     * @param unitDelimiter written after the units
+     * @param minuteDelimiter written after the minutes
+     * @param secondDelimiter written after the seconds
+     * @param decimals decimal places of the seconds, 0 to MAX_DECIMALS
+     * @return out
+     */
+    public static StringBuilder append(StringBuilder out, double value, CharSequence unitDelimiter,
+            CharSequence minuteDelimiter, CharSequence secondDelimiter, int decimals) {
+        long scaled = scale(value, 3600.0, decimals);
+        long whole = scaled / POW10[decimals];
+        sign(out, value);
+        digits(out, whole / 3600L, 2);
+        text(out, unitDelimiter);
+        digits(out, whole / 60L % 60L, 2);
+        text(out, minuteDelimiter);
+        digits(out, whole % 60L, 2);
+        fraction(out, scaled, decimals);
+        text(out, secondDelimiter);
+        return out;
+    }
+
+    /**
+     * Appends units and minutes.
+     *
+     * @param out receives the text
+     * @param value degrees or hours
+     * @param unitDelimiter written after the units
+     * @param minuteDelimiter written after the minutes
+     * @param decimals decimal places of the minutes, 0 to MAX_DECIMALS
+     * @return out
+     */
+    public static StringBuilder append(StringBuilder out, double value, CharSequence unitDelimiter,
+            CharSequence minuteDelimiter, int decimals) {
+        long scaled = scale(value, 60.0, decimals);
+        long whole = scaled / POW10[decimals];
+        sign(out, value);
+        digits(out, whole / 60L, 2);
+        text(out, unitDelimiter);
+        digits(out, whole % 60L, 2);
+        fraction(out, scaled, decimals);
+        text(out, minuteDelimiter);
+        return out;
+    }
+
+    /**
+     * Puts units, minutes and seconds at the buffer position.
+     *
+     * @param out receives the text
+     * @param value degrees or hours
+     * @param unitDelimiter written after the units
+     * @param minuteDelimiter written after the minutes
+     * @param secondDelimiter written after the seconds
+     * @param decimals decimal places of the seconds, 0 to MAX_DECIMALS
+     * @return out
+     * @throws java.nio.BufferOverflowException if the text does not fit, in
+     * which case part of it may have been written
+     */
+    public static CharBuffer append(CharBuffer out, double value, CharSequence unitDelimiter,
+            CharSequence minuteDelimiter, CharSequence secondDelimiter, int decimals) {
+        long scaled = scale(value, 3600.0, decimals);
+        long whole = scaled / POW10[decimals];
+        sign(out, value);
+        digits(out, whole / 3600L, 2);
+        text(out, unitDelimiter);
+        digits(out, whole / 60L % 60L, 2);
+        text(out, minuteDelimiter);
+        digits(out, whole % 60L, 2);
+        fraction(out, scaled, decimals);
+        text(out, secondDelimiter);
+        return out;
+    }
+
+    /**
+     * Puts units and minutes at the buffer position.
+     *
+     * @param out receives the text
+     * @param value degrees or hours
+     * @param unitDelimiter written after the units
+     * @param minuteDelimiter written after the minutes
+     * @param decimals decimal places of the minutes, 0 to MAX_DECIMALS
+     * @return out
+     * @throws java.nio.BufferOverflowException if the text does not fit, in
+     * which case part of it may have been written
+     */
+    public static CharBuffer append(CharBuffer out, double value, CharSequence unitDelimiter,
+            CharSequence minuteDelimiter, int decimals) {
+        long scaled = scale(value, 60.0, decimals);
+        long whole = scaled / POW10[decimals];
+        sign(out, value);
+        digits(out, whole / 60L, 2);
+        text(out, unitDelimiter);
+        digits(out, whole % 60L, 2);
+        fraction(out, scaled, decimals);
+        text(out, minuteDelimiter);
+        return out;
+    }
+
+    /**
+     * Parses a sexagesimal value.
+     *
+     * @return degrees or hours
+     * @throws IllegalArgumentException if the text has no digits
+     */
+    public static double parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses a sexagesimal value from part of some text.
+     *
+     * @param text text holding the value
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return degrees or hours
+     * @throws IllegalArgumentException if the part has no digits
+     */
+    public static double parse(CharSequence text, int start, int end) {
+        if (start < 0 || end > text.length() || start > end) {
+            throw new IndexOutOfBoundsException("Range " + start + " to " + end + " of " + text.length());
+        }
+        boolean negative = false;
+        double value = 0.0;
+        double unit = 1.0;
+        int field = 0;
+        int i = start;
+        while (i < end && field < 3) {
+            char c = text.charAt(i);
+            if (!isNumeric(c)) {
+                if (field == 0 && c == '-') {
+                    negative = true;
+                }
+                i++;
+                continue;
+            }
+            long mantissa = 0L;
+            int exponent = 0;
+            boolean point = false;
+            boolean digit = false;
+            for (; i < end && isNumeric(c = text.charAt(i)); i++) {
+                if (c == '.') {
+                    point = true;
+                    continue;
+                }
+                digit = true;
+                if (point) {
+                    if (mantissa < MAX_MANTISSA && exponent > 1 - POW10.length) {
+                        mantissa = mantissa * 10L + (c - '0');
+                        exponent--;
+                    }
+                } else if (mantissa < MAX_MANTISSA) {
+                    mantissa = mantissa * 10L + (c - '0');
+                } else {
+                    exponent++;
+                }
+            }
+            // A run of points alone is a separator, not a field.
+            if (!digit) {
+                continue;
+            }
+            double run = exponent < 0 ? mantissa / (double) POW10[-exponent]
+                    : exponent == 0 ? mantissa : mantissa * Math.pow(10.0, exponent);
+            value += run * unit;
+            unit /= 60.0;
+            field++;
+        }
+        if (field == 0) {
+            throw new IllegalArgumentException("Not a sexagesimal value: " + text.subSequence(start, end));
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isNumeric(char c) {
+        return (c >= '0' && c <= '9') || c == '.';
+    }
+
+    /**
+     * Gets the magnitude of a value in units of the last field, rounded to
+     * the given number of decimal places.
+     *
+     */
+    private static long scale(double value, double fieldsPerUnit, int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimal places must be from 0 to " + MAX_DECIMALS + ": " + decimals);
+        }
+        double scaled = Math.abs(value) * fieldsPerUnit * POW10[decimals];
+        if (!(scaled < MAX_SCALED)) {
+            throw new IllegalArgumentException("Cannot format " + value + " with " + decimals + " decimal places");
+        }
+        return Math.round(scaled);
+    }
+
+    private static void sign(StringBuilder out, double value) {
+        if (value < 0.0) {
+            out.append('-');
+        }
+    }
+
+    private static void sign(CharBuffer out, double value) {
+        if (value < 0.0) {
+            out.put('-');
+        }
+    }
+
+    private static void text(StringBuilder out, CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            out.append(text.charAt(i));
+        }
+    }
+
+    private static void text(CharBuffer out, CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            out.put(text.charAt(i));
+        }
+    }
+
+    private static void digits(StringBuilder out, long value, int width) {
+        if (value < 100L && width == 2) {
+            out.append((char) ('0' + value / 10L)).append((char) ('0' + value % 10L));
+            return;
+        }
+        for (int n = width(value); n < width; n++) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+
+    private static void digits(CharBuffer out, long value, int width) {
+        if (value < 100L && width == 2) {
+            out.put((char) ('0' + value / 10L)).put((char) ('0' + value % 10L));
+            return;
+        }
+        int n = width(value);
+        for (int i = n; i < width; i++) {
+            out.put('0');
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            out.put((char) ('0' + value / POW10[i] % 10L));
+        }
+    }
+
+    private static void fraction(StringBuilder out, long scaled, int decimals) {
+        if (decimals > 0) {
+            out.append('.');
+            for (int i = decimals - 1; i >= 0; i--) {
+                out.append((char) ('0' + scaled / POW10[i] % 10L));
+            }
+        }
+    }
+
+    private static void fraction(CharBuffer out, long scaled, int decimals) {
+        if (decimals > 0) {
+            out.put('.');
+            for (int i = decimals - 1; i >= 0; i--) {
+                out.put((char) ('0' + scaled / POW10[i] % 10L));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of decimal digits of a value that is not negative.
+     *
+     */
+    private static int width(long value) {
+        int n = 1;
+        while (n < POW10.length && value >= POW10[n]) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,160 @@
+package ASCOM.Utilities;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Writes TraceRecords in the binary trace format read by TraceReader.
+ *
+ * The file starts with the bytes ASCOMTRC, a version byte and the time the
+ * trace started in nanoseconds since 1970, big endian. Each record is a
+ * kind byte, with 0x80 added when a hex translation was asked for, the time
+ * since the record before as a zigzag varint of nanoseconds, the identifier
+ * and message as strings, and for LogCall a typed value and the elapsed
+ * time plus one as a varint. Varints are unsigned LEB128.
+ *
+ * A string is a varint: 0 for null, 1 for UTF-8 bytes that follow with
+ * their length, 2 for the same bytes that are then given the next number
+ * in the string table, or the number plus 3 of a string in the table.
+ * Identifiers and short messages enter the table the first time they are
+ * written, so a repeated one costs a byte or two.
+ *
+ */
+final class TraceEncoder {
+
+    static final byte[] MAGIC = "ASCOMTRC".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+
+    static final int HEX = 0x80;
+
+    static final int NULL_STRING = 0;
+    static final int LITERAL = 1;
+    static final int INTERN = 2;
+    static final int INTERNED = 3;
+
+    static final int NULL = 0;
+    static final int FALSE = 1;
+    static final int TRUE = 2;
+    static final int INT = 3;
+    static final int LONG = 4;
+    static final int DOUBLE = 5;
+    static final int FLOAT = 6;
+    static final int STRING = 7;
+    static final int ARRAY = 8;
+
+    private static final int MAX_STRINGS = 1 << 16;
+    private static final int MAX_INTERNED_LENGTH = 48;
+
+    private final HashMap<String, Integer> strings = new HashMap<>();
+    private ByteBuffer out = ByteBuffer.allocate(1 << 16);
+    private long lastTime;
+
+    /**
+     * Starts a trace at the given time.
+     *
+     */
+    void header(long time) {
+        out.put(MAGIC).put((byte) VERSION).putLong(time);
+        lastTime = time;
+    }
+
+    /**
+     * Appends a record.
+     *
+     */
+    void encode(TraceRecord record) {
+        ensure(32);
+        out.put((byte) (record.kind | (record.hex ? HEX : 0)));
+        long delta = record.time - lastTime;
+        lastTime = record.time;
+        putVarint((delta << 1) ^ (delta >> 63));
+        putString(record.identifier, true);
+        putString(record.message, false);
+        if (record.kind == TraceRecord.CALL) {
+            putValue(record.value);
+            ensure(10);
+            putVarint(record.elapsed < 0 ? 0 : record.elapsed + 1);
+        }
+    }
+
+    /**
+     * Gets the encoded bytes, from 0 to the position.
+     *
+     */
+    ByteBuffer buffer() {
+        return out;
+    }
+
+    private void putString(String value, boolean identifier) {
+        ensure(10);
+        if (value == null) {
+            out.put((byte) NULL_STRING);
+            return;
+        }
+        Integer number = strings.get(value);
+        if (number != null) {
+            putVarint(number + INTERNED);
+            return;
+        }
+        boolean intern = strings.size() < MAX_STRINGS
+                && (identifier || value.length() <= MAX_INTERNED_LENGTH);
+        if (intern) {
+            strings.put(value, strings.size());
+        }
+        out.put((byte) (intern ? INTERN : LITERAL));
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(10 + bytes.length);
+        putVarint(bytes.length);
+        out.put(bytes);
+    }
+
+    private void putValue(Object value) {
+        ensure(10);
+        if (value == null) {
+            out.put((byte) NULL);
+        } else if (value instanceof Boolean) {
+            out.put((byte) ((Boolean) value ? TRUE : FALSE));
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.put((byte) INT);
+            long v = ((Number) value).intValue();
+            putVarint((v << 1) ^ (v >> 63));
+        } else if (value instanceof Long) {
+            out.put((byte) LONG);
+            long v = (Long) value;
+            putVarint((v << 1) ^ (v >> 63));
+        } else if (value instanceof Double) {
+            out.put((byte) DOUBLE).putDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.put((byte) FLOAT).putFloat((Float) value);
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.put((byte) ARRAY);
+            putVarint(length);
+            for (int i = 0; i < length; i++) {
+                putValue(Array.get(value, i));
+            }
+        } else {
+            out.put((byte) STRING);
+            putString(value.toString(), false);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (out.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + bytes));
+            out.flip();
+            larger.put(out);
+            out = larger;
+        }
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+}
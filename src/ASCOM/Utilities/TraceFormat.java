@@ -0,0 +1,28 @@
+package ASCOM.Utilities;
+
+/*
+
+ The encoding of a TraceLogger file
+
+
+ TEXT writes the usual hh:mm:ss.fff Identifier Message lines. BINARY
+ writes compact records with interned identifiers, varint timestamps and
+ typed values, read back with TraceReader.
+
+
+*/
+public enum TraceFormat{
+    TEXT,
+    BINARY;
+
+    /*
+ Returns the trace format for a format value
+     */
+    public static TraceFormat fromValue(int value){
+        TraceFormat[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown trace format " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,224 @@
+package ASCOM.Utilities;
+
+import java.lang.reflect.Array;
+import java.util.TimeZone;
+
+/**
+ * Turns TraceRecords into the lines of a TraceLogger text file, in the
+ * order the calls were made: hh:mm:ss.fff in local time, the identifier
+ * padded to a column, then the message. A line opened by LogStart stays
+ * open until LogFinish; a call in between writes a LOGISSUE line if it is
+ * out of place and the open line continues on a new line after it.
+ *
+ * The TraceLogger writer thread and the trace decoder share this class, so
+ * a binary trace decodes to the text the logger would have written.
+ *
+ */
+public final class TraceFormatter {
+
+    private static final int IDENTIFIER_WIDTH = 25;
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final StringBuilder text;
+    private final TimeZone zone = TimeZone.getDefault();
+    private boolean lineOpen;
+    private String openIdentifier;
+
+    /**
+     *
+     * @param text receives the formatted lines
+     */
+    public TraceFormatter(StringBuilder text) {
+        this.text = text;
+    }
+
+    /**
+     * Appends the text of one call.
+     *
+     */
+    public void format(TraceRecord record) {
+        switch (record.kind) {
+            case TraceRecord.MESSAGE:
+            case TraceRecord.MESSAGE_CRLF:
+            case TraceRecord.CALL:
+                if (lineOpen) {
+                    issue(record.time, "LogMessage", "LogMessage called before LogFinish. Parameters: "
+                            + record.identifier + " " + record.message);
+                }
+                line(record.time, record.identifier);
+                appendMessage(record);
+                text.append(NEWLINE);
+                resume(record.time);
+                break;
+            case TraceRecord.START:
+                if (lineOpen) {
+                    issue(record.time, "LogStart", "LogStart called before LogFinish. Parameters: "
+                            + record.identifier + " " + record.message);
+                }
+                line(record.time, record.identifier);
+                appendMessage(record);
+                lineOpen = true;
+                openIdentifier = record.identifier;
+                break;
+            case TraceRecord.CONTINUE:
+            case TraceRecord.FINISH:
+                if (!lineOpen) {
+                    String method = record.kind == TraceRecord.CONTINUE ? "LogContinue" : "LogFinish";
+                    issue(record.time, method, method + " called before LogStart. Parameter: " + record.message);
+                    line(record.time, "");
+                    lineOpen = true;
+                    openIdentifier = "";
+                }
+                appendMessage(record);
+                if (record.kind == TraceRecord.FINISH) {
+                    text.append(NEWLINE);
+                    lineOpen = false;
+                }
+                break;
+            case TraceRecord.ISSUE:
+                issue(record.time, record.identifier, record.message);
+                resume(record.time);
+                break;
+            default:
+                if (lineOpen) {
+                    text.append(NEWLINE);
+                }
+                text.append(NEWLINE);
+                resume(record.time);
+                break;
+        }
+    }
+
+    /**
+     * Ends a line left open by LogStart, at the end of the trace.
+     *
+     */
+    public void finish() {
+        if (lineOpen) {
+            text.append(NEWLINE);
+            lineOpen = false;
+        }
+    }
+
+    /**
+     * Writes an issue line, ending any open line first; the open line is
+     * left for resume to continue.
+     *
+     */
+    private void issue(long time, String identifier, String message) {
+        if (lineOpen) {
+            text.append(NEWLINE);
+        }
+        line(time, identifier);
+        text.append("LOGISSUE: ");
+        printable(message, false);
+        text.append(NEWLINE);
+    }
+
+    /**
+     * Opens a continuation line if a line was open before an interruption.
+     *
+     */
+    private void resume(long time) {
+        if (lineOpen) {
+            line(time, openIdentifier);
+            text.append("(Continued) ");
+        }
+    }
+
+    /**
+     * Appends the time and padded identifier that start a line.
+     *
+     */
+    private void line(long time, String identifier) {
+        long epochMillis = Math.floorDiv(time, 1000000L);
+        long millisOfDay = Math.floorMod(epochMillis + zone.getOffset(epochMillis), 86400000L);
+        two(millisOfDay / 3600000L);
+        text.append(':');
+        two(millisOfDay / 60000L % 60);
+        text.append(':');
+        two(millisOfDay / 1000L % 60);
+        text.append('.');
+        three(millisOfDay % 1000);
+        text.append(' ');
+        int start = text.length();
+        text.append(identifier == null ? "" : identifier);
+        while (text.length() - start < IDENTIFIER_WIDTH) {
+            text.append(' ');
+        }
+        text.append(' ');
+    }
+
+    private void two(long value) {
+        text.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private void three(long value) {
+        text.append((char) ('0' + value / 100)).append((char) ('0' + value / 10 % 10))
+                .append((char) ('0' + value % 10));
+    }
+
+    private void appendMessage(TraceRecord record) {
+        printable(record.message, record.kind == TraceRecord.MESSAGE_CRLF);
+        if (record.kind == TraceRecord.CALL) {
+            if (record.value != null) {
+                text.append(' ');
+                appendValue(record.value);
+            }
+            if (record.elapsed >= 0) {
+                text.append(" (").append(record.elapsed / 1000000L).append('.');
+                three(record.elapsed / 1000L % 1000L);
+                text.append(" ms)");
+            }
+        }
+        if (record.hex && record.message != null) {
+            text.append("  (HEX");
+            for (int i = 0; i < record.message.length(); i++) {
+                String digits = Integer.toHexString(record.message.charAt(i)).toUpperCase();
+                text.append(digits.length() < 2 ? " 0" : " ").append(digits);
+            }
+            text.append(')');
+        }
+    }
+
+    /**
+     * Appends text with control characters as [XX], keeping carriage
+     * returns and linefeeds if asked.
+     *
+     */
+    private void printable(String message, boolean crLf) {
+        if (message == null) {
+            return;
+        }
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if ((c < 32 && !(crLf && (c == '\r' || c == '\n'))) || c == 127) {
+                text.append('[').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16))).append(']');
+            } else {
+                text.append(c);
+            }
+        }
+    }
+
+    private void appendValue(Object value) {
+        if (value.getClass().isArray()) {
+            text.append('[');
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    text.append(", ");
+                }
+                Object element = Array.get(value, i);
+                if (element == null) {
+                    text.append("null");
+                } else {
+                    appendValue(element);
+                }
+            }
+            text.append(']');
+        } else {
+            text.append(value);
+        }
+    }
+}
@@ -0,0 +1,614 @@
+package ASCOM.Utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Creates a log file for a driver or application. Multiple logs can be
+ * created simultaneously if needed.
+ *
+ * In automatic mode the file is stored in an ASCOM folder in the user's
+ * home folder, in a folder named Logs yyyy-mm-dd for the day, with the name
+ * ASCOM.LogFileType.hhmm.ssffff.txt for the time of creation. The file is
+ * not created until the first line is written.
+ *
+ * Within the file each line reads hh:mm:ss.fff Identifier Message, the
+ * identifier padded to a column. With TraceFormat.BINARY the file, named
+ * .bin instead of .txt, holds compact records instead, typically several
+ * times smaller, which TraceReader reads and TraceFormatter turns into the
+ * same text.
+ *
+ * The Log methods only take a preallocated slot in a bounded ring and
+ * store the time and their arguments in it; a daemon thread formats the
+ * lines and writes them to the file in batches. The thread is started by
+ * the first enabled Log call and parked while the ring is empty, so an
+ * idle or disabled logger costs nothing. When the ring is full a
+ * message is dropped and counted, or with TraceOverflow.BLOCK the caller
+ * waits for room. Lines keep the order in which their calls took a slot;
+ * a line started by LogStart is best finished from the same thread.
+ *
+ */
+public class TraceLogger implements AutoCloseable {
+
+    /**
+     * Default number of messages the ring holds.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final long SEALED = Long.MIN_VALUE;
+    private static final long BLOCK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HHmm.ssSSSS");
+
+    private final TraceRecord[] ring;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private final long epochNanos;
+    private volatile Thread writer;
+    private volatile boolean sleeping;
+    private volatile long consumed;
+    private volatile long flushed;
+    private volatile boolean running = true;
+    private volatile boolean Enabled;
+    private volatile TraceOverflow overflow = TraceOverflow.DROP;
+    private volatile TraceFormat format = TraceFormat.TEXT;
+    private volatile String LogFileName = "";
+    private volatile IOException failure;
+    private String requestedName = "";
+    private String LogFileType = "Default";
+
+    private final StringBuilder text = new StringBuilder(1 << 15);
+    private final TraceFormatter formatter = new TraceFormatter(text);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(1 << 16);
+    private TraceEncoder binary;
+    private FileChannel file;
+
+    /**
+     * Creates a new TraceLogger instance with automatic naming and the file
+     * type Default. Logging starts once Enabled is set.
+     *
+     */
+    public TraceLogger() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates and enables a new TraceLogger instance with automatic naming
+     * based on the supplied log file type.
+     *
+     */
+    public TraceLogger(String LogFileType) {
+        this(DEFAULT_CAPACITY);
+        SetLogFile("", LogFileType);
+        Enabled = true;
+    }
+
+    /**
+     * Creates a new TraceLogger instance and initialises the file name and
+     * type. Logging starts once Enabled is set.
+     *
+     * @param LogFileName path of the file, or empty for automatic naming
+     * @param LogFileType used in automatic file names
+     */
+    public TraceLogger(String LogFileName, String LogFileType) {
+        this(DEFAULT_CAPACITY);
+        SetLogFile(LogFileName, LogFileType);
+    }
+
+    /**
+     * Creates a new TraceLogger instance with a ring of the given size.
+     * Logging starts once Enabled is set.
+     *
+     * @param capacity number of messages the ring holds, a power of two
+     */
+    public TraceLogger(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.ring = new TraceRecord[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new TraceRecord();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.epochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+    }
+
+    /**
+     * Sets the log file name and type if the constructor is called without
+     * them. Has no effect once the file has been created.
+     *
+     * @param LogFileName path of the file, or empty for automatic naming
+     * @param LogFileType used in automatic file names
+     */
+    public synchronized void SetLogFile(String LogFileName, String LogFileType) {
+        this.requestedName = LogFileName == null ? "" : LogFileName;
+        this.LogFileType = LogFileType == null || LogFileType.isEmpty() ? "Default" : LogFileType;
+    }
+
+    /**
+     * Logs a complete message in one call.
+     *
+     * Will create a LOGISSUE message in the log if called before a line
+     * started by LogStart has been closed with LogFinish.
+     *
+     */
+    public void LogMessage(String Identifier, String Message) {
+        log(TraceRecord.MESSAGE, Identifier, Message, null, -1L, false);
+    }
+
+    /**
+     * Logs a complete message in one call, with a hex translation of the
+     * message if HexDump is true.
+     *
+     */
+    public void LogMessage(String Identifier, String Message, boolean HexDump) {
+        log(TraceRecord.MESSAGE, Identifier, Message, null, -1L, HexDump);
+    }
+
+    /**
+     * Logs a message respecting carriage return and linefeed characters.
+     *
+     */
+    public void LogMessageCrLf(String Identifier, String Message) {
+        log(TraceRecord.MESSAGE_CRLF, Identifier, Message, null, -1L, false);
+    }
+
+    /**
+     * Writes the time and identifier to the log, leaving the line ready for
+     * further content through LogContinue and LogFinish.
+     *
+     * Will create a LOGISSUE message in the log if called before a line
+     * started by LogStart has been closed with LogFinish.
+     *
+     */
+    public void LogStart(String Identifier, String Message) {
+        log(TraceRecord.START, Identifier, Message, null, -1L, false);
+    }
+
+    /**
+     * Appends further message to a line started by LogStart, does not
+     * terminate the line.
+     *
+     */
+    public void LogContinue(String Message) {
+        log(TraceRecord.CONTINUE, null, Message, null, -1L, false);
+    }
+
+    /**
+     * Appends further message to a line started by LogStart, with a hex
+     * translation of the message if HexDump is true.
+     *
+     */
+    public void LogContinue(String Message, boolean HexDump) {
+        log(TraceRecord.CONTINUE, null, Message, null, -1L, HexDump);
+    }
+
+    /**
+     * Closes a line started by LogStart with the supplied message.
+     *
+     */
+    public void LogFinish(String Message) {
+        log(TraceRecord.FINISH, null, Message, null, -1L, false);
+    }
+
+    /**
+     * Closes a line started by LogStart with the supplied message, with a
+     * hex translation of the message if HexDump is true.
+     *
+     */
+    public void LogFinish(String Message, boolean HexDump) {
+        log(TraceRecord.FINISH, null, Message, null, -1L, HexDump);
+    }
+
+    /**
+     * Logs an issue, closing any open line and opening a continuation line
+     * after the issue message.
+     *
+     */
+    public void LogIssue(String Identifier, String Message) {
+        log(TraceRecord.ISSUE, Identifier, Message, null, -1L, false);
+    }
+
+    /**
+     * Inserts a blank line into the log file.
+     *
+     */
+    public void BlankLine() {
+        log(TraceRecord.BLANK, null, null, null, -1L, false);
+    }
+
+    /**
+     * Logs a call and its outcome. The value, which may be a boxed number,
+     * a string or an array, is formatted by the writer thread and must not
+     * change after the call.
+     *
+     * @param Identifier member called
+     * @param Message what was done, e.g. Get
+     * @param Value result or argument, or null
+     * @param ElapsedNanos time the call took, or -1
+     */
+    public void LogCall(String Identifier, String Message, Object Value, long ElapsedNanos) {
+        log(TraceRecord.CALL, Identifier, Message, Value, ElapsedNanos, false);
+    }
+
+    /**
+     * Waits until every message logged so far has been written.
+     *
+     */
+    public void flush() {
+        long target = claimed.get() & ~SEALED;
+        Thread w = writer;
+        while (flushed < target && w != null && w.isAlive()) {
+            LockSupport.unpark(w);
+            LockSupport.parkNanos(BLOCK_NANOS);
+        }
+    }
+
+    /**
+     * Writes the messages logged so far and closes the file, waiting for
+     * messages whose slot has been taken. Later calls are ignored; messages
+     * logged meanwhile are dropped and counted.
+     *
+     */
+    public void Dispose() {
+        Thread w;
+        synchronized (this) {
+            running = false;
+            w = writer;
+            if (w == null) {
+                seal();
+                return;
+            }
+        }
+        LockSupport.unpark(w);
+        if (Thread.currentThread() != w) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Dispose();
+    }
+
+    /**
+     * Enables or disables logging to the file.
+     *
+     * If this property is false then calls to the Log methods do nothing.
+     *
+     */
+    public void setEnabled(boolean _theValue) {
+        this.Enabled = _theValue;
+    }
+
+    /**
+     * Gets whether logging to the file is enabled.
+     *
+     */
+    public boolean getEnabled() {
+        return Enabled;
+    }
+
+    /**
+     * Gets the full file name of the log file, or an empty string until the
+     * first line has been written.
+     *
+     */
+    public String getLogFileName() {
+        return LogFileName;
+    }
+
+    /**
+     * Sets the encoding of the file (default TEXT). Has no effect once the
+     * file has been created.
+     *
+     */
+    public void setFormat(TraceFormat _theValue) {
+        if (_theValue == null) {
+            throw new IllegalArgumentException("A trace format is required");
+        }
+        this.format = _theValue;
+    }
+
+    /**
+     * Gets the encoding of the file.
+     *
+     */
+    public TraceFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets what happens to a message when the ring is full (default DROP).
+     *
+     */
+    public void setOverflow(TraceOverflow _theValue) {
+        if (_theValue == null) {
+            throw new IllegalArgumentException("An overflow policy is required");
+        }
+        this.overflow = _theValue;
+    }
+
+    /**
+     * Gets what happens to a message when the ring is full.
+     *
+     */
+    public TraceOverflow getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Gets the number of messages dropped because the ring was full, the
+     * logger had been disposed or writing the file had failed.
+     *
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of messages taken into the ring so far, less those
+     * lost when writing the file failed.
+     *
+     */
+    public long getLoggedCount() {
+        return claimed.get() & ~SEALED;
+    }
+
+    /**
+     * Gets the number of times a caller waited for room in the ring.
+     *
+     */
+    public long getBlockedCount() {
+        return blocked.get();
+    }
+
+    /**
+     * Gets the exception that stopped writing the file, or null.
+     *
+     */
+    public IOException getLastFailure() {
+        return failure;
+    }
+
+    private void log(int kind, String identifier, String message, Object value, long elapsed, boolean hex) {
+        if (!Enabled || !running) {
+            return;
+        }
+        if (writer == null) {
+            start();
+        }
+        long nanos = System.nanoTime();
+        long sequence = claim();
+        if (sequence < 0) {
+            return;
+        }
+        int slot = (int) (sequence & mask);
+        ring[slot].set(kind, nanos, identifier, message, value, elapsed, hex);
+        // A full store, so that either the writer sees the slot before it
+        // parks or this sees it sleeping.
+        published.set(slot, sequence);
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Starts the writer thread, unless it is running or the logger has
+     * been disposed.
+     *
+     */
+    private synchronized void start() {
+        if (writer == null && running) {
+            Thread w = new Thread(this::run, "ascom4j-trace");
+            w.setDaemon(true);
+            writer = w;
+            w.start();
+        }
+    }
+
+    /**
+     * Claims the next slot, waiting for room under the BLOCK policy. Once
+     * the ring is sealed every message is dropped.
+     *
+     * @return its sequence number, or -1 if the message is dropped
+     */
+    private long claim() {
+        boolean waited = false;
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence < 0) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+            if (sequence - consumed > mask) {
+                if (overflow == TraceOverflow.DROP || !running) {
+                    dropped.incrementAndGet();
+                    return -1;
+                }
+                if (!waited) {
+                    blocked.incrementAndGet();
+                    waited = true;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(BLOCK_NANOS);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Stops further claims. A message either took its slot before this,
+     * and is written, or fails to claim one and is dropped.
+     *
+     * @return the number of slots claimed
+     */
+    private long seal() {
+        return claimed.getAndUpdate(sequence -> sequence | SEALED) & ~SEALED;
+    }
+
+    private void run() {
+        try {
+            boolean more = true;
+            while (more) {
+                more = running;
+                if (!drain() && more) {
+                    sleeping = true;
+                    if (published.get((int) (consumed & mask)) != consumed && running) {
+                        LockSupport.park(this);
+                    }
+                    sleeping = false;
+                }
+            }
+            long last = seal();
+            while (consumed != last) {
+                if (!drain()) {
+                    Thread.yield();
+                }
+            }
+            formatter.finish();
+            write();
+        } catch (IOException e) {
+            failure = e;
+            running = false;
+            long last = claimed.getAndSet(consumed | SEALED) & ~SEALED;
+            dropped.addAndGet(last - consumed);
+            flushed = consumed;
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    // closing anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * Formats the published messages and writes them.
+     *
+     * @return true if there were any
+     */
+    private boolean drain() throws IOException {
+        long next = consumed;
+        long start = next;
+        int slot;
+        while (published.get(slot = (int) (next & mask)) == next) {
+            if (file == null) {
+                open();
+            }
+            TraceRecord record = ring[slot];
+            record.time += epochNanos;
+            if (binary != null) {
+                binary.encode(record);
+            } else {
+                formatter.format(record);
+            }
+            record.clear();
+            consumed = ++next;
+            if (text.length() >= bytes.capacity() / 2 || (binary != null
+                    && binary.buffer().position() >= bytes.capacity())) {
+                write();
+            }
+        }
+        write();
+        flushed = next;
+        return next != start;
+    }
+
+    /**
+     * Writes the encoded records or the formatted text.
+     *
+     */
+    private void write() throws IOException {
+        if (binary != null) {
+            ByteBuffer encoded = binary.buffer();
+            encoded.flip();
+            while (encoded.hasRemaining()) {
+                file.write(encoded);
+            }
+            encoded.clear();
+            return;
+        }
+        if (text.length() == 0) {
+            return;
+        }
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        boolean more = true;
+        while (more) {
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (!result.isOverflow()) {
+                encoder.flush(bytes);
+                more = false;
+            }
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                file.write(bytes);
+            }
+            bytes.clear();
+        }
+        text.setLength(0);
+    }
+
+    private void open() throws IOException {
+        String requested;
+        String type;
+        synchronized (this) {
+            requested = requestedName;
+            type = LogFileType;
+        }
+        Path path;
+        if (requested.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            Path folder = Paths.get(System.getProperty("user.home"), "ASCOM", "Logs " + now.format(DAY));
+            Files.createDirectories(folder);
+            path = folder.resolve("ASCOM." + type + "." + now.format(TIME)
+                    + (format == TraceFormat.BINARY ? ".bin" : ".txt"));
+        } else {
+            path = Paths.get(requested).toAbsolutePath();
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        }
+        if (format == TraceFormat.BINARY) {
+            file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            binary = new TraceEncoder();
+            binary.header(epochNanos + System.nanoTime());
+        } else {
+            file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        LogFileName = path.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package ASCOM.Utilities;
+
+/*
+
+ What a TraceLogger does with a message when its queue is full
+
+
+ DROP discards the message and counts it, so tracing never slows the caller.
+ BLOCK makes the caller wait until the writer has made room, so no message
+ is lost.
+
+
+*/
+public enum TraceOverflow{
+    DROP,
+    BLOCK;
+
+    /*
+ Returns the overflow policy for a policy value
+     */
+    public static TraceOverflow fromValue(int value){
+        TraceOverflow[] all = values();
+        if (value < 0 || value >= all.length) {
+            throw new IllegalArgumentException("Unknown trace overflow policy " + value);
+        }
+        return all[value];
+    }
+}
@@ -0,0 +1,196 @@
+package ASCOM.Utilities;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Reads a binary trace written by a TraceLogger with TraceFormat.BINARY,
+ * one record at a time, in constant memory apart from the string table.
+ *
+ */
+public final class TraceReader implements Closeable {
+
+    private final InputStream in;
+    private final long startTime;
+    private final ArrayList<String> strings = new ArrayList<>();
+    private final TraceRecord record = new TraceRecord();
+    private byte[] bytes = new byte[256];
+    private long time;
+
+    /**
+     * Opens a binary trace.
+     *
+     * @throws IOException if the file cannot be read or is not a binary
+     * trace
+     */
+    public TraceReader(Path path) throws IOException {
+        this.in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+        try {
+            byte[] magic = new byte[TraceEncoder.MAGIC.length];
+            readFully(magic, magic.length);
+            if (!Arrays.equals(magic, TraceEncoder.MAGIC)) {
+                throw new IOException("Not a binary trace: " + path);
+            }
+            int version = readByte();
+            if (version != TraceEncoder.VERSION) {
+                throw new IOException("Unsupported binary trace version " + version + ": " + path);
+            }
+            long start = 0;
+            for (int i = 0; i < 8; i++) {
+                start = start << 8 | readByte();
+            }
+            this.startTime = start;
+            this.time = start;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the time the trace started in nanoseconds since 1970.
+     *
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, valid until the next call, or null at the end of
+     * the trace
+     */
+    public TraceRecord next() throws IOException {
+        int tag = in.read();
+        if (tag < 0) {
+            return null;
+        }
+        int kind = tag & ~TraceEncoder.HEX;
+        if (kind > TraceRecord.CALL) {
+            throw new IOException("Unknown binary trace record " + tag);
+        }
+        long zigzag = readVarint();
+        time += (zigzag >>> 1) ^ -(zigzag & 1);
+        String identifier = readString();
+        String message = readString();
+        Object value = null;
+        long elapsed = -1L;
+        if (kind == TraceRecord.CALL) {
+            value = readValue();
+            elapsed = readVarint() - 1;
+        }
+        record.set(kind, time, identifier, message, value, elapsed, (tag & TraceEncoder.HEX) != 0);
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        long ref = readVarint();
+        if (ref == TraceEncoder.NULL_STRING) {
+            return null;
+        }
+        if (ref >= TraceEncoder.INTERNED) {
+            long number = ref - TraceEncoder.INTERNED;
+            if (number >= strings.size()) {
+                throw new IOException("Binary trace refers to unknown string " + number);
+            }
+            return strings.get((int) number);
+        }
+        int length = (int) readVarint();
+        if (length > bytes.length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        readFully(bytes, length);
+        String value = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        if (ref == TraceEncoder.INTERN) {
+            strings.add(value);
+        }
+        return value;
+    }
+
+    private Object readValue() throws IOException {
+        int type = readByte();
+        switch (type) {
+            case TraceEncoder.NULL:
+                return null;
+            case TraceEncoder.FALSE:
+                return Boolean.FALSE;
+            case TraceEncoder.TRUE:
+                return Boolean.TRUE;
+            case TraceEncoder.INT:
+                return (int) unzigzag(readVarint());
+            case TraceEncoder.LONG:
+                return unzigzag(readVarint());
+            case TraceEncoder.DOUBLE:
+                return Double.longBitsToDouble(readFixed(8));
+            case TraceEncoder.FLOAT:
+                return Float.intBitsToFloat((int) readFixed(4));
+            case TraceEncoder.STRING:
+                return readString();
+            case TraceEncoder.ARRAY:
+                Object[] values = new Object[(int) readVarint()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = readValue();
+                }
+                return values;
+            default:
+                throw new IOException("Unknown binary trace value type " + type);
+        }
+    }
+
+    private static long unzigzag(long zigzag) {
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private long readFixed(int count) throws IOException {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = value << 8 | readByte();
+        }
+        return value;
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Binary trace is truncated");
+        }
+        return b;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary trace");
+    }
+
+    private void readFully(byte[] into, int length) throws IOException {
+        int n = 0;
+        while (n < length) {
+            int read = in.read(into, n, length - n);
+            if (read < 0) {
+                throw new EOFException("Binary trace is truncated");
+            }
+            n += read;
+        }
+    }
+}
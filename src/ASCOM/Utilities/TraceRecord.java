@@ -0,0 +1,132 @@
+package ASCOM.Utilities;
+
+/**
+ * One call to a TraceLogger: the method, its time and its arguments. The
+ * logger keeps a ring of these and TraceReader reuses one for every record
+ * it reads, so a record is valid only until the next.
+ *
+ */
+public final class TraceRecord {
+
+    /**
+     * LogMessage.
+     */
+    public static final int MESSAGE = 0;
+
+    /**
+     * LogMessageCrLf.
+     */
+    public static final int MESSAGE_CRLF = 1;
+
+    /**
+     * LogStart.
+     */
+    public static final int START = 2;
+
+    /**
+     * LogContinue.
+     */
+    public static final int CONTINUE = 3;
+
+    /**
+     * LogFinish.
+     */
+    public static final int FINISH = 4;
+
+    /**
+     * LogIssue.
+     */
+    public static final int ISSUE = 5;
+
+    /**
+     * BlankLine.
+     */
+    public static final int BLANK = 6;
+
+    /**
+     * LogCall.
+     */
+    public static final int CALL = 7;
+
+    int kind;
+    long time;
+    String identifier;
+    String message;
+    Object value;
+    long elapsed;
+    boolean hex;
+
+    /**
+     * Gets the kind of call, MESSAGE to CALL.
+     *
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the time of the call in nanoseconds since 1970.
+     *
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the identifier, or null for calls without one.
+     *
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Gets the message, or null.
+     *
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the value passed to LogCall. Read back from a binary trace it is
+     * null, a Boolean, Integer, Long, Float, Double or String, or an
+     * Object[] of these.
+     *
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the time a LogCall took (ns), or -1.
+     *
+     */
+    public long getElapsedNanos() {
+        return elapsed;
+    }
+
+    /**
+     * Returns true if a hex translation of the message was asked for.
+     *
+     */
+    public boolean isHex() {
+        return hex;
+    }
+
+    void set(int kind, long time, String identifier, String message, Object value, long elapsed, boolean hex) {
+        this.kind = kind;
+        this.time = time;
+        this.identifier = identifier;
+        this.message = message;
+        this.value = value;
+        this.elapsed = elapsed;
+        this.hex = hex;
+    }
+
+    void clear() {
+        identifier = null;
+        message = null;
+        value = null;
+    }
+}
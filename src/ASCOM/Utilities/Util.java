@@ -0,0 +1,300 @@
+package ASCOM.Utilities;
+
+/**
+ * Provides a set of utility functions for ASCOM clients and drivers.
+ *
+ * Only the sexagesimal conversions are provided. Each formatting method
+ * returns a new String built in a per-thread buffer; to format into a
+ * buffer of your own, or to parse part of a larger text such as a line of
+ * a serial protocol, use Sexagesimal directly, which allocates nothing.
+ *
+ * If you need a leading plus sign, you must prepend it yourself. The
+ * delimiters are not restricted to single characters.
+ *
+ */
+public class Util {
+
+    private static final String DEGREE_DELIMITER = "\u00b0 ";
+    private static final String ARC_MINUTE_DELIMITER = "' ";
+    private static final String ARC_SECOND_DELIMITER = "\"";
+    private static final String DM_MINUTE_DELIMITER = "'";
+    private static final String TIME_DELIMITER = ":";
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    /**
+     * Convert sexagesimal degrees to binary double-precision degrees.
+     *
+     * See Sexagesimal for the accepted forms; plain degrees such as
+     * 23.128734523 are accepted too.
+     *
+     * @throws IllegalArgumentException if the text has no digits
+     */
+    public double DMSToDegrees(String DMS) {
+        return Sexagesimal.parse(DMS);
+    }
+
+    /**
+     * Convert sexagesimal hours to binary double-precision hours.
+     *
+     * @throws IllegalArgumentException if the text has no digits
+     */
+    public double HMSToHours(String HMS) {
+        return Sexagesimal.parse(HMS);
+    }
+
+    /**
+     * Convert sexagesimal hours to binary double-precision degrees.
+     *
+     * @throws IllegalArgumentException if the text has no digits
+     */
+    public double HMSToDegrees(String HMS) {
+        return Sexagesimal.parse(HMS) * 15.0;
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees, minutes and seconds with
+     * default delimiters DD° MM' SS".
+     *
+     */
+    public String DegreesToDMS(double Degrees) {
+        return DegreesToDMS(Degrees, DEGREE_DELIMITER, ARC_MINUTE_DELIMITER, ARC_SECOND_DELIMITER, 0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees, minutes and seconds with
+     * default minute and second delimiters MM' SS".
+     *
+     */
+    public String DegreesToDMS(double Degrees, String DegDelim) {
+        return DegreesToDMS(Degrees, DegDelim, ARC_MINUTE_DELIMITER, ARC_SECOND_DELIMITER, 0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees, minutes and seconds with
+     * default second delimiter SS".
+     *
+     */
+    public String DegreesToDMS(double Degrees, String DegDelim, String MinDelim) {
+        return DegreesToDMS(Degrees, DegDelim, MinDelim, ARC_SECOND_DELIMITER, 0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees, minutes and seconds.
+     *
+     */
+    public String DegreesToDMS(double Degrees, String DegDelim, String MinDelim, String SecDelim) {
+        return DegreesToDMS(Degrees, DegDelim, MinDelim, SecDelim, 0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees, minutes and seconds with
+     * specified second decimal places.
+     *
+     */
+    public String DegreesToDMS(double Degrees, String DegDelim, String MinDelim, String SecDelim,
+            int SecDecimalDigits) {
+        return Sexagesimal.append(buffer(), Degrees, DegDelim, MinDelim, SecDelim, SecDecimalDigits).toString();
+    }
+
+    /**
+     * Convert hours to sexagesimal hours, minutes, and seconds with default
+     * delimiters HH:MM:SS.
+     *
+     */
+    public String HoursToHMS(double Hours) {
+        return HoursToHMS(Hours, TIME_DELIMITER, TIME_DELIMITER, "", 0);
+    }
+
+    /**
+     * Convert hours to sexagesimal hours, minutes, and seconds with default
+     * minute and second delimiters MM:SS.
+     *
+     */
+    public String HoursToHMS(double Hours, String HrsDelim) {
+        return HoursToHMS(Hours, HrsDelim, TIME_DELIMITER, "", 0);
+    }
+
+    /**
+     * Convert hours to sexagesimal hours, minutes, and seconds with default
+     * second delimiter of null string.
+     *
+     */
+    public String HoursToHMS(double Hours, String HrsDelim, String MinDelim) {
+        return HoursToHMS(Hours, HrsDelim, MinDelim, "", 0);
+    }
+
+    /**
+     * Convert hours to sexagesimal hours, minutes, and seconds.
+     *
+     */
+    public String HoursToHMS(double Hours, String HrsDelim, String MinDelim, String SecDelim) {
+        return HoursToHMS(Hours, HrsDelim, MinDelim, SecDelim, 0);
+    }
+
+    /**
+     * Convert hours to sexagesimal hours, minutes, and seconds with
+     * specified number of second decimal places.
+     *
+     */
+    public String HoursToHMS(double Hours, String HrsDelim, String MinDelim, String SecDelim,
+            int SecDecimalDigits) {
+        return Sexagesimal.append(buffer(), Hours, HrsDelim, MinDelim, SecDelim, SecDecimalDigits).toString();
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees and minutes with default
+     * delimiters DD° MM'.
+     *
+     */
+    public String DegreesToDM(double Degrees) {
+        return DegreesToDM(Degrees, DEGREE_DELIMITER, DM_MINUTE_DELIMITER, 0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees and minutes with default
+     * minute delimiter MM'.
+     *
+     */
+    public String DegreesToDM(double Degrees, String DegDelim) {
+        return DegreesToDM(Degrees, DegDelim, DM_MINUTE_DELIMITER, 0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees and minutes.
+     *
+     */
+    public String DegreesToDM(double Degrees, String DegDelim, String MinDelim) {
+        return DegreesToDM(Degrees, DegDelim, MinDelim, 0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal degrees and minutes with the specified
+     * number of minute decimal places.
+     *
+     */
+    public String DegreesToDM(double Degrees, String DegDelim, String MinDelim, int MinDecimalDigits) {
+        return Sexagesimal.append(buffer(), Degrees, DegDelim, MinDelim, MinDecimalDigits).toString();
+    }
+
+    /**
+     * Convert hours to sexagesimal hours and minutes with default
+     * delimiters HH:MM.
+     *
+     */
+    public String HoursToHM(double Hours) {
+        return HoursToHM(Hours, TIME_DELIMITER, "", 0);
+    }
+
+    /**
+     * Convert hours to sexagesimal hours and minutes with default minute
+     * delimiter of null string.
+     *
+     */
+    public String HoursToHM(double Hours, String HrsDelim) {
+        return HoursToHM(Hours, HrsDelim, "", 0);
+    }
+
+    /**
+     * Convert hours to sexagesimal hours and minutes.
+     *
+     */
+    public String HoursToHM(double Hours, String HrsDelim, String MinDelim) {
+        return HoursToHM(Hours, HrsDelim, MinDelim, 0);
+    }
+
+    /**
+     * Convert hours to sexagesimal hours and minutes with supplied number of
+     * minute decimal places.
+     *
+     */
+    public String HoursToHM(double Hours, String HrsDelim, String MinDelim, int MinDecimalDigits) {
+        return Sexagesimal.append(buffer(), Hours, HrsDelim, MinDelim, MinDecimalDigits).toString();
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours, minutes, and seconds with
+     * default delimiters HH:MM:SS.
+     *
+     */
+    public String DegreesToHMS(double Degrees) {
+        return HoursToHMS(Degrees / 15.0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours, minutes, and seconds with
+     * default minute and second delimiters MM:SS.
+     *
+     */
+    public String DegreesToHMS(double Degrees, String HrsDelim) {
+        return HoursToHMS(Degrees / 15.0, HrsDelim);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours, minutes, and seconds with
+     * default second delimiter of null string.
+     *
+     */
+    public String DegreesToHMS(double Degrees, String HrsDelim, String MinDelim) {
+        return HoursToHMS(Degrees / 15.0, HrsDelim, MinDelim);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours, minutes, and seconds.
+     *
+     */
+    public String DegreesToHMS(double Degrees, String HrsDelim, String MinDelim, String SecDelim) {
+        return HoursToHMS(Degrees / 15.0, HrsDelim, MinDelim, SecDelim);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours, minutes, and seconds with the
+     * specified number of second decimal places.
+     *
+     */
+    public String DegreesToHMS(double Degrees, String HrsDelim, String MinDelim, String SecDelim,
+            int SecDecimalDigits) {
+        return HoursToHMS(Degrees / 15.0, HrsDelim, MinDelim, SecDelim, SecDecimalDigits);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours and minutes with default
+     * delimiters HH:MM.
+     *
+     */
+    public String DegreesToHM(double Degrees) {
+        return HoursToHM(Degrees / 15.0);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours and minutes with default minute
+     * delimiter of null string.
+     *
+     */
+    public String DegreesToHM(double Degrees, String HrsDelim) {
+        return HoursToHM(Degrees / 15.0, HrsDelim);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours and minutes.
+     *
+     */
+    public String DegreesToHM(double Degrees, String HrsDelim, String MinDelim) {
+        return HoursToHM(Degrees / 15.0, HrsDelim, MinDelim);
+    }
+
+    /**
+     * Convert degrees to sexagesimal hours and minutes with supplied number
+     * of minute decimal places.
+     *
+     */
+    public String DegreesToHM(double Degrees, String HrsDelim, String MinDelim, int MinDecimalDigits) {
+        return HoursToHM(Degrees / 15.0, HrsDelim, MinDelim, MinDecimalDigits);
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+}
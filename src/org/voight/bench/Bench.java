@@ -0,0 +1,91 @@
+package org.voight.bench;
+
+/**
+ * Minimal timing harness for the ASCOM4J microbenchmarks. Each measurement
+ * runs a warm-up phase so the JIT has compiled the code under test, then
+ * times a fixed number of operations and reports the mean cost per
+ * operation. Results are folded into a volatile sink so the work cannot be
+ * optimised away.
+ *
+ * @author jeff
+ */
+public final class Bench {
+
+    /**
+     * One benchmarked operation.
+     */
+    public interface Op {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return any value derived from the work done
+         */
+        public double run();
+    }
+
+    private static volatile double sink;
+
+    private Bench() {
+    }
+
+    /**
+     * Measures the mean cost of an operation.
+     *
+     * @param op operation to measure
+     * @param warmup number of untimed warm-up runs
+     * @param iterations number of timed runs
+     * @return mean nanoseconds per run
+     */
+    public static double nanosPerOp(Op op, int warmup, int iterations) {
+        double acc = 0.0;
+        for (int i = 0; i < warmup; i++) {
+            acc += op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            acc += op.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = acc;
+        return (double) elapsed / iterations;
+    }
+
+    /**
+     * Prints one result line.
+     *
+     */
+    public static void report(String name, double nanosPerOp) {
+        System.out.printf("%-56s %14.1f ns/op%n", name, nanosPerOp);
+    }
+
+    /**
+     * Prints one result line with the throughput for the given unit.
+     *
+     */
+    public static void report(String name, double nanosPerOp, long unitsPerOp, String unit) {
+        System.out.printf("%-56s %14.1f ns/op %14.0f %s/s%n", name, nanosPerOp, unitsPerOp * 1e9 / nanosPerOp, unit);
+    }
+
+    /**
+     * Busy-waits for the given time, used to model the cost of a round trip
+     * to a driver.
+     *
+     */
+    public static void spin(long nanos) {
+        if (nanos > 0) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+                // spin
+            }
+        }
+    }
+
+    /**
+     * Reads an integer argument, or returns the default if it is absent.
+     *
+     */
+    public static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
@@ -0,0 +1,124 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.Catalog.CatalogMatches;
+import ASCOM.Astrometry.Catalog.StarCatalog;
+import ASCOM.Astrometry.Catalog.StarCatalogWriter;
+import ASCOM.Astrometry.Transform.BatchTransform;
+import ASCOM.Astrometry.Transform.Transform;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Measures a StarCatalog of random stars: stars per second written by
+ * StarCatalogWriter, then the time of a cone search by scanning every star
+ * against the HEALPix indexed cone and box searches, and of a cone search
+ * followed by a BatchTransform of the matches to azimuth and elevation.
+ *
+ * Usage: CatalogBenchmark [stars] [iterations] [radius (deg)]
+ *
+ * @author jeff
+ */
+public class CatalogBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        final int stars = Bench.intArg(args, 0, 2000000);
+        int iterations = Bench.intArg(args, 1, 5);
+        final double radius = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        final Path file = Files.createTempFile("catalog", ".a4j");
+        file.toFile().deleteOnExit();
+
+        double build = Bench.nanosPerOp(() -> {
+            Random random = new Random(42);
+            try (StarCatalogWriter writer = new StarCatalogWriter(file)) {
+                for (int i = 0; i < stars; i++) {
+                    writer.add(random.nextDouble() * 24.0, Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0)),
+                            0.0, 0.0, 0.0, 0.0, i, "RND", null);
+                }
+                return writer.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, 0, 1);
+        Bench.report(String.format("StarCatalogWriter (%d stars)", stars), build / stars, 1, "stars");
+
+        final int queries = 1000;
+        final double[] ra = new double[queries];
+        final double[] dec = new double[queries];
+        Random random = new Random(7);
+        for (int i = 0; i < queries; i++) {
+            ra[i] = random.nextDouble() * 24.0;
+            dec[i] = Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0));
+        }
+
+        try (final StarCatalog catalog = new StarCatalog(file)) {
+            final double cosRadius = Math.cos(Math.toRadians(radius));
+            double scan = Bench.nanosPerOp(() -> {
+                double x = Math.cos(Math.toRadians(dec[0])) * Math.cos(ra[0] * Math.PI / 12.0);
+                double y = Math.cos(Math.toRadians(dec[0])) * Math.sin(ra[0] * Math.PI / 12.0);
+                double z = Math.sin(Math.toRadians(dec[0]));
+                int found = 0;
+                for (long i = 0; i < stars; i++) {
+                    double r = catalog.getRA(i) * Math.PI / 12.0;
+                    double d = Math.toRadians(catalog.getDec(i));
+                    double cd = Math.cos(d);
+                    if (cd * (x * Math.cos(r) + y * Math.sin(r)) + z * Math.sin(d) >= cosRadius) {
+                        found++;
+                    }
+                }
+                return found;
+            }, 1, iterations);
+            Bench.report(String.format("Cone %.2f deg by scanning (%d stars)", radius, stars), scan, 1, "queries");
+
+            final CatalogMatches matches = new CatalogMatches();
+            final long[] found = new long[1];
+            double cone = Bench.nanosPerOp(() -> {
+                for (int q = 0; q < queries; q++) {
+                    matches.clear();
+                    found[0] += catalog.cone(ra[q], dec[q], radius, matches);
+                }
+                return matches.size();
+            }, 2, iterations);
+            Bench.report(String.format("Cone %.2f deg indexed (%.0f stars found)", radius,
+                    found[0] / (double) ((iterations + 2) * queries)), cone / queries, 1, "queries");
+
+            found[0] = 0;
+            double box = Bench.nanosPerOp(() -> {
+                for (int q = 0; q < queries; q++) {
+                    matches.clear();
+                    double half = radius / 15.0;
+                    found[0] += catalog.box(Math.max(0.0, ra[q] - half), Math.min(24.0, ra[q] + half),
+                            dec[q] - radius, dec[q] + radius, matches);
+                }
+                return matches.size();
+            }, 2, iterations);
+            Bench.report(String.format("Box %.2f h x %.2f deg indexed (%.0f stars found)", 2.0 * radius / 15.0,
+                    2.0 * radius, found[0] / (double) ((iterations + 2) * queries)), box / queries, 1, "queries");
+
+            Transform transform = new Transform();
+            transform.setSiteLatitude(51.4769);
+            transform.setSiteLongitude(-0.0005);
+            transform.setSiteElevation(46.0);
+            transform.setRefraction(true);
+            transform.setJulianDateUTC(2460676.5);
+            final BatchTransform batch = transform.batch();
+            final DoubleBuffer az = DoubleBuffer.allocate(stars);
+            final DoubleBuffer el = DoubleBuffer.allocate(stars);
+            double reduce = Bench.nanosPerOp(() -> {
+                double acc = 0.0;
+                for (int q = 0; q < queries; q++) {
+                    matches.clear();
+                    catalog.cone(ra[q], dec[q], radius, matches);
+                    batch.toAzimuthElevation(matches.rightAscensions(), matches.declinations(), az, el);
+                    acc += az.get(0);
+                }
+                return acc;
+            }, 2, iterations);
+            Bench.report(String.format("Cone %.2f deg then BatchTransform", radius), reduce / queries, 1, "queries");
+        }
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,38 @@
+package org.voight.bench;
+
+import ASCOM.DriverAccess.DispatchTransport;
+import ASCOM.DriverAccess.Telescope;
+
+/**
+ * Compares Telescope property reads with and without the DISPID cache,
+ * against a stand-in dispatch. Each operation reads RightAscension,
+ * Declination and Slewing. Connecting resolves every Telescope member once
+ * when the cache is enabled.
+ *
+ * Usage: DispatchIdBenchmark [roundTripNanos] [iterations]
+ *
+ * @author jeff
+ */
+public class DispatchIdBenchmark {
+
+    public static void main(String[] args) {
+        int roundTrip = Bench.intArg(args, 0, 2000);
+        int iterations = Bench.intArg(args, 1, 200000);
+        int[] roundTrips = roundTrip == 0 ? new int[]{0} : new int[]{0, roundTrip};
+        for (int rt : roundTrips) {
+            for (boolean cached : new boolean[]{false, true}) {
+                StandInDispatch dispatch = new StandInDispatch(rt,
+                        "Connected", Boolean.FALSE,
+                        "RightAscension", 5.5,
+                        "Declination", 22.0,
+                        "Slewing", Boolean.FALSE);
+                final Telescope telescope = new Telescope(new DispatchTransport(dispatch, cached));
+                telescope.setConnected(true);
+                double ns = Bench.nanosPerOp(() -> telescope.getRightAscension() + telescope.getDeclination()
+                        + (telescope.getSlewing() ? 1.0 : 0.0), iterations / 10, iterations);
+                Bench.report(String.format("roundTrip=%dns %s", rt, cached ? "cached DISPIDs" : "GetIDsOfNames per call"), ns);
+                System.out.printf("    GetIDsOfNames calls: %d%n", dispatch.getNameLookups());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.EventType;
+import ASCOM.Astrometry.JplEphemeris;
+import ASCOM.Astrometry.AstroUtils.AstroUtils;
+import ASCOM.Astrometry.AstroUtils.EventEngine;
+import ASCOM.Astrometry.AstroUtils.EventTable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares a season of Sun, twilight and Moon events computed one day and
+ * one event type per call through AstroUtils.EventTimes against one
+ * EventEngine run on one thread and on the common fork-join pool, then
+ * measures rise, set and transit times of random stars over the season.
+ *
+ * Usage: EventBenchmark file [days] [stars] [iterations]
+ *
+ * @author jeff
+ */
+public class EventBenchmark {
+
+    private static final EventType[] TYPES = {EventType.SUN_RISE_SUNSET, EventType.CIVIL_TWILIGHT,
+        EventType.NAUTICAL_TWILIGHT, EventType.ASTRONOMICAL_TWILIGHT, EventType.MOON_RISE_MOON_SET};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: EventBenchmark file [days] [stars] [iterations]");
+            return;
+        }
+        final int days = Bench.intArg(args, 1, 90);
+        final int stars = Bench.intArg(args, 2, 500);
+        int iterations = Bench.intArg(args, 3, 5);
+        try (JplEphemeris ephemeris = new JplEphemeris(Paths.get(args[0]))) {
+            final double start = Math.floor(Math.max(ephemeris.getStartDate() + 1.0,
+                    Math.min(2460676.5, ephemeris.getEndDate() - days - 2.0)) - 0.5) + 0.5;
+            final double latitude = 51.4769;
+            final double longitude = -0.0005;
+            final int eventDays = days * TYPES.length;
+
+            final AstroUtils utils = new AstroUtils();
+            utils.setEphemeris(ephemeris);
+            final int sample = Math.min(days, 10);
+            double perCall = Bench.nanosPerOp(() -> {
+                int found = 0;
+                for (int d = 0; d < sample; d++) {
+                    double jd = start + d + 0.5;
+                    int[] date = date(jd);
+                    for (EventType type : TYPES) {
+                        found += utils.EventTimes(type, date[2], date[1], date[0], latitude, longitude, 0.0).size();
+                    }
+                }
+                return found;
+            }, 1, iterations);
+            Bench.report(String.format("AstroUtils.EventTimes (%d days x %d types)", sample, TYPES.length),
+                    perCall / (sample * TYPES.length), 1, "event days");
+
+            for (boolean parallel : new boolean[]{false, true}) {
+                final ForkJoinPool pool = ForkJoinPool.commonPool();
+                final boolean many = parallel;
+                double batch = Bench.nanosPerOp(() -> {
+                    EventEngine engine = many ? new EventEngine(ephemeris, latitude, longitude, 0.0)
+                            : new EventEngine(ephemeris, latitude, longitude, 0.0, pool, Integer.MAX_VALUE);
+                    EventTable[] tables = engine.events(TYPES, start, days);
+                    return tables[0].size();
+                }, 1, iterations);
+                Bench.report(String.format("EventEngine %s (%d days x %d types)",
+                        parallel ? "fork-join, " + ForkJoinPool.getCommonPoolParallelism() + " threads" : "1 thread",
+                        days, TYPES.length), batch / eventDays, 1, "event days");
+            }
+
+            final double[] ra = new double[stars];
+            final double[] dec = new double[stars];
+            Random random = new Random(42);
+            for (int i = 0; i < stars; i++) {
+                ra[i] = random.nextDouble() * 24.0;
+                dec[i] = Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0));
+            }
+            final EventEngine engine = new EventEngine(ephemeris, latitude, longitude, 0.0);
+            double targets = Bench.nanosPerOp(() -> engine.stars(ra, dec, start, days)[0].size(), 1, iterations);
+            Bench.report(String.format("EventEngine.stars (%d days x %d stars)", days, stars),
+                    targets / ((double) days * stars), 1, "star days");
+        }
+    }
+
+    /**
+     * Gets the Gregorian year, month and day of a Julian date.
+     *
+     */
+    private static int[] date(double jd) {
+        long z = (long) Math.floor(jd + 0.5);
+        long alpha = (long) ((z - 1867216.25) / 36524.25);
+        long a = z + 1 + alpha - alpha / 4;
+        long b = a + 1524;
+        long c = (long) ((b - 122.1) / 365.25);
+        long d = (long) (365.25 * c);
+        long e = (long) ((b - d) / 30.6001);
+        int day = (int) (b - d - (long) (30.6001 * e));
+        int month = (int) (e < 14 ? e - 1 : e - 13);
+        int year = (int) (month > 2 ? c - 4716 : c - 4715);
+        return new int[]{year, month, day};
+    }
+}
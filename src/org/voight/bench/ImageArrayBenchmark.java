@@ -0,0 +1,151 @@
+package org.voight.bench;
+
+import ASCOM.DriverAccess.Camera;
+import ASCOM.DriverAccess.DriverTransport;
+import ASCOM.DriverAccess.ImageBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Compares the Camera image download paths for 16 bit frames: the boxed
+ * ImageArrayVariant value, the int[][] ImageArray value, and
+ * getImageArray(ImageBuffer) into reused int[], short[] and direct
+ * ByteBuffer storage.
+ *
+ * The frames come from a stand-in transport holding one frame in SAFEARRAY
+ * memory order, so the figures measure the conversion into Java memory and
+ * not the camera. Sizes whose boxed frame does not fit in the heap are
+ * reported as skipped.
+ *
+ * Usage: ImageArrayBenchmark [size...] (default 1024 4096 8192)
+ *
+ * @author jeff
+ */
+public class ImageArrayBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{1024, 4096, 8192} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            final Camera camera = new Camera(new FrameTransport(size, size));
+            long pixels = (long) size * size;
+            int iterations = (int) Math.max(3, (64L << 20) / pixels);
+            run("ImageArrayVariant (boxed)", size, pixels, iterations, () -> {
+                Object[][] image = (Object[][]) camera.getImageArrayVariant();
+                return ((Number) image[0][0]).doubleValue();
+            });
+            run("ImageArray int[][]", size, pixels, iterations, () -> {
+                int[][] image = (int[][]) camera.getImageArray();
+                return image[0][0];
+            });
+            final ImageBuffer ints = ImageBuffer.ints();
+            run("getImageArray(ImageBuffer) int[]", size, pixels, iterations,
+                    () -> camera.getImageArray(ints).get(0));
+            final ImageBuffer shorts = ImageBuffer.shorts();
+            run("getImageArray(ImageBuffer) short[]", size, pixels, iterations,
+                    () -> camera.getImageArray(shorts).get(0));
+            final ImageBuffer direct = ImageBuffer.direct(2, ByteOrder.BIG_ENDIAN);
+            run("getImageArray(ImageBuffer) direct ByteBuffer", size, pixels, iterations,
+                    () -> camera.getImageArray(direct).get(0));
+            System.out.printf("    buffer allocations over %d frames: int[] %d, short[] %d, ByteBuffer %d%n",
+                    2 * iterations, ints.getAllocationCount(), shorts.getAllocationCount(), direct.getAllocationCount());
+        }
+    }
+
+    private static void run(String name, int size, long pixels, int iterations, Bench.Op op) {
+        String label = String.format("%dx%d %s", size, size, name);
+        try {
+            Bench.report(label, Bench.nanosPerOp(op, iterations, iterations), pixels, "pixels");
+        } catch (OutOfMemoryError e) {
+            System.out.printf("%-56s skipped, frame does not fit in the heap%n", label);
+        }
+    }
+
+    /**
+     * Transport answering ImageArray and ImageArrayVariant from one stored
+     * 16 bit frame. The frame is kept flat with X varying fastest, the way a
+     * COM driver hands over its SAFEARRAY.
+     *
+     */
+    private static final class FrameTransport implements DriverTransport {
+
+        private final int width;
+        private final int height;
+        private final int[] frame;
+
+        FrameTransport(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.frame = new int[width * height];
+            for (int i = 0; i < frame.length; i++) {
+                frame[i] = (int) (i * 2654435761L >>> 16) & 0xFFFF;
+            }
+        }
+
+        @Override
+        public Object invoke(String member, Object... args) {
+            return null;
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            switch (name) {
+                case "ImageArray": {
+                    int[][] image = new int[width][height];
+                    for (int y = 0, i = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++) {
+                            image[x][y] = frame[i++];
+                        }
+                    }
+                    return image;
+                }
+                case "ImageArrayVariant": {
+                    Object[][] image = new Object[width][height];
+                    for (int y = 0, i = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++) {
+                            image[x][y] = frame[i++];
+                        }
+                    }
+                    return image;
+                }
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public void getPropertyAsImage(String name, ImageBuffer image) {
+            image.resize(width, height, 1);
+            image.put(0, frame, 0, frame.length);
+        }
+
+        @Override
+        public boolean getPropertyAsBoolean(String name) {
+            return false;
+        }
+
+        @Override
+        public double getPropertyAsDouble(String name) {
+            return 0.0;
+        }
+
+        @Override
+        public int getPropertyAsInt(String name) {
+            return 0;
+        }
+
+        @Override
+        public String getPropertyAsString(String name) {
+            return null;
+        }
+
+        @Override
+        public void setProperty(String name, Object value) {
+        }
+
+        @Override
+        public void release() {
+        }
+    }
+}
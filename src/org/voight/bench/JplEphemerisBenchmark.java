@@ -0,0 +1,63 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.JplEphemeris;
+import ASCOM.Astrometry.Target;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Measures state vectors per second read from a JPL DE binary file, on one
+ * thread and from every thread of the common fork-join pool sharing one
+ * JplEphemeris. The dates are random over the whole file, so most reads
+ * touch a different record.
+ *
+ * Usage: JplEphemerisBenchmark file [dates] [iterations]
+ *
+ * @author jeff
+ */
+public class JplEphemerisBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JplEphemerisBenchmark file [dates] [iterations]");
+            return;
+        }
+        int dates = Bench.intArg(args, 1, 1000000);
+        int iterations = Bench.intArg(args, 2, 10);
+        try (final JplEphemeris ephemeris = new JplEphemeris(Paths.get(args[0]))) {
+            System.out.printf("%s, DE%d, JD %.1f to %.1f%n%n", ephemeris.getTitle().split("\n")[0],
+                    ephemeris.getDENumber(), ephemeris.getStartDate(), ephemeris.getEndDate());
+            final double[] jd = new double[dates];
+            Random random = new Random(42);
+            double span = ephemeris.getEndDate() - ephemeris.getStartDate();
+            for (int i = 0; i < dates; i++) {
+                jd[i] = ephemeris.getStartDate() + random.nextDouble() * span;
+            }
+            final double[] x = new double[dates];
+            final double[] pos = new double[3];
+            final double[] vel = new double[3];
+
+            double one = Bench.nanosPerOp(() -> {
+                for (int i = 0; i < dates; i++) {
+                    ephemeris.state(jd[i], 0.0, Target.MARS, Target.EARTH, pos, vel);
+                    x[i] = pos[0];
+                }
+                return x[dates - 1];
+            }, 2, iterations);
+            Bench.report(String.format("Mars from Earth, 1 thread (%d dates)", dates), one / dates, 1, "states");
+
+            double many = Bench.nanosPerOp(() -> {
+                IntStream.range(0, dates).parallel().forEach(i -> {
+                    double[] p = new double[3];
+                    double[] v = new double[3];
+                    ephemeris.state(jd[i], 0.0, Target.MARS, Target.EARTH, p, v);
+                    x[i] = p[0];
+                });
+                return x[dates - 1];
+            }, 2, iterations);
+            Bench.report(String.format("Mars from Earth, fork-join (%d dates)", dates), many / dates, 1, "states");
+        }
+    }
+}
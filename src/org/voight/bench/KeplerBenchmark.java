@@ -0,0 +1,128 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.Kepler.BatchPropagator;
+import ASCOM.Astrometry.Kepler.Ephemeris;
+import ASCOM.Astrometry.Kepler.MpcOrbitReader;
+import ASCOM.Astrometry.Kepler.OrbitStore;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures orbits per second for loading an MPCORB file into an OrbitStore,
+ * for propagating one orbit at a time through Kepler.Ephemeris (setting
+ * its elements for each body) and for BatchPropagator on one thread and on
+ * the common fork-join pool.
+ *
+ * Without a file, a file of random main belt orbits in MPCORB format is
+ * written to a temporary file first.
+ *
+ * Usage: KeplerBenchmark [orbits] [iterations] [MPCORB file]
+ *
+ * @author jeff
+ */
+public class KeplerBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int count = Bench.intArg(args, 0, 500000);
+        int iterations = Bench.intArg(args, 1, 5);
+        final Path file;
+        if (args.length > 2) {
+            file = Paths.get(args[2]);
+        } else {
+            file = Files.createTempFile("MPCORB", ".DAT");
+            file.toFile().deleteOnExit();
+            write(file, count);
+        }
+
+        final OrbitStore[] loaded = new OrbitStore[1];
+        double load = Bench.nanosPerOp(() -> {
+            try {
+                loaded[0] = MpcOrbitReader.load(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return loaded[0].size();
+        }, 1, Math.max(1, iterations / 2));
+        final OrbitStore orbits = loaded[0];
+        final int n = orbits.size();
+        Bench.report(String.format("MpcOrbitReader.load (%d orbits)", n), load / n, 1, "orbits");
+
+        final double jd = 2460676.5;
+        final int sample = Math.min(n, 50000);
+        final Ephemeris ephemeris = new Ephemeris();
+        double single = Bench.nanosPerOp(() -> {
+            double acc = 0.0;
+            for (int i = 0; i < sample; i++) {
+                ephemeris.setEpoch(orbits.getEpoch(i));
+                ephemeris.setM(orbits.getMeanAnomaly(i));
+                ephemeris.setPeri(orbits.getPerihelion(i));
+                ephemeris.setNode(orbits.getNode(i));
+                ephemeris.setIncl(orbits.getInclination(i));
+                ephemeris.setE(orbits.getEccentricity(i));
+                ephemeris.setA(orbits.getSemiMajorAxis(i));
+                ephemeris.setN(orbits.getMeanMotion(i));
+                acc += ephemeris.GetPositionAndVelocity(jd)[0];
+            }
+            return acc;
+        }, 2, iterations);
+        Bench.report(String.format("Ephemeris per object (%d orbits)", sample), single / sample, 1, "orbits");
+
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        final double[] z = new double[n];
+        final double[] vx = new double[n];
+        final double[] vy = new double[n];
+        final double[] vz = new double[n];
+        final BatchPropagator serial = new BatchPropagator(orbits, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+        double one = Bench.nanosPerOp(() -> {
+            serial.propagate(jd, x, y, z, vx, vy, vz);
+            return x[0] + z[n - 1];
+        }, 2, iterations);
+        Bench.report(String.format("BatchPropagator 1 thread (%d orbits)", n), one / n, 1, "orbits");
+
+        final BatchPropagator parallel = new BatchPropagator(orbits);
+        double many = Bench.nanosPerOp(() -> {
+            parallel.propagate(jd, x, y, z, vx, vy, vz);
+            return x[0] + z[n - 1];
+        }, 2, iterations);
+        Bench.report(String.format("BatchPropagator fork-join, %d threads (%d orbits)",
+                ForkJoinPool.getCommonPoolParallelism(), n), many / n, 1, "orbits");
+    }
+
+    /**
+     * Writes random main belt orbits in MPCORB format.
+     *
+     */
+    private static void write(Path file, int count) throws IOException {
+        Random random = new Random(42);
+        char[] pad = new char[202 - 103];
+        Arrays.fill(pad, ' ');
+        String tail = new String(pad);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write("MINOR PLANET CENTER ORBIT DATABASE (MPCORB)\n\n");
+            out.write("Des'n     H     G   Epoch     M        Peri.      Node       Incl.       e            n"
+                    + "           a        Reference #Obs #Opp    Arc    rms  Perts   Computer\n");
+            out.write("-------------------------------------------------------------------------------------------"
+                    + "---------------------------------------------------------------------------------------\n");
+            for (int i = 0; i < count; i++) {
+                double a = 2.1 + 1.2 * random.nextDouble();
+                out.write(String.format(Locale.ROOT,
+                        "%07d %5.2f %5.2f K24AH %9.5f  %9.5f  %9.5f  %9.5f  %9.7f %11.8f %11.7f",
+                        i + 1, 10.0 + 8.0 * random.nextDouble(), 0.15, 360.0 * random.nextDouble(),
+                        360.0 * random.nextDouble(), 360.0 * random.nextDouble(), 30.0 * random.nextDouble(),
+                        0.3 * random.nextDouble(), 0.9856076686 / (a * Math.sqrt(a)), a));
+                out.write(tail);
+                out.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.Accuracy;
+import ASCOM.Astrometry.CatEntry3;
+import ASCOM.Astrometry.GstType;
+import ASCOM.Astrometry.Method;
+import ASCOM.Astrometry.NutationDirection;
+import ASCOM.Astrometry.OnSurface;
+import ASCOM.Astrometry.OutputVectorOption;
+import ASCOM.Astrometry.RefractionOption;
+import ASCOM.Astrometry.NOVAS.NOVAS31;
+
+/**
+ * Checks the pure Java NOVAS31 against published reference values, then
+ * measures calls per second for the main functions.
+ *
+ * The reference values are the worked examples of Meeus, Astronomical
+ * Algorithms (2nd ed.): sidereal time at 1987 April 10 (examples 12.a and
+ * 12.b), nutation and obliquity at 1987 April 10 (example 22.a) and the
+ * apparent place of theta Persei at 2028 November 13.19 TD (example 23.a).
+ * The round trips check that each transform and its inverse agree. Meeus
+ * uses the older IAU models, so differences of a few hundredths of an
+ * arcsecond are expected; NOVAS31Check compares against the current ones.
+ *
+ * Usage: NOVAS31Benchmark [iterations]
+ *
+ * @author jeff
+ */
+public class NOVAS31Benchmark {
+
+    public static void main(String[] args) {
+        int iterations = Bench.intArg(args, 0, 200000);
+        final NOVAS31 novas = new NOVAS31();
+        check(novas);
+
+        final double jd = 2460676.5;
+        final double deltaT = 69.184;
+        final CatEntry3 star = new CatEntry3();
+        novas.MakeCatEntry("Sirius", "HIP", 32349, 6.752477, -16.716116, -546.01, -1223.07, 379.21, -5.50, star);
+        final OnSurface site = new OnSurface();
+        novas.MakeOnSurface(51.4769, -0.0005, 46.0, 10.0, 1010.0, site);
+        final double[] out = new double[4];
+        final double[] vec = {0.3, -0.5, 0.8};
+        final double[] vec2 = new double[3];
+
+        report("SiderealTime (apparent)", Bench.nanosPerOp(() -> novas.SiderealTime(jd, 0.25, deltaT,
+                GstType.GREENWICH_APPARENT_SIDEREAL_TIME, Method.EQUINOX_BASED, Accuracy.FULL),
+                iterations / 10, iterations));
+        report("Precession", Bench.nanosPerOp(() -> {
+            novas.Precession(2451545.0, vec, jd, vec2);
+            return vec2[0];
+        }, iterations / 10, iterations));
+        report("Nutation", Bench.nanosPerOp(() -> {
+            novas.Nutation(jd, NutationDirection.MEAN_TO_TRUE, Accuracy.FULL, vec, vec2);
+            return vec2[0];
+        }, iterations / 10, iterations));
+        report("Cel2Ter", Bench.nanosPerOp(() -> {
+            novas.Cel2Ter(jd, 0.25, deltaT, Method.CIO_BASED, Accuracy.FULL,
+                    OutputVectorOption.REFERRED_TO_GCRS_AXES, 0.1, 0.3, vec, vec2);
+            return vec2[0];
+        }, iterations / 10, iterations));
+        report("AppStar", Bench.nanosPerOp(() -> {
+            novas.AppStar(jd, star, Accuracy.FULL, out);
+            return out[0];
+        }, iterations / 10, iterations));
+        report("AppStar (reduced accuracy)", Bench.nanosPerOp(() -> {
+            novas.AppStar(jd, star, Accuracy.REDUCED, out);
+            return out[0];
+        }, iterations / 10, iterations));
+        report("TopoStar", Bench.nanosPerOp(() -> {
+            novas.TopoStar(jd, deltaT, star, site, Accuracy.FULL, out);
+            return out[0];
+        }, iterations / 10, iterations));
+        report("TopoStar + Equ2Hor with refraction", Bench.nanosPerOp(() -> {
+            novas.TopoStar(jd, deltaT, star, site, Accuracy.FULL, out);
+            novas.Equ2Hor(jd - deltaT / 86400.0, deltaT, Accuracy.FULL, 0.0, 0.0, site, out[0], out[1],
+                    RefractionOption.STANDARD_REFRACTION, out);
+            return out[0];
+        }, iterations / 10, iterations));
+    }
+
+    private static void report(String name, double nanos) {
+        Bench.report(name, nanos, 1, "calls");
+    }
+
+    private static void check(NOVAS31 novas) {
+        double gmst = novas.SiderealTime(2446895.5, 0.0, 55.3, GstType.GREENWICH_MEAN_SIDEREAL_TIME,
+                Method.EQUINOX_BASED, Accuracy.FULL);
+        double gast = novas.SiderealTime(2446895.5, 0.0, 55.3, GstType.GREENWICH_APPARENT_SIDEREAL_TIME,
+                Method.EQUINOX_BASED, Accuracy.FULL);
+        double gmst2 = novas.SiderealTime(2446895.5, 0.80625, 55.3, GstType.GREENWICH_MEAN_SIDEREAL_TIME,
+                Method.EQUINOX_BASED, Accuracy.FULL);
+        System.out.printf("GMST 1987-04-10 0h UT       %+9.4f s%n", (gmst - hours(13, 10, 46.3668)) * 3600.0);
+        System.out.printf("GAST 1987-04-10 0h UT       %+9.4f s%n", (gast - hours(13, 10, 46.1351)) * 3600.0);
+        System.out.printf("GMST 1987-04-10 19h21m UT   %+9.4f s%n", (gmst2 - hours(8, 34, 57.0896)) * 3600.0);
+
+        double[] tilt = new double[5];
+        novas.ETilt(2446895.5, Accuracy.FULL, tilt);
+        System.out.printf("nutation in longitude       %+9.4f arcsec%n", tilt[3] + 3.788);
+        System.out.printf("nutation in obliquity       %+9.4f arcsec%n", tilt[4] - 9.443);
+        System.out.printf("true obliquity              %+9.4f arcsec%n", (tilt[1] - (23 + 26 / 60.0 + 36.850 / 3600.0))
+                * 3600.0);
+
+        double dec = 49 + 13 / 60.0 + 42.48 / 3600.0;
+        CatEntry3 star = new CatEntry3();
+        novas.MakeCatEntry("theta Per", "FK5", 0, hours(2, 44, 11.986), dec,
+                0.03425 * 15000.0 * Math.cos(Math.toRadians(dec)), -89.5, 0.0, 0.0, star);
+        double[] raDec = new double[2];
+        novas.AppStar(2462088.69, star, Accuracy.FULL, raDec);
+        System.out.printf("theta Per apparent RA       %+9.4f arcsec%n",
+                (raDec[0] - hours(2, 46, 14.390)) * 54000.0 * Math.cos(Math.toRadians(raDec[1])));
+        System.out.printf("theta Per apparent Dec      %+9.4f arcsec%n",
+                (raDec[1] - (49 + 21 / 60.0 + 7.45 / 3600.0)) * 3600.0);
+
+        double[] v = {0.3, -0.5, 0.8};
+        double[] w = new double[3];
+        double[] u = new double[3];
+        novas.Cel2Ter(2460676.5, 0.3, 69.184, Method.CIO_BASED, Accuracy.FULL,
+                OutputVectorOption.REFERRED_TO_GCRS_AXES, 0.1, 0.3, v, w);
+        novas.Ter2Cel(2460676.5, 0.3, 69.184, Method.CIO_BASED, Accuracy.FULL,
+                OutputVectorOption.REFERRED_TO_GCRS_AXES, 0.1, 0.3, w, u);
+        System.out.printf("Cel2Ter/Ter2Cel round trip  %9.2g%n", difference(u, v));
+        novas.Precession(2451545.0, v, 2460676.5, w);
+        novas.Precession(2460676.5, w, 2451545.0, u);
+        System.out.printf("Precession round trip       %9.2g%n", difference(u, v));
+        novas.MakeCatEntry("theta Per", "FK5", 0, star.getRA(), star.getDec(), 0.0, 0.0, 0.0, 0.0, star);
+        novas.AppStar(2460676.5, star, Accuracy.FULL, raDec);
+        novas.MeanStar(2460676.5, raDec[0], raDec[1], Accuracy.FULL, raDec);
+        System.out.printf("AppStar/MeanStar round trip %9.2g arcsec%n%n",
+                Math.abs(raDec[0] - star.getRA()) * 54000.0 + Math.abs(raDec[1] - star.getDec()) * 3600.0);
+    }
+
+    private static double hours(int h, int m, double s) {
+        return h + m / 60.0 + s / 3600.0;
+    }
+
+    private static double difference(double[] a, double[] b) {
+        return Math.abs(a[0] - b[0]) + Math.abs(a[1] - b[1]) + Math.abs(a[2] - b[2]);
+    }
+}
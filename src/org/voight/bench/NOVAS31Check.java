@@ -0,0 +1,140 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.Accuracy;
+import ASCOM.Astrometry.CatEntry3;
+import ASCOM.Astrometry.CoordSys;
+import ASCOM.Astrometry.EquinoxType;
+import ASCOM.Astrometry.FrameConversionDirection;
+import ASCOM.Astrometry.GstType;
+import ASCOM.Astrometry.Method;
+import ASCOM.Astrometry.RAOfCio;
+import ASCOM.Astrometry.TransformationOption3;
+import ASCOM.Astrometry.NOVAS.NOVAS31;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the pure Java NOVAS31 against the reference results of the IAU
+ * SOFA library test program (t_sofa_c.c), which implements the same IAU
+ * 2000/2006 models as NOVAS 3.1, and checks that each transform and its
+ * inverse agree. Prints one line per check and exits with status 1 if any
+ * is out of tolerance.
+ *
+ * The SOFA results for the equation of the equinoxes, apparent sidereal
+ * time and equation of the origins use the IAU 2000A nutation series;
+ * NOVAS31 uses IAU 2000B, so those are allowed 2 mas.
+ *
+ * Usage: NOVAS31Check
+ *
+ * @author jeff
+ */
+public class NOVAS31Check {
+
+    private static final double MJD0 = 2400000.5;
+    private static final double J2000 = 2451545.0;
+    private static final double ASEC2RAD = Math.PI / 648000.0;
+    private static final double MAS = ASEC2RAD / 1000.0;
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        NOVAS31 novas = new NOVAS31();
+        double jd = MJD0 + 53736.0;
+        double t = (jd - J2000) / 36525.0;
+
+        double[] nut = new double[2];
+        novas.NutationAngles(t, Accuracy.FULL, nut);
+        check("nut00b dpsi", nut[0] * ASEC2RAD, -0.9632552291148362783e-5, 1e-13);
+        check("nut00b deps", nut[1] * ASEC2RAD, 0.4063197106621159367e-4, 1e-13);
+        check("eect00", novas.EeCt(MJD0, 53736.0, Accuracy.FULL), 0.2046085004885125264e-8, 1e-20);
+        check("obl06", novas.MeanObliq(MJD0 + 54388.0) * ASEC2RAD, 0.4090749229387258204, 1e-14);
+        check("era00", Math.toRadians(novas.Era(MJD0, 54388.0)), 0.4022837240028158102, 1e-12);
+        check("gmst06", novas.SiderealTime(MJD0, 53736.0, 0.0, GstType.GREENWICH_MEAN_SIDEREAL_TIME,
+                Method.EQUINOX_BASED, Accuracy.FULL) * Math.PI / 12.0, 1.754174971870091203, 1e-12);
+        double gast = novas.SiderealTime(MJD0, 53736.0, 0.0, GstType.GREENWICH_APPARENT_SIDEREAL_TIME,
+                Method.EQUINOX_BASED, Accuracy.FULL) * Math.PI / 12.0;
+        check("gst06a (2000B)", gast, 1.754166137675019159, 2 * MAS);
+        check("ee06a (2000B)", gast - 1.754174971870091203, -0.8834195072043790156e-5, 2 * MAS);
+        check("eo06a (2000B)", -novas.CioRa(jd, Accuracy.FULL) * Math.PI / 12.0, -0.1332882371941833644e-2,
+                2 * MAS);
+
+        double[][] unit = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+        double[] v = new double[3];
+        novas.FrameTie(unit[1], FrameConversionDirection.ICRS_TO_DYNAMICAL, v);
+        check("bi00 rb[0][1]", v[0], -0.7078279744199196626e-7, 1e-12);
+        novas.FrameTie(unit[2], FrameConversionDirection.ICRS_TO_DYNAMICAL, v);
+        check("bi00 rb[0][2]", v[0], 0.8056217146976134152e-7, 1e-12);
+        check("bi00 rb[1][2]", v[1], 0.3306041454222136517e-7, 1e-12);
+        double[] pmat = {0.9999995505176007047, 0.8695404617348208406e-3, 0.3779735201865589104e-3};
+        for (int j = 0; j < 3; j++) {
+            novas.FrameTie(unit[j], FrameConversionDirection.ICRS_TO_DYNAMICAL, v);
+            novas.Precession(J2000, v, MJD0 + 50123.9999, v);
+            check("pmat06 rbp[0][" + j + "]", v[0], pmat[j], 1e-12);
+        }
+
+        double[] w = new double[3];
+        double[] u = new double[3];
+        double[] a = {0.3, -0.5, 0.8};
+        CoordSys[] systems = {CoordSys.GCRS, CoordSys.EQUINOX_OF_DATE, CoordSys.CIO_OF_DATE};
+        for (CoordSys system : systems) {
+            novas.Equ2EclVec(jd, system, Accuracy.FULL, a, w);
+            novas.Ecl2EquVec(jd, system, Accuracy.FULL, w, u);
+            check("Equ2EclVec round trip " + system.ordinal(), difference(u, a), 0.0, 1e-15);
+        }
+        double[] out = new double[2];
+        novas.Equ2Gal(266.40499 / 15.0, -28.93617, out);
+        check("Equ2Gal galactic center l", out[0] > 180.0 ? out[0] - 360.0 : out[0], 0.0, 1e-4);
+        check("Equ2Gal galactic center b", out[1], 0.0, 1e-4);
+        check("CioRa + IraEquinox", novas.CioRa(jd, Accuracy.FULL)
+                + novas.IraEquinox(jd, EquinoxType.TRUE_EQUINOX, Accuracy.FULL), 0.0, 1e-12);
+        List<RAOfCio> cio = new ArrayList<>();
+        novas.CioArray(jd, 6, cio);
+        check("CioArray spacing", cio.get(3).getJdTdb() - cio.get(2).getJdTdb(), 1.2, 1e-9);
+        check("CioArray brackets date", Math.signum(jd - cio.get(2).getJdTdb())
+                + Math.signum(cio.get(3).getJdTdb() - jd), 2.0, 0.0);
+
+        CatEntry3 star = new CatEntry3();
+        CatEntry3 moved = new CatEntry3();
+        CatEntry3 back = new CatEntry3();
+        novas.MakeCatEntry("Sirius", "HIP", 32349, 6.752477, -16.716116, -546.01, -1223.07, 379.21, -5.50, star);
+        TransformationOption3[][] pairs = {
+            {TransformationOption3.CHANGE_EPOCH, TransformationOption3.CHANGE_EPOCH},
+            {TransformationOption3.CHANGE_EQUATOR_AND_EQUINOX_AND_EPOCH,
+                TransformationOption3.CHANGE_EQUATOR_AND_EQUINOX_AND_EPOCH},
+            {TransformationOption3.CHANGE_EQUATOR_AND_EQUINOX_J2000_TO_ICRS,
+                TransformationOption3.CHANGE_ICRS_TO_EQUATOR_AND_EQUINOX_OF_J2000}
+        };
+        // As in NOVAS, each direction divides out the Doppler factor of its
+        // own input radial velocity, so the epoch changes do not quite undo.
+        for (TransformationOption3[] pair : pairs) {
+            novas.TransformCat(pair[0], 2000.0, star, 2050.0, "TST", moved);
+            novas.TransformCat(pair[1], 2050.0, moved, 2000.0, "TST", back);
+            check("TransformCat round trip " + pair[0].getValue() + " RA", (back.getRA() - star.getRA()) * 54000.0,
+                    0.0, 1e-5);
+            check("TransformCat round trip " + pair[0].getValue() + " Dec", (back.getDec() - star.getDec()) * 3600.0,
+                    0.0, 1e-5);
+            check("TransformCat round trip " + pair[0].getValue() + " pm Dec", back.getProMoDec() - star.getProMoDec(),
+                    0.0, 1e-6);
+            check("TransformCat round trip " + pair[0].getValue() + " rv",
+                    back.getRadialVelocity() - star.getRadialVelocity(), 0.0, 1e-6);
+        }
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void check(String name, double value, double reference, double tolerance) {
+        double error = value - reference;
+        boolean ok = Math.abs(error) <= tolerance;
+        if (!ok) {
+            failures++;
+        }
+        System.out.printf("%-38s %+12.3e %s%n", name, error, ok ? "ok" : "FAIL");
+    }
+
+    private static double difference(double[] a, double[] b) {
+        return Math.abs(a[0] - b[0]) + Math.abs(a[1] - b[1]) + Math.abs(a[2] - b[2]);
+    }
+}
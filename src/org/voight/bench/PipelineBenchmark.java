@@ -0,0 +1,126 @@
+package org.voight.bench;
+
+import ASCOM.Utilities.Serial;
+import ASCOM.Utilities.SerialEngine;
+import ASCOM.Utilities.SerialFraming;
+import ASCOM.Utilities.SerialPipeline;
+import ASCOM.Utilities.SerialSpeed;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Several clients, as behind a hub, each polling the position of one
+ * stand-in LX200 mount with :GR# and :GD#: through a blocking Serial one
+ * exchange at a time, then through a SerialPipeline with a window of 1,
+ * with a wider window, and with a wider window and merged queries.
+ *
+ * The mount is a StandInMount on the second tty of a pty pair, made for
+ * example with
+ *
+ * <pre>
+ * socat pty,raw,echo=0,link=/tmp/mount pty,raw,echo=0,link=/tmp/mountd
+ * </pre>
+ *
+ * or on a loopback socket without one.
+ *
+ * Usage: PipelineBenchmark [clients] [polls] [baud] [turnaround-us] [window]
+ * [driver-tty:device-tty]
+ *
+ * @author jeff
+ */
+public class PipelineBenchmark {
+
+    private static final SerialFraming HASH = SerialFraming.terminated("#");
+
+    public static void main(String[] args) throws Exception {
+        final int clients = Bench.intArg(args, 0, 4);
+        final int polls = Bench.intArg(args, 1, 10);
+        int baud = Bench.intArg(args, 2, 9600);
+        int turnaround = Bench.intArg(args, 3, 2000);
+        int window = Bench.intArg(args, 4, 4);
+
+        try (SerialEngine engine = new SerialEngine()) {
+            final Serial serial = new Serial(engine);
+            serial.setSpeed(SerialSpeed.fromValue(baud));
+            if (args.length > 5) {
+                String[] pair = args[5].split(":");
+                new StandInMount(StandInMount.openTty(pair[1]), baud, turnaround).start("mount");
+                serial.setPortName(pair[0]);
+                serial.setConnected(true);
+            } else {
+                try (ServerSocketChannel server = ServerSocketChannel.open()
+                        .bind(new InetSocketAddress("127.0.0.1", 0))) {
+                    int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+                    serial.setPortName("tcp://127.0.0.1:" + port);
+                    serial.setConnected(true);
+                    SocketChannel device = server.accept();
+                    device.socket().setTcpNoDelay(true);
+                    new StandInMount(device, baud, turnaround).start("mount");
+                }
+            }
+            String line = String.format("%d clients, %d baud, %d us turnaround", clients, baud, turnaround);
+            ExecutorService threads = Executors.newFixedThreadPool(clients);
+
+            double blocking = Bench.nanosPerOp(() -> run(threads, clients, () -> {
+                for (int p = 0; p < polls; p++) {
+                    synchronized (serial) {
+                        serial.Transmit(":GR#");
+                        serial.ReceiveTerminated("#");
+                        serial.Transmit(":GD#");
+                        serial.ReceiveTerminated("#");
+                    }
+                }
+            }), 1, 3);
+            Bench.report("Serial, one exchange at a time (" + line + ")", blocking, (long) clients * polls, "polls");
+
+            report(threads, new SerialPipeline(serial, 1), false, clients, polls, line);
+            report(threads, new SerialPipeline(serial, window), false, clients, polls, line);
+            report(threads, new SerialPipeline(serial, window), true, clients, polls, line);
+            threads.shutdown();
+        }
+    }
+
+    private static void report(ExecutorService threads, final SerialPipeline pipeline, final boolean merge,
+            int clients, final int polls, String line) {
+        double nanos = Bench.nanosPerOp(() -> run(threads, clients, () -> {
+            for (int p = 0; p < polls; p++) {
+                CompletableFuture<String> ra = merge ? pipeline.query(":GR#", HASH) : pipeline.command(":GR#", HASH);
+                CompletableFuture<String> dec = merge ? pipeline.query(":GD#", HASH) : pipeline.command(":GD#", HASH);
+                ra.get();
+                dec.get();
+            }
+        }), 1, 3);
+        Bench.report(String.format("SerialPipeline, window %d%s (%s)", pipeline.getWindow(),
+                merge ? ", merged" : "", line), nanos, (long) clients * polls, "polls");
+        System.out.printf("    %d requests in %d transactions%n", pipeline.getRequestCount(),
+                pipeline.getTransactionCount());
+    }
+
+    private interface Client {
+
+        void poll() throws Exception;
+    }
+
+    private static double run(ExecutorService threads, int clients, Client client) {
+        Future<?>[] done = new Future<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            done[i] = threads.submit(() -> {
+                client.poll();
+                return null;
+            });
+        }
+        try {
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return clients;
+    }
+}
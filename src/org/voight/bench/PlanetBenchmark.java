@@ -0,0 +1,53 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.JplEphemeris;
+import ASCOM.Astrometry.NOVASCOM.Planet;
+import ASCOM.Astrometry.NOVASCOM.Site;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Compares Planet apparent and topocentric positions of the Moon computed
+ * by the full reduction on every call against fast mode, stepping the date
+ * by 10 ms per call as a tracking loop would, and prints the fast mode
+ * error estimate.
+ *
+ * Usage: PlanetBenchmark file [iterations]
+ *
+ * @author jeff
+ */
+public class PlanetBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PlanetBenchmark file [iterations]");
+            return;
+        }
+        int iterations = Bench.intArg(args, 1, 200000);
+        try (JplEphemeris ephemeris = new JplEphemeris(Paths.get(args[0]))) {
+            final double start = Math.max(ephemeris.getStartDate(), Math.min(2460676.5, ephemeris.getEndDate() - 10.0));
+            final Site site = new Site();
+            site.Set(51.4769, -0.0005, 46.0);
+            for (boolean fast : new boolean[]{false, true}) {
+                final Planet moon = new Planet();
+                moon.setEphemeris(ephemeris);
+                moon.setNumber(11);
+                moon.setFastMode(fast);
+                final double[] t = {start};
+                String mode = fast ? "fast mode" : "full reduction";
+                Bench.report("GetApparentPosition, " + mode, Bench.nanosPerOp(() -> {
+                    t[0] += 0.01 / 86400.0;
+                    return moon.GetApparentPosition(t[0]).getRightAscension();
+                }, iterations / 10, iterations), 1, "calls");
+                Bench.report("GetTopocentricPosition, " + mode, Bench.nanosPerOp(() -> {
+                    t[0] += 0.01 / 86400.0;
+                    return moon.GetTopocentricPosition(t[0], site, true).getElevation();
+                }, iterations / 10, iterations), 1, "calls");
+                if (fast) {
+                    System.out.printf("%nfast mode error over a %.2f day window: %.3g arcsec%n",
+                            moon.getFastModeWindow(), moon.getFastModeError());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.Accuracy;
+import ASCOM.Astrometry.PrecessionNutation;
+import ASCOM.Astrometry.PrecessionNutationCache;
+import ASCOM.Astrometry.Reduction;
+import ASCOM.Astrometry.Transform.Transform;
+
+/**
+ * Measures the bias-precession-nutation computation at both accuracies
+ * against a PrecessionNutationCache hit, then a star reduction through the
+ * per-object Transform, which takes its matrices from the shared cache.
+ * Also reports the largest difference between a cached and an exactly
+ * computed matrix over one day of dates at the default tolerance.
+ *
+ * Usage: PrecessionNutationBenchmark [iterations]
+ *
+ * @author jeff
+ */
+public class PrecessionNutationBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = Bench.intArg(args, 0, 200000);
+        final double jd = 2460676.5;
+        for (final Accuracy accuracy : Accuracy.values()) {
+            Bench.report("compute " + accuracy, Bench.nanosPerOp(
+                    () -> new PrecessionNutation(jd, accuracy).getEquationOfEquinoxes(), iterations / 10, iterations));
+        }
+        final PrecessionNutationCache cache = new PrecessionNutationCache(PrecessionNutationCache.DEFAULT_CAPACITY,
+                PrecessionNutationCache.DEFAULT_TOLERANCE);
+        Bench.report("cache hit", Bench.nanosPerOp(
+                () -> cache.get(jd, Accuracy.FULL).getEquationOfEquinoxes(), iterations / 10, iterations));
+        System.out.printf("    hit rate %.4f%n", cache.getHitRate());
+
+        final Transform transform = new Transform();
+        transform.setSiteLatitude(51.4769);
+        transform.setSiteLongitude(-0.0005);
+        transform.setJulianDateUTC(jd);
+        Bench.report("Transform SetJ2000 + Az/El per star", Bench.nanosPerOp(() -> {
+            transform.SetJ2000(6.75, -16.7);
+            return transform.getAzimuthTopocentric() + transform.getElevationTopocentric();
+        }, iterations / 10, iterations / 2));
+        System.out.printf("    shared cache hit rate %.4f%n", PrecessionNutationCache.shared().getHitRate());
+
+        double[] exact = new double[9];
+        double[] cached = new double[9];
+        double worst = 0.0;
+        for (int i = 0; i < 86400; i += 7) {
+            double t = jd + i / 86400.0 + 0.37 / 86400.0;
+            Reduction.biasPrecessionNutation(t, exact, null);
+            cache.get(t, Accuracy.FULL).getMatrix(cached);
+            for (int k = 0; k < 9; k++) {
+                worst = Math.max(worst, Math.abs(exact[k] - cached[k]));
+            }
+        }
+        System.out.printf("    largest cached matrix error over one day: %.3g arcsec%n", worst / Reduction.ARCSEC);
+    }
+}
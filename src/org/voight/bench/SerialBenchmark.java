@@ -0,0 +1,155 @@
+package org.voight.bench;
+
+import ASCOM.Utilities.Serial;
+import ASCOM.Utilities.SerialEngine;
+import ASCOM.Utilities.SerialFraming;
+import ASCOM.Utilities.SerialLink;
+import ASCOM.Utilities.SerialSpeed;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives many stand-in LX200 mounts through one SerialEngine with :GR#
+ * polls: first with a blocking Serial and a thread per port, then with
+ * every port's requests chained on its SerialLink from the engine thread.
+ *
+ * Each mount is a StandInMount on its own thread. Given pty pairs, made
+ * for example with
+ *
+ * <pre>
+ * socat pty,raw,echo=0,link=/tmp/mount0 pty,raw,echo=0,link=/tmp/mount0d
+ * </pre>
+ *
+ * the driver opens the first tty of each pair and the mount the second;
+ * without pairs the ports are loopback sockets, as from a serial server.
+ *
+ * Usage: SerialBenchmark [ports] [polls] [baud] [driver-tty:device-tty ...]
+ *
+ * @author jeff
+ */
+public class SerialBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int ports = Bench.intArg(args, 0, 32);
+        final int polls = Bench.intArg(args, 1, 50);
+        int baud = Bench.intArg(args, 2, 9600);
+        if (args.length > 3) {
+            ports = args.length - 3;
+        }
+        final int count = ports;
+
+        final Serial[] serials = new Serial[count];
+        try (SerialEngine engine = new SerialEngine()) {
+            ServerSocketChannel server = null;
+            if (args.length <= 3) {
+                server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+            }
+            for (int i = 0; i < count; i++) {
+                serials[i] = new Serial(engine);
+                serials[i].setSpeed(SerialSpeed.fromValue(baud > 0 ? baud : 9600));
+                if (server == null) {
+                    String[] pair = args[3 + i].split(":");
+                    new StandInMount(StandInMount.openTty(pair[1]), baud, 500).start("mount-" + i);
+                    serials[i].setPortName(pair[0]);
+                    serials[i].setConnected(true);
+                } else {
+                    int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+                    serials[i].setPortName("tcp://127.0.0.1:" + port);
+                    serials[i].setConnected(true);
+                    SocketChannel device = server.accept();
+                    device.socket().setTcpNoDelay(true);
+                    new StandInMount(device, baud, 500).start("mount-" + i);
+                }
+            }
+            if (server != null) {
+                server.close();
+            }
+            String line = args.length > 3 ? "pty" : "loopback";
+
+            ExecutorService threads = Executors.newFixedThreadPool(count);
+            double blocking = Bench.nanosPerOp(() -> {
+                Future<?>[] done = new Future<?>[count];
+                for (int i = 0; i < count; i++) {
+                    final Serial serial = serials[i];
+                    done[i] = threads.submit(() -> {
+                        for (int p = 0; p < polls; p++) {
+                            serial.Transmit(":GR#");
+                            serial.ReceiveTerminated("#");
+                        }
+                        return null;
+                    });
+                }
+                try {
+                    for (Future<?> f : done) {
+                        f.get();
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return count;
+            }, 1, 3);
+            threads.shutdown();
+            Bench.report(String.format("Serial, thread per port (%d %s ports, %d baud)", count, line, baud),
+                    blocking, (long) count * polls, "polls");
+
+            final SerialLink[] links = new SerialLink[count];
+            for (int i = 0; i < count; i++) {
+                links[i] = serials[i].getLink();
+            }
+            double chained = Bench.nanosPerOp(() -> {
+                try {
+                    return chain(links, polls);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, 1, 3);
+            Bench.report(String.format("SerialLink, engine thread (%d %s ports, %d baud)", count, line, baud),
+                    chained, (long) count * polls, "polls");
+        }
+    }
+
+    /**
+     * Polls every link the given number of times, each poll submitted from
+     * the listener of the one before.
+     *
+     */
+    private static double chain(SerialLink[] links, final int polls) throws Exception {
+        final ByteBuffer command = ByteBuffer.wrap(":GR#".getBytes(StandardCharsets.US_ASCII));
+        final SerialFraming framing = SerialFraming.terminated("#");
+        final CountDownLatch finished = new CountDownLatch(links.length);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        for (final SerialLink link : links) {
+            link.submit(command.duplicate(), framing, 5000, new SerialLink.Listener() {
+                private int left = polls - 1;
+
+                @Override
+                public void received(ByteBuffer response) {
+                    if (left-- > 0) {
+                        link.submit(command.duplicate(), framing, 5000, this);
+                    } else {
+                        finished.countDown();
+                    }
+                }
+
+                @Override
+                public void failed(Exception error) {
+                    failure.set(error);
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return links.length;
+    }
+}
@@ -0,0 +1,234 @@
+package org.voight.bench;
+
+import ASCOM.Utilities.SerialCapture;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Works with captures written by SerialRecorder.
+ *
+ * <pre>
+ * SerialReplay dump capture
+ * SerialReplay latency capture
+ * SerialReplay device capture device-tty [port]
+ * </pre>
+ *
+ * dump prints every record, with control characters as [XX].
+ *
+ * latency prints, for each port, how long the device took to start and to
+ * finish answering each exchange: a run of writes and the reads that
+ * follow it, or a blind command if none do.
+ *
+ * device plays the device end of one port (the first by default) on the
+ * second tty of a pty pair: it reads each command the driver writes to the
+ * first tty and answers with the recorded response, at the same delay
+ * after the command as in the recording, so a driver can be run and timed
+ * against a captured session offline.
+ *
+ * @author jeff
+ */
+public class SerialReplay {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("dump")) {
+            dump(args[1]);
+        } else if (args.length >= 2 && args[0].equals("latency")) {
+            latency(args[1]);
+        } else if (args.length >= 3 && args[0].equals("device")) {
+            device(args[1], args[2], args.length > 3 ? args[3] : null);
+        } else {
+            System.err.println("Usage: SerialReplay dump capture | latency capture"
+                    + " | device capture device-tty [port]");
+            System.exit(2);
+        }
+    }
+
+    private static void dump(String path) throws IOException {
+        try (SerialCapture capture = new SerialCapture(Paths.get(path))) {
+            while (capture.next()) {
+                int kind = capture.getKind();
+                if (kind == SerialCapture.DROPPED) {
+                    System.out.printf("%14s  %d records dropped%n", "", capture.getDroppedCount());
+                    continue;
+                }
+                String label = kind == SerialCapture.PORT ? "open" : kind == SerialCapture.TRANSMIT ? "tx"
+                        : kind == SerialCapture.RECEIVE ? "rx" : "note";
+                System.out.printf("%14.6f  %-12s %-4s %s%n", capture.getNanos() / 1e6,
+                        capture.getPortName(capture.getPort()), label, hex(capture.getText()));
+            }
+        }
+    }
+
+    private static void latency(String path) throws IOException {
+        Map<Integer, Exchanges> ports = new TreeMap<>();
+        Map<Integer, String> named = new HashMap<>();
+        try (SerialCapture capture = new SerialCapture(Paths.get(path))) {
+            while (capture.next()) {
+                int kind = capture.getKind();
+                if (kind == SerialCapture.PORT) {
+                    named.put(capture.getPort(), capture.getText());
+                } else if (kind == SerialCapture.TRANSMIT || kind == SerialCapture.RECEIVE) {
+                    Exchanges exchanges = ports.get(capture.getPort());
+                    if (exchanges == null) {
+                        exchanges = new Exchanges();
+                        ports.put(capture.getPort(), exchanges);
+                    }
+                    exchanges.add(kind == SerialCapture.TRANSMIT, capture.getNanos());
+                }
+            }
+        }
+        System.out.printf("%-16s %9s %7s  %-31s  %-31s%n", "port", "exchanges", "blind",
+                "first byte p50/p90/p99/max ms", "last byte p50/p90/p99/max ms");
+        for (Map.Entry<Integer, Exchanges> entry : ports.entrySet()) {
+            Exchanges exchanges = entry.getValue();
+            exchanges.finish();
+            System.out.printf("%-16s %9d %7d  %-31s  %-31s%n", named.get(entry.getKey()), exchanges.commands,
+                    exchanges.blind, percentiles(exchanges.first, exchanges.answered),
+                    percentiles(exchanges.last, exchanges.answered));
+        }
+    }
+
+    private static void device(String path, String tty, String name) throws IOException {
+        int port = -1;
+        long commands = 0;
+        long responses = 0;
+        long differed = 0;
+        long behind = 0;
+        long recordedAnchor = 0;
+        long actualAnchor = System.nanoTime();
+        ByteBuffer command = ByteBuffer.allocate(256);
+        try (SerialCapture capture = new SerialCapture(Paths.get(path));
+                FileChannel device = StandInMount.openTty(tty)) {
+            while (capture.next()) {
+                int kind = capture.getKind();
+                if (kind == SerialCapture.PORT && port < 0 && (name == null || name.equals(capture.getText()))) {
+                    port = capture.getPort();
+                    System.out.println("Replaying " + capture.getText() + " on " + tty);
+                }
+                if (capture.getPort() != port || (kind != SerialCapture.TRANSMIT && kind != SerialCapture.RECEIVE)) {
+                    continue;
+                }
+                ByteBuffer data = capture.getData();
+                if (kind == SerialCapture.TRANSMIT) {
+                    if (command.capacity() < data.remaining()) {
+                        command = ByteBuffer.allocate(data.remaining());
+                    }
+                    command.clear().limit(data.remaining());
+                    while (command.hasRemaining()) {
+                        if (device.read(command) < 0) {
+                            throw new IOException("Driver closed " + tty);
+                        }
+                    }
+                    command.flip();
+                    if (!command.equals(data)) {
+                        differed++;
+                    }
+                    commands++;
+                    recordedAnchor = capture.getNanos();
+                    actualAnchor = System.nanoTime();
+                } else {
+                    long due = actualAnchor + capture.getNanos() - recordedAnchor;
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    behind = Math.max(behind, System.nanoTime() - due);
+                    while (data.hasRemaining()) {
+                        device.write(data);
+                    }
+                    responses++;
+                }
+            }
+        }
+        if (port < 0) {
+            throw new IOException("No port " + (name == null ? "" : name + " ") + "in " + path);
+        }
+        System.out.printf("Replayed %d commands and %d response chunks; %d commands differed;"
+                + " responses up to %.3f ms behind the recording%n", commands, responses, differed, behind / 1e6);
+    }
+
+    private static String hex(String text) {
+        StringBuilder hex = new StringBuilder(text.length() * 2);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 32 || c > 126) {
+                hex.append(String.format("[%02X]", (int) c));
+            } else {
+                hex.append(c);
+            }
+        }
+        return hex.toString();
+    }
+
+    private static String percentiles(long[] nanos, int count) {
+        if (count == 0) {
+            return "-";
+        }
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        return String.format("%.2f/%.2f/%.2f/%.2f", sorted[(count - 1) / 2] / 1e6, sorted[(count - 1) * 9 / 10] / 1e6,
+                sorted[(count - 1) * 99 / 100] / 1e6, sorted[count - 1] / 1e6);
+    }
+
+    /**
+     * Times from the last write of each exchange to its first and last
+     * reads.
+     *
+     */
+    private static final class Exchanges {
+
+        long[] first = new long[256];
+        long[] last = new long[256];
+        int commands;
+        int answered;
+        int blind;
+        long sent = -1;
+        long firstByte = -1;
+        long lastByte = -1;
+        boolean sending;
+
+        void add(boolean transmit, long nanos) {
+            if (transmit) {
+                if (!sending) {
+                    finish();
+                    commands++;
+                    sending = true;
+                }
+                sent = nanos;
+            } else if (sent >= 0) {
+                sending = false;
+                if (firstByte < 0) {
+                    firstByte = nanos;
+                }
+                lastByte = nanos;
+            }
+        }
+
+        void finish() {
+            if (sent < 0) {
+                return;
+            }
+            if (firstByte < 0) {
+                blind++;
+            } else {
+                if (answered == first.length) {
+                    first = Arrays.copyOf(first, answered * 2);
+                    last = Arrays.copyOf(last, answered * 2);
+                }
+                first[answered] = firstByte - sent;
+                last[answered] = lastByte - sent;
+                answered++;
+            }
+            sent = -1;
+            firstByte = -1;
+            lastByte = -1;
+        }
+    }
+}
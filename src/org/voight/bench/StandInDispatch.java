@@ -0,0 +1,74 @@
+package org.voight.bench;
+
+import ASCOM.DriverAccess.DispatchTarget;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Local stand-in for a COM IDispatch. Member names are matched case
+ * insensitively like GetIDsOfNames does and unknown names are given a new
+ * DISPID. Property reads return the value given to the constructor or the
+ * last value written, null otherwise. Every call, including name resolution,
+ * is charged a simulated round-trip cost.
+ *
+ * @author jeff
+ */
+public class StandInDispatch implements DispatchTarget {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<Object> values = new ArrayList<>();
+    private final long roundTripNanos;
+    private long nameLookups;
+
+    /**
+     *
+     * @param roundTripNanos simulated cost of each call
+     * @param members member names followed by their values
+     */
+    public StandInDispatch(long roundTripNanos, Object... members) {
+        this.roundTripNanos = roundTripNanos;
+        for (int i = 0; i + 1 < members.length; i += 2) {
+            ids.put(((String) members[i]).toUpperCase(Locale.ROOT), values.size());
+            values.add(members[i + 1]);
+        }
+    }
+
+    /**
+     * Gets the number of GetIDsOfNames calls made so far.
+     *
+     */
+    public long getNameLookups() {
+        return nameLookups;
+    }
+
+    @Override
+    public int getIDOfName(String name) {
+        Bench.spin(roundTripNanos);
+        nameLookups++;
+        String key = name.toUpperCase(Locale.ROOT);
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = values.size();
+            ids.put(key, id);
+            values.add(null);
+        }
+        return id;
+    }
+
+    @Override
+    public Object invoke(String name, int dispId, int flags, Object[] args) {
+        Bench.spin(roundTripNanos);
+        if (flags == PUT) {
+            values.set(dispId, args[0]);
+            return null;
+        }
+        return values.get(dispId);
+    }
+
+    @Override
+    public void release() {
+    }
+}
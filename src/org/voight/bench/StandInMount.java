@@ -0,0 +1,174 @@
+package org.voight.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stand-in for an LX200-style mount at the device end of a serial line:
+ * the second tty of a socat pty pair, or a socket. It answers the position
+ * queries :GR#, :GD#, :GA#, :GZ# and :GS#, acknowledges :Sr, :Sd and :MS
+ * with 1 or 0, and ignores anything else, as a mount does.
+ *
+ * Each reply is delayed as if both directions ran at the given baud rate
+ * and the mount took a fixed turnaround time per command, handling one
+ * command at a time in arrival order; commands that arrive while it is
+ * busy wait in its input buffer. A baud rate of 0 replies at once.
+ *
+ * The mount runs on its own thread with blocking I/O until the channel is
+ * closed.
+ *
+ * @author jeff
+ */
+public class StandInMount implements Runnable {
+
+    private final ByteChannel channel;
+    private final long byteNanos;
+    private final long turnaroundNanos;
+    private final ByteBuffer in = ByteBuffer.allocate(1024);
+    private final ByteBuffer out = ByteBuffer.allocate(64);
+    private long commands;
+    private long receiveFree;
+    private long processorFree;
+    private long transmitFree;
+
+    /**
+     *
+     * @param channel blocking channel to the driver
+     * @param baud simulated line speed, 0 for none
+     * @param turnaroundMicros simulated time to handle a command
+     */
+    public StandInMount(ByteChannel channel, int baud, long turnaroundMicros) {
+        this.channel = channel;
+        this.byteNanos = baud > 0 ? 10000000000L / baud : 0L;
+        this.turnaroundNanos = turnaroundMicros * 1000L;
+    }
+
+    /**
+     * Opens the device end of a pty pair in raw mode with blocking reads.
+     *
+     */
+    public static FileChannel openTty(String path) throws IOException {
+        Process process = new ProcessBuilder("stty", "-F", path, "raw", "-echo", "min", "1", "time", "0")
+                .redirectErrorStream(true).start();
+        try (InputStream output = process.getInputStream()) {
+            while (output.read() >= 0) {
+                // discard
+            }
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("Cannot configure " + path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted configuring " + path, e);
+        }
+        return FileChannel.open(Paths.get(path), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Starts the mount on a daemon thread.
+     *
+     */
+    public Thread start(String name) {
+        Thread thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Gets the number of commands handled so far.
+     *
+     */
+    public synchronized long getCommands() {
+        return commands;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (channel.read(in) > 0) {
+                long arrived = System.nanoTime();
+                int start = 0;
+                for (int i = 0; i < in.position(); i++) {
+                    if (in.get(i) == '#') {
+                        handle(start, i, arrived);
+                        start = i + 1;
+                    }
+                }
+                in.flip();
+                in.position(start);
+                in.compact();
+                if (!in.hasRemaining()) {
+                    in.clear();
+                }
+            }
+        } catch (IOException e) {
+            // the driver end closed
+        }
+    }
+
+    /**
+     * Handles the command from start up to its terminator at end.
+     *
+     */
+    private void handle(int start, int end, long arrived) throws IOException {
+        while (start < end && in.get(start) != ':') {
+            start++;
+        }
+        String reply = reply(start + 1 < end ? in.get(start + 1) : 0, start + 2 < end ? in.get(start + 2) : 0);
+        synchronized (this) {
+            commands++;
+        }
+        receiveFree = Math.max(arrived, receiveFree) + (end + 1 - start) * byteNanos;
+        processorFree = Math.max(receiveFree, processorFree) + turnaroundNanos;
+        if (reply == null) {
+            return;
+        }
+        transmitFree = Math.max(processorFree, transmitFree) + reply.length() * byteNanos;
+        long wait;
+        while ((wait = transmitFree - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        out.clear();
+        out.put(reply.getBytes(StandardCharsets.US_ASCII));
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+    }
+
+    private static String reply(int group, int command) {
+        if (group == 'G') {
+            switch (command) {
+                case 'R':
+                    return "12:34:56#";
+                case 'D':
+                    return "+45*30'15#";
+                case 'A':
+                    return "+30*15'00#";
+                case 'Z':
+                    return "180*00'00#";
+                case 'S':
+                    return "06:00:00#";
+                default:
+                    return null;
+            }
+        }
+        if (group == 'S' && (command == 'r' || command == 'd')) {
+            return "1";
+        }
+        if (group == 'M' && command == 'S') {
+            return "0";
+        }
+        return null;
+    }
+}
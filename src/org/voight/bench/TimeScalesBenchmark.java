@@ -0,0 +1,180 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.DeltaT;
+import ASCOM.Astrometry.TimeScales;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the cost of one delta-T lookup in TimeScales, within the UT1 -
+ * UTC table and from the leap second table alone, against the DeltaT
+ * polynomial, then the cost of a reload and of lookups while another
+ * thread reloads continuously.
+ *
+ * Without files, a Leap_Second.dat with the leap seconds to 2017 and a
+ * finals2000A file of daily UT1 - UTC from 1992 to 2026 are written to
+ * temporary files first.
+ *
+ * Usage: TimeScalesBenchmark [lookups] [iterations] [Leap_Second.dat finals2000A]
+ *
+ * @author jeff
+ */
+public class TimeScalesBenchmark {
+
+    private static final int[] LEAP_MJD = {41317, 41499, 41683, 42048, 42413, 42778, 43144, 43509, 43874, 44239,
+        44786, 45151, 45516, 46247, 47161, 47892, 48257, 48804, 49169, 49534, 50083, 50630, 51179, 53736, 54832,
+        56109, 57204, 57754};
+
+    public static void main(String[] args) throws IOException {
+        final int lookups = Bench.intArg(args, 0, 1000000);
+        int iterations = Bench.intArg(args, 1, 10);
+        final Path leapSeconds;
+        final Path finals;
+        if (args.length > 3) {
+            leapSeconds = Paths.get(args[2]);
+            finals = Paths.get(args[3]);
+        } else {
+            leapSeconds = Files.createTempFile("Leap_Second", ".dat");
+            finals = Files.createTempFile("finals2000A", ".data");
+            leapSeconds.toFile().deleteOnExit();
+            finals.toFile().deleteOnExit();
+            write(leapSeconds, finals, 48622, 61000);
+        }
+
+        final TimeScales scales = new TimeScales(leapSeconds, finals);
+        double first = scales.getFirstDate();
+        double last = scales.getLastDate();
+        final double[] inside = dates(lookups, first, last);
+        final double[] outside = dates(lookups, 2415020.5, first);
+
+        double polynomial = Bench.nanosPerOp(() -> {
+            double sum = 0.0;
+            for (double jd : inside) {
+                sum += DeltaT.DeltaT(jd);
+            }
+            return sum;
+        }, 2, iterations);
+        Bench.report("DeltaT.DeltaT", polynomial / lookups, 1, "lookups");
+
+        double table = Bench.nanosPerOp(() -> lookup(scales, inside), 2, iterations);
+        Bench.report(String.format("TimeScales.getDeltaT (UT1 table, %d days)", (int) (last - first + 1)),
+                table / lookups, 1, "lookups");
+
+        double leaps = Bench.nanosPerOp(() -> lookup(scales, outside), 2, iterations);
+        Bench.report("TimeScales.getDeltaT (leap seconds only)", leaps / lookups, 1, "lookups");
+
+        double tt = Bench.nanosPerOp(() -> {
+            double sum = 0.0;
+            for (double jd : inside) {
+                sum += scales.julianDateTT(jd) + scales.julianDateUT1(jd);
+            }
+            return sum;
+        }, 2, iterations);
+        Bench.report("TimeScales.julianDateTT + julianDateUT1", tt / lookups, 1, "lookups");
+
+        double reload = Bench.nanosPerOp(() -> {
+            reload(scales);
+            return scales.getReloadCount();
+        }, 1, Math.max(1, iterations / 2));
+        Bench.report("TimeScales.reload", reload, 1, "reloads");
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            while (running.get()) {
+                reload(scales);
+            }
+        }, "reloader");
+        int before = scales.getReloadCount();
+        writer.start();
+        try {
+            double contended = Bench.nanosPerOp(() -> lookup(scales, inside), 2, iterations);
+            Bench.report(String.format("TimeScales.getDeltaT (during %d reloads)", scales.getReloadCount() - before),
+                    contended / lookups, 1, "lookups");
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static double lookup(TimeScales scales, double[] dates) {
+        double sum = 0.0;
+        for (double jd : dates) {
+            sum += scales.getDeltaT(jd);
+        }
+        return sum;
+    }
+
+    private static void reload(TimeScales scales) {
+        try {
+            scales.reload();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double[] dates(int count, double from, double to) {
+        Random random = new Random(42);
+        double[] dates = new double[count];
+        for (int i = 0; i < count; i++) {
+            dates[i] = from + random.nextDouble() * (to - from);
+        }
+        return dates;
+    }
+
+    /**
+     * Writes a leap second file and an Earth orientation file giving UT1 -
+     * UTC from the DeltaT polynomial for each day from one MJD to another.
+     *
+     */
+    private static void write(Path leapSeconds, Path finals, int from, int to) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(leapSeconds, StandardCharsets.US_ASCII)) {
+            out.write("#  File expires on 28 June 2026\n#    MJD        Date        TAI-UTC (s)\n");
+            for (int i = 0; i < LEAP_MJD.length; i++) {
+                int[] date = date(LEAP_MJD[i]);
+                out.write(String.format(Locale.ROOT, "    %d.0    %d  %d %d       %d%n", LEAP_MJD[i], date[2], date[1],
+                        date[0], 10 + i));
+            }
+        }
+        StringBuilder filler = new StringBuilder();
+        for (int i = 0; i < 42; i++) {
+            filler.append(' ');
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(finals, StandardCharsets.US_ASCII)) {
+            for (int mjd = from; mjd <= to; mjd++) {
+                int leap = 10;
+                for (int i = 0; i < LEAP_MJD.length && LEAP_MJD[i] <= mjd; i++) {
+                    leap = 10 + i;
+                }
+                double ut1MinusUtc = leap + TimeScales.TT_MINUS_TAI - DeltaT.DeltaT(mjd + 2400000.5);
+                int[] date = date(mjd);
+                out.write(String.format(Locale.ROOT, "%02d%02d%02d %8.2f%sI%10.7f%n", date[0] % 100, date[1],
+                        date[2], (double) mjd, filler, ut1MinusUtc));
+            }
+        }
+    }
+
+    /**
+     * Gets the Gregorian year, month and day of an MJD.
+     *
+     */
+    private static int[] date(int mjd) {
+        long z = mjd + 2400001L;
+        long alpha = (long) ((z - 1867216.25) / 36524.25);
+        long a = z + 1 + alpha - alpha / 4;
+        long b = a + 1524;
+        long c = (long) ((b - 122.1) / 365.25);
+        long d = (long) (365.25 * c);
+        long e = (long) ((b - d) / 30.6001);
+        int day = (int) (b - d - (long) (30.6001 * e));
+        int month = (int) (e < 14 ? e - 1 : e - 13);
+        int year = (int) (month > 2 ? c - 4716 : c - 4715);
+        return new int[]{year, month, day};
+    }
+}
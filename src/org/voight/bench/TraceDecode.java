@@ -0,0 +1,309 @@
+package org.voight.bench;
+
+import ASCOM.Utilities.TraceFormatter;
+import ASCOM.Utilities.TraceReader;
+import ASCOM.Utilities.TraceRecord;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes binary traces written by TraceLogger with TraceFormat.BINARY,
+ * streaming, so a trace of any size is read in constant memory.
+ *
+ * <pre>
+ * TraceDecode [-id name]... [-from time] [-to time] text trace
+ * TraceDecode [-id name]... [-from time] [-to time] latency trace
+ * </pre>
+ *
+ * text writes the lines the logger would have written in text format.
+ * latency prints, for each identifier, the count and percentiles of the
+ * times logged by LogCall and of the time from each LogStart to its
+ * LogFinish, with a histogram by powers of two.
+ *
+ * -id keeps only records with the identifier, or with identifiers starting
+ * with it if it ends in *; LogContinue and LogFinish go with their
+ * LogStart. -from and -to keep only records in a time range, given as
+ * hh:mm:ss[.fff] local time on the day the trace started, rolling over to
+ * the next day if earlier than the start, or as +seconds from the start.
+ *
+ * @author jeff
+ */
+public class TraceDecode {
+
+    public static void main(String[] args) throws IOException {
+        List<String> ids = new ArrayList<>();
+        String from = null;
+        String to = null;
+        int i = 0;
+        while (i + 1 < args.length && args[i].startsWith("-")) {
+            switch (args[i]) {
+                case "-id":
+                    ids.add(args[i + 1]);
+                    break;
+                case "-from":
+                    from = args[i + 1];
+                    break;
+                case "-to":
+                    to = args[i + 1];
+                    break;
+                default:
+                    usage();
+            }
+            i += 2;
+        }
+        if (args.length != i + 2 || !(args[i].equals("text") || args[i].equals("latency"))) {
+            usage();
+        }
+        try (TraceReader reader = new TraceReader(Paths.get(args[i + 1]))) {
+            Filter filter = new Filter(ids, time(from, reader.getStartTime(), Long.MIN_VALUE),
+                    time(to, reader.getStartTime(), Long.MAX_VALUE));
+            if (args[i].equals("text")) {
+                text(reader, filter);
+            } else {
+                latency(reader, filter);
+            }
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: TraceDecode [-id name]... [-from time] [-to time] text|latency trace");
+        System.exit(2);
+    }
+
+    private static void text(TraceReader reader, Filter filter) throws IOException {
+        StringBuilder text = new StringBuilder(1 << 16);
+        TraceFormatter formatter = new TraceFormatter(text);
+        Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        TraceRecord record;
+        while ((record = reader.next()) != null) {
+            if (filter.keep(record)) {
+                formatter.format(record);
+                if (text.length() >= 1 << 15) {
+                    out.append(text);
+                    text.setLength(0);
+                }
+            }
+        }
+        formatter.finish();
+        out.append(text);
+        out.flush();
+    }
+
+    private static void latency(TraceReader reader, Filter filter) throws IOException {
+        Map<String, Histogram> methods = new TreeMap<>();
+        String started = null;
+        long startTime = 0;
+        TraceRecord record;
+        while ((record = reader.next()) != null) {
+            if (!filter.keep(record)) {
+                continue;
+            }
+            String identifier = record.getIdentifier() == null ? "" : record.getIdentifier();
+            switch (record.getKind()) {
+                case TraceRecord.CALL:
+                    if (record.getElapsedNanos() >= 0) {
+                        histogram(methods, identifier).add(record.getElapsedNanos());
+                    }
+                    break;
+                case TraceRecord.START:
+                    started = identifier;
+                    startTime = record.getTime();
+                    break;
+                case TraceRecord.FINISH:
+                    if (started != null) {
+                        histogram(methods, started).add(record.getTime() - startTime);
+                        started = null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        System.out.printf("%-25s %9s %10s %10s %10s %10s %10s%n", "identifier", "count", "mean", "p50", "p90",
+                "p99", "max");
+        for (Map.Entry<String, Histogram> entry : methods.entrySet()) {
+            Histogram h = entry.getValue();
+            System.out.printf("%-25s %9d %10s %10s %10s %10s %10s%n", entry.getKey(), h.count,
+                    duration(h.total / h.count), duration(h.percentile(0.5)), duration(h.percentile(0.9)),
+                    duration(h.percentile(0.99)), duration(h.max));
+            h.print();
+        }
+    }
+
+    private static Histogram histogram(Map<String, Histogram> methods, String identifier) {
+        Histogram h = methods.get(identifier);
+        if (h == null) {
+            h = new Histogram();
+            methods.put(identifier, h);
+        }
+        return h;
+    }
+
+    /**
+     * Parses a -from or -to time into nanoseconds since 1970.
+     *
+     */
+    private static long time(String text, long start, long none) {
+        if (text == null) {
+            return none;
+        }
+        if (text.startsWith("+")) {
+            return start + (long) (Double.parseDouble(text.substring(1)) * 1e9);
+        }
+        ZonedDateTime started = Instant.ofEpochSecond(0, start).atZone(ZoneId.systemDefault());
+        ZonedDateTime at = started.with(LocalTime.parse(text));
+        if (at.isBefore(started.withNano(0))) {
+            at = at.plusDays(1);
+        }
+        Instant instant = at.toInstant();
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+
+    private static String duration(long nanos) {
+        if (nanos < 10000L) {
+            return nanos + " ns";
+        }
+        if (nanos < 10000000L) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+        if (nanos < 10000000000L) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.1f s", nanos / 1e9);
+    }
+
+    /**
+     * Keeps records by identifier and time.
+     *
+     */
+    private static final class Filter {
+
+        private final List<String> ids;
+        private final long from;
+        private final long to;
+        private boolean openKept = true;
+
+        Filter(List<String> ids, long from, long to) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean keep(TraceRecord record) {
+            if (record.getTime() < from || record.getTime() > to) {
+                return false;
+            }
+            int kind = record.getKind();
+            if (kind == TraceRecord.CONTINUE || kind == TraceRecord.FINISH) {
+                return openKept;
+            }
+            boolean kept = matches(record.getIdentifier());
+            if (kind == TraceRecord.START) {
+                openKept = kept;
+            }
+            return kept;
+        }
+
+        private boolean matches(String identifier) {
+            if (ids.isEmpty()) {
+                return true;
+            }
+            if (identifier == null) {
+                return false;
+            }
+            for (String id : ids) {
+                if (id.endsWith("*") ? identifier.startsWith(id.substring(0, id.length() - 1))
+                        : identifier.equals(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Counts durations in buckets of eight per power of two, so percentiles
+     * are within 12.5%.
+     *
+     */
+    private static final class Histogram {
+
+        private final long[] buckets = new long[8 * 62];
+        long count;
+        long total;
+        long max;
+
+        void add(long nanos) {
+            nanos = Math.max(0, nanos);
+            buckets[index(nanos)]++;
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+
+        long percentile(double fraction) {
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(max, upper(i));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Prints the counts by power of two.
+         *
+         */
+        void print() {
+            long most = 0;
+            long[] octaves = new long[buckets.length / 8];
+            for (int i = 0; i < buckets.length; i++) {
+                octaves[i / 8] += buckets[i];
+                most = Math.max(most, octaves[i / 8]);
+            }
+            for (int o = 0; o < octaves.length; o++) {
+                if (octaves[o] > 0) {
+                    long low = o == 0 ? 0 : upper(o * 8 - 1) + 1;
+                    StringBuilder bar = new StringBuilder();
+                    for (long n = octaves[o] * 40 / most; n > 0; n--) {
+                        bar.append('#');
+                    }
+                    System.out.printf("    %10s - %-10s %9d %s%n", duration(low), duration(upper(o * 8 + 7)),
+                            octaves[o], bar);
+                }
+            }
+        }
+
+        private static int index(long nanos) {
+            if (nanos < 8) {
+                return (int) nanos;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            return (exponent - 2) * 8 + (int) ((nanos >>> (exponent - 3)) & 7);
+        }
+
+        private static long upper(int index) {
+            if (index < 8) {
+                return index;
+            }
+            int exponent = index / 8 + 2;
+            long sub = index % 8;
+            return ((8 + sub + 1) << (exponent - 3)) - 1;
+        }
+    }
+}
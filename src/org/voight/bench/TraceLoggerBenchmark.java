@@ -0,0 +1,87 @@
+package org.voight.bench;
+
+import ASCOM.DriverAccess.DriverTransports;
+import ASCOM.DriverAccess.Telescope;
+import ASCOM.DriverAccess.TracingTransport;
+import ASCOM.Utilities.TraceFormat;
+import ASCOM.Utilities.TraceLogger;
+import ASCOM.Utilities.TraceOverflow;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Measures what tracing costs the caller: a synchronous logger that formats
+ * and writes each line on the calling thread, as a trace file that must
+ * survive a crash does, against TraceLogger with either overflow policy,
+ * and Telescope property reads from the simulator with and without a
+ * TracingTransport, writing text or binary traces.
+ *
+ * Usage: TraceLoggerBenchmark [iterations]
+ *
+ * @author jeff
+ */
+public class TraceLoggerBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int iterations = Bench.intArg(args, 0, 200000);
+        File folder = new File(System.getProperty("java.io.tmpdir"));
+
+        File syncFile = File.createTempFile("trace-sync", ".txt", folder);
+        syncFile.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(syncFile)))) {
+            final SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+            double ns = Bench.nanosPerOp(() -> {
+                out.printf("%s %-25s %s%n", time.format(new Date()), "RightAscension", "Get 5.5");
+                out.flush();
+                return 1;
+            }, iterations / 10, iterations);
+            Bench.report("synchronous format and write per line", ns);
+        }
+
+        for (TraceOverflow overflow : TraceOverflow.values()) {
+            File file = File.createTempFile("trace-" + overflow, ".txt", folder);
+            file.deleteOnExit();
+            TraceLogger trace = new TraceLogger(file.getPath(), "Bench");
+            trace.setOverflow(overflow);
+            trace.setEnabled(true);
+            double ns = Bench.nanosPerOp(() -> {
+                trace.LogMessage("RightAscension", "Get 5.5");
+                return 1;
+            }, iterations / 10, iterations);
+            trace.Dispose();
+            Bench.report("TraceLogger.LogMessage, " + overflow, ns);
+            System.out.printf("    %d logged, %d dropped, %d waits for room, %d bytes%n", trace.getLoggedCount(),
+                    trace.getDroppedCount(), trace.getBlockedCount(), file.length());
+        }
+
+        System.setProperty(DriverTransports.TRANSPORT_PROPERTY, "simulator");
+        final Telescope plain = new Telescope(DriverTransports.open("ASCOM.Simulator.Telescope"));
+        plain.setConnected(true);
+        double untraced = Bench.nanosPerOp(() -> plain.getRightAscension() + plain.getDeclination(),
+                iterations / 10, iterations);
+        Bench.report("Telescope RA and Dec, untraced", untraced);
+
+        for (TraceFormat format : TraceFormat.values()) {
+            File file = File.createTempFile("trace-telescope", "." + format, folder);
+            file.deleteOnExit();
+            TraceLogger trace = new TraceLogger(file.getPath(), "Telescope");
+            trace.setOverflow(TraceOverflow.BLOCK);
+            trace.setFormat(format);
+            trace.setEnabled(true);
+            final Telescope traced = new Telescope(new TracingTransport(
+                    DriverTransports.open("ASCOM.Simulator.Telescope"), trace));
+            traced.setConnected(true);
+            double ns = Bench.nanosPerOp(() -> traced.getRightAscension() + traced.getDeclination(),
+                    iterations / 10, iterations);
+            trace.Dispose();
+            Bench.report("Telescope RA and Dec, TracingTransport, " + format, ns);
+            System.out.printf("    %d logged, %d dropped, %d bytes%n", trace.getLoggedCount(),
+                    trace.getDroppedCount(), file.length());
+        }
+    }
+}
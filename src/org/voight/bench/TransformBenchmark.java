@@ -0,0 +1,66 @@
+package org.voight.bench;
+
+import ASCOM.Astrometry.Transform.BatchTransform;
+import ASCOM.Astrometry.Transform.Transform;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares J2000 to azimuth/elevation transforms of a star catalog through
+ * the per-object Transform (SetJ2000 then AzimuthTopocentric and
+ * ElevationTopocentric for every star) against BatchTransform on one thread
+ * and on the common fork-join pool.
+ *
+ * Usage: TransformBenchmark [stars] [iterations]
+ *
+ * @author jeff
+ */
+public class TransformBenchmark {
+
+    public static void main(String[] args) {
+        int stars = Bench.intArg(args, 0, 1000000);
+        int iterations = Bench.intArg(args, 1, 10);
+        final double[] ra = new double[stars];
+        final double[] dec = new double[stars];
+        Random random = new Random(42);
+        for (int i = 0; i < stars; i++) {
+            ra[i] = random.nextDouble() * 24.0;
+            dec[i] = Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0));
+        }
+        final double[] az = new double[stars];
+        final double[] el = new double[stars];
+
+        final Transform transform = new Transform();
+        transform.setSiteLatitude(51.4769);
+        transform.setSiteLongitude(-0.0005);
+        transform.setSiteElevation(46.0);
+        transform.setRefraction(true);
+        transform.setJulianDateUTC(2460676.5);
+
+        final int sample = Math.min(stars, 20000);
+        double perObject = Bench.nanosPerOp(() -> {
+            double acc = 0.0;
+            for (int i = 0; i < sample; i++) {
+                transform.SetJ2000(ra[i], dec[i]);
+                acc += transform.getAzimuthTopocentric() + transform.getElevationTopocentric();
+            }
+            return acc;
+        }, 2, Math.max(1, iterations / 2));
+        Bench.report(String.format("Transform per object (%d stars)", sample), perObject / sample, 1, "stars");
+
+        final BatchTransform serial = new BatchTransform(transform.getEpoch(), ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+        double one = Bench.nanosPerOp(() -> {
+            serial.toAzimuthElevation(ra, dec, az, el);
+            return az[0] + el[stars - 1];
+        }, 2, iterations);
+        Bench.report(String.format("BatchTransform 1 thread (%d stars)", stars), one / stars, 1, "stars");
+
+        final BatchTransform parallel = transform.batch();
+        double many = Bench.nanosPerOp(() -> {
+            parallel.toAzimuthElevation(ra, dec, az, el);
+            return az[0] + el[stars - 1];
+        }, 2, iterations);
+        Bench.report(String.format("BatchTransform fork-join, %d threads (%d stars)",
+                ForkJoinPool.getCommonPoolParallelism(), stars), many / stars, 1, "stars");
+    }
+}
@@ -0,0 +1,121 @@
+package org.voight.bench;
+
+import ASCOM.Utilities.Sexagesimal;
+import ASCOM.Utilities.Util;
+import java.nio.CharBuffer;
+import java.util.Random;
+
+/**
+ * Measures every overload of the Util sexagesimal conversions, then the
+ * Sexagesimal methods that format into a StringBuilder or CharBuffer and
+ * parse from part of a line, as a driver does for each LX200-style
+ * command and reply.
+ *
+ * Usage: UtilBenchmark [values] [iterations]
+ *
+ * @author jeff
+ */
+public class UtilBenchmark {
+
+    /**
+     * One conversion of one value.
+     */
+    private interface Conversion {
+
+        double run(int i);
+    }
+
+    private static final Util UTIL = new Util();
+
+    public static void main(String[] args) {
+        final int count = Bench.intArg(args, 0, 100000);
+        int iterations = Bench.intArg(args, 1, 10);
+        Random random = new Random(42);
+        final double[] degrees = new double[count];
+        final double[] hours = new double[count];
+        final String[] dms = new String[count];
+        final String[] hms = new String[count];
+        final StringBuilder lines = new StringBuilder();
+        final int[] starts = new int[count];
+        for (int i = 0; i < count; i++) {
+            degrees[i] = Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0));
+            hours[i] = random.nextDouble() * 24.0;
+            dms[i] = UTIL.DegreesToDMS(degrees[i], "*", ":", "", 0);
+            hms[i] = UTIL.HoursToHMS(hours[i]);
+            starts[i] = lines.length() + 3;
+            lines.append(":Sd").append(dms[i]).append('#');
+        }
+
+        run("DegreesToDMS(d)", count, iterations, i -> UTIL.DegreesToDMS(degrees[i]).length());
+        run("DegreesToDMS(d, deg)", count, iterations, i -> UTIL.DegreesToDMS(degrees[i], "*").length());
+        run("DegreesToDMS(d, deg, min)", count, iterations, i -> UTIL.DegreesToDMS(degrees[i], "*", ":").length());
+        run("DegreesToDMS(d, deg, min, sec)", count, iterations,
+                i -> UTIL.DegreesToDMS(degrees[i], "*", ":", "").length());
+        run("DegreesToDMS(d, deg, min, sec, 2)", count, iterations,
+                i -> UTIL.DegreesToDMS(degrees[i], "*", ":", "", 2).length());
+        run("HoursToHMS(h)", count, iterations, i -> UTIL.HoursToHMS(hours[i]).length());
+        run("HoursToHMS(h, hrs)", count, iterations, i -> UTIL.HoursToHMS(hours[i], "h").length());
+        run("HoursToHMS(h, hrs, min)", count, iterations, i -> UTIL.HoursToHMS(hours[i], "h", "m").length());
+        run("HoursToHMS(h, hrs, min, sec)", count, iterations,
+                i -> UTIL.HoursToHMS(hours[i], "h", "m", "s").length());
+        run("HoursToHMS(h, hrs, min, sec, 2)", count, iterations,
+                i -> UTIL.HoursToHMS(hours[i], "h", "m", "s", 2).length());
+        run("DegreesToDM(d)", count, iterations, i -> UTIL.DegreesToDM(degrees[i]).length());
+        run("DegreesToDM(d, deg)", count, iterations, i -> UTIL.DegreesToDM(degrees[i], "*").length());
+        run("DegreesToDM(d, deg, min)", count, iterations, i -> UTIL.DegreesToDM(degrees[i], "*", "").length());
+        run("DegreesToDM(d, deg, min, 1)", count, iterations,
+                i -> UTIL.DegreesToDM(degrees[i], "*", "", 1).length());
+        run("HoursToHM(h)", count, iterations, i -> UTIL.HoursToHM(hours[i]).length());
+        run("HoursToHM(h, hrs)", count, iterations, i -> UTIL.HoursToHM(hours[i], "h").length());
+        run("HoursToHM(h, hrs, min)", count, iterations, i -> UTIL.HoursToHM(hours[i], "h", "m").length());
+        run("HoursToHM(h, hrs, min, 1)", count, iterations, i -> UTIL.HoursToHM(hours[i], "h", "m", 1).length());
+        run("DegreesToHMS(d)", count, iterations, i -> UTIL.DegreesToHMS(degrees[i]).length());
+        run("DegreesToHMS(d, hrs)", count, iterations, i -> UTIL.DegreesToHMS(degrees[i], "h").length());
+        run("DegreesToHMS(d, hrs, min)", count, iterations, i -> UTIL.DegreesToHMS(degrees[i], "h", "m").length());
+        run("DegreesToHMS(d, hrs, min, sec)", count, iterations,
+                i -> UTIL.DegreesToHMS(degrees[i], "h", "m", "s").length());
+        run("DegreesToHMS(d, hrs, min, sec, 2)", count, iterations,
+                i -> UTIL.DegreesToHMS(degrees[i], "h", "m", "s", 2).length());
+        run("DegreesToHM(d)", count, iterations, i -> UTIL.DegreesToHM(degrees[i]).length());
+        run("DegreesToHM(d, hrs)", count, iterations, i -> UTIL.DegreesToHM(degrees[i], "h").length());
+        run("DegreesToHM(d, hrs, min)", count, iterations, i -> UTIL.DegreesToHM(degrees[i], "h", "m").length());
+        run("DegreesToHM(d, hrs, min, 1)", count, iterations,
+                i -> UTIL.DegreesToHM(degrees[i], "h", "m", 1).length());
+        run("DMSToDegrees(s)", count, iterations, i -> UTIL.DMSToDegrees(dms[i]));
+        run("HMSToHours(s)", count, iterations, i -> UTIL.HMSToHours(hms[i]));
+        run("HMSToDegrees(s)", count, iterations, i -> UTIL.HMSToDegrees(hms[i]));
+
+        final StringBuilder builder = new StringBuilder(32);
+        final CharBuffer buffer = CharBuffer.allocate(32);
+        run("Sexagesimal.append(StringBuilder, d, 3 fields)", count, iterations, i -> {
+            builder.setLength(0);
+            return Sexagesimal.append(builder, degrees[i], "*", ":", "#", 0).length();
+        });
+        run("Sexagesimal.append(StringBuilder, h, 2 fields)", count, iterations, i -> {
+            builder.setLength(0);
+            return Sexagesimal.append(builder, hours[i], ":", "#", 1).length();
+        });
+        run("Sexagesimal.append(CharBuffer, d, 3 fields)", count, iterations, i -> {
+            buffer.clear();
+            return Sexagesimal.append(buffer, degrees[i], "*", ":", "#", 0).position();
+        });
+        run("Sexagesimal.append(CharBuffer, h, 2 fields)", count, iterations, i -> {
+            buffer.clear();
+            return Sexagesimal.append(buffer, hours[i], ":", "#", 1).position();
+        });
+        run("Sexagesimal.parse(CharSequence)", count, iterations, i -> Sexagesimal.parse(dms[i]));
+        run("Sexagesimal.parse(CharSequence, start, end)", count, iterations,
+                i -> Sexagesimal.parse(lines, starts[i], starts[i] + dms[i].length()));
+    }
+
+    private static void run(String name, final int count, int iterations, final Conversion conversion) {
+        double perRun = Bench.nanosPerOp(() -> {
+            double sum = 0.0;
+            for (int i = 0; i < count; i++) {
+                sum += conversion.run(i);
+            }
+            return sum;
+        }, 3, iterations);
+        Bench.report(name, perRun / count, 1, "values");
+    }
+}